@@ -116,6 +116,21 @@ const SendEmailsPage = () => {
         return true;
     };
 
+    const waitForCampaign = async (emailId, recipientCount) => {
+        while (true) {
+            await new Promise(resolve => setTimeout(resolve, 2000));
+            const response = await axios.get(`${API_URL}/admin/emails/${emailId}/progress`, getAuthHeader());
+            const progress = response.data;
+            if (progress.finished) {
+                return progress;
+            }
+            setMessage({
+                type: 'info',
+                text: `Se trimit email-urile: ${progress.sentCount + progress.failedCount} din ${progress.totalRecipients || recipientCount}...`
+            });
+        }
+    };
+
     const handleSubmit = async (e) => {
         e.preventDefault();
 
@@ -138,10 +153,20 @@ const SendEmailsPage = () => {
                 getAuthHeader()
             );
 
-            setMessage({
-                type: 'success',
-                text: 'Email-urile au fost trimise cu succes!'
-            });
+            // Trimiterea ruleaza in fundal; urmarim progresul pana la final
+            const progress = await waitForCampaign(response.data.emailId, response.data.recipientCount);
+
+            if (progress && progress.failedCount > 0) {
+                setMessage({
+                    type: progress.sentCount > 0 ? 'success' : 'error',
+                    text: `Au fost trimise ${progress.sentCount} din ${progress.totalRecipients} email-uri (${progress.failedCount} eșuate).`
+                });
+            } else {
+                setMessage({
+                    type: 'success',
+                    text: 'Email-urile au fost trimise cu succes!'
+                });
+            }
 
             setEmailData({
                 recipientType: 'all_users',
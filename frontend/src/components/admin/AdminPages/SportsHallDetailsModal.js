@@ -229,7 +229,7 @@ class SportsHallDetailsModal extends Component {
                                                                 onClick={() => this.setState({ currentImageIndex: index })}
                                                             >
                                                                 <img
-                                                                    src={`${this.API_BASE_URL}/images/${image.id}`}
+                                                                    src={`${this.API_BASE_URL}/images/${image.id}?size=thumbnail`}
                                                                     alt={`${hall.name} - ${index + 1}`}
                                                                 />
                                                             </div>
@@ -165,7 +165,7 @@ class ViewAllHallsPage extends Component {
         if (hall.images && hall.images.length > 0) {
             const coverImage = hall.images.find(img => img.description === 'cover');
             if (coverImage) {
-                return `${this.API_BASE_URL}/images/${coverImage.id}`;            }
+                return `${this.API_BASE_URL}/images/${coverImage.id}?size=medium`;            }
         }
         return null;
     }
@@ -63,6 +63,7 @@ const AppAdminProfilePage = () => {
         localStorage.removeItem('userType');
         localStorage.removeItem('userId');
         localStorage.removeItem('jwtToken');
+        localStorage.removeItem('refreshToken');
         setIsLoggedIn(false);
         window.location.href = '/';
     };
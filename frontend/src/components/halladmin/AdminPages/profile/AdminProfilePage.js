@@ -61,6 +61,7 @@ const AdminProfilePage = () => {
         localStorage.removeItem('userType');
         localStorage.removeItem('userId');
         localStorage.removeItem('jwtToken');
+        localStorage.removeItem('refreshToken');
         setIsLoggedIn(false);
         window.location.href = '/';
     };
@@ -1,6 +1,7 @@
 import React, { useState, useRef, useEffect } from 'react';
 import { useNavigate } from 'react-router-dom';
 import './LoginModal.css';
+import { storeTokens } from './tokenRefresh';
 
 const LoginModal = ({ isOpen, onClose, onRegisterClick, onLoginSuccess }) => {
     const API_BASE_URL = process.env.REACT_APP_API_URL || '';
@@ -144,6 +145,9 @@ const LoginModal = ({ isOpen, onClose, onRegisterClick, onLoginSuccess }) => {
                 } else if (loginResponse.status === 403) {
                     const errorData = await loginResponse.json();
                     throw new Error(errorData.message || 'Contul nu este activ sau este restricționat!');
+                } else if (loginResponse.status === 429) {
+                    const errorData = await loginResponse.json();
+                    throw new Error(errorData.message || 'Prea multe încercări. Vă rugăm să încercați din nou mai târziu.');
                 } else {
                     throw new Error('Eroare la autentificare. Vă rugăm să încercați din nou.');
                 }
@@ -155,26 +159,8 @@ const LoginModal = ({ isOpen, onClose, onRegisterClick, onLoginSuccess }) => {
                 throw new Error(loginData.message || 'Autentificare eșuată');
             }
 
-            const tokenResponse = await fetch(`${API_BASE_URL}/login/generateToken`, {
-                method: "POST",
-                headers: { "Content-Type": "application/json" },
-                body: JSON.stringify({ email, password })
-            });
-
-            if (!tokenResponse.ok) {
-                if (tokenResponse.status === 401) {
-                    throw new Error('Email sau parolă incorectă!');
-                } else if (tokenResponse.status === 403) {
-                    const errorText = await tokenResponse.text();
-                    throw new Error(errorText || 'Acces restricționat!');
-                } else {
-                    throw new Error('Eroare la generarea sesiunii. Vă rugăm să încercați din nou.');
-                }
-            }
-
-            const token = await tokenResponse.text();
-
-            localStorage.setItem('jwtToken', token);
+            // Raspunsul /login contine deja tokenurile sesiunii (parola este verificata o singura data)
+            storeTokens(loginData);
             localStorage.setItem('userId', loginData.id);
             localStorage.setItem('userType', loginData.userType);
             localStorage.setItem('isLoggedIn', 'true');
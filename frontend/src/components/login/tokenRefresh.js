@@ -0,0 +1,95 @@
+// Tokenul de acces expira dupa cateva minute; il reimprospatam cu refreshToken inainte sa expire,
+// ca paginile sa poata citi in continuare 'jwtToken' din localStorage fara alta logica.
+
+const API_BASE_URL = process.env.REACT_APP_API_URL || '';
+
+const CHECK_INTERVAL_MS = 30 * 1000;
+const REFRESH_BEFORE_EXPIRY_MS = 2 * 60 * 1000;
+// Un singur tab reimprospateaza la un moment dat; celelalte citesc tokenurile noi din localStorage
+const LOCK_KEY = 'tokenRefreshLock';
+const LOCK_TIMEOUT_MS = 15 * 1000;
+
+let started = false;
+let inFlight = null;
+
+export function storeTokens(tokens) {
+    localStorage.setItem('jwtToken', tokens.accessToken);
+    if (tokens.refreshToken) {
+        localStorage.setItem('refreshToken', tokens.refreshToken);
+    }
+}
+
+function tokenExpiry(token) {
+    try {
+        const payload = JSON.parse(atob(token.split('.')[1].replace(/-/g, '+').replace(/_/g, '/')));
+        return payload.exp ? payload.exp * 1000 : null;
+    } catch (e) {
+        return null;
+    }
+}
+
+function acquireLock() {
+    const now = Date.now();
+    const lockedAt = Number(localStorage.getItem(LOCK_KEY) || 0);
+    if (now - lockedAt < LOCK_TIMEOUT_MS) {
+        return false;
+    }
+    localStorage.setItem(LOCK_KEY, String(now));
+    return true;
+}
+
+async function refreshTokens(refreshToken) {
+    const response = await fetch(`${API_BASE_URL}/login/refresh`, {
+        method: 'POST',
+        headers: { 'Content-Type': 'application/json' },
+        body: JSON.stringify({ refreshToken })
+    });
+
+    if (response.ok) {
+        storeTokens(await response.json());
+    } else if (response.status === 401) {
+        // Sesiunea a expirat sau a fost revocata; utilizatorul se va autentifica din nou
+        localStorage.removeItem('refreshToken');
+    }
+    // 409: alt tab a rotit deja tokenul si l-a salvat in localStorage
+}
+
+export function refreshIfNeeded() {
+    const accessToken = localStorage.getItem('jwtToken');
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!accessToken || !refreshToken || inFlight) {
+        return inFlight || Promise.resolve();
+    }
+
+    const expiresAt = tokenExpiry(accessToken);
+    if (expiresAt && expiresAt - Date.now() > REFRESH_BEFORE_EXPIRY_MS) {
+        return Promise.resolve();
+    }
+    if (!acquireLock()) {
+        return Promise.resolve();
+    }
+
+    inFlight = refreshTokens(refreshToken)
+        .catch(error => console.error('Token refresh failed:', error))
+        .finally(() => {
+            localStorage.removeItem(LOCK_KEY);
+            inFlight = null;
+        });
+    return inFlight;
+}
+
+export function startTokenRefresh() {
+    if (started) {
+        return;
+    }
+    started = true;
+
+    refreshIfNeeded();
+    setInterval(refreshIfNeeded, CHECK_INTERVAL_MS);
+    // Timerele sunt incetinite in tab-urile din fundal; verificam din nou cand tab-ul revine
+    document.addEventListener('visibilitychange', () => {
+        if (document.visibilityState === 'visible') {
+            refreshIfNeeded();
+        }
+    });
+}
@@ -110,7 +110,7 @@ const FeaturedSportsHalls = ({ selectedCity }) => {
     const getCoverImage = (hall) => {
         if (hall.images && hall.images.length > 0) {
             const coverImage = hall.images.find(img => img.description === 'cover') || hall.images[0];
-            return `${API_URL}/images/${coverImage.id}`;
+            return `${API_URL}/images/${coverImage.id}?size=medium`;
         }
         return 'https://via.placeholder.com/400x250?text=Imagine+Indisponibilă';
     };
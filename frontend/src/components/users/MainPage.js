@@ -185,6 +185,7 @@ class MainPage extends React.Component {
         localStorage.removeItem('userType');
         localStorage.removeItem('userId');
         localStorage.removeItem('jwtToken');
+        localStorage.removeItem('refreshToken');
         this.setState({
             isLoggedIn: false
         });
@@ -206,6 +206,7 @@ const SportsHallDetailPage = () => {
         localStorage.removeItem('userType');
         localStorage.removeItem('userId');
         localStorage.removeItem('jwtToken');
+        localStorage.removeItem('refreshToken');
         setIsLoggedIn(false);
         window.location.href = '/';
     };
@@ -236,9 +237,9 @@ const SportsHallDetailPage = () => {
         setIsReservationModalOpen(false);
     };
 
-    const getImageUrl = (image) => {
+    const getImageUrl = (image, size = 'full') => {
         if (!image) return 'https://via.placeholder.com/800x500?text=Imagine+Indisponibilă';
-        return `${API_URL}/images/${image.id}`;
+        return `${API_URL}/images/${image.id}?size=${size}`;
     };
 
     const nextImage = () => {
@@ -420,7 +421,7 @@ const SportsHallDetailPage = () => {
                                 {sportsHall.images.map((image, index) => (
                                     <img
                                         key={image.id}
-                                        src={getImageUrl(image)}
+                                        src={getImageUrl(image, 'thumbnail')}
                                         alt={`Thumbnail ${index + 1}`}
                                         className={`detail-thumbnail ${index === currentImageIndex ? 'active' : ''}`}
                                         onClick={() => selectImage(index)}
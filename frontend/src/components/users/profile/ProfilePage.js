@@ -64,6 +64,7 @@ const ProfilePage = () => {
         localStorage.removeItem('userType');
         localStorage.removeItem('userId');
         localStorage.removeItem('jwtToken');
+        localStorage.removeItem('refreshToken');
         setIsLoggedIn(false);
         window.location.href = '/';
     };
@@ -160,6 +160,7 @@ const ReservationsPage = () => {
         localStorage.removeItem('userType');
         localStorage.removeItem('userId');
         localStorage.removeItem('jwtToken');
+        localStorage.removeItem('refreshToken');
         setIsLoggedIn(false);
         window.location.href = '/';
     };
@@ -0,0 +1,119 @@
+package licenta.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.FilterChain;
+import licenta.jwtservice.JwtService;
+import licenta.jwtservice.UserInfoDetails;
+import licenta.jwtservice.UserInfoService;
+import licenta.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debitul JwtAuthFilter pentru o cerere autentificata cu un token de acces (principalul vine din claim-uri).
+ * cacheSize=0 masoara o singura parsare pe cerere, cacheSize=1024 reutilizarea tokenului verificat;
+ * legacyTripleParse reproduce vechea validare (cheie si parser noi, trei parsari).
+ * Rulare: ./gradlew jmh -PjmhArgs="JwtAuthFilterBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthFilterBenchmark {
+
+    private static final String SECRET = "YmVuY2htYXJrLXNlY3JldC1mb3ItdGhlLWp3dC1hdXRoLWZpbHRlci0wMTIzNDU2Nzg5";
+    private static final String EMAIL = "bench@example.com";
+
+    @Param({"0", "1024"})
+    private int cacheSize;
+
+    private JwtAuthFilter filter;
+    private String token;
+    private String authorizationHeader;
+    private UserDetails userDetails;
+    private FilterChain chain;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET", SECRET);
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", cacheSize);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        user.setPassword("hash");
+        user.setUserType("user");
+        user.setAccountStatus("verified");
+        userDetails = new UserInfoDetails(user);
+
+        filter = new JwtAuthFilter(jwtService, new InMemoryUserInfoService(userDetails));
+        token = jwtService.generateAccessToken(user);
+        authorizationHeader = "Bearer " + token;
+        chain = (request, response) -> { };
+    }
+
+    @Benchmark
+    public Authentication filterRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations/user");
+        request.addHeader("Authorization", authorizationHeader);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public boolean legacyTripleParse() {
+        String username = legacyClaims(token).getSubject();
+        UserDetails loaded = userDetails;
+        return legacyClaims(token).getSubject().equals(loaded.getUsername())
+                && username != null
+                && !legacyClaims(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyClaims(String token) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    }
+
+    private static final class InMemoryUserInfoService extends UserInfoService {
+        private final UserDetails userDetails;
+
+        private InMemoryUserInfoService(UserDetails userDetails) {
+            super(null);
+            this.userDetails = userDetails;
+        }
+
+        @Override
+        public UserDetails loadCachedUserByUsername(String username) {
+            return userDetails;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package licenta.service;
+
+import licenta.model.Payment;
+import licenta.model.PaymentMethod;
+import licenta.model.PaymentStatus;
+import licenta.model.Reservation;
+import licenta.model.SportsHall;
+import licenta.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Debitul randarii emailurilor de confirmare (o rezervare fara plata, ca la alocator, si un digest cu plata).
+ * Rulare: ./gradlew jmh -PjmhArgs="ReservationEmailRenderBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservationEmailRenderBenchmark {
+
+    @Param({"1", "7"})
+    private int reservationCount;
+
+    private User user;
+    private List<Reservation> reservations;
+    private Payment payment;
+
+    @Setup
+    public void setUp() {
+        user = new User();
+        user.setName("Echipa Test");
+        user.setEmail("echipa@test.com");
+
+        reservations = new ArrayList<>(reservationCount);
+        LocalDate monday = LocalDate.of(2025, 6, 2);
+        for (int i = 0; i < reservationCount; i++) {
+            SportsHall hall = new SportsHall();
+            hall.setName("Sala " + i);
+            hall.setAddress("Strada Sportului " + i + ", Cluj-Napoca");
+            hall.setDescription("Vestiare, dusuri, parchet");
+            hall.setPhoneNumber("07400000" + i);
+
+            Reservation reservation = new Reservation();
+            reservation.setHall(hall);
+            reservation.setDate(Date.from(monday.plusDays(i).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+            reservation.setTimeSlot("17:30 - 19:00");
+            reservation.setPrice(120.5f);
+            reservations.add(reservation);
+        }
+
+        payment = new Payment();
+        payment.setId(1001L);
+        payment.setTotalAmount(BigDecimal.valueOf(120.5 * reservationCount));
+        payment.setPaymentMethod(PaymentMethod.CARD);
+        payment.setStatus(PaymentStatus.values()[0]);
+        payment.setPaymentDate(LocalDateTime.of(2025, 6, 1, 10, 30));
+    }
+
+    @Benchmark
+    public String confirmationWithoutPayment() {
+        return ReservationEmailService.buildReservationEmailContent(user, reservations, null);
+    }
+
+    @Benchmark
+    public String confirmationWithPayment() {
+        return ReservationEmailService.buildReservationEmailContent(user, reservations, payment);
+    }
+}
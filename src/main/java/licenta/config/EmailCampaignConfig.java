@@ -0,0 +1,29 @@
+package licenta.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class EmailCampaignConfig {
+
+    /**
+     * Firele care trimit campaniile de email ale administratorilor. Fiecare fir tine deschisa cel mult o
+     * conexiune SMTP, deci numarul de fire este si limita de conexiuni paralele catre serverul de email.
+     */
+    @Bean(name = "emailCampaignExecutor", destroyMethod = "shutdown")
+    public ExecutorService emailCampaignExecutor(@Value("${email.campaign.connections:3}") int connections,
+                                                 @Value("${email.campaign.queue-capacity:20}") int queueCapacity,
+                                                 Environment environment) {
+        ThreadFactory threadFactory = ExecutorThreads.forBlockingIo("email-campaign-", environment);
+        return new ThreadPoolExecutor(connections, connections, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,29 @@
+package licenta.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class EmailOutboxConfig {
+
+    /**
+     * Firele care trimit efectiv emailurile din outbox. Coada este mica: emailurile raman oricum in
+     * baza de date, asa ca o coada plina doar amana preluarea lor la urmatoarea trecere a dispatcher-ului.
+     */
+    @Bean(name = "emailDispatchExecutor", destroyMethod = "shutdown")
+    public ExecutorService emailDispatchExecutor(@Value("${email.outbox.threads:2}") int threads,
+                                                 @Value("${email.outbox.batch-size:50}") int batchSize,
+                                                 Environment environment) {
+        ThreadFactory threadFactory = ExecutorThreads.forBlockingIo("email-dispatch-", environment);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(batchSize), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,38 @@
+package licenta.config;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fabricile de fire pentru executoarele aplicatiei.
+ * Cu spring.threads.virtual.enabled=true (pe Java 21+), executoarele care asteapta dupa retea (SMTP) folosesc
+ * fire virtuale, ca si cererile HTTP; numarul de fire din pool ramane limita de conexiuni paralele.
+ */
+final class ExecutorThreads {
+
+    private ExecutorThreads() {
+    }
+
+    static ThreadFactory platform(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Fire virtuale daca modul virtual este activ, altfel fire de platforma daemon
+     */
+    static ThreadFactory forBlockingIo(String namePrefix, Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory();
+        }
+        return platform(namePrefix);
+    }
+}
@@ -0,0 +1,29 @@
+package licenta.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ImageProcessingConfig {
+
+    /**
+     * Pool mic si marginit pentru redimensionarea imaginilor: o poza decodata poate ocupa zeci de MB,
+     * asa ca numarul de decodari simultane este limitat. Cand coada e plina, sarcina este respinsa
+     * (RejectedExecutionException), nu rulata pe firul cererii.
+     * Ramane pe fire de platforma si cu spring.threads.virtual.enabled: decodarea ocupa procesorul, nu asteapta.
+     */
+    @Bean(name = "imageProcessingExecutor", destroyMethod = "shutdown")
+    public ExecutorService imageProcessingExecutor(@Value("${images.processing.threads:2}") int threads,
+                                                   @Value("${images.processing.queue-capacity:100}") int queueCapacity) {
+        ThreadFactory threadFactory = ExecutorThreads.platform("image-processing-");
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+    }
+}
@@ -0,0 +1,51 @@
+package licenta.config;
+
+import licenta.service.TokenBucketLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RateLimitConfig {
+
+    /**
+     * Incercari de autentificare per adresa IP: opreste un client care incearca multe conturi (credential stuffing)
+     */
+    @Bean(name = "loginIpLimiter")
+    public TokenBucketLimiter loginIpLimiter(@Value("${security.rate-limit.login.ip.capacity:20}") int capacity,
+                                             @Value("${security.rate-limit.login.ip.refill-per-minute:10}") double refillPerMinute,
+                                             @Value("${security.rate-limit.stripes:16}") int stripes,
+                                             @Value("${security.rate-limit.max-keys:10000}") int maxKeys) {
+        return new TokenBucketLimiter(capacity, refillPerMinute, stripes, maxKeys);
+    }
+
+    /**
+     * Incercari de autentificare per email: opreste ghicirea parolei unui cont de pe multe adrese IP
+     */
+    @Bean(name = "loginEmailLimiter")
+    public TokenBucketLimiter loginEmailLimiter(@Value("${security.rate-limit.login.email.capacity:10}") int capacity,
+                                                @Value("${security.rate-limit.login.email.refill-per-minute:5}") double refillPerMinute,
+                                                @Value("${security.rate-limit.stripes:16}") int stripes,
+                                                @Value("${security.rate-limit.max-keys:10000}") int maxKeys) {
+        return new TokenBucketLimiter(capacity, refillPerMinute, stripes, maxKeys);
+    }
+
+    @Bean(name = "passwordResetIpLimiter")
+    public TokenBucketLimiter passwordResetIpLimiter(@Value("${security.rate-limit.password-reset.ip.capacity:5}") int capacity,
+                                                    @Value("${security.rate-limit.password-reset.ip.refill-per-minute:2}") double refillPerMinute,
+                                                    @Value("${security.rate-limit.stripes:16}") int stripes,
+                                                    @Value("${security.rate-limit.max-keys:10000}") int maxKeys) {
+        return new TokenBucketLimiter(capacity, refillPerMinute, stripes, maxKeys);
+    }
+
+    /**
+     * Emailuri de resetare per cont: evita inundarea unei casute postale (si a serverului SMTP)
+     */
+    @Bean(name = "passwordResetEmailLimiter")
+    public TokenBucketLimiter passwordResetEmailLimiter(@Value("${security.rate-limit.password-reset.email.capacity:3}") int capacity,
+                                                        @Value("${security.rate-limit.password-reset.email.refill-per-minute:0.2}") double refillPerMinute,
+                                                        @Value("${security.rate-limit.stripes:16}") int stripes,
+                                                        @Value("${security.rate-limit.max-keys:10000}") int maxKeys) {
+        return new TokenBucketLimiter(capacity, refillPerMinute, stripes, maxKeys);
+    }
+}
@@ -116,6 +116,9 @@ public class SecurityConfig {
                         // Endpoint pentru FCFS status
                         .requestMatchers("/fcfs/**").permitAll()
 
+                        // Metricile aplicatiei (ex. respingerile limitarii de rata) doar pentru admini
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAuthority("admin")
+
                         // Endpoint pentru health check
                         .requestMatchers("/health", "/", "/api", "/ping").permitAll()
 
@@ -5,7 +5,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import licenta.jwtservice.JwtService;
+import licenta.jwtservice.UserInfoDetails;
 import licenta.jwtservice.UserInfoService;
+import licenta.jwtservice.VerifiedToken;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +20,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Optional;
 
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -57,36 +60,33 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        // Log pentru debugging
-        logger.info("Processing request: {} {}", request.getMethod(), request.getRequestURI());
+        logger.debug("Processing request: {} {}", request.getMethod(), request.getRequestURI());
 
         String authHeader = request.getHeader("Authorization");
-        logger.info("Authorization header: {}", authHeader != null ? "present" : "missing");
-
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            logger.warn("No valid Authorization header found");
+            logger.debug("No valid Authorization header found");
             filterChain.doFilter(request, response);
             return;
         }
 
         try {
-            String token = authHeader.substring(7);
-            String username = jwtService.extractUsername(token);
-            logger.info("Extracted username: {}", username);
-
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                // Log pentru debugging
-                logger.info("User authorities: {}", userDetails.getAuthorities());
-                logger.info("Request path: {}, method: {}", request.getRequestURI(), request.getMethod());
+            // O singura verificare a semnaturii per cerere (sau niciuna, daca tokenul a fost verificat recent)
+            Optional<VerifiedToken> verified = jwtService.verify(authHeader.substring(7));
+            if (verified.isEmpty()) {
+                logger.warn("Invalid or expired JWT token for {} {}", request.getMethod(), request.getRequestURI());
+            } else if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                String username = verified.get().getUsername();
+                // Tokenurile de acces poarta id-ul, tipul si statusul contului; cele vechi (doar subiect) trec prin cache/DB
+                UserDetails userDetails = verified.get().hasUserClaims()
+                        ? new UserInfoDetails(verified.get())
+                        : userDetailsService.loadCachedUserByUsername(username);
 
-                if (jwtService.validateToken(token, userDetails)) {
+                if (username.equals(userDetails.getUsername())) {
                     UsernamePasswordAuthenticationToken authToken =
                             new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.info("Successfully authenticated user: {} with authorities: {}", username, userDetails.getAuthorities());
+                    logger.debug("Authenticated user: {} with authorities: {}", username, userDetails.getAuthorities());
                 } else {
                     logger.warn("Token validation failed for user: {}", username);
                 }
@@ -97,4 +97,4 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+}
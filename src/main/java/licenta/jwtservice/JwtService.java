@@ -1,10 +1,13 @@
 package licenta.jwtservice;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import licenta.model.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
@@ -13,27 +16,86 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Function;
 
 @Component
 public class JwtService {
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_USER_TYPE = "type";
+    static final String CLAIM_ACCOUNT_STATUS = "status";
+
     @Value("${JWT_SECRET}")
     private String SECRET;
+
+    // Tokenul de acces traieste putin; sesiunea continua prin /login/refresh (vezi RefreshTokenService)
+    @Value("${jwt.access-token.ttl-ms:900000}")
+    private long accessTokenTtlMs = 900_000;
+
+    @Value("${jwt.verified-cache.max-size:1024}")
+    private int verifiedCacheSize = 1024;
+
+    // Cheia, parserul si cache-ul se construiesc o singura data, la prima folosire
+    private volatile Verifier verifier;
+
     public String generateToken(String userName) {
         Map<String, Object> claims = new HashMap<>();
         return createToken(claims, userName);
     }
 
+    /**
+     * Token de acces cu id-ul, tipul si statusul contului, ca filtrul si controller-ele sa nu mai citeasca
+     * utilizatorul din baza de date la fiecare cerere
+     */
+    public String generateAccessToken(User user) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, user.getId());
+        claims.put(CLAIM_USER_TYPE, user.getUserType());
+        claims.put(CLAIM_ACCOUNT_STATUS, user.getAccountStatus());
+        return createToken(claims, user.getEmail());
+    }
+
+    public long getAccessTokenTtlMillis() {
+        return accessTokenTtlMs;
+    }
+
     private String createToken(Map<String, Object> claims, String userName) {
-        return Jwts.builder().setClaims(claims).setSubject(userName).setIssuedAt(new Date())
-                // Change from 30 minutes to 24 hours
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 24))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256).compact();
+        long now = System.currentTimeMillis();
+        return Jwts.builder().setClaims(claims).setSubject(userName).setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenTtlMs))
+                .signWith(verifier().key, SignatureAlgorithm.HS256).compact();
     }
 
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(this.SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Verifica semnatura si expirarea cu o singura parsare. Un token verificat recent este luat din cache
+     * fara a recalcula HMAC-ul. Intoarce Optional.empty() pentru orice token invalid sau expirat.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Verifier current = verifier();
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = current.cache.get(token, now);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        try {
+            Claims claims = current.parser.parseClaimsJws(token).getBody();
+            if (claims.getSubject() == null || claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            VerifiedToken verified = new VerifiedToken(claims.getSubject(), claims.getExpiration().getTime(),
+                    claims.get(CLAIM_USER_ID, Long.class),
+                    claims.get(CLAIM_USER_TYPE, String.class),
+                    claims.get(CLAIM_ACCOUNT_STATUS, String.class));
+            current.cache.put(token, verified, now);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
     }
 
     public String extractUsername(String token) {
@@ -50,16 +112,38 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(getSignKey()).build()
-                .parseClaimsJws(token).getBody();
+        return verifier().parser.parseClaimsJws(token).getBody();
+    }
+
+    public Boolean validateToken(String token, UserDetails userDetails) {
+        return verify(token)
+                .map(verified -> verified.getUsername().equals(userDetails.getUsername()))
+                .orElse(false);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Verifier verifier() {
+        Verifier current = verifier;
+        if (current == null) {
+            synchronized (this) {
+                current = verifier;
+                if (current == null) {
+                    current = new Verifier(Keys.hmacShaKeyFor(Decoders.BASE64.decode(this.SECRET)), verifiedCacheSize);
+                    verifier = current;
+                }
+            }
+        }
+        return current;
     }
 
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    private static final class Verifier {
+        private final Key key;
+        private final JwtParser parser;
+        private final VerifiedTokenCache cache;
+
+        private Verifier(Key key, int cacheSize) {
+            this.key = key;
+            this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+            this.cache = new VerifiedTokenCache(cacheSize);
+        }
     }
-}
\ No newline at end of file
+}
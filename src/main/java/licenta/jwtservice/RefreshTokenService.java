@@ -0,0 +1,179 @@
+package licenta.jwtservice;
+
+import licenta.model.RefreshToken;
+import licenta.model.User;
+import licenta.persistence.IRefreshTokenRepository;
+import licenta.persistence.IUserSpringRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tokenurile de reimprospatare: opace (32 de octeti aleatori), pastrate doar ca hash si rotite la fiecare folosire.
+ * Un token deja rotit, prezentat din nou dupa perioada de gratie, este tratat ca furat si revoca toata sesiunea.
+ * Perioada de gratie acopera doua tab-uri care reimprospateaza in acelasi timp: a doua cerere primeste
+ * {@link Outcome#ALREADY_ROTATED} si foloseste tokenul salvat de prima.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    public enum Outcome {
+        ROTATED,
+        ALREADY_ROTATED,
+        INVALID
+    }
+
+    /**
+     * Rezultatul unei reimprospatari; user si refreshToken sunt completate doar pentru ROTATED
+     */
+    public static final class Rotation {
+        private final Outcome outcome;
+        private final User user;
+        private final String refreshToken;
+
+        private Rotation(Outcome outcome, User user, String refreshToken) {
+            this.outcome = outcome;
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public static Rotation of(Outcome outcome) {
+            return new Rotation(outcome, null, null);
+        }
+
+        public static Rotation rotated(User user, String refreshToken) {
+            return new Rotation(Outcome.ROTATED, user, refreshToken);
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public String getRefreshToken() {
+            return refreshToken;
+        }
+    }
+
+    private final IRefreshTokenRepository refreshTokenRepository;
+    private final IUserSpringRepository userRepository;
+    private final SecureRandom random = new SecureRandom();
+
+    @Value("${jwt.refresh-token.ttl-ms:1209600000}")
+    private long refreshTokenTtlMs = Duration.ofDays(14).toMillis();
+
+    @Value("${jwt.refresh-token.reuse-grace-ms:10000}")
+    private long reuseGraceMs = 10_000;
+
+    @Autowired
+    public RefreshTokenService(IRefreshTokenRepository refreshTokenRepository, IUserSpringRepository userRepository) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Incepe o sesiune noua (o familie noua de tokenuri) pentru utilizator; intoarce tokenul in clar
+     */
+    public String issue(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.deleteExpiredByUserId(user.getId(), now);
+        return save(user.getId(), UUID.randomUUID().toString(), now);
+    }
+
+    /**
+     * Consuma tokenul si emite urmatorul din aceeasi familie. Utilizatorul este recitit, asa ca un cont
+     * suspendat sau respins intre timp nu mai primeste tokenuri.
+     */
+    public Rotation rotate(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return Rotation.of(Outcome.INVALID);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Optional<RefreshToken> tokenOpt = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (tokenOpt.isEmpty()) {
+            return Rotation.of(Outcome.INVALID);
+        }
+
+        RefreshToken token = tokenOpt.get();
+        if (token.isRevoked() || token.isExpired(now)) {
+            return Rotation.of(Outcome.INVALID);
+        }
+        if (token.getUsedAt() != null) {
+            return reused(token, now);
+        }
+        if (refreshTokenRepository.markUsed(token.getId(), now) == 0) {
+            // O cerere concurenta tocmai l-a folosit
+            return Rotation.of(Outcome.ALREADY_ROTATED);
+        }
+
+        Optional<User> userOpt = userRepository.findById(token.getUserId());
+        if (userOpt.isEmpty() || !isActive(userOpt.get())) {
+            refreshTokenRepository.revokeAllByUserId(token.getUserId());
+            return Rotation.of(Outcome.INVALID);
+        }
+
+        String next = save(token.getUserId(), token.getFamilyId(), now);
+        return Rotation.rotated(userOpt.get(), next);
+    }
+
+    /**
+     * Inchide toate sesiunile utilizatorului (de exemplu dupa schimbarea parolei)
+     */
+    public void revokeAll(Long userId) {
+        if (userId != null) {
+            refreshTokenRepository.revokeAllByUserId(userId);
+        }
+    }
+
+    static boolean isActive(User user) {
+        return "active".equals(user.getAccountStatus()) || "verified".equals(user.getAccountStatus());
+    }
+
+    private Rotation reused(RefreshToken token, LocalDateTime now) {
+        if (!now.isAfter(token.getUsedAt().plus(Duration.ofMillis(reuseGraceMs)))) {
+            return Rotation.of(Outcome.ALREADY_ROTATED);
+        }
+        logger.warn("Refresh token reuse detected for user {}, revoking session {}", token.getUserId(), token.getFamilyId());
+        refreshTokenRepository.revokeFamily(token.getFamilyId());
+        return Rotation.of(Outcome.INVALID);
+    }
+
+    private String save(Long userId, String familyId, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), userId, familyId, now,
+                now.plus(Duration.ofMillis(refreshTokenTtlMs))));
+        return rawToken;
+    }
+
+    static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package licenta.jwtservice;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * UserDetails folosite de filtrul JWT, pastrate pe email cateva zeci de secunde, ca o cerere autentificata
+ * sa nu mai interogheze tabela users inainte de controller. Controller-ele care schimba tipul, statusul sau
+ * parola unui cont apeleaza {@link #evict(String)}; TTL-ul limiteaza cat poate ramane o modificare nevazuta
+ * (de exemplu una facuta direct in baza de date). Dimensiunea este limitata.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final long ttlMillis;
+    private final int maxSize;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    // Creste la fiecare invalidare; o incarcare inceputa inainte de invalidare nu mai este pastrata
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public UserDetailsCache(@Value("${security.user-cache.ttl-ms:60000}") long ttlMillis,
+                            @Value("${security.user-cache.max-size:1000}") int maxSize) {
+        this(ttlMillis, maxSize, System::currentTimeMillis);
+    }
+
+    UserDetailsCache(long ttlMillis, int maxSize, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.maxSize = Math.max(0, maxSize);
+        this.clock = clock;
+    }
+
+    /**
+     * UserDetails din cache sau, daca lipsesc ori au expirat, cele intoarse de loader (exceptiile lui se propaga
+     * si nu se pastreaza nimic)
+     */
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        long now = clock.getAsLong();
+        Entry entry = entries.get(email);
+        if (entry != null && now < entry.expiresAt) {
+            return entry.userDetails;
+        }
+
+        long generation = invalidations.get();
+        UserDetails loaded = loader.apply(email);
+        if (maxSize > 0 && ttlMillis > 0) {
+            if (entries.size() >= maxSize) {
+                evictOverflow(now);
+            }
+            entries.put(email, new Entry(loaded, now + ttlMillis));
+            if (invalidations.get() != generation) {
+                // Contul a fost modificat cat timp se incarca; valoarea poate fi deja veche
+                entries.remove(email);
+            }
+        }
+        return loaded;
+    }
+
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        invalidations.incrementAndGet();
+        entries.remove(email);
+    }
+
+    public void clear() {
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evictOverflow(long now) {
+        entries.values().removeIf(entry -> now >= entry.expiresAt);
+        Iterator<String> iterator = entries.keySet().iterator();
+        int toRemove = entries.size() - maxSize * 3 / 4;
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private static final class Entry {
+        private final UserDetails userDetails;
+        private final long expiresAt;
+
+        private Entry(UserDetails userDetails, long expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
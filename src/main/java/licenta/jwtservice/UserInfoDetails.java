@@ -1,38 +1,64 @@
 package licenta.jwtservice;
 
 import licenta.model.User;
+import licenta.model.dtos.UserAuthInfo;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 public class UserInfoDetails implements UserDetails {
+    private Long userId;
     private String username;
     private String password;
+    private String userType;
     private List<GrantedAuthority> authorities;
     private boolean accountNonLocked = true;
 
     public UserInfoDetails(User user) {
-        this.username = user.getEmail();
-        this.password = user.getPassword();
+        this(user.getId(), user.getEmail(), user.getPassword(), user.getUserType(), user.getAccountStatus());
+    }
+
+    /**
+     * Varianta fara parola, construita din proiectia folosita de filtrul JWT
+     */
+    public UserInfoDetails(UserAuthInfo authInfo) {
+        this(authInfo.getId(), authInfo.getEmail(), null, authInfo.getUserType(), authInfo.getAccountStatus());
+    }
+
+    /**
+     * Varianta fara parola, construita direct din claim-urile unui token de acces (fara baza de date)
+     */
+    public UserInfoDetails(VerifiedToken token) {
+        this(token.getUserId(), token.getUsername(), null, token.getUserType(), token.getAccountStatus());
+    }
+
+    private UserInfoDetails(Long userId, String email, String password, String userType, String accountStatus) {
+        this.userId = userId;
+        this.username = email;
+        this.password = password;
+        this.userType = userType;
 
         List<String> authList = new ArrayList<>();
-        if (user.getUserType() != null) {
-            if (user.getUserType().contains(",")) {
-                String[] types = user.getUserType().split(",");
+        if (userType != null) {
+            if (userType.contains(",")) {
+                String[] types = userType.split(",");
                 for (String type : types) {
                     authList.add(type.trim());
                 }
             } else {
-                authList.add(user.getUserType().trim());
+                authList.add(userType.trim());
             }
         }
 
-        if (user.getAccountStatus() != null && user.getAccountStatus().equals("rejected")) {
+        if (accountStatus != null && accountStatus.equals("rejected")) {
             this.accountNonLocked = false;
         }
 
@@ -41,6 +67,25 @@ public class UserInfoDetails implements UserDetails {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Utilizatorul cererii curente, daca a fost autentificat de JwtAuthFilter
+     */
+    public static Optional<UserInfoDetails> current() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserInfoDetails details) {
+            return Optional.of(details);
+        }
+        return Optional.empty();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return authorities;
@@ -18,6 +18,9 @@ public class UserInfoService implements UserDetailsService {
     @Autowired
     private IUserSpringRepository repository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
     private final PasswordEncoder encoder;
 
     @Autowired
@@ -32,6 +35,23 @@ public class UserInfoService implements UserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
     }
 
+    /**
+     * Varianta folosita de filtrul JWT: UserDetails fara parola, citite printr-o proiectie si pastrate in
+     * {@link UserDetailsCache}. Login-ul (verificarea parolei) foloseste in continuare {@link #loadUserByUsername}.
+     */
+    public UserDetails loadCachedUserByUsername(String username) throws UsernameNotFoundException {
+        if (userDetailsCache == null) {
+            return loadAuthInfo(username);
+        }
+        return userDetailsCache.get(username, this::loadAuthInfo);
+    }
+
+    private UserDetails loadAuthInfo(String username) {
+        return repository.findAuthInfoByEmail(username)
+                .<UserDetails>map(UserInfoDetails::new)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
     public String addUser(User user) {
         user.setPassword(encoder.encode(user.getPassword()));
         user.setUserType("user");
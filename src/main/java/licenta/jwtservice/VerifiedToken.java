@@ -0,0 +1,58 @@
+package licenta.jwtservice;
+
+/**
+ * Datele unui token a carui semnatura a fost deja verificata: subiectul (emailul), momentul expirarii si,
+ * pentru tokenurile de acces, id-ul, tipul si statusul contului de la emitere.
+ * Se obtine dintr-o singura parsare, asa ca filtrul nu mai citeste claim-urile de mai multe ori.
+ */
+public final class VerifiedToken {
+
+    private final String username;
+    private final long expiresAtMillis;
+    private final Long userId;
+    private final String userType;
+    private final String accountStatus;
+
+    VerifiedToken(String username, long expiresAtMillis) {
+        this(username, expiresAtMillis, null, null, null);
+    }
+
+    VerifiedToken(String username, long expiresAtMillis, Long userId, String userType, String accountStatus) {
+        this.username = username;
+        this.expiresAtMillis = expiresAtMillis;
+        this.userId = userId;
+        this.userType = userType;
+        this.accountStatus = accountStatus;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserType() {
+        return userType;
+    }
+
+    public String getAccountStatus() {
+        return accountStatus;
+    }
+
+    /**
+     * Tokenurile emise inainte de claim-uri contin doar subiectul; pentru ele utilizatorul se citeste din baza de date
+     */
+    public boolean hasUserClaims() {
+        return userId != null && userType != null;
+    }
+
+    public long getExpiresAtMillis() {
+        return expiresAtMillis;
+    }
+
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
@@ -0,0 +1,117 @@
+package licenta.jwtservice;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokenurile verificate recent, indexate dupa SHA-256 al tokenului (tokenul in sine nu se pastreaza).
+ * O intrare este folosita doar pana la expirarea tokenului; cand cache-ul se umple se scot intai
+ * intrarile expirate, apoi cateva intrari oarecare. Cu dimensiunea 0 cache-ul este dezactivat.
+ */
+final class VerifiedTokenCache {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final int maxSize;
+    private final Map<Digest, VerifiedToken> entries;
+
+    VerifiedTokenCache(int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        this.entries = new ConcurrentHashMap<>(Math.max(16, this.maxSize * 4 / 3 + 1));
+    }
+
+    /**
+     * Tokenul verificat anterior si inca valid la momentul dat, sau null
+     */
+    VerifiedToken get(String token, long nowMillis) {
+        if (maxSize == 0) {
+            return null;
+        }
+        Digest digest = Digest.of(token);
+        VerifiedToken verified = entries.get(digest);
+        if (verified == null) {
+            return null;
+        }
+        if (verified.isExpired(nowMillis)) {
+            entries.remove(digest, verified);
+            return null;
+        }
+        return verified;
+    }
+
+    void put(String token, VerifiedToken verified, long nowMillis) {
+        if (maxSize == 0 || verified.isExpired(nowMillis)) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict(nowMillis);
+        }
+        entries.put(Digest.of(token), verified);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long nowMillis) {
+        entries.values().removeIf(entry -> entry.isExpired(nowMillis));
+        // Daca tot e plin, se elibereaza un sfert din cache, ca evacuarea sa nu ruleze la fiecare put
+        Iterator<Digest> iterator = entries.keySet().iterator();
+        int toRemove = entries.size() - maxSize * 3 / 4;
+        while (toRemove-- > 0 && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Cei 32 de octeti ai SHA-256, pastrati ca patru long-uri
+     */
+    private static final class Digest {
+        private final long a;
+        private final long b;
+        private final long c;
+        private final long d;
+
+        private Digest(long a, long b, long c, long d) {
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.d = d;
+        }
+
+        static Digest of(String token) {
+            byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII));
+            return new Digest(toLong(hash, 0), toLong(hash, 8), toLong(hash, 16), toLong(hash, 24));
+        }
+
+        private static long toLong(byte[] bytes, int offset) {
+            long value = 0;
+            for (int i = offset; i < offset + 8; i++) {
+                value = value << 8 | (bytes[i] & 0xFF);
+            }
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Digest digest && a == digest.a && b == digest.b && c == digest.c && d == digest.d;
+        }
+
+        @Override
+        public int hashCode() {
+            // Octetii unui hash criptografic sunt deja uniform distribuiti
+            return (int) a;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package licenta.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Setari globale ale aplicatiei, cate un rand per cheie (ex. statusul global FCFS)
+ */
+@Entity
+@Table(name = "app_settings")
+public class AppSetting {
+
+    @Id
+    @Column(name = "setting_key", nullable = false, length = 100)
+    private String key;
+
+    @Column(name = "setting_value", nullable = false)
+    private String value;
+
+    @Column(name = "updated_at")
+    private Date updatedAt;
+
+    public AppSetting() {
+    }
+
+    public AppSetting(String key, String value) {
+        this.key = key;
+        this.value = value;
+        this.updatedAt = new Date();
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public void setValue(String value) {
+        this.value = value;
+    }
+
+    public Date getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Date updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
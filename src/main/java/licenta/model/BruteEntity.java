@@ -5,8 +5,10 @@ import java.io.Serializable;
 
 @MappedSuperclass
 public class BruteEntity<ID extends Serializable> implements Serializable {
+    // Secventa per tabela (<tabela>_seq, pas 50): id-urile se aloca in blocuri, fara SELECT dupa fiecare INSERT,
+    // ceea ce permite Hibernate sa grupeze INSERT-urile in batch-uri JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     protected ID id;
 
     public BruteEntity() {
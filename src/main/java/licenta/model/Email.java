@@ -28,7 +28,17 @@ public class Email extends BruteEntity<Long> {
     private String createdBy;
 
     @Column(name = "status", nullable = false)
-    private String status;  // SENT, FAILED
+    private String status;  // SENDING, SENT, PARTIAL, FAILED, INTERRUPTED
+
+    // Contoarele campaniei; completate cand trimiterea in fundal se termina
+    @Column(name = "total_recipients")
+    private Integer totalRecipients;
+
+    @Column(name = "sent_count")
+    private Integer sentCount;
+
+    @Column(name = "failed_count")
+    private Integer failedCount;
 
     @OneToMany(mappedBy = "email", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<EmailRecipient> recipients = new ArrayList<>();
@@ -104,6 +114,30 @@ public class Email extends BruteEntity<Long> {
         this.status = status;
     }
 
+    public Integer getTotalRecipients() {
+        return totalRecipients;
+    }
+
+    public void setTotalRecipients(Integer totalRecipients) {
+        this.totalRecipients = totalRecipients;
+    }
+
+    public Integer getSentCount() {
+        return sentCount;
+    }
+
+    public void setSentCount(Integer sentCount) {
+        this.sentCount = sentCount;
+    }
+
+    public Integer getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(Integer failedCount) {
+        this.failedCount = failedCount;
+    }
+
     public List<EmailRecipient> getRecipients() {
         return recipients;
     }
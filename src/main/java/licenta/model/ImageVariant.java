@@ -0,0 +1,32 @@
+package licenta.model;
+
+import java.util.Locale;
+
+/**
+ * Variantele redimensionate ale unei imagini de sala; latura cea mai mare nu depaseste maxDimension pixeli
+ */
+public enum ImageVariant {
+    THUMBNAIL(320),
+    MEDIUM(960),
+    FULL(1920);
+
+    private final int maxDimension;
+
+    ImageVariant(int maxDimension) {
+        this.maxDimension = maxDimension;
+    }
+
+    public int getMaxDimension() {
+        return maxDimension;
+    }
+
+    /**
+     * Varianta ceruta prin parametrul size ("thumbnail", "medium", "full"); null pentru originalul incarcat
+     */
+    public static ImageVariant fromParam(String size) {
+        if (size == null || size.isBlank() || "original".equalsIgnoreCase(size)) {
+            return null;
+        }
+        return valueOf(size.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -4,9 +4,15 @@ import jakarta.persistence.*;
 import java.util.Date;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        @Index(name = "idx_reservations_hall_date_slot", columnList = "hall_id, date, time_slot"),
+        @Index(name = "idx_reservations_user_type", columnList = "user_id, type")
+})
 public class Reservation extends BruteEntity<Long> {
 
+    // Index unic partial pe (hall_id, ziua, time_slot) pentru rezervarile ne-anulate, creat din schema.sql
+    public static final String ACTIVE_SLOT_UNIQUE_INDEX = "uq_reservations_active_slot";
+
     @ManyToOne
     @JoinColumn(name = "hall_id")
     private SportsHall hall;
@@ -0,0 +1,61 @@
+package licenta.model;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Categoria de sport a unei sali, calculata din tipul ei la salvare (coloana sport_category).
+ * Salile de inot si cele polivalente au categorii fixe; celelalte folosesc tipul normalizat
+ * (litere mici, fara diacritice), ex. "Fotbal" -> "fotbal".
+ * Separat, {@link #isMultipurpose(String)} marcheaza salile polivalente (coloana multipurpose), inclusiv pe cele
+ * cu piscina, care au categoria inot dar apar si la cautarea altor sporturi.
+ */
+public final class SportCategory {
+
+    public static final String SWIMMING = "inot";
+    public static final String MULTIPURPOSE = "multipla";
+
+    private SportCategory() {
+    }
+
+    /**
+     * Categoria pentru un tip de sala sau pentru sportul cautat; null daca tipul lipseste
+     */
+    public static String of(String type) {
+        String normalized = normalize(type);
+        if (normalized.isEmpty()) {
+            return null;
+        }
+
+        // O sala polivalenta cu piscina are categoria inot; ramane in celelalte cautari prin indicatorul multipurpose
+        if (normalized.contains(SWIMMING) || normalized.contains("piscina") || normalized.contains("swimming")) {
+            return SWIMMING;
+        }
+        if (isMultipurposeType(normalized)) {
+            return MULTIPURPOSE;
+        }
+        return normalized;
+    }
+
+    /**
+     * True daca tipul descrie o sala polivalenta, chiar daca are si piscina (ex. "Sala polivalenta cu piscina")
+     */
+    public static boolean isMultipurpose(String type) {
+        return isMultipurposeType(normalize(type));
+    }
+
+    private static boolean isMultipurposeType(String normalized) {
+        return normalized.equals(MULTIPURPOSE) || normalized.equals("sport") || normalized.contains("polivalent")
+                || normalized.contains("multipurpose") || normalized.contains("universal");
+    }
+
+    private static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}+", "")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+    }
+}
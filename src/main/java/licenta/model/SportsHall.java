@@ -3,13 +3,16 @@ package licenta.model;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "sports_halls")
+@Table(name = "sports_halls", indexes = {
+        @Index(name = "idx_sports_halls_category_status", columnList = "sport_category, status")
+})
 public class SportsHall extends BruteEntity<Long> {
 
     @Column(name = "name")
@@ -24,6 +27,15 @@ public class SportsHall extends BruteEntity<Long> {
     @Column(name = "type")
     private String type;
 
+    // Derivata din type (vezi SportCategory); indexul (status, LOWER(city), sport_category) este creat din schema.sql
+    @Column(name = "sport_category", length = 50)
+    private String sportCategory;
+
+    // Tot din type: sala polivalenta apare la cautarea oricarui sport, chiar daca categoria ei este inot.
+    // Null doar pentru salile salvate inainte de coloana, pana le completeaza SportCategoryBackfill.
+    @Column(name = "multipurpose")
+    private Boolean multipurpose;
+
     @Column(name = "tariff")
     private Float tariff;
 
@@ -85,7 +97,7 @@ public class SportsHall extends BruteEntity<Long> {
         this.name = name;
         this.address = address;
         this.capacity = capacity;
-        this.type = type;
+        setType(type);
         this.tariff = tariff;
         this.facilities = facilities;
         this.county = county;
@@ -204,6 +216,25 @@ public class SportsHall extends BruteEntity<Long> {
 
     public void setType(String type) {
         this.type = type;
+        updateSportCategory();
+    }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public String getSportCategory() {
+        return sportCategory;
+    }
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public boolean isMultipurpose() {
+        return Boolean.TRUE.equals(multipurpose);
+    }
+
+    // Asigura categoria si pentru randurile vechi sau tipurile setate fara setter
+    @PrePersist
+    @PreUpdate
+    protected void updateSportCategory() {
+        this.sportCategory = SportCategory.of(type);
+        this.multipurpose = SportCategory.isMultipurpose(type);
     }
 
     public Float getTariff() {
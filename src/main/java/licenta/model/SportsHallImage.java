@@ -1,17 +1,43 @@
 package licenta.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
-import java.awt.*;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Entity
 @Table(name = "sports_hall_images")
 public class SportsHallImage extends BruteEntity<Long> {
 
-    @Column(name = "image", nullable = false)
+    // Continutul vechi, pastrat in baza de date; imaginile noi stau in ImageStore si au doar contentHash.
+    // Nu se serializeaza: clientii cer continutul de la /images/{id}
+    @Column(name = "image")
+    @JsonIgnore
     private byte[] image;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "content_type", length = 50)
+    private String contentType;
+
+    @Column(name = "content_length")
+    private Long contentLength;
+
+    // Variantele JPEG generate dupa upload; null pana sunt generate sau cand originalul e deja destul de mic
+    @Column(name = "thumbnail_hash", length = 64)
+    private String thumbnailHash;
+
+    @Column(name = "medium_hash", length = 64)
+    private String mediumHash;
+
+    @Column(name = "full_hash", length = 64)
+    private String fullHash;
+
     @Column(name = "description")
     private String description;
 
@@ -36,6 +62,64 @@ public class SportsHallImage extends BruteEntity<Long> {
         this.image = image;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+    public void setContentLength(Long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    public String getThumbnailHash() {
+        return thumbnailHash;
+    }
+
+    public void setThumbnailHash(String thumbnailHash) {
+        this.thumbnailHash = thumbnailHash;
+    }
+
+    public String getMediumHash() {
+        return mediumHash;
+    }
+
+    public void setMediumHash(String mediumHash) {
+        this.mediumHash = mediumHash;
+    }
+
+    public String getFullHash() {
+        return fullHash;
+    }
+
+    public void setFullHash(String fullHash) {
+        this.fullHash = fullHash;
+    }
+
+    /**
+     * Cheile din ImageStore folosite de aceasta imagine (original si variante), fara duplicate
+     */
+    public List<String> storedContentHashes() {
+        return Stream.of(contentHash, thumbnailHash, mediumHash, fullHash)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
     public String getDescription() {
         return description;
     }
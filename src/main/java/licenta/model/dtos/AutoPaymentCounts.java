@@ -0,0 +1,14 @@
+package licenta.model.dtos;
+
+/**
+ * Contorii profilurilor de rezervare pentru statisticile platilor automate.
+ * Sumele sunt null cand nu exista niciun profil.
+ */
+public interface AutoPaymentCounts {
+
+    long getTotalProfiles();
+
+    Long getAutoPaymentEnabled();
+
+    Long getValidAutoPaymentProfiles();
+}
@@ -0,0 +1,49 @@
+package licenta.model.dtos;
+
+/**
+ * Starea unei campanii de email: cati destinatari au fost procesati din total
+ */
+public class EmailCampaignProgress {
+
+    private final Long emailId;
+    private final String status;
+    private final int totalRecipients;
+    private final int sentCount;
+    private final int failedCount;
+
+    public EmailCampaignProgress(Long emailId, String status, int totalRecipients, int sentCount, int failedCount) {
+        this.emailId = emailId;
+        this.status = status;
+        this.totalRecipients = totalRecipients;
+        this.sentCount = sentCount;
+        this.failedCount = failedCount;
+    }
+
+    public Long getEmailId() {
+        return emailId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getTotalRecipients() {
+        return totalRecipients;
+    }
+
+    public int getSentCount() {
+        return sentCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    public int getPendingCount() {
+        return Math.max(0, totalRecipients - sentCount - failedCount);
+    }
+
+    public boolean isFinished() {
+        return !"SENDING".equals(status);
+    }
+}
@@ -0,0 +1,11 @@
+package licenta.model.dtos;
+
+/**
+ * Id-ul si numele unei sali, pentru indexul de sugestii
+ */
+public interface HallNameEntry {
+
+    Long getId();
+
+    String getName();
+}
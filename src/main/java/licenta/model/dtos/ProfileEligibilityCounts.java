@@ -0,0 +1,12 @@
+package licenta.model.dtos;
+
+/**
+ * Contorii profilurilor de rezervare pentru statusul generarii automate.
+ * Suma este null cand nu exista niciun profil.
+ */
+public interface ProfileEligibilityCounts {
+
+    long getTotalProfiles();
+
+    Long getEligibleProfiles();
+}
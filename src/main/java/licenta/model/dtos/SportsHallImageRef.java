@@ -0,0 +1,36 @@
+package licenta.model.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * Referinta la o imagine a salii; continutul se cere separat de la /images/{id}
+ */
+public class SportsHallImageRef {
+
+    private final Long hallId;
+    private final Long id;
+    private final String description;
+
+    public SportsHallImageRef(Long hallId, Long id, String description) {
+        this.hallId = hallId;
+        this.id = id;
+        this.description = description;
+    }
+
+    @JsonIgnore
+    public Long getHallId() {
+        return hallId;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getUrl() {
+        return "/images/" + id;
+    }
+}
@@ -0,0 +1,112 @@
+package licenta.model.dtos;
+
+import licenta.model.SportsHall;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sala asa cum apare in liste si in rezultatele cautarii: doar campurile afisate, media recenziilor
+ * si referintele imaginilor (id + URL), fara continutul lor
+ */
+public class SportsHallSummary {
+
+    private final Long id;
+    private final String name;
+    private final String address;
+    private final String city;
+    private final String county;
+    private final String type;
+    private final Float tariff;
+    private final Integer capacity;
+    private final String facilities;
+    private final String description;
+    private final SportsHall.HallStatus status;
+    private final Long adminId;
+    private final Double averageRating;
+    private final long reviewCount;
+    private List<SportsHallImageRef> images = new ArrayList<>();
+
+    public SportsHallSummary(Long id, String name, String address, String city, String county, String type,
+                             Float tariff, Integer capacity, String facilities, String description,
+                             SportsHall.HallStatus status, Long adminId, Double averageRating, Long reviewCount) {
+        this.id = id;
+        this.name = name;
+        this.address = address;
+        this.city = city;
+        this.county = county;
+        this.type = type;
+        this.tariff = tariff;
+        this.capacity = capacity;
+        this.facilities = facilities;
+        this.description = description;
+        this.status = status;
+        this.adminId = adminId;
+        this.averageRating = averageRating;
+        this.reviewCount = reviewCount != null ? reviewCount : 0L;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getAddress() {
+        return address;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getCounty() {
+        return county;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Float getTariff() {
+        return tariff;
+    }
+
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public String getFacilities() {
+        return facilities;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public SportsHall.HallStatus getStatus() {
+        return status;
+    }
+
+    public Long getAdminId() {
+        return adminId;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public List<SportsHallImageRef> getImages() {
+        return images;
+    }
+
+    public void setImages(List<SportsHallImageRef> images) {
+        this.images = images;
+    }
+}
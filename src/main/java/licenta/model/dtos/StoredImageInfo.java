@@ -0,0 +1,30 @@
+package licenta.model.dtos;
+
+import licenta.model.ImageVariant;
+
+/**
+ * Metadatele unei imagini de sala, fara continutul ei
+ */
+public interface StoredImageInfo {
+
+    String getContentHash();
+
+    String getContentType();
+
+    String getThumbnailHash();
+
+    String getMediumHash();
+
+    String getFullHash();
+
+    /**
+     * Cheia variantei cerute sau null daca varianta nu exista (se serveste originalul)
+     */
+    default String variantHash(ImageVariant variant) {
+        return switch (variant) {
+            case THUMBNAIL -> getThumbnailHash();
+            case MEDIUM -> getMediumHash();
+            case FULL -> getFullHash();
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package licenta.model.dtos;
+
+/**
+ * Coloanele din users de care are nevoie autentificarea cu JWT (fara parola si fara certificat)
+ */
+public interface UserAuthInfo {
+
+    Long getId();
+
+    String getEmail();
+
+    String getUserType();
+
+    String getAccountStatus();
+}
@@ -0,0 +1,15 @@
+package licenta.model.dtos;
+
+/**
+ * Rand agregat din users: numarul de conturi pentru o combinatie (tip, FCFS, status cont)
+ */
+public interface UserGroupCount {
+
+    String getUserType();
+
+    Boolean getFcfsEnabled();
+
+    String getAccountStatus();
+
+    long getTotal();
+}
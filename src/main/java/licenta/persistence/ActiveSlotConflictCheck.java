@@ -0,0 +1,64 @@
+package licenta.persistence;
+
+import jakarta.annotation.PostConstruct;
+import licenta.model.Reservation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Verifica la pornire, dupa schema.sql, ca exista indexul unic al slotului activ (uq_reservations_active_slot).
+ * schema.sql nu il creeaza cat timp exista rezervari active dublate pe acelasi slot, iar aplicatia nu le anuleaza
+ * singura (pot fi rezervari platite sau blocari de mentenanta). Conflictele sunt listate in log si pornirea se
+ * opreste, pana cand un operator le rezolva printr-o migrare revizuita.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class ActiveSlotConflictCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveSlotConflictCheck.class);
+
+    static final String CONFLICTS_QUERY =
+            "SELECT hall_id, CAST(date AS date) AS slot_day, time_slot, " +
+            "       string_agg(id || ' (' || COALESCE(type, '-') || ', ' || COALESCE(status, '-') || ')', ', ' ORDER BY id) AS reservations " +
+            "FROM reservations " +
+            "WHERE status IS DISTINCT FROM 'CANCELLED' " +
+            "GROUP BY hall_id, CAST(date AS date), time_slot " +
+            "HAVING COUNT(*) > 1 " +
+            "ORDER BY slot_day, hall_id, time_slot";
+
+    static final String INDEX_QUERY =
+            "SELECT COUNT(*) FROM pg_indexes WHERE schemaname = current_schema() AND indexname = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public ActiveSlotConflictCheck(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void verify() {
+        List<String> conflicts = jdbcTemplate.query(CONFLICTS_QUERY, (rs, rowNum) ->
+                "hall " + rs.getLong("hall_id") + ", " + rs.getDate("slot_day") + ", " + rs.getString("time_slot")
+                        + ": reservations " + rs.getString("reservations"));
+        if (!conflicts.isEmpty()) {
+            conflicts.forEach(conflict -> logger.error("Active slot conflict - {}", conflict));
+            throw new IllegalStateException(conflicts.size() + " slots have more than one active reservation, so "
+                    + Reservation.ACTIVE_SLOT_UNIQUE_INDEX + " was not created. Resolve them with a reviewed migration "
+                    + "(cancel or move the extra reservations and refund their payments), then restart. First: "
+                    + conflicts.get(0));
+        }
+
+        Long indexes = jdbcTemplate.queryForObject(INDEX_QUERY, Long.class, Reservation.ACTIVE_SLOT_UNIQUE_INDEX);
+        if (indexes == null || indexes == 0) {
+            throw new IllegalStateException("Unique index " + Reservation.ACTIVE_SLOT_UNIQUE_INDEX + " is missing");
+        }
+        logger.info("Verified unique index {}", Reservation.ACTIVE_SLOT_UNIQUE_INDEX);
+    }
+}
@@ -0,0 +1,7 @@
+package licenta.persistence;
+
+import licenta.model.AppSetting;
+import org.springframework.data.repository.CrudRepository;
+
+public interface IAppSettingRepository extends CrudRepository<AppSetting, String> {
+}
@@ -0,0 +1,36 @@
+package licenta.persistence;
+
+import jakarta.transaction.Transactional;
+import licenta.model.OutboxEmail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface IEmailOutboxRepository extends CrudRepository<OutboxEmail, Long> {
+
+    /**
+     * Emailurile cu statusul dat al caror moment de trimitere a sosit, cele mai vechi intai
+     */
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("status") OutboxEmail.Status status, @Param("now") LocalDateTime now, Pageable pageable);
+
+    /**
+     * Schimba statusul doar daca emailul este inca in statusul asteptat; 0 inseamna ca altcineva l-a preluat
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail e SET e.status = :to WHERE e.id = :id AND e.status = :from")
+    int transition(@Param("id") Long id, @Param("from") OutboxEmail.Status from, @Param("to") OutboxEmail.Status to);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE OutboxEmail e SET e.status = :to WHERE e.status = :from")
+    int transitionAll(@Param("from") OutboxEmail.Status from, @Param("to") OutboxEmail.Status to);
+
+    long countByStatus(OutboxEmail.Status status);
+}
@@ -13,4 +13,6 @@ public interface IEmailRecipientRepository extends JpaRepository<EmailRecipient,
 
     @Query("SELECT COUNT(er) FROM EmailRecipient er WHERE er.email.id = ?1")
     Long countByEmailId(Long emailId);
+
+    long countByEmailIdAndStatus(Long emailId, String status);
 }
\ No newline at end of file
@@ -1,11 +1,29 @@
 package licenta.persistence;
 
+import jakarta.transaction.Transactional;
 import licenta.model.Email;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface IEmailRepository extends JpaRepository<Email, Long> {
     List<Email> findByCreatedByOrderByCreatedAtDesc(String createdBy);
     List<Email> findAllByOrderByCreatedAtDesc();
+
+    /**
+     * Salveaza rezultatul final al unei campanii, fara a incarca entitatea si lista de destinatari
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Email e SET e.status = :status, e.sentCount = :sentCount, e.failedCount = :failedCount WHERE e.id = :id")
+    int finishCampaign(@Param("id") Long id, @Param("status") String status,
+                       @Param("sentCount") int sentCount, @Param("failedCount") int failedCount);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Email e SET e.status = :to WHERE e.status = :from")
+    int updateStatus(@Param("from") String from, @Param("to") String to);
 }
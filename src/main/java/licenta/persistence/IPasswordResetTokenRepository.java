@@ -0,0 +1,41 @@
+package licenta.persistence;
+
+import jakarta.transaction.Transactional;
+import licenta.model.PasswordResetToken;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IPasswordResetTokenRepository extends CrudRepository<PasswordResetToken, Long> {
+
+    Optional<PasswordResetToken> findByTokenHash(String tokenHash);
+
+    long countByExpiresAtAfter(LocalDateTime now);
+
+    /**
+     * Sterge tokenul doar daca nu a expirat; 1 inseamna ca aceasta cerere l-a consumat, 0 ca era deja folosit sau expirat
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.tokenHash = :tokenHash AND t.expiresAt > :now")
+    int deleteValidByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.email = :email")
+    int deleteByEmail(@Param("email") String email);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PasswordResetToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,6 +2,8 @@ package licenta.persistence;
 
 import jakarta.transaction.Transactional;
 import licenta.model.ReservationProfile;
+import licenta.model.dtos.AutoPaymentCounts;
+import licenta.model.dtos.ProfileEligibilityCounts;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
@@ -18,4 +20,35 @@ public interface IReservationProfileRepository extends CrudRepository<Reservatio
      * @return Lista de profiluri de rezervare
      */
     List<ReservationProfile> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    /**
+     * Toate profilurile, cu utilizatorul si salile selectate incarcate in aceeasi interogare
+     * (folosit de generarea automata, care le parcurge pe toate)
+     */
+    @Query("SELECT DISTINCT p FROM ReservationProfile p JOIN FETCH p.user LEFT JOIN FETCH p.selectedHalls")
+    List<ReservationProfile> findAllWithUserAndSelectedHalls();
+
+    /**
+     * Numarul total de profiluri si cate dintre ele intra in generarea automata, calculate in baza de date
+     * (aceeasi regula ca BookingPrioritizationRestController.isProfileEligible)
+     */
+    @Query("SELECT COUNT(p) AS totalProfiles, " +
+            "SUM(CASE WHEN u.teamType IS NOT NULL AND TRIM(u.teamType) <> '' " +
+            "AND u.accountStatus IN ('active', 'verified') AND p.weeklyBudget > 0 " +
+            "AND p.selectedHalls IS NOT EMPTY THEN 1 ELSE 0 END) AS eligibleProfiles " +
+            "FROM ReservationProfile p LEFT JOIN p.user u")
+    ProfileEligibilityCounts countProfilesByEligibility();
+
+    /**
+     * Contorii pentru statisticile platilor automate, calculati in baza de date.
+     * Un profil este valid daca are plata automata activa, metoda setata si un card activ neexpirat
+     * (aceeasi regula ca ReservationProfile.isValidForAutoPayment)
+     */
+    @Query("SELECT COUNT(p) AS totalProfiles, " +
+            "SUM(CASE WHEN p.autoPaymentEnabled = true THEN 1 ELSE 0 END) AS autoPaymentEnabled, " +
+            "SUM(CASE WHEN p.autoPaymentEnabled = true AND p.autoPaymentMethod IS NOT NULL AND c.isActive = true " +
+            "AND (c.cardExpYear > :year OR (c.cardExpYear = :year AND c.cardExpMonth >= :month)) THEN 1 ELSE 0 END) " +
+            "AS validAutoPaymentProfiles " +
+            "FROM ReservationProfile p LEFT JOIN p.defaultCardPaymentMethod c")
+    AutoPaymentCounts countAutoPaymentStatistics(@Param("year") int year, @Param("month") int month);
+}
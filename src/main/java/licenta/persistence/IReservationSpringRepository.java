@@ -8,6 +8,7 @@ import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 import java.util.Date;
+import java.util.List;
 
 public interface IReservationSpringRepository extends CrudRepository<Reservation, Long> {
 
@@ -16,4 +17,54 @@ public interface IReservationSpringRepository extends CrudRepository<Reservation
     @Query("DELETE FROM Reservation r WHERE r.date >= :startDate AND r.date <= :endDate AND r.type = 'reservation'")
     int deleteReservationsByDateRange(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
 
+    /**
+     * Sterge legaturile plata-rezervare ale rezervarilor pe care le sterge deleteReservationsByDateRange
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PaymentReservation pr WHERE pr.reservation.id IN " +
+            "(SELECT r.id FROM Reservation r WHERE r.date >= :startDate AND r.date <= :endDate AND r.type = 'reservation')")
+    int deletePaymentReservationsByDateRange(@Param("startDate") Date startDate, @Param("endDate") Date endDate);
+
+    /**
+     * Sterge intr-o singura tranzactie rezervarile de tip 'reservation' din interval, capetele incluse,
+     * impreuna cu randurile payment_reservations care le refera
+     * @return numarul de rezervari sterse
+     */
+    @Transactional
+    default int purgeReservationsByDateRange(Date startDate, Date endDate) {
+        deletePaymentReservationsByDateRange(startDate, endDate);
+        return deleteReservationsByDateRange(startDate, endDate);
+    }
+
+    /**
+     * Gaseste rezervarile unui utilizator de un anumit tip (foloseste indexul pe user_id, type)
+     */
+    List<Reservation> findByUserIdAndType(Long userId, String type);
+
+    /**
+     * Gaseste rezervarile unei sali de un anumit tip dintr-un interval de date, capetele incluse
+     * (foloseste indexul pe hall_id, date, time_slot)
+     */
+    List<Reservation> findByHallIdAndTypeAndDateBetween(Long hallId, String type, Date startDate, Date endDate);
+
+    /**
+     * Filtrare dupa sala si/sau tip; parametrii null sunt ignorati
+     */
+    @Query("SELECT r FROM Reservation r WHERE " +
+            "(:hallId IS NULL OR r.hall.id = :hallId) AND " +
+            "(:type IS NULL OR r.type = :type)")
+    List<Reservation> findByOptionalHallAndType(@Param("hallId") Long hallId, @Param("type") String type);
+
+    /**
+     * Filtrare dupa sala si/sau tip intr-o fereastra de timp [startDate, endDate); parametrii null sunt ignorati
+     */
+    @Query("SELECT r FROM Reservation r WHERE " +
+            "r.date >= :startDate AND r.date < :endDate AND " +
+            "(:hallId IS NULL OR r.hall.id = :hallId) AND " +
+            "(:type IS NULL OR r.type = :type)")
+    List<Reservation> findByOptionalHallAndTypeInDateWindow(@Param("hallId") Long hallId,
+                                                            @Param("type") String type,
+                                                            @Param("startDate") Date startDate,
+                                                            @Param("endDate") Date endDate);
 }
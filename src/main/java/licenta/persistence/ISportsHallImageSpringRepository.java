@@ -1,7 +1,57 @@
 package licenta.persistence;
 
+import jakarta.transaction.Transactional;
 import licenta.model.SportsHallImage;
+import licenta.model.dtos.SportsHallImageRef;
+import licenta.model.dtos.StoredImageInfo;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface ISportsHallImageSpringRepository extends CrudRepository<SportsHallImage, Long> {
+
+    /**
+     * Hash-ul si tipul continutului, fara a citi coloana image
+     */
+    @Query("SELECT i.contentHash AS contentHash, i.contentType AS contentType, i.thumbnailHash AS thumbnailHash, " +
+            "i.mediumHash AS mediumHash, i.fullHash AS fullHash FROM SportsHallImage i WHERE i.id = :id")
+    Optional<StoredImageInfo> findStoredImageInfoById(@Param("id") Long id);
+
+    /**
+     * Imaginile salvate inca in baza de date (inainte de mutarea in depozitul de imagini)
+     */
+    @Query("SELECT i.id FROM SportsHallImage i WHERE i.contentHash IS NULL ORDER BY i.id")
+    List<Long> findIdsWithoutContentHash();
+
+    /**
+     * Referintele imaginilor pentru mai multe sali dintr-o data (pentru liste), fara continut
+     */
+    @Query("SELECT new licenta.model.dtos.SportsHallImageRef(i.sportsHall.id, i.id, i.description) " +
+            "FROM SportsHallImage i WHERE i.sportsHall.id IN :hallIds ORDER BY i.id")
+    List<SportsHallImageRef> findImageRefsByHallIds(@Param("hallIds") Collection<Long> hallIds);
+
+    /**
+     * Imaginile din depozit pentru care variantele nu au fost inca generate
+     */
+    @Query("SELECT i.id FROM SportsHallImage i WHERE i.contentHash IS NOT NULL AND i.thumbnailHash IS NULL ORDER BY i.id")
+    List<Long> findIdsWithoutVariants();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SportsHallImage i SET i.thumbnailHash = :thumbnailHash, i.mediumHash = :mediumHash, i.fullHash = :fullHash " +
+            "WHERE i.id = :id")
+    int updateVariantHashes(@Param("id") Long id, @Param("thumbnailHash") String thumbnailHash,
+                            @Param("mediumHash") String mediumHash, @Param("fullHash") String fullHash);
+
+    /**
+     * Cate imagini folosesc continutul dat, ca original sau ca varianta
+     */
+    @Query("SELECT COUNT(i) FROM SportsHallImage i WHERE i.contentHash = :hash OR i.thumbnailHash = :hash " +
+            "OR i.mediumHash = :hash OR i.fullHash = :hash")
+    long countReferences(@Param("hash") String contentHash);
 }
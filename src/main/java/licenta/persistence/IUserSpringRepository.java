@@ -1,7 +1,13 @@
 package licenta.persistence;
 
+import jakarta.transaction.Transactional;
 import licenta.model.User;
+import licenta.model.dtos.UserAuthInfo;
+import licenta.model.dtos.UserGroupCount;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -9,4 +15,36 @@ import java.util.Optional;
 public interface IUserSpringRepository extends CrudRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
+    /**
+     * Doar emailul, tipul si statusul contului, pentru filtrul JWT (nu hidrateaza entitatea si certificatul)
+     */
+    @Query("SELECT u.id AS id, u.email AS email, u.userType AS userType, u.accountStatus AS accountStatus FROM User u WHERE u.email = :email")
+    Optional<UserAuthInfo> findAuthInfoByEmail(@Param("email") String email);
+
+    Optional<User> findFirstByUserTypeOrderByIdAsc(String userType);
+
+    long countByUserType(String userType);
+
+    long countByUserTypeAndFcfsEnabled(String userType, Boolean fcfsEnabled);
+
+    /**
+     * Seteaza flag-ul FCFS pentru toti utilizatorii de tipul dat printr-un singur UPDATE; intoarce numarul de randuri modificate
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.fcfsEnabled = :enabled WHERE u.userType = :userType")
+    int updateFcfsEnabledByUserType(@Param("userType") String userType, @Param("enabled") Boolean enabled);
+
+    /**
+     * Numarul de utilizatori grupat dupa tip, flag FCFS si status cont, fara a incarca entitatile (si certificatele)
+     */
+    @Query("SELECT u.userType AS userType, u.fcfsEnabled AS fcfsEnabled, u.accountStatus AS accountStatus, COUNT(u) AS total " +
+            "FROM User u GROUP BY u.userType, u.fcfsEnabled, u.accountStatus")
+    List<UserGroupCount> countGroupedByTypeFcfsAndStatus();
+
+    @Query("SELECT u.id FROM User u WHERE u.userType = :userType ORDER BY u.id")
+    List<Long> findIdsByUserType(@Param("userType") String userType);
+
+    @Query("SELECT u.email FROM User u WHERE u.userType = :userType AND u.email IS NOT NULL ORDER BY u.id")
+    List<String> findEmailsByUserType(@Param("userType") String userType);
 }
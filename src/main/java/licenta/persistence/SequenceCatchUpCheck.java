@@ -0,0 +1,67 @@
+package licenta.persistence;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Table;
+import licenta.model.BruteEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Verifica la pornire, dupa schema.sql, ca fiecare secventa de id-uri (<tabela>_seq) a ajuns peste cel mai mare
+ * id din tabela ei. O secventa ramasa in urma ar da id-uri deja folosite (coliziuni de cheie primara la INSERT),
+ * asa ca pornirea se opreste in loc sa esueze mai tarziu la salvari.
+ */
+@Component
+@DependsOnDatabaseInitialization
+public class SequenceCatchUpCheck {
+
+    private static final Logger logger = LoggerFactory.getLogger(SequenceCatchUpCheck.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> tables;
+
+    @Autowired
+    public SequenceCatchUpCheck(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this(jdbcTemplate, entityManagerFactory.getMetamodel().getEntities().stream()
+                .map(entity -> entity.getJavaType())
+                .filter(BruteEntity.class::isAssignableFrom)
+                .map(type -> type.getAnnotation(Table.class))
+                .filter(table -> table != null && !table.name().isEmpty())
+                .map(Table::name)
+                .sorted()
+                .toList());
+    }
+
+    SequenceCatchUpCheck(JdbcTemplate jdbcTemplate, List<String> tables) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tables = tables;
+    }
+
+    @PostConstruct
+    public void verify() {
+        for (String table : tables) {
+            String sequence = table + "_seq";
+            List<Long> lastValues = jdbcTemplate.query(
+                    "SELECT COALESCE(last_value, 0) FROM pg_sequences WHERE schemaname = current_schema() AND sequencename = ?",
+                    (rs, rowNum) -> rs.getLong(1), sequence);
+            if (lastValues.isEmpty()) {
+                throw new IllegalStateException("Sequence " + sequence + " does not exist");
+            }
+
+            long lastValue = lastValues.get(0);
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            if (maxId != null && maxId > lastValue) {
+                throw new IllegalStateException("Sequence " + sequence + " (" + lastValue + ") is behind MAX(id) "
+                        + maxId + " of " + table + "; new rows would reuse existing ids");
+            }
+        }
+        logger.info("Verified id sequences for {} tables", tables.size());
+    }
+}
@@ -0,0 +1,18 @@
+package licenta.persistence;
+
+import licenta.model.dtos.SportsHallSummary;
+
+import java.util.List;
+
+/**
+ * Cautarea salilor, construita dinamic: in SQL ajung doar filtrele primite, ca planificatorul sa poata folosi
+ * indexul (status, LOWER(city), sport_category) in loc de predicate de forma ":x IS NULL OR ...".
+ */
+public interface SportsHallSearchRepository {
+
+    /**
+     * Salile active care se potrivesc filtrelor; filtrele null sunt ignorate. Pentru alt sport decat inotul
+     * sunt incluse si salile polivalente (si cele cu piscina).
+     */
+    List<SportsHallSummary> search(String city, String category, String name);
+}
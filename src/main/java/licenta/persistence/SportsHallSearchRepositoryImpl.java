@@ -0,0 +1,74 @@
+package licenta.persistence;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import licenta.model.Feedback;
+import licenta.model.SportCategory;
+import licenta.model.SportsHall;
+import licenta.model.dtos.SportsHallSummary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Implementarea cu Criteria API a {@link SportsHallSearchRepository}; Spring Data o ataseaza la
+ * {@link ISportsHallSpringRepository} dupa sufixul Impl.
+ */
+class SportsHallSearchRepositoryImpl implements SportsHallSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SportsHallSummary> search(String city, String category, String name) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SportsHallSummary> query = cb.createQuery(SportsHallSummary.class);
+        Root<SportsHall> sh = query.from(SportsHall.class);
+
+        // Aceleasi coloane ca ISportsHallSpringRepository.SUMMARY_SELECT
+        Subquery<Double> averageRating = query.subquery(Double.class);
+        Root<Feedback> ratedFeedback = averageRating.from(Feedback.class);
+        averageRating.select(cb.avg(ratedFeedback.get("rating"))).where(cb.equal(ratedFeedback.get("hall"), sh));
+
+        Subquery<Long> reviewCount = query.subquery(Long.class);
+        Root<Feedback> countedFeedback = reviewCount.from(Feedback.class);
+        reviewCount.select(cb.count(countedFeedback)).where(cb.equal(countedFeedback.get("hall"), sh));
+
+        query.select(cb.construct(SportsHallSummary.class,
+                sh.get("id"), sh.get("name"), sh.get("address"), sh.get("city"), sh.get("county"), sh.get("type"),
+                sh.get("tariff"), sh.get("capacity"), sh.get("facilities"), sh.get("description"), sh.get("status"),
+                sh.get("adminId"), averageRating, reviewCount));
+
+        // Valorile sunt legate ca parametri, nu inlinate ca literali in SQL
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(sh.get("status"), SportsHall.HallStatus.ACTIVE));
+        if (city != null) {
+            predicates.add(cb.equal(cb.lower(sh.get("city")), cb.lower(cb.parameter(String.class, "city"))));
+        }
+        if (category != null) {
+            Predicate sameCategory = cb.equal(sh.get("sportCategory"), cb.parameter(String.class, "category"));
+            predicates.add(SportCategory.SWIMMING.equals(category)
+                    ? sameCategory
+                    : cb.or(sameCategory, cb.isTrue(sh.get("multipurpose"))));
+        }
+        if (name != null) {
+            predicates.add(cb.like(cb.lower(sh.get("name")), cb.lower(cb.parameter(String.class, "name"))));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.asc(sh.get("city")), cb.asc(sh.get("name")));
+        TypedQuery<SportsHallSummary> typedQuery = entityManager.createQuery(query);
+        if (city != null) {
+            typedQuery.setParameter("city", city);
+        }
+        if (category != null) {
+            typedQuery.setParameter("category", category);
+        }
+        if (name != null) {
+            typedQuery.setParameter("name", "%" + name + "%");
+        }
+        return typedQuery.getResultList();
+    }
+}
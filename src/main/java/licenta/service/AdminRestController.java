@@ -1,6 +1,8 @@
 package licenta.service;
 
+import licenta.jwtservice.UserDetailsCache;
 import licenta.model.User;
+import licenta.model.dtos.UserGroupCount;
 import licenta.persistence.IUserSpringRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,11 +24,21 @@ import java.util.stream.StreamSupport;
 @CrossOrigin(origins = "http://localhost:3000")
 public class AdminRestController {
 
+    private static final long STATISTICS_CACHE_TTL_MS = 30_000;
+
     private final IUserSpringRepository userSpringRepository;
+    private final FcfsSettingsService fcfsSettingsService;
+    private final UserDetailsCache userDetailsCache;
+
+    // Statisticile sunt afisate in dashboard si pot fi cu cateva secunde in urma
+    private final ExpiringValue<Map<String, Object>> fcfsStatisticsCache = new ExpiringValue<>(STATISTICS_CACHE_TTL_MS);
 
     @Autowired
-    public AdminRestController(IUserSpringRepository userSpringRepository) {
+    public AdminRestController(IUserSpringRepository userSpringRepository, FcfsSettingsService fcfsSettingsService,
+                               UserDetailsCache userDetailsCache) {
         this.userSpringRepository = userSpringRepository;
+        this.fcfsSettingsService = fcfsSettingsService;
+        this.userDetailsCache = userDetailsCache;
     }
 
     // Get all team registrations with the specified status
@@ -70,6 +83,7 @@ public class AdminRestController {
 
             user.setAccountStatus("verified");
             userSpringRepository.save(user);
+            userDetailsCache.evict(user.getEmail());
 
             return ResponseEntity.ok(Map.of("message", "Team registration approved successfully"));
         }
@@ -102,6 +116,7 @@ public class AdminRestController {
             user.setAccountStatus("rejected");
             user.setRejectionReason(rejectionReason);
             userSpringRepository.save(user);
+            userDetailsCache.evict(user.getEmail());
 
             return ResponseEntity.ok(Map.of("message", "Team registration rejected successfully"));
         }
@@ -109,24 +124,15 @@ public class AdminRestController {
         return ResponseEntity.notFound().build();
     }
 
-    // FCFS: Get FCFS status - verifica primul utilizator normal
+    // FCFS: Get FCFS status - statusul global vine din setari, contorii din COUNT-uri
     @GetMapping("/fcfs-status")
     @PreAuthorize("hasAuthority('admin')")
     public ResponseEntity<Map<String, Object>> getFcfsStatus() {
-        Optional<User> normalUser = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                .filter(user -> "user".equals(user.getUserType()))
-                .findFirst();
-
-        if (normalUser.isPresent()) {
-            boolean fcfsEnabled = normalUser.get().isFcfsEnabled();
-
-            long totalUsers = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .count();
+        long totalUsers = userSpringRepository.countByUserType("user");
 
-            long enabledUsers = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .filter(user -> "user".equals(user.getUserType()) && user.isFcfsEnabled())
-                    .count();
+        if (totalUsers > 0) {
+            boolean fcfsEnabled = fcfsSettingsService.isFcfsEnabled();
+            long enabledUsers = userSpringRepository.countByUserTypeAndFcfsEnabled("user", true);
 
             return ResponseEntity.ok(Map.of(
                     "fcfsEnabled", fcfsEnabled,
@@ -150,35 +156,36 @@ public class AdminRestController {
 
     @PostMapping("/fcfs-toggle")
     @PreAuthorize("hasAuthority('admin')")
-    public ResponseEntity<Map<String, Object>> toggleFcfsVisibility() {
+    public ResponseEntity<Map<String, Object>> toggleFcfsVisibility(
+            @RequestParam(defaultValue = "false") boolean includeUserIds) {
         try {
-            List<User> normalUsers = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .collect(Collectors.toList());
+            boolean currentStatus = fcfsSettingsService.isFcfsEnabled();
+            boolean newStatus = !currentStatus;
 
-            if (normalUsers.isEmpty()) {
+            int updatedUsers = userSpringRepository.updateFcfsEnabledByUserType("user", newStatus);
+            if (updatedUsers == 0) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "error", "Nu există utilizatori normali în sistem pentru a gestiona FCFS"
                 ));
             }
 
-            boolean currentStatus = normalUsers.get(0).isFcfsEnabled();
-            boolean newStatus = !currentStatus;
-
-            normalUsers.forEach(user -> user.setFcfsEnabled(newStatus));
-            userSpringRepository.saveAll(normalUsers);
+            fcfsSettingsService.setFcfsEnabled(newStatus);
+            fcfsStatisticsCache.invalidate();
 
             String message = newStatus ?
                     "FCFS (Rezervarea locurilor rămase) a fost ACTIVAT pentru toți utilizatorii" :
                     "FCFS (Rezervarea locurilor rămase) a fost DEZACTIVAT pentru toți utilizatorii";
 
-            return ResponseEntity.ok(Map.of(
-                    "fcfsEnabled", newStatus,
-                    "message", message,
-                    "previousStatus", currentStatus,
-                    "updatedUsers", normalUsers.size(),
-                    "affectedUserIds", normalUsers.stream().map(User::getId).collect(Collectors.toList())
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("fcfsEnabled", newStatus);
+            response.put("message", message);
+            response.put("previousStatus", currentStatus);
+            response.put("updatedUsers", updatedUsers);
+            if (includeUserIds) {
+                response.put("affectedUserIds", userSpringRepository.findIdsByUserType("user"));
+            }
+
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -190,7 +197,8 @@ public class AdminRestController {
 
     @PostMapping("/fcfs-status")
     @PreAuthorize("hasAuthority('admin')")
-    public ResponseEntity<Map<String, Object>> setFcfsStatus(@RequestBody Map<String, Boolean> payload) {
+    public ResponseEntity<Map<String, Object>> setFcfsStatus(@RequestBody Map<String, Boolean> payload,
+                                                             @RequestParam(defaultValue = "false") boolean includeUserIds) {
         try {
             Boolean enabled = payload.get("enabled");
             if (enabled == null) {
@@ -199,20 +207,17 @@ public class AdminRestController {
                 ));
             }
 
-            List<User> normalUsers = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .collect(Collectors.toList());
+            boolean previousStatus = fcfsSettingsService.isFcfsEnabled();
 
-            if (normalUsers.isEmpty()) {
+            int updatedUsers = userSpringRepository.updateFcfsEnabledByUserType("user", enabled);
+            if (updatedUsers == 0) {
                 return ResponseEntity.badRequest().body(Map.of(
                         "error", "Nu există utilizatori normali în sistem pentru a gestiona FCFS"
                 ));
             }
 
-            boolean previousStatus = normalUsers.get(0).isFcfsEnabled();
-
-            normalUsers.forEach(user -> user.setFcfsEnabled(enabled));
-            userSpringRepository.saveAll(normalUsers);
+            fcfsSettingsService.setFcfsEnabled(enabled);
+            fcfsStatisticsCache.invalidate();
 
             String message = enabled ?
                     "FCFS (Rezervarea locurilor rămase) a fost ACTIVAT pentru toți utilizatorii" :
@@ -220,14 +225,17 @@ public class AdminRestController {
 
             boolean changed = previousStatus != enabled;
 
-            return ResponseEntity.ok(Map.of(
-                    "fcfsEnabled", enabled,
-                    "message", message,
-                    "previousStatus", previousStatus,
-                    "changed", changed,
-                    "updatedUsers", normalUsers.size(),
-                    "affectedUserIds", normalUsers.stream().map(User::getId).collect(Collectors.toList())
-            ));
+            Map<String, Object> response = new HashMap<>();
+            response.put("fcfsEnabled", enabled);
+            response.put("message", message);
+            response.put("previousStatus", previousStatus);
+            response.put("changed", changed);
+            response.put("updatedUsers", updatedUsers);
+            if (includeUserIds) {
+                response.put("affectedUserIds", userSpringRepository.findIdsByUserType("user"));
+            }
+
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -242,34 +250,7 @@ public class AdminRestController {
     @PreAuthorize("hasAuthority('admin')")
     public ResponseEntity<Map<String, Object>> getFcfsStatistics() {
         try {
-            List<User> allUsers = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .collect(Collectors.toList());
-
-            List<User> normalUsers = allUsers.stream()
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .collect(Collectors.toList());
-
-            List<User> adminUsers = allUsers.stream()
-                    .filter(user -> "admin".equals(user.getUserType()))
-                    .collect(Collectors.toList());
-
-            List<User> enabledNormalUsers = normalUsers.stream()
-                    .filter(User::isFcfsEnabled)
-                    .collect(Collectors.toList());
-
-            List<User> disabledNormalUsers = normalUsers.stream()
-                    .filter(user -> !user.isFcfsEnabled())
-                    .collect(Collectors.toList());
-
-            return ResponseEntity.ok(Map.of(
-                    "totalUsers", allUsers.size(),
-                    "normalUsers", normalUsers.size(),
-                    "adminUsers", adminUsers.size(),
-                    "enabledNormalUsers", enabledNormalUsers.size(),
-                    "disabledNormalUsers", disabledNormalUsers.size(),
-                    "fcfsGlobalStatus", normalUsers.isEmpty() ? true : normalUsers.get(0).isFcfsEnabled(),
-                    "lastUpdated", System.currentTimeMillis()
-            ));
+            return ResponseEntity.ok(fcfsStatisticsCache.get(this::computeFcfsStatistics));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -279,6 +260,35 @@ public class AdminRestController {
         }
     }
 
+    private Map<String, Object> computeFcfsStatistics() {
+        long totalUsers = 0;
+        long normalUsers = 0;
+        long adminUsers = 0;
+        long enabledNormalUsers = 0;
+
+        for (UserGroupCount group : userSpringRepository.countGroupedByTypeFcfsAndStatus()) {
+            totalUsers += group.getTotal();
+            if ("user".equals(group.getUserType())) {
+                normalUsers += group.getTotal();
+                if (Boolean.TRUE.equals(group.getFcfsEnabled())) {
+                    enabledNormalUsers += group.getTotal();
+                }
+            } else if ("admin".equals(group.getUserType())) {
+                adminUsers += group.getTotal();
+            }
+        }
+
+        return Map.of(
+                "totalUsers", totalUsers,
+                "normalUsers", normalUsers,
+                "adminUsers", adminUsers,
+                "enabledNormalUsers", enabledNormalUsers,
+                "disabledNormalUsers", normalUsers - enabledNormalUsers,
+                "fcfsGlobalStatus", fcfsSettingsService.isFcfsEnabled(),
+                "lastUpdated", System.currentTimeMillis()
+        );
+    }
+
     // Endpoint pentru a servi certificatul ca imagine
     @GetMapping("/team-registrations/{id}/certificate")
     public ResponseEntity<byte[]> getTeamCertificate(
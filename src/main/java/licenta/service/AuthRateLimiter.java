@@ -0,0 +1,146 @@
+package licenta.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controlul accesului pentru endpoint-urile de autentificare si resetare a parolei.
+ * Limiteaza cererile per IP si per email ({@link TokenBucketLimiter}) si numarul de verificari BCrypt simultane,
+ * ca un val de incercari sa primeasca 429 imediat in loc sa ocupe toate firele Tomcat cu hash-uri.
+ * Respingerile sunt numarate in auth.rate_limit.rejected (etichete endpoint si reason).
+ */
+@Component
+public class AuthRateLimiter {
+
+    public static final String LOGIN = "login";
+    public static final String PASSWORD_RESET = "password_reset";
+
+    private final TokenBucketLimiter loginIpLimiter;
+    private final TokenBucketLimiter loginEmailLimiter;
+    private final TokenBucketLimiter passwordResetIpLimiter;
+    private final TokenBucketLimiter passwordResetEmailLimiter;
+    private final Semaphore passwordChecks;
+    private final long passwordCheckWaitMillis;
+    private final MeterRegistry meterRegistry;
+
+    @Autowired
+    public AuthRateLimiter(@Qualifier("loginIpLimiter") TokenBucketLimiter loginIpLimiter,
+                           @Qualifier("loginEmailLimiter") TokenBucketLimiter loginEmailLimiter,
+                           @Qualifier("passwordResetIpLimiter") TokenBucketLimiter passwordResetIpLimiter,
+                           @Qualifier("passwordResetEmailLimiter") TokenBucketLimiter passwordResetEmailLimiter,
+                           @Value("${security.rate-limit.password-checks.max-concurrent:4}") int maxConcurrentPasswordChecks,
+                           @Value("${security.rate-limit.password-checks.max-wait-ms:200}") long passwordCheckWaitMillis,
+                           MeterRegistry meterRegistry) {
+        this.loginIpLimiter = loginIpLimiter;
+        this.loginEmailLimiter = loginEmailLimiter;
+        this.passwordResetIpLimiter = passwordResetIpLimiter;
+        this.passwordResetEmailLimiter = passwordResetEmailLimiter;
+        this.passwordChecks = new Semaphore(maxConcurrentPasswordChecks);
+        this.passwordCheckWaitMillis = passwordCheckWaitMillis;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("auth.password_checks.active", passwordChecks,
+                        permits -> maxConcurrentPasswordChecks - permits.availablePermits())
+                .register(meterRegistry);
+        Gauge.builder("auth.rate_limit.tracked_keys", this,
+                        limiter -> limiter.loginIpLimiter.size() + limiter.loginEmailLimiter.size()
+                                + limiter.passwordResetIpLimiter.size() + limiter.passwordResetEmailLimiter.size())
+                .register(meterRegistry);
+    }
+
+    public Decision checkLogin(HttpServletRequest request, String email) {
+        return check(LOGIN, loginIpLimiter, loginEmailLimiter, request, email);
+    }
+
+    public Decision checkPasswordReset(HttpServletRequest request, String email) {
+        return check(PASSWORD_RESET, passwordResetIpLimiter, passwordResetEmailLimiter, request, email);
+    }
+
+    /**
+     * Ocupa un loc pentru o verificare BCrypt, asteptand cel mult max-wait-ms; la true apelantul trebuie
+     * sa apeleze {@link #releasePasswordCheck()} intr-un finally
+     */
+    public boolean tryAcquirePasswordCheck(String endpoint) {
+        try {
+            if (passwordChecks.tryAcquire(passwordCheckWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reject(endpoint, "concurrency");
+        return false;
+    }
+
+    public void releasePasswordCheck() {
+        passwordChecks.release();
+    }
+
+    /**
+     * Adresa clientului. In spatele proxy-ului Render, RemoteIpValve din Tomcat (server.forward-headers-strategy=native)
+     * a inlocuit deja adresa proxy-ului cu cea din X-Forwarded-For, citind antetul de la dreapta si sarind doar
+     * peste proxy-urile de incredere (server.tomcat.remoteip.internal-proxies); antetul trimis direct de un client
+     * din afara retelei interne este ignorat.
+     */
+    String clientIp(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    private Decision check(String endpoint, TokenBucketLimiter ipLimiter, TokenBucketLimiter emailLimiter,
+                           HttpServletRequest request, String email) {
+        long ipWait = ipLimiter.tryAcquire(clientIp(request));
+        if (ipWait > 0) {
+            reject(endpoint, "ip");
+            return Decision.rejected(ipWait);
+        }
+
+        if (email != null && !email.isBlank()) {
+            long emailWait = emailLimiter.tryAcquire(email.trim().toLowerCase(Locale.ROOT));
+            if (emailWait > 0) {
+                reject(endpoint, "email");
+                return Decision.rejected(emailWait);
+            }
+        }
+        return Decision.ALLOWED;
+    }
+
+    private void reject(String endpoint, String reason) {
+        meterRegistry.counter("auth.rate_limit.rejected", "endpoint", endpoint, "reason", reason).increment();
+    }
+
+    public static final class Decision {
+        static final Decision ALLOWED = new Decision(true, 0);
+
+        private final boolean allowed;
+        private final long retryAfterMillis;
+
+        private Decision(boolean allowed, long retryAfterMillis) {
+            this.allowed = allowed;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        static Decision rejected(long retryAfterMillis) {
+            return new Decision(false, retryAfterMillis);
+        }
+
+        public boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * Valoarea pentru antetul Retry-After (secunde, rotunjit in sus)
+         */
+        public long getRetryAfterSeconds() {
+            return Math.max(1, retryAfterMillis / 1000 + (retryAfterMillis % 1000 == 0 ? 0 : 1));
+        }
+    }
+}
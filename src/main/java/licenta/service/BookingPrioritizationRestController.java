@@ -1,6 +1,7 @@
 package licenta.service;
 
 import licenta.model.*;
+import licenta.model.dtos.ProfileEligibilityCounts;
 import licenta.persistence.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -8,7 +9,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -21,17 +21,21 @@ public class BookingPrioritizationRestController {
 
     private static final Logger logger = LoggerFactory.getLogger(BookingPrioritizationRestController.class);
 
+    static final long DEFAULT_GENERATION_TIME_BUDGET_MS = 85000;
+    private static final int PROGRESS_LOG_INTERVAL = 500;
+
     private final IReservationProfileRepository reservationProfileRepository;
     private final IUserSpringRepository userRepository;
     private final ISportsHallSpringRepository sportsHallRepository;
     private final IReservationSpringRepository reservationRepository;
     private final IScheduleSpringRepository scheduleRepository;
 
-    @Value("${spring.mail.username}")
-    private String senderEmail;
+    // Timpul total alocat unei generari; profilurile neprocesate pana la expirare sunt raportate ca amanate
+    @Value("${booking.generation.time-budget-ms:85000}")
+    private long generationTimeBudgetMs = DEFAULT_GENERATION_TIME_BUDGET_MS;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private EmailOutbox emailOutbox;
 
     @Autowired
     public BookingPrioritizationRestController(
@@ -59,9 +63,15 @@ public class BookingPrioritizationRestController {
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Rezervările au fost generate cu succes.");
+            response.put("message", result.getDeferredProfiles().isEmpty()
+                    ? "Rezervările au fost generate cu succes."
+                    : "Rezervările au fost generate parțial: " + result.getDeferredProfiles().size()
+                    + " profiluri au fost amânate din cauza limitei de timp.");
             response.put("count", result.getTotalReservations());
             response.put("successfulProfiles", result.getSuccessfulProfiles());
+            response.put("deferredCount", result.getDeferredProfiles().size());
+            response.put("deletedCount", result.getDeletedReservations());
+            response.put("notifiedUsers", result.getNotifiedUsers());
 
             // Trimite doar un sumar compact
             List<Map<String, Object>> profileSummary = result.getProfileResults().stream()
@@ -70,6 +80,12 @@ public class BookingPrioritizationRestController {
 
             response.put("profileResults", profileSummary);
 
+            List<Map<String, Object>> deferredSummary = result.getDeferredProfiles().stream()
+                    .map(this::createDeferredSummary)
+                    .collect(Collectors.toList());
+
+            response.put("deferredProfiles", deferredSummary);
+
             logger.info("=== GENERARE COMPLETĂ: {} rezervări pentru {} profiluri ===",
                     result.getTotalReservations(), result.getSuccessfulProfiles());
 
@@ -105,6 +121,15 @@ public class BookingPrioritizationRestController {
         return summary;
     }
 
+    private Map<String, Object> createDeferredSummary(DeferredProfile deferredProfile) {
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("profileId", deferredProfile.getProfile().getId());
+        summary.put("profileName", deferredProfile.getProfile().getName());
+        summary.put("phase", deferredProfile.getPhase());
+        summary.put("reservationCount", deferredProfile.getReservationCount());
+        return summary;
+    }
+
     private Map<String, Object> createReservationSummary(Reservation reservation) {
         Map<String, Object> summary = new HashMap<>();
         summary.put("date", formatDate(reservation.getDate()));
@@ -122,17 +147,18 @@ public class BookingPrioritizationRestController {
         try {
             Map<String, Object> status = new HashMap<>();
 
-            List<ReservationProfile> allProfiles = (List<ReservationProfile>) reservationProfileRepository.findAll();
-            List<ReservationProfile> eligibleProfiles = getEligibleProfiles();
-            List<SportsHall> activeHalls = getActiveHalls();
+            // Doar contori: profilurile si salile nu sunt incarcate
+            ProfileEligibilityCounts profileCounts = reservationProfileRepository.countProfilesByEligibility();
+            long eligibleProfiles = profileCounts.getEligibleProfiles() != null ? profileCounts.getEligibleProfiles() : 0;
+            Long activeHalls = sportsHallRepository.countActiveHalls();
 
             Date nextMonday = calculateNextWeekStart();
             Date nextSunday = calculateWeekEnd(nextMonday);
 
             status.put("systemReady", true);
-            status.put("totalProfiles", allProfiles.size());
-            status.put("eligibleProfiles", eligibleProfiles.size());
-            status.put("activeHalls", activeHalls.size());
+            status.put("totalProfiles", profileCounts.getTotalProfiles());
+            status.put("eligibleProfiles", eligibleProfiles);
+            status.put("activeHalls", activeHalls != null ? activeHalls : 0L);
             status.put("nextWeekStart", formatDate(nextMonday));
             status.put("nextWeekEnd", formatDate(nextSunday));
             status.put("timestamp", new Date());
@@ -152,6 +178,7 @@ public class BookingPrioritizationRestController {
     private GenerationResult generateAutomatedBookings() {
         GenerationResult result = new GenerationResult();
         long startTime = System.currentTimeMillis();
+        long deadline = startTime + generationTimeBudgetMs;
 
         try {
             logger.info("=== ÎNCEPEREA GENERĂRII AUTOMATE CU ALOCARE ECHITABILĂ ===");
@@ -163,7 +190,7 @@ public class BookingPrioritizationRestController {
             logger.info("=== GENERARE PENTRU SĂPTĂMÂNA: {} - {} ===",
                     formatDate(nextMonday), formatDate(nextSunday));
 
-            deleteExistingReservationsForNextWeek(nextMonday, nextSunday);
+            int deletedReservations = deleteExistingReservationsForNextWeek(nextMonday, nextSunday);
 
             List<ReservationProfile> eligibleProfiles = getEligibleProfiles();
 
@@ -172,25 +199,28 @@ public class BookingPrioritizationRestController {
                 return result;
             }
 
-            // Max 30 de profiluri pentru a evita timeout-ul
-            if (eligibleProfiles.size() > 30) {
-                logger.warn("Se limitează la 30 profiluri din {} disponibile", eligibleProfiles.size());
-                eligibleProfiles = eligibleProfiles.subList(0, 30);
-            }
-
             List<ReservationProfile> prioritizedProfiles = prioritizeProfiles(eligibleProfiles);
             logger.info("Profiluri eligibile procesate: {}", prioritizedProfiles.size());
 
-            // 4. Creeaza programul disponibil
-            WeeklySchedule weeklySchedule = createWeeklySchedule(nextMonday);
+            // 4. Creeaza disponibilitatea sloturilor (masti de biti per sala si zi)
+            SlotAvailabilityEngine availability = createWeeklyAvailability(nextMonday);
 
             // 5. ALOCARE ECHITABILA IN 3 FAZE
-            result = allocateReservationsFairly(prioritizedProfiles, weeklySchedule, nextMonday, startTime);
+            result = allocateReservationsFairly(prioritizedProfiles, availability, nextMonday, deadline);
+            result.setDeletedReservations(deletedReservations);
+
+            // 6. Rezervarile sunt salvate; fiecare utilizator primeste un singur email cu tot ce a primit in cele 3 faze
+            result.setNotifiedUsers(sendConfirmationDigests(result));
 
             long totalTime = System.currentTimeMillis() - startTime;
             logger.info("=== GENERARE COMPLETĂ: {} rezervări pentru {} profiluri în {}ms ===",
                     result.getTotalReservations(), result.getSuccessfulProfiles(), totalTime);
 
+            if (!result.getDeferredProfiles().isEmpty()) {
+                logger.warn("{} profiluri au fost amânate după expirarea bugetului de timp de {}ms",
+                        result.getDeferredProfiles().size(), generationTimeBudgetMs);
+            }
+
         } catch (Exception e) {
             logger.error("Eroare critică în procesul de generare", e);
             throw new RuntimeException("Eroare la generarea rezervărilor: " + e.getMessage());
@@ -201,37 +231,29 @@ public class BookingPrioritizationRestController {
 
     /**
      * ALOCARE ECHITABILĂ ÎN 3 FAZE
+     * Fiecare fază parcurge profilurile în ordinea priorității și verifică termenul limită înaintea fiecărui profil.
+     * Profilurile la care nu se mai ajunge sunt trecute în lista de amânate, nu ignorate.
      */
     private GenerationResult allocateReservationsFairly(
             List<ReservationProfile> profiles,
-            WeeklySchedule schedule,
+            SlotAvailabilityEngine availability,
             Date startDate,
-            long globalStartTime) {
+            long deadline) {
 
         GenerationResult result = new GenerationResult();
 
         try {
             // FAZA 1: Alocare minima garantata (1 rezervare per echipa)
             logger.info("=== FAZA 1: Alocare minimă garantată pentru {} echipe ===", profiles.size());
-            result = allocateMinimumReservations(profiles, schedule, startDate, result, globalStartTime);
-
-            if (System.currentTimeMillis() - globalStartTime > 75000) { // 75s limit
-                logger.warn("Timeout global - se oprește după faza 1");
-                return result;
-            }
+            result = allocateMinimumReservations(profiles, availability, startDate, result, deadline);
 
             // FAZA 2: Distributie suplimentara in functie de prioritate si buget
             logger.info("=== FAZA 2: Distribuție suplimentară ===");
-            result = allocateAdditionalReservations(profiles, schedule, startDate, result, globalStartTime);
-
-            if (System.currentTimeMillis() - globalStartTime > 85000) { // 85s limit
-                logger.warn("Timeout global - se oprește după faza 2");
-                return result;
-            }
+            result = allocateAdditionalReservations(profiles, availability, startDate, result, deadline);
 
             // FAZA 3: Optimizare finala cu slot-urile ramase
             logger.info("=== FAZA 3: Optimizare finală ===");
-            result = optimizeFinalAllocation(profiles, schedule, startDate, result, globalStartTime);
+            result = optimizeFinalAllocation(profiles, availability, startDate, result, deadline);
 
         } catch (Exception e) {
             logger.error("Eroare în alocarea echitabilă: {}", e.getMessage());
@@ -245,24 +267,33 @@ public class BookingPrioritizationRestController {
      */
     private GenerationResult allocateMinimumReservations(
             List<ReservationProfile> profiles,
-            WeeklySchedule schedule,
+            SlotAvailabilityEngine availability,
             Date startDate,
             GenerationResult result,
-            long globalStartTime) {
+            long deadline) {
 
         logger.info("Alocand minimum 1 rezervare pentru {} echipe", profiles.size());
         int successCount = 0;
 
-        for (ReservationProfile profile : profiles) {
-            try {
-                // Verifică timeout
-                if (System.currentTimeMillis() - globalStartTime > 60000) { // 60s pentru faza 1
-                    logger.warn("Timeout în faza 1 după {} profiluri procesate", successCount);
-                    break;
+        for (int index = 0; index < profiles.size(); index++) {
+            ReservationProfile profile = profiles.get(index);
+
+            if (System.currentTimeMillis() > deadline) {
+                logger.warn("Bugetul de timp a expirat în faza 1 după {} profiluri procesate", index);
+                for (ReservationProfile deferred : profiles.subList(index, profiles.size())) {
+                    result.addDeferredProfile(deferred, 1, 0);
                 }
+                break;
+            }
+
+            if (index > 0 && index % PROGRESS_LOG_INTERVAL == 0) {
+                logger.info("Faza 1: {}/{} profiluri procesate", index, profiles.size());
+            }
+
+            try {
 
                 // Găsește cel mai bun slot disponibil pentru această echipă
-                AvailableSlot bestSlot = findBestAvailableSlotForProfile(profile, schedule, startDate);
+                AvailableSlot bestSlot = findBestAvailableSlotForProfile(profile, availability);
 
                 if (bestSlot != null && profile.getWeeklyBudget().compareTo(bestSlot.getPrice()) >= 0) {
                     // Creează rezervarea
@@ -278,18 +309,11 @@ public class BookingPrioritizationRestController {
                         profileResult.setReservations(reservations);
                         result.addProfileResult(profileResult);
 
-                        // Actualizează programul pentru a marca slot-ul ca ocupat
-                        updateScheduleWithReservations(schedule, reservations);
+                        // Actualizează disponibilitatea pentru a marca slot-ul ca ocupat
+                        markReservationsOccupied(availability, reservations);
 
                         successCount++;
                         logger.debug("Echipa '{}' a primit rezervarea minimă garantată", profile.getName());
-
-                        // Trimite email asyncron
-                        try {
-                            sendConfirmationEmail(profile.getUser(), reservations);
-                        } catch (Exception e) {
-                            logger.debug("Eroare email pentru {}: {}", profile.getName(), e.getMessage());
-                        }
                     } else {
                         logger.warn("Nu s-a putut crea rezervarea minimă pentru '{}'", profile.getName());
                         result.addFailedProfile(profile, "Eroare la crearea rezervării minime");
@@ -315,10 +339,10 @@ public class BookingPrioritizationRestController {
      */
     private GenerationResult allocateAdditionalReservations(
             List<ReservationProfile> profiles,
-            WeeklySchedule schedule,
+            SlotAvailabilityEngine availability,
             Date startDate,
             GenerationResult result,
-            long globalStartTime) {
+            long deadline) {
 
         logger.info("Alocând rezervări suplimentare pentru echipele cu buget și prioritate mare");
 
@@ -341,13 +365,20 @@ public class BookingPrioritizationRestController {
 
         int additionalCount = 0;
 
-        for (ProfileResult profileResult : successfulProfiles) {
-            try {
-                if (System.currentTimeMillis() - globalStartTime > 75000) {
-                    logger.warn("Timeout în faza 2 după {} rezervări suplimentare", additionalCount);
-                    break;
-                }
+        for (int index = 0; index < successfulProfiles.size(); index++) {
+            ProfileResult profileResult = successfulProfiles.get(index);
+
+            if (System.currentTimeMillis() > deadline) {
+                logger.warn("Bugetul de timp a expirat în faza 2 după {} rezervări suplimentare", additionalCount);
+                deferProfilesBelowMaximum(result, successfulProfiles.subList(index, successfulProfiles.size()), 2);
+                break;
+            }
+
+            if (index > 0 && index % PROGRESS_LOG_INTERVAL == 0) {
+                logger.info("Faza 2: {}/{} profiluri procesate", index, successfulProfiles.size());
+            }
 
+            try {
                 ReservationProfile profile = profileResult.getProfile();
                 int maxBookings = getMaxBookingsForProfile(profile);
                 int currentBookings = profileResult.getReservations().size();
@@ -362,23 +393,14 @@ public class BookingPrioritizationRestController {
                         // Căutăm slot-uri pentru diferența până la maxim
                         int slotsNeeded = maxBookings - currentBookings;
 
-                        List<AvailableSlot> additionalSlots = findAdditionalSlotsForProfile(
-                                profile, schedule, startDate, slotsNeeded);
-
-                        // FILTREAZĂ slot-urile care sunt în zile cu rezervări existente
-                        Set<String> existingDates = profileResult.getReservations().stream()
-                                .map(r -> formatDate(r.getDate()))
-                                .collect(Collectors.toSet());
-
-                        logger.debug("Profil '{}' are deja rezervări în zilele: {}",
-                                profile.getName(), existingDates);
+                        // Zilele cu rezervări existente sunt excluse direct din căutare
+                        int usedDayMask = dayMask(availability, profileResult.getReservations());
 
-                        additionalSlots = additionalSlots.stream()
-                                .filter(slot -> !existingDates.contains(formatDate(slot.getDate())))
-                                .collect(Collectors.toList());
+                        List<AvailableSlot> additionalSlots = findAdditionalSlotsForProfile(
+                                profile, availability, slotsNeeded, usedDayMask);
 
-                        logger.debug("Slot-uri disponibile pentru '{}': {} din care {} în zile noi",
-                                profile.getName(), additionalSlots.size(), additionalSlots.size());
+                        logger.debug("Slot-uri disponibile în zile noi pentru '{}': {}",
+                                profile.getName(), additionalSlots.size());
 
                         if (!additionalSlots.isEmpty()) {
                             List<SelectedReservation> selectedAdditional = selectReservationsWithinBudgetLimited(
@@ -392,7 +414,7 @@ public class BookingPrioritizationRestController {
                                 allReservations.addAll(additionalReservations);
                                 profileResult.setReservations(allReservations);
 
-                                updateScheduleWithReservations(schedule, additionalReservations);
+                                markReservationsOccupied(availability, additionalReservations);
 
                                 additionalCount += additionalReservations.size();
                                 logger.info("Echipa '{}' ({}) a primit {} rezervări suplimentare (total: {}/{})",
@@ -420,31 +442,23 @@ public class BookingPrioritizationRestController {
     }
 
     /**
-     * FAZA 3: Optimizare finală - distribuie slot-urile rămase echitabil
+     * FAZA 3: Optimizare finală - distribuie slot-urile rămase echitabil.
+     * Echipele cu cele mai puține rezervări primesc câte un slot pe rând, cât timp au buget și zile libere.
      */
     private GenerationResult optimizeFinalAllocation(
             List<ReservationProfile> profiles,
-            WeeklySchedule schedule,
+            SlotAvailabilityEngine availability,
             Date startDate,
             GenerationResult result,
-            long globalStartTime) {
+            long deadline) {
 
         logger.info("Optimizare finală - distribuind slot-urile rămase");
 
-        List<AvailableSlot> remainingSlots = findAllRemainingSlots(schedule, startDate);
-
-        if (remainingSlots.isEmpty()) {
+        if (availability.countAvailableSlots() == 0) {
             logger.info("Nu mai există slot-uri disponibile pentru optimizare");
             return result;
         }
 
-        if (remainingSlots.size() > 50) {
-            Collections.shuffle(remainingSlots, new Random());
-            remainingSlots = remainingSlots.subList(0, 50);
-        }
-
-        logger.info("Slot-uri ramase pentru optimizare: {}", remainingSlots.size());
-
         List<ProfileResult> profilesWithBudget = result.getProfileResults().stream()
                 .filter(ProfileResult::isSuccess)
                 .filter(pr -> {
@@ -458,67 +472,69 @@ public class BookingPrioritizationRestController {
                     int bookings2 = p2.getReservations().size();
                     return Integer.compare(bookings1, bookings2);
                 })
-                .collect(Collectors.toList());
+                .collect(Collectors.toCollection(ArrayList::new));
 
-        int slotIndex = 0;
         int optimizedCount = 0;
         boolean anyAllocation = true;
 
-        while (anyAllocation && slotIndex < remainingSlots.size()) {
-            if (System.currentTimeMillis() - globalStartTime > 88000) {
-                logger.warn("Timeout în faza 3 după {} optimizări", optimizedCount);
-                break;
-            }
-
+        while (anyAllocation && !profilesWithBudget.isEmpty()) {
             anyAllocation = false;
 
-            for (ProfileResult profileResult : profilesWithBudget) {
-                if (slotIndex >= remainingSlots.size()) break;
+            Iterator<ProfileResult> iterator = profilesWithBudget.iterator();
+            while (iterator.hasNext()) {
+                if (System.currentTimeMillis() > deadline) {
+                    logger.warn("Bugetul de timp a expirat în faza 3 după {} optimizări", optimizedCount);
+                    deferProfilesBelowMaximum(result, profilesWithBudget, 3);
+                    logger.info("Faza 3 întreruptă: {} optimizări realizate", optimizedCount);
+                    return result;
+                }
 
+                ProfileResult profileResult = iterator.next();
                 ReservationProfile profile = profileResult.getProfile();
+
+                if (profileResult.getReservations().size() >= getMaxBookingsForProfile(profile)) {
+                    iterator.remove();
+                    continue;
+                }
+
                 BigDecimal remainingBudget = calculateRemainingBudget(profile, profileResult.getReservations());
-                AvailableSlot slot = remainingSlots.get(slotIndex);
 
-                // VERIFICĂ dacă profilul are deja rezervare în această zi
-                String slotDateKey = formatDate(slot.getDate());
-                boolean hasReservationOnThisDay = profileResult.getReservations().stream()
-                        .anyMatch(r -> formatDate(r.getDate()).equals(slotDateKey));
+                // Zilele în care profilul are deja rezervare sunt excluse din căutare
+                AvailableSlot slot = findAffordableSlotForProfile(profile, availability,
+                        dayMask(availability, profileResult.getReservations()), remainingBudget);
 
-                if (hasReservationOnThisDay) {
-                    slotIndex++; // Sari la următorul slot
+                if (slot == null) {
+                    iterator.remove();
                     continue;
                 }
 
-                if (remainingBudget.compareTo(slot.getPrice()) >= 0 &&
-                        isSlotSuitableForProfile(profile, slot) &&
-                        profileResult.getReservations().size() < getMaxBookingsForProfile(profile)) {
+                try {
+                    SelectedReservation newReservation = new SelectedReservation(
+                            slot.getHall(), slot.getDate(), slot.getTimeSlot(), slot.getPrice());
 
-                    try {
-                        SelectedReservation newReservation = new SelectedReservation(
-                                slot.getHall(), slot.getDate(), slot.getTimeSlot(), slot.getPrice());
+                    List<Reservation> newReservations = createReservationsFromSelected(
+                            Arrays.asList(newReservation), profile.getUser());
 
-                        List<Reservation> newReservations = createReservationsFromSelected(
-                                Arrays.asList(newReservation), profile.getUser());
+                    if (newReservations.isEmpty()) {
+                        iterator.remove();
+                        continue;
+                    }
 
-                        if (!newReservations.isEmpty()) {
-                            List<Reservation> allReservations = new ArrayList<>(profileResult.getReservations());
-                            allReservations.addAll(newReservations);
-                            profileResult.setReservations(allReservations);
+                    List<Reservation> allReservations = new ArrayList<>(profileResult.getReservations());
+                    allReservations.addAll(newReservations);
+                    profileResult.setReservations(allReservations);
 
-                            updateScheduleWithReservations(schedule, newReservations);
+                    markReservationsOccupied(availability, newReservations);
 
-                            anyAllocation = true;
-                            optimizedCount++;
-                            logger.debug("Optimizare: Echipa '{}' a primit slot suplimentar în ziua {}",
-                                    profile.getName(), slotDateKey);
-                        }
+                    anyAllocation = true;
+                    optimizedCount++;
+                    logger.debug("Optimizare: Echipa '{}' a primit slot suplimentar în ziua {}",
+                            profile.getName(), formatDate(slot.getDate()));
 
-                    } catch (Exception e) {
-                        logger.debug("Eroare la optimizarea pentru '{}': {}", profile.getName(), e.getMessage());
-                    }
+                } catch (Exception e) {
+                    logger.debug("Eroare la optimizarea pentru '{}': {}", profile.getName(), e.getMessage());
+                    iterator.remove();
                 }
-
-                slotIndex++;
             }
         }
 
@@ -527,49 +543,29 @@ public class BookingPrioritizationRestController {
     }
 
     /**
-     * Gaseste cel mai bun slot disponibil pentru o echipa (pentru rezervarea minima)
+     * Marchează ca amânate profilurile care nu au ajuns încă la numărul maxim de rezervări
      */
-    private AvailableSlot findBestAvailableSlotForProfile(
-            ReservationProfile profile, WeeklySchedule schedule, Date startDate) {
+    private void deferProfilesBelowMaximum(GenerationResult result, List<ProfileResult> pending, int phase) {
+        for (ProfileResult profileResult : pending) {
+            if (profileResult.getReservations().size() < getMaxBookingsForProfile(profileResult.getProfile())) {
+                result.addDeferredProfile(profileResult.getProfile(), phase, profileResult.getReservations().size());
+            }
+        }
+    }
 
-        TimeInterval preferredInterval = getPreferredTimeInterval(profile.getTimeInterval());
-        boolean isSenior = isSeniorCategory(profile.getAgeCategory());
-        List<SportsHall> profileHalls = getProfileHalls(profile);
+    /**
+     * Gaseste cel mai bun slot disponibil pentru o echipa (pentru rezervarea minima)
+     */
+    private AvailableSlot findBestAvailableSlotForProfile(ReservationProfile profile, SlotAvailabilityEngine availability) {
+        ProfileSlotQuery query = buildProfileSlotQuery(profile, availability);
 
-        if (profileHalls.isEmpty()) {
+        if (query.hallOrdinals.length == 0) {
             return null;
         }
 
-        List<AvailableSlot> candidateSlots = new ArrayList<>();
-
-        // Cauta in toate zilele saptamanii (cu limitari pentru performanta)
-        int slotsFound = 0;
-        for (Map.Entry<String, DaySchedule> dayEntry : schedule.getDaySchedules().entrySet()) {
-            Date currentDate = parseDate(dayEntry.getKey());
-            DaySchedule daySchedule = dayEntry.getValue();
-
-            for (SportsHall hall : profileHalls) {
-                HallDaySchedule hallSchedule = daySchedule.getHallSchedule(hall.getId());
-                if (hallSchedule == null) continue;
-
-                for (Map.Entry<String, TimeSlot> slotEntry : hallSchedule.getSlots().entrySet()) {
-                    String timeSlot = slotEntry.getKey();
-                    TimeSlot slot = slotEntry.getValue();
-
-                    if (isSlotSuitableForProfile(slot, preferredInterval, isSenior)) {
-                        AvailableSlot availableSlot = new AvailableSlot(
-                                hall, currentDate, timeSlot, BigDecimal.valueOf(hall.getTariff()));
-                        availableSlot.setPriority(calculateSlotPriority(timeSlot, preferredInterval));
-                        candidateSlots.add(availableSlot);
-
-                        slotsFound++;
-                        if (slotsFound >= 30) break;
-                    }
-                }
-                if (slotsFound >= 30) break;
-            }
-            if (slotsFound >= 30) break;
-        }
+        // Ziua de start e aleasa aleator ca echipele cu aceeasi prioritate sa nu se aglomereze in aceeasi zi
+        List<AvailableSlot> candidateSlots = collectAvailableSlots(
+                query, availability, 0, new Random().nextInt(SlotAvailabilityEngine.DAYS_PER_WEEK), Integer.MAX_VALUE);
 
         if (candidateSlots.isEmpty()) {
             return null;
@@ -594,111 +590,102 @@ public class BookingPrioritizationRestController {
     }
 
     /**
-     * Găsește slot-uri suplimentare pentru o echipă (evitând duplicatele)
+     * Găsește slot-uri suplimentare pentru o echipă, doar în zilele care nu apar în usedDayMask
      */
     private List<AvailableSlot> findAdditionalSlotsForProfile(
-            ReservationProfile profile, WeeklySchedule schedule, Date startDate, int maxAdditional) {
-
-        TimeInterval preferredInterval = getPreferredTimeInterval(profile.getTimeInterval());
-        boolean isSenior = isSeniorCategory(profile.getAgeCategory());
-        List<SportsHall> profileHalls = getProfileHalls(profile);
-
-        List<AvailableSlot> availableSlots = new ArrayList<>();
-
-        // CĂUTĂM în TOATE zilele săptămânii pentru a avea suficiente opțiuni
-        int slotsFound = 0;
-        for (Map.Entry<String, DaySchedule> dayEntry : schedule.getDaySchedules().entrySet()) {
-            Date currentDate = parseDate(dayEntry.getKey());
-            DaySchedule daySchedule = dayEntry.getValue();
-
-            for (SportsHall hall : profileHalls) {
-                HallDaySchedule hallSchedule = daySchedule.getHallSchedule(hall.getId());
-                if (hallSchedule == null) continue;
+            ReservationProfile profile, SlotAvailabilityEngine availability, int maxAdditional, int usedDayMask) {
 
-                for (Map.Entry<String, TimeSlot> slotEntry : hallSchedule.getSlots().entrySet()) {
-                    String timeSlot = slotEntry.getKey();
-                    TimeSlot slot = slotEntry.getValue();
+        ProfileSlotQuery query = buildProfileSlotQuery(profile, availability);
 
-                    if (isSlotSuitableForProfile(slot, preferredInterval, isSenior)) {
-                        AvailableSlot availableSlot = new AvailableSlot(
-                                hall, currentDate, timeSlot, BigDecimal.valueOf(hall.getTariff()));
-                        availableSlot.setPriority(calculateSlotPriority(timeSlot, preferredInterval));
-                        availableSlots.add(availableSlot);
+        List<AvailableSlot> availableSlots = collectAvailableSlots(
+                query, availability, usedDayMask, 0, Integer.MAX_VALUE);
 
-                        slotsFound++;
-                        // MĂRESC limita pentru a avea mai multe opțiuni
-                        if (slotsFound >= maxAdditional * 20) break; // Înainte era * 8
-                    }
-                }
-                if (slotsFound >= maxAdditional * 20) break;
-            }
-            if (slotsFound >= maxAdditional * 20) break;
-        }
-
-        // Sortează după prioritate și păstrează mai multe slot-uri
+        // Sortează după prioritate și păstrează mai multe slot-uri pentru a avea opțiuni în zile diferite
         availableSlots.sort((a, b) -> Integer.compare(b.getPriority(), a.getPriority()));
 
-        // Returnează mai multe slot-uri pentru a avea opțiuni în zile diferite
         return availableSlots.stream()
-                .limit(maxAdditional * 10) // Înainte era * 3, acum * 10
+                .limit(maxAdditional * 10L)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Găsește toate slot-urile încă disponibile în program
+     * Primul slot liber al profilului, în afara zilelor excluse, care încape în bugetul dat
      */
-    private List<AvailableSlot> findAllRemainingSlots(WeeklySchedule schedule, Date startDate) {
-        List<AvailableSlot> remainingSlots = new ArrayList<>();
-        List<SportsHall> activeHalls = getActiveHalls();
-
-        int slotsFound = 0;
-        for (Map.Entry<String, DaySchedule> dayEntry : schedule.getDaySchedules().entrySet()) {
-            Date currentDate = parseDate(dayEntry.getKey());
-            DaySchedule daySchedule = dayEntry.getValue();
-
-            for (SportsHall hall : activeHalls) {
-                HallDaySchedule hallSchedule = daySchedule.getHallSchedule(hall.getId());
-                if (hallSchedule == null) continue;
-
-                for (Map.Entry<String, TimeSlot> slotEntry : hallSchedule.getSlots().entrySet()) {
-                    String timeSlot = slotEntry.getKey();
-                    TimeSlot slot = slotEntry.getValue();
-
-                    if (slot.getStatus() == SlotStatus.AVAILABLE) {
-                        AvailableSlot availableSlot = new AvailableSlot(
-                                hall, currentDate, timeSlot, BigDecimal.valueOf(hall.getTariff()));
-                        remainingSlots.add(availableSlot);
-
-                        slotsFound++;
-                        // Limitează pentru performanță
-                        if (slotsFound >= 100) break;
+    private AvailableSlot findAffordableSlotForProfile(ReservationProfile profile, SlotAvailabilityEngine availability,
+                                                      int excludedDayMask, BigDecimal budget) {
+        ProfileSlotQuery query = buildProfileSlotQuery(profile, availability);
+        AvailableSlot[] found = new AvailableSlot[1];
+
+        availability.forEachAvailable(query.hallOrdinals, query.slotMask, excludedDayMask,
+                new Random().nextInt(SlotAvailabilityEngine.DAYS_PER_WEEK), (hall, day, slot) -> {
+                    if (budget.compareTo(availability.getPrice(hall)) < 0) {
+                        return true;
                     }
-                }
-                if (slotsFound >= 100) break;
-            }
-            if (slotsFound >= 100) break;
-        }
+                    found[0] = createAvailableSlot(availability, hall, day, slot);
+                    found[0].setPriority(query.slotPriorities[slot]);
+                    return false;
+                });
 
-        return remainingSlots;
+        return found[0];
     }
 
     /**
-     * Verifică dacă un slot este potrivit pentru o echipă (versiune simplificată)
+     * Precalculează pentru un profil salile (ca ordinale), masca sloturilor permise și prioritatea fiecărui slot
      */
-    private boolean isSlotSuitableForProfile(ReservationProfile profile, AvailableSlot slot) {
+    private ProfileSlotQuery buildProfileSlotQuery(ReservationProfile profile, SlotAvailabilityEngine availability) {
         TimeInterval preferredInterval = getPreferredTimeInterval(profile.getTimeInterval());
         boolean isSenior = isSeniorCategory(profile.getAgeCategory());
 
-        // Verifica daca sala este in lista echipei
-        boolean hallMatch = getProfileHalls(profile).stream()
-                .anyMatch(h -> h.getId().equals(slot.getHall().getId()));
+        int[] hallOrdinals = getProfileHalls(profile).stream()
+                .mapToInt(hall -> availability.hallOrdinal(hall.getId()))
+                .filter(hall -> hall >= 0)
+                .toArray();
+
+        long slotMask = SlotAvailabilityEngine.slotMask(
+                preferredInterval.getStartMinutes(), preferredInterval.getEndMinutes(), isSenior);
+
+        int[] slotPriorities = new int[SlotAvailabilityEngine.SLOT_COUNT];
+        for (int slot = 0; slot < slotPriorities.length; slot++) {
+            slotPriorities[slot] = calculateSlotPriority(SlotAvailabilityEngine.TIME_SLOTS[slot], preferredInterval);
+        }
+
+        return new ProfileSlotQuery(hallOrdinals, slotMask, slotPriorities);
+    }
 
-        if (!hallMatch) return false;
+    /**
+     * Colectează slot-urile libere care se potrivesc profilului (intersecția măștii de disponibilitate cu cea a profilului)
+     */
+    private List<AvailableSlot> collectAvailableSlots(ProfileSlotQuery query, SlotAvailabilityEngine availability,
+                                                      int excludedDayMask, int firstDay, int maxSlots) {
+        List<AvailableSlot> slots = new ArrayList<>();
+
+        availability.forEachAvailable(query.hallOrdinals, query.slotMask, excludedDayMask, firstDay, (hall, day, slot) -> {
+            AvailableSlot availableSlot = createAvailableSlot(availability, hall, day, slot);
+            availableSlot.setPriority(query.slotPriorities[slot]);
+            slots.add(availableSlot);
+            return slots.size() < maxSlots;
+        });
+
+        return slots;
+    }
 
-        // Creeaza un TimeSlot temporar pentru verificare
-        TimeSlot tempSlot = new TimeSlot(slot.getTimeSlot(), SlotStatus.AVAILABLE, slot.getHall().getTariff());
+    private AvailableSlot createAvailableSlot(SlotAvailabilityEngine availability, int hall, int day, int slot) {
+        return new AvailableSlot(availability.getHall(hall), availability.getDate(day),
+                SlotAvailabilityEngine.TIME_SLOTS[slot], availability.getPrice(hall), hall, day, slot);
+    }
 
-        return isSlotSuitableForProfile(tempSlot, preferredInterval, isSenior);
+    /**
+     * Masca zilelor (bitul d = ziua d a săptămânii) în care există deja rezervări
+     */
+    private int dayMask(SlotAvailabilityEngine availability, List<Reservation> reservations) {
+        int mask = 0;
+        for (Reservation reservation : reservations) {
+            int day = availability.dayOrdinal(reservation.getDate());
+            if (day >= 0) {
+                mask |= 1 << day;
+            }
+        }
+        return mask;
     }
 
     /**
@@ -783,41 +770,13 @@ public class BookingPrioritizationRestController {
     /**
      * Șterge rezervările existente din săptămâna următoare - OPTIMIZAT
      */
-    private void deleteExistingReservationsForNextWeek(Date startDate, Date endDate) {
+    private int deleteExistingReservationsForNextWeek(Date startDate, Date endDate) {
         logger.info("Ștergerea rezervărilor pentru săptămâna {} - {}", formatDate(startDate), formatDate(endDate));
 
         try {
-            List<Reservation> allReservations = (List<Reservation>) reservationRepository.findAll();
-            List<Reservation> toDelete = new ArrayList<>();
-
-            for (Reservation reservation : allReservations) {
-                if (reservation.getDate() != null &&
-                        "reservation".equals(reservation.getType()) &&
-                        !reservation.getDate().before(startDate) &&
-                        !reservation.getDate().after(endDate)) {
-                    toDelete.add(reservation);
-                }
-            }
-
-            if (!toDelete.isEmpty()) {
-                logger.info("Se șterg {} rezervări din săptămâna următoare", toDelete.size());
-                reservationRepository.deleteAll(toDelete);
-
-                // Verificare
-                Thread.sleep(200);
-                long remaining = ((List<Reservation>) reservationRepository.findAll()).stream()
-                        .filter(r -> r.getDate() != null &&
-                                "reservation".equals(r.getType()) &&
-                                !r.getDate().before(startDate) &&
-                                !r.getDate().after(endDate))
-                        .count();
-
-                if (remaining > 0) {
-                    logger.warn("Încă există {} rezervări după ștergere!", remaining);
-                } else {
-                    logger.info("Toate rezervările au fost șterse cu succes");
-                }
-            }
+            int deleted = reservationRepository.purgeReservationsByDateRange(startDate, endDate);
+            logger.info("S-au șters {} rezervări din săptămâna următoare", deleted);
+            return deleted;
         } catch (Exception e) {
             logger.error("Eroare la ștergerea rezervărilor: {}", e.getMessage());
             throw new RuntimeException("Eroare la ștergerea rezervărilor: " + e.getMessage());
@@ -825,14 +784,14 @@ public class BookingPrioritizationRestController {
     }
 
     /**
-     * Obține profilurile eligibile pentru generare - OPTIMIZAT
+     * Obține profilurile eligibile pentru generare
      */
     private List<ReservationProfile> getEligibleProfiles() {
-        List<ReservationProfile> allProfiles = (List<ReservationProfile>) reservationProfileRepository.findAll();
+        // Utilizatorul si salile sunt incarcate in aceeasi interogare, altfel fiecare profil ar face inca doua
+        List<ReservationProfile> allProfiles = reservationProfileRepository.findAllWithUserAndSelectedHalls();
 
         return allProfiles.stream()
                 .filter(this::isProfileEligible)
-                .limit(30) // Limiteaza din start
                 .collect(Collectors.toList());
     }
 
@@ -891,333 +850,54 @@ public class BookingPrioritizationRestController {
     }
 
     /**
-     * Creează programul săptămânal disponibil - OPTIMIZAT
-     */
-    private WeeklySchedule createWeeklySchedule(Date startDate) {
-        WeeklySchedule schedule = new WeeklySchedule();
-        List<SportsHall> activeHalls = getActiveHalls();
-
-        // Limiteaza nr de sali pentru performanta
-        if (activeHalls.size() > 15) {
-            activeHalls = activeHalls.subList(0, 15);
-        }
-
-        // Pentru fiecare zi din saptamana (luni - duminica)
-        for (int dayOffset = 0; dayOffset < 7; dayOffset++) {
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(startDate);
-            cal.add(Calendar.DAY_OF_YEAR, dayOffset);
-            Date currentDate = cal.getTime();
-
-            DaySchedule daySchedule = createDaySchedule(currentDate, activeHalls);
-            schedule.addDaySchedule(formatDate(currentDate), daySchedule);
-        }
-
-        // Marcheaza sloturile deja ocupate
-        markExistingReservations(schedule, startDate);
-
-        return schedule;
-    }
-
-    /**
-     * Creează programul pentru o zi - OPTIMIZAT
-     */
-    private DaySchedule createDaySchedule(Date date, List<SportsHall> halls) {
-        DaySchedule daySchedule = new DaySchedule();
-        int dayOfWeek = getDayOfWeekForSchedule(date);
-
-        for (SportsHall hall : halls) {
-            try {
-                HallDaySchedule hallSchedule = createHallDaySchedule(hall, dayOfWeek);
-                daySchedule.addHallSchedule(hall.getId(), hallSchedule);
-            } catch (Exception e) {
-                logger.debug("Eroare la crearea programului pentru sala {}: {}", hall.getId(), e.getMessage());
-            }
-        }
-
-        return daySchedule;
-    }
-
-    /**
-     * Creează programul unei săli pentru o zi - OPTIMIZAT
+     * Creează disponibilitatea săptămânală ca măști de biți: programul tuturor sălilor e citit într-o singură
+     * interogare, apoi sloturile din orele de funcționare sunt deschise pentru fiecare zi
      */
-    private HallDaySchedule createHallDaySchedule(SportsHall hall, int dayOfWeek) {
-        HallDaySchedule hallSchedule = new HallDaySchedule();
-
-        try {
-            // Gaseste programul salii pentru aceasta zi
-            List<Schedule> hallSchedules = scheduleRepository.findBySportsHallIdAndIsActiveOrderByDayOfWeek(hall.getId(), true);
-            Optional<Schedule> dayScheduleOpt = hallSchedules.stream()
-                    .filter(s -> s.getDayOfWeek().equals(dayOfWeek))
-                    .findFirst();
-
-            List<String> timeSlots = generateTimeSlots();
-
-            for (String timeSlot : timeSlots) {
-                SlotStatus status = determineSlotStatus(timeSlot, dayScheduleOpt);
-                hallSchedule.addSlot(timeSlot, new TimeSlot(timeSlot, status, hall.getTariff()));
-            }
-        } catch (Exception e) {
-            logger.debug("Eroare la crearea programului sălii {}: {}", hall.getId(), e.getMessage());
-        }
-
-        return hallSchedule;
-    }
-
-    /**
-     * Determina statusul unui slot
-     */
-    private SlotStatus determineSlotStatus(String timeSlot, Optional<Schedule> daySchedule) {
-        if (daySchedule.isEmpty()) {
-            return SlotStatus.HALL_CLOSED;
-        }
-
-        try {
-            Schedule schedule = daySchedule.get();
-            if (isSlotInWorkingHours(timeSlot, schedule.getStartTime(), schedule.getEndTime())) {
-                return SlotStatus.AVAILABLE;
-            } else {
-                return SlotStatus.OUTSIDE_HOURS;
-            }
-        } catch (Exception e) {
-            return SlotStatus.HALL_CLOSED;
-        }
-    }
-
-    /**
-     * Verifică dacă un slot este în orele de funcționare
-     */
-    private boolean isSlotInWorkingHours(String timeSlot, String startTime, String endTime) {
-        try {
-            String slotStartTime = timeSlot.split(" - ")[0];
-            int slotStart = timeToMinutes(slotStartTime);
-            int workingStart = timeToMinutes(startTime);
-            int workingEnd = timeToMinutes(endTime);
-
-            return slotStart >= workingStart && slotStart < workingEnd;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    /**
-     * Convertește ora în minute
-     */
-    private int timeToMinutes(String timeString) {
-        try {
-            String[] parts = timeString.split(":");
-            return Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
-        } catch (Exception e) {
-            return 0;
-        }
-    }
-
-    /**
-     * Generează rezervări pentru un profil
-     */
-    private ProfileResult generateReservationsForProfile(ReservationProfile profile, WeeklySchedule weeklySchedule, Date startDate) {
-        ProfileResult result = new ProfileResult(profile);
-
-        try {
-            // Parametrii pentru profil
-            int maxBookings = getMaxBookingsForProfile(profile);
-            BigDecimal budget = profile.getWeeklyBudget();
-            TimeInterval preferredInterval = getPreferredTimeInterval(profile.getTimeInterval());
-            boolean isSenior = isSeniorCategory(profile.getAgeCategory());
-
-            // Găsește sloturile disponibile pentru profil - OPTIMIZAT
-            List<AvailableSlot> availableSlots = findAvailableSlotsForProfile(
-                    profile, weeklySchedule, startDate, preferredInterval, isSenior);
-
-            if (availableSlots.isEmpty()) {
-                logger.debug("Nu există slot-uri disponibile pentru profilul '{}'", profile.getName());
-                return result;
-            }
-
-            // Aplică distribuția echilibrată doar dacă avem multe opțiuni
-            if (availableSlots.size() > maxBookings * 3) {
-                availableSlots = balanceDistribution(availableSlots, maxBookings * 2);
-            }
-
-            // Selectează rezervările în funcție de buget și numărul maxim
-            List<SelectedReservation> selectedReservations = selectReservationsWithinBudget(
-                    availableSlots, maxBookings, budget);
-
-            if (selectedReservations.isEmpty()) {
-                logger.debug("Nu s-au putut selecta rezervări pentru profilul '{}'", profile.getName());
-                return result;
-            }
-
-            // Creează rezervările
-            List<Reservation> reservations = createReservationsFromSelected(selectedReservations, profile.getUser());
-            result.setReservations(reservations);
-
-            // Actualizează programul cu rezervările create
-            updateScheduleWithReservations(weeklySchedule, reservations);
-
-            // Trimite email de confirmare (fără a bloca procesul)
-            try {
-                sendConfirmationEmail(profile.getUser(), reservations);
-            } catch (Exception e) {
-                logger.debug("Eroare la trimiterea email-ului pentru {}: {}", profile.getName(), e.getMessage());
-            }
-
-        } catch (Exception e) {
-            logger.error("Eroare la generarea rezervărilor pentru profilul '{}': {}", profile.getName(), e.getMessage());
-            result.setError(e.getMessage());
-        }
-
-        return result;
-    }
-
-    /**
-     * Găsește sloturile disponibile pentru un profil
-     */
-    private List<AvailableSlot> findAvailableSlotsForProfile(
-            ReservationProfile profile, WeeklySchedule weeklySchedule, Date startDate,
-            TimeInterval preferredInterval, boolean isSenior) {
+    private SlotAvailabilityEngine createWeeklyAvailability(Date startDate) {
+        List<SportsHall> activeHalls = getActiveHalls().stream()
+                .filter(hall -> hall.getTariff() != null)
+                .collect(Collectors.toList());
 
-        List<AvailableSlot> availableSlots = new ArrayList<>();
-        List<SportsHall> profileHalls = getProfileHalls(profile);
+        SlotAvailabilityEngine availability = new SlotAvailabilityEngine(startDate, activeHalls);
+        WeeklyScheduleSnapshot schedules = loadScheduleSnapshot(activeHalls);
 
-        if (profileHalls.isEmpty()) {
-            return availableSlots;
+        int[] daysOfWeek = new int[availability.getDayCount()];
+        for (int day = 0; day < daysOfWeek.length; day++) {
+            daysOfWeek[day] = getDayOfWeekForSchedule(availability.getDate(day));
         }
 
-        int maxSlots = getMaxBookingsForProfile(profile) * 15; // Limiteaza cautarea
-
-        // Colecteaza toate slot-urile disponibile
-        outerLoop:
-        for (Map.Entry<String, DaySchedule> dayEntry : weeklySchedule.getDaySchedules().entrySet()) {
-            Date currentDate = parseDate(dayEntry.getKey());
-            DaySchedule daySchedule = dayEntry.getValue();
-
-            for (SportsHall hall : profileHalls) {
-                HallDaySchedule hallSchedule = daySchedule.getHallSchedule(hall.getId());
-                if (hallSchedule == null) continue;
-
-                for (Map.Entry<String, TimeSlot> slotEntry : hallSchedule.getSlots().entrySet()) {
-                    String timeSlot = slotEntry.getKey();
-                    TimeSlot slot = slotEntry.getValue();
-
-                    if (isSlotSuitableForProfile(slot, preferredInterval, isSenior)) {
-                        AvailableSlot availableSlot = new AvailableSlot(
-                                hall, currentDate, timeSlot, BigDecimal.valueOf(hall.getTariff()));
-                        availableSlot.setPriority(calculateSlotPriority(timeSlot, preferredInterval));
-                        availableSlots.add(availableSlot);
-
-                        // EARLY EXIT pentru performanta
-                        if (availableSlots.size() >= maxSlots) {
-                            break outerLoop;
-                        }
-                    }
+        for (int hall = 0; hall < availability.getHallCount(); hall++) {
+            long hallId = availability.getHall(hall).getId();
+            for (int day = 0; day < daysOfWeek.length; day++) {
+                if (schedules.isOpen(hallId, daysOfWeek[day])) {
+                    availability.openSlots(hall, day,
+                            schedules.openMinutes(hallId, daysOfWeek[day]), schedules.closeMinutes(hallId, daysOfWeek[day]));
                 }
             }
         }
 
-        // Aplica diversificarea doar daca avem suficiente slot-uri
-        if (availableSlots.size() > getMaxBookingsForProfile(profile) * 4) {
-            return diversifySlotSelection(availableSlots);
-        } else {
-            // Pentru liste mici, doar amesteca
-            Collections.shuffle(availableSlots, new Random());
-            return availableSlots;
-        }
-    }
-
-    /**
-     * Diversifică selecția de slot-uri
-     */
-    private List<AvailableSlot> diversifySlotSelection(List<AvailableSlot> availableSlots) {
-        if (availableSlots.isEmpty()) {
-            return availableSlots;
-        }
-
-        if (availableSlots.size() > 200) {
-            Collections.shuffle(availableSlots, new Random());
-            return availableSlots.subList(0, 200);
-        }
-
-        try {
-            // Grupeaza slot-urile dupa prioritate
-            Map<Integer, List<AvailableSlot>> priorityGroups = availableSlots.stream()
-                    .collect(Collectors.groupingBy(AvailableSlot::getPriority));
-
-            List<AvailableSlot> diversifiedSlots = new ArrayList<>();
-            Random random = new Random();
-
-            // Limiteaza nr de grupuri procesate
-            List<Integer> sortedPriorities = priorityGroups.keySet().stream()
-                    .sorted((a, b) -> Integer.compare(b, a))
-                    .limit(8) // LIMITARE: Proceseaza doar top 8 grupuri de prioritate
-                    .collect(Collectors.toList());
-
-            // Pentru fiecare nivel de prioritate, amesteca slot-urile
-            for (Integer priority : sortedPriorities) {
-                List<AvailableSlot> groupSlots = new ArrayList<>(priorityGroups.get(priority));
-
-                if (groupSlots.size() > 30) {
-                    Collections.shuffle(groupSlots, random);
-                    groupSlots = groupSlots.subList(0, 30);
-                }
-
-                Collections.shuffle(groupSlots, random);
-
-                // Adauga o parte din slot-uri pentru diversitate
-                int maxSlotsFromGroup = Math.min(15, Math.max(1, groupSlots.size() / 2));
-                diversifiedSlots.addAll(groupSlots.subList(0, Math.min(maxSlotsFromGroup, groupSlots.size())));
-
-                // LIMITARE CRITICA: Nu depăși 100 de slot-uri
-                if (diversifiedSlots.size() > 100) {
-                    break;
-                }
-            }
-
-            // Amesteca rezultatul final
-            Collections.shuffle(diversifiedSlots, random);
-
-            // LIMITARE FINALA
-            if (diversifiedSlots.size() > 80) {
-                diversifiedSlots = diversifiedSlots.subList(0, 80);
-            }
-
-            return diversifiedSlots;
+        // Marcheaza sloturile deja ocupate
+        markExistingReservations(availability, startDate);
 
-        } catch (Exception e) {
-            logger.debug("Eroare în diversifySlotSelection: {}", e.getMessage());
-            Collections.shuffle(availableSlots, new Random());
-            return availableSlots.subList(0, Math.min(50, availableSlots.size()));
-        }
+        return availability;
     }
 
     /**
-     * Verifică dacă un slot este potrivit pentru profil - OPTIMIZAT
+     * Încarcă programul activ al sălilor date într-un snapshot indexat după (sală, zi)
      */
-    private boolean isSlotSuitableForProfile(TimeSlot slot, TimeInterval preferredInterval, boolean isSenior) {
-        if (slot.getStatus() != SlotStatus.AVAILABLE) {
-            return false;
+    private WeeklyScheduleSnapshot loadScheduleSnapshot(List<SportsHall> halls) {
+        if (halls.isEmpty()) {
+            return WeeklyScheduleSnapshot.of(Collections.emptyList());
         }
 
         try {
-            String startTime = slot.getTimeSlot().split(" - ")[0];
-            int hour = Integer.parseInt(startTime.split(":")[0]);
-            int minute = Integer.parseInt(startTime.split(":")[1]);
-            int totalMinutes = hour * 60 + minute;
-
-            // Verifică intervalul preferat
-            if (totalMinutes < preferredInterval.getStartMinutes() ||
-                    totalMinutes >= preferredInterval.getEndMinutes()) {
-                return false;
-            }
-
-            // Aplica regula pentru seniori/juniori la ora 14:30
-            if (isSenior) {
-                return hour < 14 || (hour == 14 && minute == 0);
-            } else {
-                return hour > 14 || (hour == 14 && minute == 30);
-            }
+            List<Long> hallIds = halls.stream().map(SportsHall::getId).collect(Collectors.toList());
+            WeeklyScheduleSnapshot snapshot = WeeklyScheduleSnapshot.of(scheduleRepository.findByHallIdsAndIsActiveTrue(hallIds));
+            logger.debug("Program încărcat: {} intrări (sală, zi) pentru {} săli", snapshot.size(), halls.size());
+            return snapshot;
         } catch (Exception e) {
-            return false;
+            logger.error("Eroare la încărcarea programului sălilor: {}", e.getMessage());
+            return WeeklyScheduleSnapshot.of(Collections.emptyList());
         }
     }
 
@@ -1247,88 +927,39 @@ public class BookingPrioritizationRestController {
         }
     }
 
-    /**
-     * Selectează rezervările în funcție de buget - OPTIMIZAT
-     */
-    private List<SelectedReservation> selectReservationsWithinBudget(
-            List<AvailableSlot> availableSlots, int maxBookings, BigDecimal budget) {
-
-        List<SelectedReservation> selected = new ArrayList<>();
-        BigDecimal remainingBudget = budget;
-
-        // Constrangeri pentru diversitate
-        Set<String> usedDateSlots = new HashSet<>();
-        Map<Long, Integer> hallUsageCount = new HashMap<>();  // Limiteaza rezervarile per sala
-        Map<String, Integer> timeSlotUsageCount = new HashMap<>();  // Limiteaza slot-urile identice
-
-        Random random = new Random();
-
-        // Amesteca slot-urile pentru selectie aleatorie
-        List<AvailableSlot> shuffledSlots = new ArrayList<>(availableSlots);
-        Collections.shuffle(shuffledSlots, random);
-
-        for (AvailableSlot slot : shuffledSlots) {
-            if (selected.size() >= maxBookings) break;
-
-            String dateSlotKey = formatDate(slot.getDate()) + "_" + slot.getTimeSlot();
-            if (usedDateSlots.contains(dateSlotKey)) continue;
-
-            // Verifica dacă bugetul permite
-            if (remainingBudget.compareTo(slot.getPrice()) < 0) continue;
-
-            // CONSTRANGERI DE DIVERSITATE
-
-            // 1. Limitează numărul de rezervări per sală (max 60% din total)
-            int maxPerHall = Math.max(1, maxBookings * 60 / 100);
-            if (hallUsageCount.getOrDefault(slot.getHall().getId(), 0) >= maxPerHall) {
-                continue;
-            }
-
-            // 2. Limitează slot-urile identice (max 50% din total)
-            int maxPerTimeSlot = Math.max(1, maxBookings / 2);
-            if (timeSlotUsageCount.getOrDefault(slot.getTimeSlot(), 0) >= maxPerTimeSlot) {
-                continue;
-            }
-
-            // 3. Adaugă o șansă de a sări peste slot-uri pentru mai multă diversitate
-            if (selected.size() > 0 && random.nextDouble() < 0.12) { // 12% șansă să sară
-                continue;
-            }
-
-            // Selectează slot-ul
-            SelectedReservation reservation = new SelectedReservation(
-                    slot.getHall(), slot.getDate(), slot.getTimeSlot(), slot.getPrice());
-            selected.add(reservation);
-
-            // Actualizează constrângerile
-            remainingBudget = remainingBudget.subtract(slot.getPrice());
-            usedDateSlots.add(dateSlotKey);
-            hallUsageCount.merge(slot.getHall().getId(), 1, Integer::sum);
-            timeSlotUsageCount.merge(slot.getTimeSlot(), 1, Integer::sum);
-        }
-
-        return selected;
-    }
-
     /**
      * Creează rezervările din selecția făcută (fara plata)
      */
     private List<Reservation> createReservationsFromSelected(List<SelectedReservation> selectedReservations, User user) {
-        List<Reservation> reservations = new ArrayList<>();
+        List<Reservation> pending = new ArrayList<>(selectedReservations.size());
 
         for (SelectedReservation selected : selectedReservations) {
+            Reservation reservation = new Reservation();
+            reservation.setHall(selected.getHall());
+            reservation.setUser(user);
+            reservation.setDate(selected.getDate());
+            reservation.setTimeSlot(selected.getTimeSlot());
+            reservation.setPrice(selected.getPrice().floatValue());
+            reservation.setType("reservation");
+            reservation.setStatus("CONFIRMED");
+            pending.add(reservation);
+        }
+
+        // O singura tranzactie si un batch JDBC pentru toate rezervarile profilului
+        try {
+            List<Reservation> reservations = new ArrayList<>(pending.size());
+            reservationRepository.saveAll(pending).forEach(reservations::add);
+            return reservations;
+        } catch (Exception e) {
+            logger.debug("Salvarea în lot a eșuat pentru {}, se salvează individual: {}", user.getEmail(), e.getMessage());
+        }
+
+        // Fallback: o rezervare respinsa (ex. slot ocupat intre timp) nu le anuleaza pe celelalte
+        List<Reservation> reservations = new ArrayList<>();
+        for (Reservation reservation : pending) {
             try {
-                Reservation reservation = new Reservation();
-                reservation.setHall(selected.getHall());
-                reservation.setUser(user);
-                reservation.setDate(selected.getDate());
-                reservation.setTimeSlot(selected.getTimeSlot());
-                reservation.setPrice(selected.getPrice().floatValue());
-                reservation.setType("reservation");
-                reservation.setStatus("CONFIRMED");
-
-                Reservation savedReservation = reservationRepository.save(reservation);
-                reservations.add(savedReservation);
+                reservation.setId(null);
+                reservations.add(reservationRepository.save(reservation));
             } catch (Exception e) {
                 logger.debug("Eroare la salvarea rezervării pentru {}: {}", user.getEmail(), e.getMessage());
             }
@@ -1338,14 +969,48 @@ public class BookingPrioritizationRestController {
     }
 
     /**
-     * Trimite email de confirmare (fara plata)
+     * Grupeaza rezervarile din toate fazele dupa utilizator (un utilizator poate avea mai multe profiluri)
+     * si pune in outbox cate un email de confirmare per utilizator, toate intr-o singura tranzactie
      */
-    private void sendConfirmationEmail(User user, List<Reservation> reservations) {
+    private int sendConfirmationDigests(GenerationResult result) {
+        Map<Long, User> users = new LinkedHashMap<>();
+        Map<Long, List<Reservation>> reservationsByUser = new LinkedHashMap<>();
+
+        for (ProfileResult profileResult : result.getProfileResults()) {
+            User user = profileResult.getProfile().getUser();
+            if (!profileResult.isSuccess() || user == null || user.getId() == null) {
+                continue;
+            }
+            users.putIfAbsent(user.getId(), user);
+            reservationsByUser.computeIfAbsent(user.getId(), id -> new ArrayList<>())
+                    .addAll(profileResult.getReservations());
+        }
+
+        List<OutboxEmail> digests = new ArrayList<>(users.size());
+        Comparator<Reservation> byDateAndSlot = Comparator
+                .comparing(Reservation::getDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparingInt(reservation -> SlotAvailabilityEngine.slotOrdinal(reservation.getTimeSlot()));
+
+        reservationsByUser.forEach((userId, reservations) -> {
+            reservations.sort(byDateAndSlot);
+            OutboxEmail digest = ReservationEmailService.createReservationConfirmationEmail(users.get(userId), reservations, null);
+            if (digest != null) {
+                digests.add(digest);
+            }
+        });
+
+        if (digests.isEmpty() || emailOutbox == null) {
+            return 0;
+        }
+
         try {
-            ReservationEmailService.sendReservationConfirmationEmail(
-                    mailSender, senderEmail, user, reservations, null);
+            int queued = emailOutbox.enqueueAll(digests);
+            logger.info("Email-uri de confirmare programate pentru {} utilizatori", queued);
+            return queued;
         } catch (Exception e) {
-            logger.debug("Eroare la trimiterea email-ului de confirmare pentru {}: {}", user.getEmail(), e.getMessage());
+            // Rezervarile raman valide chiar daca notificarile nu au putut fi programate
+            logger.error("Eroare la programarea email-urilor de confirmare: {}", e.getMessage(), e);
+            return 0;
         }
     }
 
@@ -1354,7 +1019,6 @@ public class BookingPrioritizationRestController {
     private List<SportsHall> getActiveHalls() {
         return ((List<SportsHall>) sportsHallRepository.findAll()).stream()
                 .filter(hall -> hall.getStatus() == SportsHall.HallStatus.ACTIVE)
-                .limit(15) // Limitează numărul de săli
                 .collect(Collectors.toList());
     }
 
@@ -1362,7 +1026,6 @@ public class BookingPrioritizationRestController {
         return profile.getSelectedHalls().stream()
                 .filter(hall -> hall.getCity().equals(profile.getCity()) &&
                         hall.getStatus() == SportsHall.HallStatus.ACTIVE)
-                .limit(10) // Limitează și aici
                 .collect(Collectors.toList());
     }
 
@@ -1399,14 +1062,6 @@ public class BookingPrioritizationRestController {
         return dayOfWeek == 1 ? 7 : dayOfWeek - 1; // Convertește din format Calendar la format backend
     }
 
-    private List<String> generateTimeSlots() {
-        return Arrays.asList(
-                "08:30 - 10:00", "10:00 - 11:30", "11:30 - 13:00",
-                "13:00 - 14:30", "14:30 - 16:00", "16:00 - 17:30",
-                "17:30 - 19:00", "19:00 - 20:30", "20:30 - 22:00"
-        );
-    }
-
     private String formatDate(Date date) {
         Calendar cal = Calendar.getInstance();
         cal.setTime(date);
@@ -1416,208 +1071,61 @@ public class BookingPrioritizationRestController {
                 cal.get(Calendar.DAY_OF_MONTH));
     }
 
-    private Date parseDate(String dateStr) {
-        try {
-            String[] parts = dateStr.split("-");
-            Calendar cal = Calendar.getInstance();
-            cal.set(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]) - 1, Integer.parseInt(parts[2]));
-            return cal.getTime();
-        } catch (Exception e) {
-            return new Date();
-        }
-    }
-
-    private void markExistingReservations(WeeklySchedule schedule, Date startDate) {
+    /**
+     * Marchează ca ocupate sloturile din săptămâna curentă, citind doar rezervările din fereastra săptămânii
+     */
+    private void markExistingReservations(SlotAvailabilityEngine availability, Date startDate) {
         try {
             Calendar cal = Calendar.getInstance();
             cal.setTime(startDate);
-            cal.add(Calendar.DAY_OF_YEAR, 6);
+            cal.add(Calendar.DAY_OF_YEAR, SlotAvailabilityEngine.DAYS_PER_WEEK);
             Date endDate = cal.getTime();
 
-            List<Reservation> existingReservations = (List<Reservation>) reservationRepository.findAll();
+            List<Reservation> existingReservations =
+                    reservationRepository.findByOptionalHallAndTypeInDateWindow(null, null, startDate, endDate);
 
             for (Reservation reservation : existingReservations) {
-                if (isReservationInCurrentWeek(reservation, startDate, endDate)) {
-                    markSlotAsOccupied(schedule, reservation);
-                }
+                markSlotAsOccupied(availability, reservation);
             }
         } catch (Exception e) {
             logger.debug("Eroare la marcarea rezervărilor existente: {}", e.getMessage());
         }
     }
 
-    private boolean isReservationInCurrentWeek(Reservation reservation, Date startDate, Date endDate) {
+    private void markSlotAsOccupied(SlotAvailabilityEngine availability, Reservation reservation) {
         try {
-            Date reservationDate = reservation.getDate();
-            return reservationDate != null
-                    && !reservationDate.before(startDate)
-                    && !reservationDate.after(endDate);
-        } catch (Exception e) {
-            return false;
-        }
-    }
+            boolean occupies = "maintenance".equals(reservation.getType())
+                    || ("reservation".equals(reservation.getType()) && !"CANCELLED".equals(reservation.getStatus()));
 
-    private void markSlotAsOccupied(WeeklySchedule schedule, Reservation reservation) {
-        try {
-            String dateKey = formatDate(reservation.getDate());
-            Long hallId = reservation.getHall().getId();
-            String timeSlot = reservation.getTimeSlot();
-
-            DaySchedule daySchedule = schedule.getDaySchedule(dateKey);
-            if (daySchedule != null) {
-                HallDaySchedule hallSchedule = daySchedule.getHallSchedule(hallId);
-                if (hallSchedule != null) {
-                    TimeSlot slot = hallSchedule.getSlot(timeSlot);
-                    if (slot != null) {
-                        if ("maintenance".equals(reservation.getType())) {
-                            slot.setStatus(SlotStatus.MAINTENANCE);
-                        } else if ("reservation".equals(reservation.getType()) &&
-                                !"CANCELLED".equals(reservation.getStatus())) {
-                            slot.setStatus(SlotStatus.BOOKED);
-                        }
-                    }
-                }
+            if (occupies && reservation.getHall() != null) {
+                availability.markOccupied(reservation.getHall().getId(), reservation.getDate(), reservation.getTimeSlot());
             }
         } catch (Exception e) {
             logger.debug("Eroare la marcarea slot-ului ocupat: {}", e.getMessage());
         }
     }
 
-    private void updateScheduleWithReservations(WeeklySchedule schedule, List<Reservation> reservations) {
+    private void markReservationsOccupied(SlotAvailabilityEngine availability, List<Reservation> reservations) {
         for (Reservation reservation : reservations) {
-            markSlotAsOccupied(schedule, reservation);
-        }
-    }
-
-    /**
-     * Distribuție echilibrată
-     */
-    private List<AvailableSlot> balanceDistribution(List<AvailableSlot> availableSlots, int maxBookings) {
-        if (availableSlots.isEmpty() || availableSlots.size() <= maxBookings) {
-            return availableSlots;
-        }
-
-        // LIMITARE CRITICĂ pentru performanță
-        if (availableSlots.size() > 150) {
-            Collections.shuffle(availableSlots, new Random());
-            availableSlots = availableSlots.subList(0, 150);
-        }
-
-        try {
-            Map<String, List<AvailableSlot>> slotsByDay = availableSlots.stream()
-                    .collect(Collectors.groupingBy(slot -> formatDate(slot.getDate())));
-
-            List<AvailableSlot> balancedSlots = new ArrayList<>();
-            Random random = new Random();
-
-            // Încearca sa distribuie uniform pe zile
-            int slotsPerDay = Math.max(1, maxBookings / 7);
-
-            for (Map.Entry<String, List<AvailableSlot>> dayEntry : slotsByDay.entrySet()) {
-                List<AvailableSlot> daySlots = dayEntry.getValue();
-                Collections.shuffle(daySlots, random);
-
-                int slotsToTake = Math.min(slotsPerDay, daySlots.size());
-                balancedSlots.addAll(daySlots.subList(0, slotsToTake));
-
-                // LIMITARE: Nu depasi capacitatea
-                if (balancedSlots.size() >= maxBookings * 2) {
-                    break;
-                }
-            }
-
-            // Completeaza cu slot-uri ramase DOAR daca e necesar
-            if (balancedSlots.size() < maxBookings && balancedSlots.size() < availableSlots.size()) {
-                List<AvailableSlot> remainingSlots = availableSlots.stream()
-                        .filter(slot -> !balancedSlots.contains(slot))
-                        .limit(maxBookings)
-                        .collect(Collectors.toList());
-
-                Collections.shuffle(remainingSlots, random);
-                int needed = Math.min(maxBookings - balancedSlots.size(), remainingSlots.size());
-                if (needed > 0) {
-                    balancedSlots.addAll(remainingSlots.subList(0, needed));
-                }
-            }
-
-            Collections.shuffle(balancedSlots, random);
-            return balancedSlots.subList(0, Math.min(maxBookings * 2, balancedSlots.size()));
-
-        } catch (Exception e) {
-            logger.debug("Eroare în balanceDistribution: {}", e.getMessage());
-            Collections.shuffle(availableSlots, new Random());
-            return availableSlots.subList(0, Math.min(maxBookings, availableSlots.size()));
+            markSlotAsOccupied(availability, reservation);
         }
     }
 
     // Clase pentru gestionarea programului si rezultatelor
 
-    public static class WeeklySchedule {
-        private final Map<String, DaySchedule> daySchedules = new HashMap<>();
-
-        public void addDaySchedule(String date, DaySchedule daySchedule) {
-            daySchedules.put(date, daySchedule);
-        }
-
-        public DaySchedule getDaySchedule(String date) {
-            return daySchedules.get(date);
-        }
-
-        public Map<String, DaySchedule> getDaySchedules() {
-            return daySchedules;
-        }
-    }
-
-    public static class DaySchedule {
-        private final Map<Long, HallDaySchedule> hallSchedules = new HashMap<>();
-
-        public void addHallSchedule(Long hallId, HallDaySchedule schedule) {
-            hallSchedules.put(hallId, schedule);
-        }
-
-        public HallDaySchedule getHallSchedule(Long hallId) {
-            return hallSchedules.get(hallId);
-        }
-    }
-
-    public static class HallDaySchedule {
-        private final Map<String, TimeSlot> slots = new HashMap<>();
-
-        public void addSlot(String timeSlot, TimeSlot slot) {
-            slots.put(timeSlot, slot);
-        }
-
-        public TimeSlot getSlot(String timeSlot) {
-            return slots.get(timeSlot);
-        }
-
-        public Map<String, TimeSlot> getSlots() {
-            return slots;
-        }
-    }
-
-    public static class TimeSlot {
-        private String timeSlot;
-        private SlotStatus status;
-        private float tariff;
+    /**
+     * Criteriile unui profil traduse în ordinale ale motorului de disponibilitate
+     */
+    private static class ProfileSlotQuery {
+        private final int[] hallOrdinals;
+        private final long slotMask;
+        private final int[] slotPriorities;
 
-        public TimeSlot(String timeSlot, SlotStatus status, float tariff) {
-            this.timeSlot = timeSlot;
-            this.status = status;
-            this.tariff = tariff;
+        private ProfileSlotQuery(int[] hallOrdinals, long slotMask, int[] slotPriorities) {
+            this.hallOrdinals = hallOrdinals;
+            this.slotMask = slotMask;
+            this.slotPriorities = slotPriorities;
         }
-
-        // Getters and setters
-        public String getTimeSlot() { return timeSlot; }
-        public void setTimeSlot(String timeSlot) { this.timeSlot = timeSlot; }
-        public SlotStatus getStatus() { return status; }
-        public void setStatus(SlotStatus status) { this.status = status; }
-        public float getTariff() { return tariff; }
-        public void setTariff(float tariff) { this.tariff = tariff; }
-    }
-
-    public enum SlotStatus {
-        AVAILABLE, BOOKED, MAINTENANCE, OUTSIDE_HOURS, HALL_CLOSED
     }
 
     public static class AvailableSlot {
@@ -1626,6 +1134,9 @@ public class BookingPrioritizationRestController {
         private String timeSlot;
         private BigDecimal price;
         private int priority;
+        private int hallOrdinal = -1;
+        private int day = -1;
+        private int slot = -1;
 
         public AvailableSlot(SportsHall hall, Date date, String timeSlot, BigDecimal price) {
             this.hall = hall;
@@ -1634,6 +1145,14 @@ public class BookingPrioritizationRestController {
             this.price = price;
         }
 
+        public AvailableSlot(SportsHall hall, Date date, String timeSlot, BigDecimal price,
+                             int hallOrdinal, int day, int slot) {
+            this(hall, date, timeSlot, price);
+            this.hallOrdinal = hallOrdinal;
+            this.day = day;
+            this.slot = slot;
+        }
+
         public SportsHall getHall() { return hall; }
         public void setHall(SportsHall hall) { this.hall = hall; }
         public Date getDate() { return date; }
@@ -1644,6 +1163,9 @@ public class BookingPrioritizationRestController {
         public void setPrice(BigDecimal price) { this.price = price; }
         public int getPriority() { return priority; }
         public void setPriority(int priority) { this.priority = priority; }
+        public int getHallOrdinal() { return hallOrdinal; }
+        public int getDay() { return day; }
+        public int getSlot() { return slot; }
     }
 
     public static class SelectedReservation {
@@ -1686,6 +1208,10 @@ public class BookingPrioritizationRestController {
         private List<Reservation> reservations = new ArrayList<>();
         private List<ProfileResult> profileResults = new ArrayList<>();
         private List<String> errors = new ArrayList<>();
+        private List<DeferredProfile> deferredProfiles = new ArrayList<>();
+        private Set<ReservationProfile> deferredSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        private int deletedReservations;
+        private int notifiedUsers;
 
         public void addProfileResult(ProfileResult profileResult) {
             profileResults.add(profileResult);
@@ -1715,6 +1241,36 @@ public class BookingPrioritizationRestController {
                     .count();
         }
         public List<String> getErrors() { return errors; }
+
+        /**
+         * Un profil apare o singură dată, cu prima fază în care a fost amânat
+         */
+        public void addDeferredProfile(ReservationProfile profile, int phase, int reservationCount) {
+            if (deferredSet.add(profile)) {
+                deferredProfiles.add(new DeferredProfile(profile, phase, reservationCount));
+            }
+        }
+        public List<DeferredProfile> getDeferredProfiles() { return deferredProfiles; }
+        public int getDeletedReservations() { return deletedReservations; }
+        public void setDeletedReservations(int deletedReservations) { this.deletedReservations = deletedReservations; }
+        public int getNotifiedUsers() { return notifiedUsers; }
+        public void setNotifiedUsers(int notifiedUsers) { this.notifiedUsers = notifiedUsers; }
+    }
+
+    public static class DeferredProfile {
+        private final ReservationProfile profile;
+        private final int phase;
+        private final int reservationCount;
+
+        public DeferredProfile(ReservationProfile profile, int phase, int reservationCount) {
+            this.profile = profile;
+            this.phase = phase;
+            this.reservationCount = reservationCount;
+        }
+
+        public ReservationProfile getProfile() { return profile; }
+        public int getPhase() { return phase; }
+        public int getReservationCount() { return reservationCount; }
     }
 
     public static class ProfileResult {
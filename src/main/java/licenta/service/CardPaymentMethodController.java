@@ -4,6 +4,7 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentMethod;
 import com.stripe.param.PaymentMethodCreateParams;
 import jakarta.transaction.Transactional;
+import licenta.jwtservice.UserInfoDetails;
 import licenta.model.CardPaymentMethod;
 import licenta.model.User;
 import licenta.persistence.ICardPaymentMethodSpringRepository;
@@ -411,7 +412,10 @@ public class CardPaymentMethodController {
         if (authentication != null && authentication.isAuthenticated() &&
                 !(authentication.getPrincipal() instanceof String && authentication.getPrincipal().equals("anonymousUser"))) {
             Object principal = authentication.getPrincipal();
-            if (principal instanceof UserDetails) {
+            if (principal instanceof UserInfoDetails details && details.getUserId() != null) {
+                // Id-ul vine din claim-urile tokenului, fara interogare
+                return details.getUserId();
+            } else if (principal instanceof UserDetails) {
                 String username = ((UserDetails) principal).getUsername();
                 Optional<User> userOpt = userRepository.findByEmail(username);
                 return userOpt.map(User::getId).orElse(null);
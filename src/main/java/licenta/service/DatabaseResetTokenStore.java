@@ -0,0 +1,87 @@
+package licenta.service;
+
+import jakarta.transaction.Transactional;
+import licenta.model.PasswordResetToken;
+import licenta.persistence.IPasswordResetTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * {@link ResetTokenStore} in tabela password_reset_tokens, comun tuturor instantelor aplicatiei.
+ * Consumarea este un singur DELETE conditionat, deci doua instante nu pot folosi acelasi token.
+ * Randurile expirate sunt sterse la fiecare cerere noua; peste max-entries tokenuri valide put intoarce false.
+ */
+@Component
+@ConditionalOnProperty(name = "password-reset.token-store", havingValue = "database")
+public class DatabaseResetTokenStore implements ResetTokenStore {
+
+    private final IPasswordResetTokenRepository repository;
+    private final int maxEntries;
+    private final Clock clock;
+
+    @Autowired
+    public DatabaseResetTokenStore(IPasswordResetTokenRepository repository,
+                                   @Value("${password-reset.database.max-entries:100000}") int maxEntries) {
+        this(repository, maxEntries, Clock.systemDefaultZone());
+    }
+
+    DatabaseResetTokenStore(IPasswordResetTokenRepository repository, int maxEntries, Clock clock) {
+        this.repository = repository;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    @Override
+    @Transactional
+    public boolean put(String token, Entry entry) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        repository.deleteExpired(now);
+        int replaced = repository.deleteByEmail(entry.getEmail());
+        if (replaced == 0 && repository.countByExpiresAtAfter(now) >= maxEntries) {
+            return false;
+        }
+
+        repository.save(new PasswordResetToken(hash(token), entry.getEmail(), now, toDateTime(entry.getExpiresAtMillis())));
+        return true;
+    }
+
+    @Override
+    public Optional<Entry> get(String token) {
+        return repository.findByTokenHash(hash(token))
+                .map(row -> new Entry(row.getEmail(), row.getExpiresAt().atZone(clock.getZone()).toInstant().toEpochMilli()));
+    }
+
+    @Override
+    public boolean remove(String token) {
+        String tokenHash = hash(token);
+        if (repository.deleteValidByTokenHash(tokenHash, LocalDateTime.now(clock)) > 0) {
+            return true;
+        }
+        repository.deleteByTokenHash(tokenHash);
+        return false;
+    }
+
+    private LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), clock.getZone());
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package licenta.service;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import licenta.model.Email;
+import licenta.model.EmailRecipient;
+import licenta.model.dtos.EmailCampaignProgress;
+import licenta.persistence.IEmailRecipientRepository;
+import licenta.persistence.IEmailRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Trimiterea in fundal a emailurilor scrise de administratori catre grupuri de utilizatori.
+ * Destinatarii sunt impartiti in loturi; fiecare lot este trimis pe o singura conexiune SMTP
+ * (JavaMailSender.send cu mai multe mesaje) si salvat apoi printr-un singur saveAll.
+ * Cel mult email.campaign.connections loturi sunt trimise in paralel.
+ */
+@Service
+public class EmailCampaignService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailCampaignService.class);
+
+    static final String STATUS_SENDING = "SENDING";
+    static final String STATUS_SENT = "SENT";
+    static final String STATUS_PARTIAL = "PARTIAL";
+    static final String STATUS_FAILED = "FAILED";
+    static final String STATUS_INTERRUPTED = "INTERRUPTED";
+
+    private final IEmailRepository emailRepository;
+    private final IEmailRecipientRepository emailRecipientRepository;
+    private final JavaMailSender mailSender;
+    private final Executor emailCampaignExecutor;
+
+    @Value("${email.campaign.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${email.campaign.connections:3}")
+    private int connections = 3;
+
+    private final Map<Long, Campaign> runningCampaigns = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EmailCampaignService(IEmailRepository emailRepository,
+                                IEmailRecipientRepository emailRecipientRepository,
+                                JavaMailSender mailSender,
+                                @Qualifier("emailCampaignExecutor") Executor emailCampaignExecutor) {
+        this.emailRepository = emailRepository;
+        this.emailRecipientRepository = emailRecipientRepository;
+        this.mailSender = mailSender;
+        this.emailCampaignExecutor = emailCampaignExecutor;
+    }
+
+    /**
+     * Salveaza emailul (status SENDING) si porneste trimiterea in fundal; intoarce imediat.
+     * Arunca RejectedExecutionException daca pool-ul de trimitere este ocupat cu alte campanii.
+     */
+    public Email startCampaign(Email email, List<String> recipientEmails) {
+        Set<String> distinctRecipients = new LinkedHashSet<>(recipientEmails);
+        distinctRecipients.remove(null);
+        List<String> recipients = new ArrayList<>(distinctRecipients);
+
+        email.setStatus(STATUS_SENDING);
+        email.setTotalRecipients(recipients.size());
+        email.setSentCount(0);
+        email.setFailedCount(0);
+        Email savedEmail = emailRepository.save(email);
+
+        Campaign campaign = new Campaign(savedEmail, recipients, batchSize);
+        runningCampaigns.put(savedEmail.getId(), campaign);
+        if (campaign.batchCount == 0) {
+            finish(campaign);
+            return savedEmail;
+        }
+
+        int workers = Math.min(connections, campaign.batchCount);
+        for (int worker = 0; worker < workers; worker++) {
+            try {
+                emailCampaignExecutor.execute(() -> runWorker(campaign));
+            } catch (RejectedExecutionException e) {
+                if (worker == 0) {
+                    runningCampaigns.remove(savedEmail.getId());
+                    emailRepository.finishCampaign(savedEmail.getId(), STATUS_FAILED, 0, 0);
+                    throw e;
+                }
+                // Ceilalti workeri ai campaniei preiau loturile ramase
+                break;
+            }
+        }
+
+        logger.info("Email campaign {} started for {} recipients in {} batches",
+                savedEmail.getId(), recipients.size(), campaign.batchCount);
+        return savedEmail;
+    }
+
+    /**
+     * Progresul unei campanii: din memorie cat timp ruleaza, din baza de date dupa ce s-a terminat
+     */
+    public Optional<EmailCampaignProgress> getProgress(Long emailId) {
+        Campaign campaign = runningCampaigns.get(emailId);
+        if (campaign != null) {
+            return Optional.of(campaign.progress(STATUS_SENDING));
+        }
+
+        return emailRepository.findById(emailId).map(email -> {
+            int total = email.getTotalRecipients() != null
+                    ? email.getTotalRecipients()
+                    : emailRecipientRepository.countByEmailId(emailId).intValue();
+            int sent = email.getSentCount() != null && !STATUS_INTERRUPTED.equals(email.getStatus())
+                    ? email.getSentCount()
+                    : (int) emailRecipientRepository.countByEmailIdAndStatus(emailId, STATUS_SENT);
+            int failed = email.getFailedCount() != null && !STATUS_INTERRUPTED.equals(email.getStatus())
+                    ? email.getFailedCount()
+                    : (int) emailRecipientRepository.countByEmailIdAndStatus(emailId, STATUS_FAILED);
+            return new EmailCampaignProgress(emailId, email.getStatus(), total, sent, failed);
+        });
+    }
+
+    /**
+     * Campaniile ramase in SENDING la o oprire a aplicatiei nu mai sunt continuate
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedCampaigns() {
+        try {
+            int interrupted = emailRepository.updateStatus(STATUS_SENDING, STATUS_INTERRUPTED);
+            if (interrupted > 0) {
+                logger.warn("Marked {} unfinished email campaigns as interrupted", interrupted);
+            }
+        } catch (Exception e) {
+            logger.error("Could not mark unfinished email campaigns", e);
+        }
+    }
+
+    private void runWorker(Campaign campaign) {
+        List<String> batch;
+        while ((batch = campaign.batches.poll()) != null) {
+            try {
+                sendBatch(campaign, batch);
+            } catch (Exception e) {
+                logger.error("Email campaign {} batch failed", campaign.email.getId(), e);
+            }
+            if (campaign.remainingBatches.decrementAndGet() == 0) {
+                finish(campaign);
+            }
+        }
+    }
+
+    /**
+     * Trimite un lot pe o singura conexiune SMTP si salveaza statusul fiecarui destinatar
+     */
+    void sendBatch(Campaign campaign, List<String> batch) {
+        Email email = campaign.email;
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        Map<Object, String> recipientByMessage = new IdentityHashMap<>();
+        List<EmailRecipient> recipients = new ArrayList<>(batch.size());
+        Set<String> failed = new LinkedHashSet<>();
+
+        for (String recipientEmail : batch) {
+            try {
+                MimeMessage message = mailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+                helper.setFrom(email.getSender());
+                helper.setTo(recipientEmail);
+                helper.setSubject(email.getSubject());
+                helper.setText(email.getContent());
+                messages.add(message);
+                recipientByMessage.put(message, recipientEmail);
+            } catch (MessagingException e) {
+                // Adresa invalida: nu are rost sa o trimitem serverului
+                failed.add(recipientEmail);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                mailSender.send(messages.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                if (e.getFailedMessages().isEmpty()) {
+                    failed.addAll(recipientByMessage.values());
+                } else {
+                    e.getFailedMessages().keySet().forEach(message -> {
+                        String recipientEmail = recipientByMessage.get(message);
+                        if (recipientEmail != null) {
+                            failed.add(recipientEmail);
+                        }
+                    });
+                }
+                logger.warn("Email campaign {}: {} of {} messages in batch failed: {}",
+                        email.getId(), failed.size(), batch.size(), e.getMessage());
+            } catch (Exception e) {
+                failed.addAll(recipientByMessage.values());
+                logger.warn("Email campaign {}: batch of {} messages failed: {}", email.getId(), batch.size(), e.getMessage());
+            }
+        }
+
+        for (String recipientEmail : batch) {
+            EmailRecipient recipient = new EmailRecipient(recipientEmail);
+            recipient.setEmail(email);
+            recipient.setStatus(failed.contains(recipientEmail) ? STATUS_FAILED : STATUS_SENT);
+            recipients.add(recipient);
+        }
+        emailRecipientRepository.saveAll(recipients);
+
+        campaign.failedCount.addAndGet(failed.size());
+        campaign.sentCount.addAndGet(batch.size() - failed.size());
+    }
+
+    private void finish(Campaign campaign) {
+        Long emailId = campaign.email.getId();
+        int sent = campaign.sentCount.get();
+        int failed = campaign.failedCount.get();
+        String status = failed == 0 ? STATUS_SENT : sent == 0 ? STATUS_FAILED : STATUS_PARTIAL;
+        try {
+            emailRepository.finishCampaign(emailId, status, sent, failed);
+        } finally {
+            runningCampaigns.remove(emailId);
+        }
+        logger.info("Email campaign {} finished: {} sent, {} failed", emailId, sent, failed);
+    }
+
+    static final class Campaign {
+        private final Email email;
+        private final int totalRecipients;
+        private final int batchCount;
+        private final Queue<List<String>> batches = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger remainingBatches;
+        private final AtomicInteger sentCount = new AtomicInteger();
+        private final AtomicInteger failedCount = new AtomicInteger();
+
+        Campaign(Email email, List<String> recipients, int batchSize) {
+            this.email = email;
+            this.totalRecipients = recipients.size();
+            for (int from = 0; from < recipients.size(); from += batchSize) {
+                batches.add(Collections.unmodifiableList(recipients.subList(from, Math.min(from + batchSize, recipients.size()))));
+            }
+            this.batchCount = batches.size();
+            this.remainingBatches = new AtomicInteger(batchCount);
+        }
+
+        EmailCampaignProgress progress(String status) {
+            return new EmailCampaignProgress(email.getId(), status, totalRecipients, sentCount.get(), failedCount.get());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package licenta.service;
+
+import jakarta.transaction.Transactional;
+import licenta.model.OutboxEmail;
+import licenta.persistence.IEmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Punctul de intrare pentru emailurile trimise din aplicatie: emailul se salveaza ca rand in email_outbox
+ * (in tranzactia apelantului, daca exista) si este trimis in fundal de {@link EmailOutboxDispatcher}.
+ * Cererea care il genereaza nu mai asteapta serverul SMTP.
+ */
+@Service
+public class EmailOutbox {
+
+    private final IEmailOutboxRepository emailOutboxRepository;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    public EmailOutbox(IEmailOutboxRepository emailOutboxRepository, EmailOutboxDispatcher emailOutboxDispatcher) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailOutboxDispatcher = emailOutboxDispatcher;
+    }
+
+    @Transactional
+    public OutboxEmail enqueue(String recipient, String subject, String body) {
+        OutboxEmail email = emailOutboxRepository.save(new OutboxEmail(recipient, subject, body));
+        wakeDispatcherAfterCommit();
+        return email;
+    }
+
+    /**
+     * Pune mai multe emailuri in outbox intr-o singura tranzactie (INSERT-uri in batch) si trezeste o data dispatcher-ul
+     */
+    @Transactional
+    public int enqueueAll(List<OutboxEmail> emails) {
+        if (emails.isEmpty()) {
+            return 0;
+        }
+        emailOutboxRepository.saveAll(emails);
+        wakeDispatcherAfterCommit();
+        return emails.size();
+    }
+
+    public long countByStatus(OutboxEmail.Status status) {
+        return emailOutboxRepository.countByStatus(status);
+    }
+
+    // Dispatcher-ul nu vede randul pana la commit, asa ca trezirea se face dupa commit
+    private void wakeDispatcherAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    emailOutboxDispatcher.wakeUp();
+                }
+            });
+        } else {
+            emailOutboxDispatcher.wakeUp();
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package licenta.service;
+
+import jakarta.annotation.PreDestroy;
+import licenta.model.OutboxEmail;
+import licenta.persistence.IEmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Goleste outbox-ul de emailuri: un fir de fundal cauta periodic emailurile scadente, le preia
+ * (PENDING -> SENDING, conditionat, ca un email sa nu fie trimis de doua ori) si le trimite pe pool-ul
+ * emailDispatchExecutor. Esecurile sunt reincercate cu intarziere exponentiala; dupa
+ * email.outbox.max-attempts incercari (sau la un mesaj invalid) emailul ramane DEAD.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private final IEmailOutboxRepository emailOutboxRepository;
+    private final JavaMailSender mailSender;
+    private final Executor emailDispatchExecutor;
+
+    @Value("${spring.mail.username:}")
+    private String senderEmail;
+
+    @Value("${email.outbox.dispatcher.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${email.outbox.poll-interval-ms:5000}")
+    private long pollIntervalMs = 5000;
+
+    @Value("${email.outbox.batch-size:50}")
+    private int batchSize = 50;
+
+    @Value("${email.outbox.max-attempts:6}")
+    private int maxAttempts = 6;
+
+    @Value("${email.outbox.retry.initial-delay-ms:30000}")
+    private long initialRetryDelayMs = 30_000;
+
+    @Value("${email.outbox.retry.max-delay-ms:3600000}")
+    private long maxRetryDelayMs = 3_600_000;
+
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private volatile ScheduledExecutorService poller;
+
+    @Autowired
+    public EmailOutboxDispatcher(IEmailOutboxRepository emailOutboxRepository,
+                                 JavaMailSender mailSender,
+                                 @Qualifier("emailDispatchExecutor") Executor emailDispatchExecutor) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailSender = mailSender;
+        this.emailDispatchExecutor = emailDispatchExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!enabled || poller != null) {
+            return;
+        }
+
+        // Emailurile preluate inainte de o oprire brusca nu au ajuns la SENT; se reiau
+        int recovered = emailOutboxRepository.transitionAll(OutboxEmail.Status.SENDING, OutboxEmail.Status.PENDING);
+        if (recovered > 0) {
+            logger.warn("Requeued {} outbox emails left in SENDING by a previous run", recovered);
+        }
+
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::dispatchDueSafely, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Email outbox dispatcher started (poll every {} ms)", pollIntervalMs);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+            poller = null;
+        }
+    }
+
+    /**
+     * Cere o trecere imediata (ex. dupa commit-ul unei tranzactii care a pus emailuri in outbox).
+     * Cererile venite cat timp una este deja programata sunt comasate.
+     */
+    public void wakeUp() {
+        ScheduledExecutorService current = poller;
+        if (current == null || !wakeUpPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            current.execute(() -> {
+                wakeUpPending.set(false);
+                dispatchDueSafely();
+            });
+        } catch (RejectedExecutionException e) {
+            wakeUpPending.set(false);
+        }
+    }
+
+    /**
+     * Preia emailurile scadente si le trimite pe pool; intoarce cate au fost predate pool-ului
+     */
+    public int dispatchDue() {
+        List<Long> dueIds = emailOutboxRepository.findDueIds(OutboxEmail.Status.PENDING, LocalDateTime.now(),
+                PageRequest.of(0, batchSize));
+
+        int dispatched = 0;
+        for (Long emailId : dueIds) {
+            if (emailOutboxRepository.transition(emailId, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING) == 0) {
+                continue;
+            }
+            try {
+                emailDispatchExecutor.execute(() -> deliver(emailId));
+                dispatched++;
+            } catch (RejectedExecutionException e) {
+                // Pool-ul e ocupat: emailul revine in coada si e preluat la trecerea urmatoare
+                emailOutboxRepository.transition(emailId, OutboxEmail.Status.SENDING, OutboxEmail.Status.PENDING);
+                break;
+            }
+        }
+        return dispatched;
+    }
+
+    /**
+     * Trimite un email deja preluat (SENDING) si salveaza rezultatul
+     */
+    void deliver(Long emailId) {
+        Optional<OutboxEmail> emailOpt = emailOutboxRepository.findById(emailId);
+        if (emailOpt.isEmpty()) {
+            return;
+        }
+
+        OutboxEmail email = emailOpt.get();
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(senderEmail);
+            message.setTo(email.getRecipient());
+            message.setSubject(email.getSubject());
+            message.setText(email.getBody());
+            mailSender.send(message);
+
+            email.markSent(LocalDateTime.now());
+            logger.info("Outbox email {} sent to {}", emailId, email.getRecipient());
+        } catch (Exception e) {
+            boolean permanent = e instanceof MailParseException || e instanceof MailPreparationException;
+            boolean dead = permanent || email.getAttempts() + 1 >= maxAttempts;
+            Duration delay = retryDelay(email.getAttempts() + 1, initialRetryDelayMs, maxRetryDelayMs);
+            email.markFailed(e.getMessage(), LocalDateTime.now().plus(delay), dead);
+
+            if (dead) {
+                logger.error("Outbox email {} to {} moved to DEAD after {} attempts: {}",
+                        emailId, email.getRecipient(), email.getAttempts(), e.getMessage());
+            } else {
+                logger.warn("Outbox email {} to {} failed (attempt {}), retrying in {} s: {}",
+                        emailId, email.getRecipient(), email.getAttempts(), delay.toSeconds(), e.getMessage());
+            }
+        }
+        emailOutboxRepository.save(email);
+    }
+
+    /**
+     * initialDelay * 2^(attempt-1), plafonat la maxDelay
+     */
+    static Duration retryDelay(int attempt, long initialDelayMs, long maxDelayMs) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 30);
+        long delayMs = initialDelayMs << shift;
+        return Duration.ofMillis(delayMs <= 0 || delayMs > maxDelayMs ? maxDelayMs : delayMs);
+    }
+
+    private void dispatchDueSafely() {
+        try {
+            dispatchDue();
+        } catch (Exception e) {
+            // Un esec (ex. baza de date indisponibila) nu trebuie sa opreasca firul programat
+            logger.error("Email outbox dispatch failed", e);
+        }
+    }
+}
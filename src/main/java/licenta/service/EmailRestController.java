@@ -1,17 +1,16 @@
 package licenta.service;
 
-import jakarta.transaction.Transactional;
 import licenta.model.Email;
 import licenta.model.EmailRecipient;
-import licenta.model.User;
+import licenta.model.dtos.EmailCampaignProgress;
+import licenta.model.dtos.UserGroupCount;
 import licenta.persistence.IEmailRecipientRepository;
 import licenta.persistence.IEmailRepository;
 import licenta.persistence.IUserSpringRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,18 +20,21 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/admin")
 @CrossOrigin(origins = "http://localhost:3000")
 public class EmailRestController {
 
+    private static final long STATS_CACHE_TTL_MS = 30_000;
+
     private final IEmailRepository emailRepository;
     private final IEmailRecipientRepository emailRecipientRepository;
     private final IUserSpringRepository userRepository;
-    private final JavaMailSender mailSender;
+    private final EmailCampaignService emailCampaignService;
+
+    private final ExpiringValue<Map<String, Integer>> emailStatsCache = new ExpiringValue<>(STATS_CACHE_TTL_MS);
 
     @Value("${spring.mail.username}")
     private String senderEmail;
@@ -41,11 +43,11 @@ public class EmailRestController {
     public EmailRestController(IEmailRepository emailRepository,
                            IEmailRecipientRepository emailRecipientRepository,
                            IUserSpringRepository userRepository,
-                           JavaMailSender mailSender) {
+                           EmailCampaignService emailCampaignService) {
         this.emailRepository = emailRepository;
         this.emailRecipientRepository = emailRecipientRepository;
         this.userRepository = userRepository;
-        this.mailSender = mailSender;
+        this.emailCampaignService = emailCampaignService;
     }
 
     /**
@@ -55,34 +57,36 @@ public class EmailRestController {
     @PreAuthorize("hasAuthority('admin')")
     public ResponseEntity<Map<String, Integer>> getEmailStats() {
         try {
-            Iterable<User> allUsers = userRepository.findAll();
-            List<User> usersList = StreamSupport.stream(allUsers.spliterator(), false).toList();
-
-            int userCount = (int) usersList.stream()
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .count();
-
-            int adminCount = (int) usersList.stream()
-                    .filter(user -> "admin".equals(user.getUserType()))
-                    .count();
-
-            Map<String, Integer> response = new HashMap<>();
-            response.put("all_users", userCount);
-            response.put("all_admins", adminCount);
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(emailStatsCache.get(this::computeEmailStats));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    private Map<String, Integer> computeEmailStats() {
+        int userCount = 0;
+        int adminCount = 0;
+        for (UserGroupCount group : userRepository.countGroupedByTypeFcfsAndStatus()) {
+            if ("user".equals(group.getUserType())) {
+                userCount += (int) group.getTotal();
+            } else if ("admin".equals(group.getUserType())) {
+                adminCount += (int) group.getTotal();
+            }
+        }
+
+        Map<String, Integer> response = new HashMap<>();
+        response.put("all_users", userCount);
+        response.put("all_admins", adminCount);
+        return response;
+    }
+
     /**
-     * Trimite email-uri către utilizatorii selectați
+     * Porneste trimiterea email-urilor catre utilizatorii selectati; trimiterea ruleaza in fundal,
+     * iar progresul se urmareste prin /admin/emails/{id}/progress
      */
     @PostMapping("/send-email")
     @PreAuthorize("hasAuthority('admin')")
-    @Transactional
     public ResponseEntity<?> sendEmail(@RequestBody EmailRequest emailRequest) {
         try {
             // Validăm cererea
@@ -109,7 +113,6 @@ public class EmailRestController {
             email.setSender(senderEmail);
             email.setRecipientType(emailRequest.getRecipientType());
             email.setCreatedBy(currentUserEmail);
-            email.setStatus("SENT");
 
             List<String> recipientEmails = getRecipientEmails(
                     emailRequest.getRecipientType(),
@@ -120,37 +123,21 @@ public class EmailRestController {
                 return ResponseEntity.badRequest().body(Map.of("message", "Nu există destinatari pentru acest email"));
             }
 
-            Email savedEmail = emailRepository.save(email);
-
-            for (String recipientEmail : recipientEmails) {
-                try {
-                    // Trimite email
-                    SimpleMailMessage message = new SimpleMailMessage();
-                    message.setFrom(senderEmail);
-                    message.setTo(recipientEmail);
-                    message.setSubject(emailRequest.getSubject());
-                    message.setText(emailRequest.getContent());
-                    mailSender.send(message);
-
-                    // Salveaza destinatarul
-                    EmailRecipient recipient = new EmailRecipient(recipientEmail);
-                    recipient.setStatus("SENT");
-                    email.addRecipient(recipient);
-                    emailRecipientRepository.save(recipient);
-                } catch (Exception e) {
-                    EmailRecipient recipient = new EmailRecipient(recipientEmail);
-                    recipient.setStatus("FAILED");
-                    email.addRecipient(recipient);
-                    emailRecipientRepository.save(recipient);
-                }
+            Email savedEmail;
+            try {
+                savedEmail = emailCampaignService.startCampaign(email, recipientEmails);
+            } catch (RejectedExecutionException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .body(Map.of("message", "Se trimit deja alte email-uri. Încercați din nou în câteva minute."));
             }
 
             Map<String, Object> response = new HashMap<>();
-            response.put("message", "Email-urile au fost trimise cu succes");
-            response.put("recipientCount", recipientEmails.size());
+            response.put("message", "Trimiterea email-urilor a început");
+            response.put("recipientCount", savedEmail.getTotalRecipients());
             response.put("emailId", savedEmail.getId());
+            response.put("status", savedEmail.getStatus());
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.accepted().body(response);
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -158,6 +145,17 @@ public class EmailRestController {
         }
     }
 
+    /**
+     * Progresul trimiterii unui email: destinatari trimisi, esuati si ramasi
+     */
+    @GetMapping("/emails/{id}/progress")
+    @PreAuthorize("hasAuthority('admin')")
+    public ResponseEntity<EmailCampaignProgress> getEmailProgress(@PathVariable Long id) {
+        return emailCampaignService.getProgress(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Determină lista de email-uri ale destinatarilor în funcție de tipul selectat
      */
@@ -179,12 +177,7 @@ public class EmailRestController {
      * Obține email-urile utilizatorilor de un anumit tip
      */
     private List<String> getEmailsByUserType(String userType) {
-        Iterable<User> allUsers = userRepository.findAll();
-
-        return StreamSupport.stream(allUsers.spliterator(), false)
-                .filter(user -> userType.equals(user.getUserType()))
-                .map(User::getEmail)
-                .collect(Collectors.toList());
+        return userRepository.findEmailsByUserType(userType);
     }
 
     /**
@@ -0,0 +1,339 @@
+package licenta.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sablon de email compilat o singura data: textul este impartit in bucati fixe, variabile ({{nume}})
+ * si sectiuni ({{#nume}}...{{/nume}}, repetate pentru fiecare element al unei liste sau afisate o data
+ * pentru o valoare nevida; {{^nume}}...{{/nume}} se afiseaza cand valoarea lipseste).
+ * Un tag de sectiune singur pe linie nu lasa linie goala in rezultat.
+ * Randarea scrie intr-un StringBuilder refolosit pe fiecare fir, fara a reparsa sablonul.
+ */
+public final class EmailTemplate {
+
+    /**
+     * Valorile disponibile la randare; intoarce null pentru un nume necunoscut
+     */
+    @FunctionalInterface
+    public interface Scope {
+        Object get(String name);
+    }
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(8 * 1024));
+
+    private final Node[] nodes;
+    private final int estimatedLength;
+
+    private EmailTemplate(Node[] nodes, int estimatedLength) {
+        this.nodes = nodes;
+        this.estimatedLength = estimatedLength;
+    }
+
+    /**
+     * Incarca si compileaza un sablon din classpath (UTF-8)
+     */
+    public static EmailTemplate load(String resource) {
+        try (InputStream in = EmailTemplate.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Email template not found: " + resource);
+            }
+            return compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read email template " + resource, e);
+        }
+    }
+
+    public static EmailTemplate compile(String source) {
+        List<Token> tokens = stripStandaloneTags(tokenize(source));
+        Parser parser = new Parser(tokens);
+        Node[] nodes = parser.parse(null);
+        return new EmailTemplate(nodes, source.length());
+    }
+
+    public String render(Scope scope) {
+        StringBuilder buffer = BUFFER.get();
+        if (buffer.length() > 0) {
+            // Randare imbricata pe acelasi fir: nu se poate refolosi bufferul
+            buffer = new StringBuilder(estimatedLength);
+        }
+        try {
+            renderTo(buffer, scope);
+            return buffer.toString();
+        } finally {
+            if (buffer == BUFFER.get()) {
+                buffer.setLength(0);
+                if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+                    BUFFER.set(new StringBuilder(8 * 1024));
+                }
+            }
+        }
+    }
+
+    public void renderTo(StringBuilder out, Scope scope) {
+        Frame root = new Frame(scope, null);
+        for (Node node : nodes) {
+            node.render(out, root);
+        }
+    }
+
+    // ---------------------------------------------------------------- compilare
+
+    private enum TokenType { TEXT, VARIABLE, SECTION, INVERTED, END }
+
+    private static final class Token {
+        private final TokenType type;
+        private String text;
+        private boolean standalone;
+
+        private Token(TokenType type, String text) {
+            this.type = type;
+            this.text = text;
+        }
+
+        private boolean isSectionTag() {
+            return type == TokenType.SECTION || type == TokenType.INVERTED || type == TokenType.END;
+        }
+    }
+
+    private static List<Token> tokenize(String source) {
+        List<Token> tokens = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf("{{", position);
+            if (open < 0) {
+                tokens.add(new Token(TokenType.TEXT, source.substring(position)));
+                break;
+            }
+            int close = source.indexOf("}}", open + 2);
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed tag at offset " + open);
+            }
+            if (open > position) {
+                tokens.add(new Token(TokenType.TEXT, source.substring(position, open)));
+            }
+
+            String tag = source.substring(open + 2, close).trim();
+            if (tag.isEmpty()) {
+                throw new IllegalArgumentException("Empty tag at offset " + open);
+            }
+            switch (tag.charAt(0)) {
+                case '#' -> tokens.add(new Token(TokenType.SECTION, tag.substring(1).trim()));
+                case '^' -> tokens.add(new Token(TokenType.INVERTED, tag.substring(1).trim()));
+                case '/' -> tokens.add(new Token(TokenType.END, tag.substring(1).trim()));
+                default -> tokens.add(new Token(TokenType.VARIABLE, tag));
+            }
+            position = close + 2;
+        }
+        return tokens;
+    }
+
+    /**
+     * Un tag de sectiune aflat singur pe linie (doar spatii in jur) se elimina impreuna cu linia lui
+     */
+    private static List<Token> stripStandaloneTags(List<Token> tokens) {
+        for (int i = 0; i < tokens.size(); i++) {
+            Token tag = tokens.get(i);
+            if (!tag.isSectionTag()) {
+                continue;
+            }
+
+            Token before = i > 0 ? tokens.get(i - 1) : null;
+            Token after = i + 1 < tokens.size() ? tokens.get(i + 1) : null;
+            if (before != null && before.type != TokenType.TEXT || after != null && after.type != TokenType.TEXT) {
+                continue;
+            }
+
+            // Inceputul textului conteaza ca inceput de linie doar la inceputul sablonului sau dupa un tag eliminat
+            boolean beforeStartsLine = i < 2 || tokens.get(i - 2).standalone;
+            int lineStart = before == null ? 0 : lineStartAfterWhitespace(before.text, beforeStartsLine);
+            int lineEnd = after == null ? 0 : lineEndAfterWhitespace(after.text, i + 2 == tokens.size());
+            if (lineStart < 0 || lineEnd < 0) {
+                continue;
+            }
+            if (before != null) {
+                before.text = before.text.substring(0, lineStart);
+            }
+            if (after != null) {
+                after.text = after.text.substring(lineEnd);
+            }
+            tag.standalone = true;
+        }
+        tokens.removeIf(token -> token.type == TokenType.TEXT && token.text.isEmpty());
+        return tokens;
+    }
+
+    // Pozitia de dupa ultimul '\n' daca dupa el sunt doar spatii; -1 altfel
+    private static int lineStartAfterWhitespace(String text, boolean startsLine) {
+        int index = text.length() - 1;
+        while (index >= 0 && (text.charAt(index) == ' ' || text.charAt(index) == '\t')) {
+            index--;
+        }
+        if (index < 0) {
+            return startsLine ? 0 : -1;
+        }
+        return text.charAt(index) == '\n' ? index + 1 : -1;
+    }
+
+    // Pozitia de dupa primul '\n' daca inainte de el sunt doar spatii; -1 altfel
+    private static int lineEndAfterWhitespace(String text, boolean endsTemplate) {
+        int index = 0;
+        while (index < text.length() && (text.charAt(index) == ' ' || text.charAt(index) == '\t' || text.charAt(index) == '\r')) {
+            index++;
+        }
+        if (index == text.length()) {
+            return endsTemplate ? index : -1;
+        }
+        return text.charAt(index) == '\n' ? index + 1 : -1;
+    }
+
+    private static final class Parser {
+        private final List<Token> tokens;
+        private int position;
+
+        private Parser(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+
+        private Node[] parse(String closingName) {
+            List<Node> nodes = new ArrayList<>();
+            while (position < tokens.size()) {
+                Token token = tokens.get(position++);
+                switch (token.type) {
+                    case TEXT -> nodes.add(new TextNode(token.text));
+                    case VARIABLE -> nodes.add(new VariableNode(token.text));
+                    case SECTION, INVERTED -> {
+                        Node[] children = parse(token.text);
+                        nodes.add(new SectionNode(token.text, children, token.type == TokenType.INVERTED));
+                    }
+                    case END -> {
+                        if (!token.text.equals(closingName)) {
+                            throw new IllegalArgumentException("Unexpected {{/" + token.text + "}}"
+                                    + (closingName != null ? ", expected {{/" + closingName + "}}" : ""));
+                        }
+                        return nodes.toArray(new Node[0]);
+                    }
+                }
+            }
+            if (closingName != null) {
+                throw new IllegalArgumentException("Section {{#" + closingName + "}} is not closed");
+            }
+            return nodes.toArray(new Node[0]);
+        }
+    }
+
+    // ---------------------------------------------------------------- randare
+
+    /**
+     * Lant de scope-uri: in interiorul unei sectiuni se cauta intai in elementul curent, apoi in parinti
+     */
+    private static final class Frame {
+        private final Scope scope;
+        private final Frame parent;
+
+        private Frame(Scope scope, Frame parent) {
+            this.scope = scope;
+            this.parent = parent;
+        }
+
+        private Object lookup(String name) {
+            for (Frame frame = this; frame != null; frame = frame.parent) {
+                Object value = frame.scope.get(name);
+                if (value != null) {
+                    return value;
+                }
+            }
+            return null;
+        }
+    }
+
+    private interface Node {
+        void render(StringBuilder out, Frame frame);
+    }
+
+    private static final class TextNode implements Node {
+        private final String text;
+
+        private TextNode(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void render(StringBuilder out, Frame frame) {
+            out.append(text);
+        }
+    }
+
+    private static final class VariableNode implements Node {
+        private final String name;
+
+        private VariableNode(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void render(StringBuilder out, Frame frame) {
+            Object value = frame.lookup(name);
+            if (value instanceof CharSequence text) {
+                out.append(text);
+            } else if (value != null) {
+                out.append(value);
+            }
+        }
+    }
+
+    private static final class SectionNode implements Node {
+        private final String name;
+        private final Node[] children;
+        private final boolean inverted;
+
+        private SectionNode(String name, Node[] children, boolean inverted) {
+            this.name = name;
+            this.children = children;
+            this.inverted = inverted;
+        }
+
+        @Override
+        public void render(StringBuilder out, Frame frame) {
+            Object value = frame.lookup(name);
+            if (inverted) {
+                if (isEmpty(value)) {
+                    renderChildren(out, frame);
+                }
+                return;
+            }
+            if (isEmpty(value)) {
+                return;
+            }
+
+            if (value instanceof Collection<?> items) {
+                for (Object item : items) {
+                    renderChildren(out, item instanceof Scope scope ? new Frame(scope, frame) : frame);
+                }
+            } else if (value instanceof Scope scope) {
+                renderChildren(out, new Frame(scope, frame));
+            } else {
+                renderChildren(out, frame);
+            }
+        }
+
+        private void renderChildren(StringBuilder out, Frame frame) {
+            for (Node child : children) {
+                child.render(out, frame);
+            }
+        }
+
+        private static boolean isEmpty(Object value) {
+            return value == null
+                    || Boolean.FALSE.equals(value)
+                    || value instanceof Collection<?> items && items.isEmpty()
+                    || value instanceof CharSequence text && text.length() == 0;
+        }
+    }
+}
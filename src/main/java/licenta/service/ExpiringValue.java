@@ -0,0 +1,52 @@
+package licenta.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * O valoare calculata la cerere si refolosita pana expira (folosita pentru statisticile din panoul de admin).
+ * Erorile incarcarii nu se pastreaza, urmatorul apel reincearca.
+ * Incarcarea (interogari JDBC) ruleaza sub un ReentrantLock, nu synchronized, ca un fir virtual care asteapta
+ * baza de date sa nu blocheze firul purtator.
+ */
+public final class ExpiringValue<T> {
+
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    private volatile T value;
+    private volatile long expiresAt;
+
+    public ExpiringValue(long ttlMillis) {
+        this(ttlMillis, System::currentTimeMillis);
+    }
+
+    ExpiringValue(long ttlMillis, LongSupplier clock) {
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    public T get(Supplier<T> loader) {
+        T current = value;
+        if (current != null && clock.getAsLong() < expiresAt) {
+            return current;
+        }
+
+        loadLock.lock();
+        try {
+            if (value == null || clock.getAsLong() >= expiresAt) {
+                value = loader.get();
+                expiresAt = clock.getAsLong() + ttlMillis;
+            }
+            return value;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    public void invalidate() {
+        value = null;
+    }
+}
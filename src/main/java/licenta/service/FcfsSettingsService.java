@@ -0,0 +1,90 @@
+package licenta.service;
+
+import licenta.model.AppSetting;
+import licenta.model.User;
+import licenta.persistence.IAppSettingRepository;
+import licenta.persistence.IUserSpringRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Statusul global FCFS (rezervarea locurilor ramase), pastrat intr-un rand din app_settings
+ * si tinut in memorie. Citirea este o simpla citire de camp; modificarile facute prin
+ * {@link #setFcfsEnabled(boolean)} scriu randul si actualizeaza imediat valoarea din memorie.
+ * Accesul la baza de date se face sub un ReentrantLock (nu synchronized), ca sa nu fixeze firele virtuale.
+ */
+@Service
+public class FcfsSettingsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FcfsSettingsService.class);
+
+    public static final String FCFS_ENABLED_KEY = "fcfs.enabled";
+
+    private final IAppSettingRepository appSettingRepository;
+    private final IUserSpringRepository userSpringRepository;
+
+    private volatile Boolean cachedFcfsEnabled;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    public FcfsSettingsService(IAppSettingRepository appSettingRepository, IUserSpringRepository userSpringRepository) {
+        this.appSettingRepository = appSettingRepository;
+        this.userSpringRepository = userSpringRepository;
+    }
+
+    public boolean isFcfsEnabled() {
+        Boolean cached = cachedFcfsEnabled;
+        if (cached != null) {
+            return cached;
+        }
+
+        lock.lock();
+        try {
+            if (cachedFcfsEnabled == null) {
+                cachedFcfsEnabled = loadFcfsEnabled();
+            }
+            return cachedFcfsEnabled;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void setFcfsEnabled(boolean enabled) {
+        lock.lock();
+        try {
+            appSettingRepository.save(new AppSetting(FCFS_ENABLED_KEY, String.valueOf(enabled)));
+            cachedFcfsEnabled = enabled;
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Statusul global FCFS a fost setat la {}", enabled);
+    }
+
+    /**
+     * Forteaza recitirea din baza de date la urmatorul acces (ex. dupa o modificare facuta direct in tabela)
+     */
+    public void invalidate() {
+        cachedFcfsEnabled = null;
+    }
+
+    private boolean loadFcfsEnabled() {
+        Optional<AppSetting> setting = appSettingRepository.findById(FCFS_ENABLED_KEY);
+        if (setting.isPresent()) {
+            return Boolean.parseBoolean(setting.get().getValue());
+        }
+
+        // Prima pornire fara rand de setari: se preia starea primului utilizator normal (sursa veche),
+        // implicit activat daca nu exista utilizatori
+        boolean enabled = userSpringRepository.findFirstByUserTypeOrderByIdAsc("user")
+                .map(User::isFcfsEnabled)
+                .orElse(true);
+        appSettingRepository.save(new AppSetting(FCFS_ENABLED_KEY, String.valueOf(enabled)));
+        logger.info("Setarea globala FCFS a fost initializata cu {}", enabled);
+        return enabled;
+    }
+}
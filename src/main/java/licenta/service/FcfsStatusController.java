@@ -9,7 +9,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.StreamSupport;
 
 @RestController
 @RequestMapping("/fcfs")
@@ -17,10 +16,12 @@ import java.util.stream.StreamSupport;
 public class FcfsStatusController {
 
     private final IUserSpringRepository userSpringRepository;
+    private final FcfsSettingsService fcfsSettingsService;
 
     @Autowired
-    public FcfsStatusController(IUserSpringRepository userSpringRepository) {
+    public FcfsStatusController(IUserSpringRepository userSpringRepository, FcfsSettingsService fcfsSettingsService) {
         this.userSpringRepository = userSpringRepository;
+        this.fcfsSettingsService = fcfsSettingsService;
     }
 
     /**
@@ -30,12 +31,7 @@ public class FcfsStatusController {
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getFcfsStatus() {
         try {
-
-            Optional<User> normalUser = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .findFirst();
-
-            boolean fcfsEnabled = normalUser.map(User::isFcfsEnabled).orElse(true); // Default activat dacă nu există utilizatori
+            boolean fcfsEnabled = fcfsSettingsService.isFcfsEnabled();
 
             return ResponseEntity.ok(Map.of(
                     "fcfsEnabled", fcfsEnabled,
@@ -80,11 +76,7 @@ public class FcfsStatusController {
             User currentUser = currentUserOpt.get();
             String userType = currentUser.getUserType();
 
-            Optional<User> normalUser = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .findFirst();
-
-            boolean fcfsGloballyEnabled = normalUser.map(User::isFcfsEnabled).orElse(true);
+            boolean fcfsGloballyEnabled = fcfsSettingsService.isFcfsEnabled();
 
             if ("admin".equals(userType)) {
                 return ResponseEntity.ok(Map.of(
@@ -148,11 +140,7 @@ public class FcfsStatusController {
             User currentUser = currentUserOpt.get();
 
             // Statusul global FCFS
-            Optional<User> normalUser = StreamSupport.stream(userSpringRepository.findAll().spliterator(), false)
-                    .filter(user -> "user".equals(user.getUserType()))
-                    .findFirst();
-
-            boolean fcfsGloballyEnabled = normalUser.map(User::isFcfsEnabled).orElse(true);
+            boolean fcfsGloballyEnabled = fcfsSettingsService.isFcfsEnabled();
 
             return ResponseEntity.ok(Map.of(
                     "userId", currentUser.getId(),
@@ -0,0 +1,279 @@
+package licenta.service;
+
+import licenta.model.dtos.HallNameEntry;
+import licenta.persistence.ISportsHallSpringRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index in memorie pentru sugestiile de nume ale salilor active (cautarea din bara de search).
+ * Numele sunt normalizate (fara diacritice, litere mici), iar fiecare bigrama duce la salile care o contin,
+ * asa ca "sala s" gaseste si "Sala Ștefan cel Mare", iar "tef" gaseste aceeasi sala in mijlocul numelui.
+ * Cititorii folosesc un snapshot imutabil; modificarile salilor inlocuiesc doar intrarile salii respective.
+ * Scriitorii se serializeaza printr-un ReentrantLock: reconstruirea citeste din baza de date, iar sub synchronized
+ * ar fixa firul purtator al unui fir virtual.
+ */
+@Component
+public class HallNameSuggestionIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HallNameSuggestionIndex.class);
+
+    public static final int DEFAULT_LIMIT = 10;
+    static final int GRAM_LENGTH = 2;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final ISportsHallSpringRepository sportsHallSpringRepository;
+
+    // null pana la prima incarcare din baza de date
+    private volatile Snapshot snapshot;
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @Autowired
+    public HallNameSuggestionIndex(ISportsHallSpringRepository sportsHallSpringRepository) {
+        this.sportsHallSpringRepository = sportsHallSpringRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Se reincearca la prima cerere de sugestii
+            logger.error("Could not build the hall name suggestion index", e);
+        }
+    }
+
+    /**
+     * Reconstruieste indexul din salile active
+     */
+    public void rebuild() {
+        writeLock.lock();
+        try {
+            Snapshot rebuilt = Snapshot.of(sportsHallSpringRepository.findActiveHallNames());
+            snapshot = rebuilt;
+            logger.info("Hall name suggestion index built with {} halls", rebuilt.entries.size());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Actualizeaza o sala dupa creare/modificare/activare/dezactivare; salile inactive sunt scoase din index
+     */
+    public void put(Long hallId, String name, boolean active) {
+        writeLock.lock();
+        try {
+            if (hallId == null || snapshot == null) {
+                // Inca neincarcat: prima incarcare va citi oricum starea curenta din baza de date
+                return;
+            }
+            Snapshot current = snapshot.without(hallId);
+            snapshot = active && name != null && !name.isBlank() ? current.with(hallId, name) : current;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void remove(Long hallId) {
+        writeLock.lock();
+        try {
+            if (hallId != null && snapshot != null) {
+                snapshot = snapshot.without(hallId);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public List<String> suggest(String query) {
+        return suggest(query, DEFAULT_LIMIT);
+    }
+
+    /**
+     * Cel mult limit nume distincte care contin textul cautat: intai cele care incep cu el,
+     * apoi cele in care un cuvant incepe cu el, apoi restul, fiecare grup in ordine alfabetica
+     */
+    public List<String> suggest(String query, int limit) {
+        String folded = fold(query);
+        if (folded.length() < GRAM_LENGTH || limit <= 0) {
+            return List.of();
+        }
+
+        Snapshot current = loaded();
+        long[] candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+            long[] posting = current.postings.get(folded.substring(i, i + GRAM_LENGTH));
+            if (posting == null) {
+                return List.of();
+            }
+            if (candidates == null || posting.length < candidates.length) {
+                candidates = posting;
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (long hallId : candidates) {
+            Entry entry = current.entries.get(hallId);
+            int position = entry.folded.indexOf(folded);
+            if (position >= 0) {
+                int rank = position == 0 ? 0 : entry.folded.charAt(position - 1) == ' ' ? 1 : 2;
+                matches.add(new Match(rank, entry));
+            }
+        }
+        matches.sort(Comparator.comparingInt((Match match) -> match.rank)
+                .thenComparing(match -> match.entry.folded)
+                .thenComparing(match -> match.entry.name));
+
+        Set<String> names = new LinkedHashSet<>();
+        for (Match match : matches) {
+            if (names.add(match.entry.name) && names.size() == limit) {
+                break;
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    public int size() {
+        Snapshot current = snapshot;
+        return current == null ? 0 : current.entries.size();
+    }
+
+    /**
+     * "Ștrand Tineretului" -> "strand tineretului" (atat ș/ț cu virgula, cat si ş/ţ cu sedila)
+     */
+    static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return WHITESPACE.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private Snapshot loaded() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            writeLock.lock();
+            try {
+                if (snapshot == null) {
+                    rebuild();
+                }
+                current = snapshot;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    private static final class Entry {
+        private final long hallId;
+        private final String name;
+        private final String folded;
+
+        private Entry(long hallId, String name) {
+            this.hallId = hallId;
+            this.name = name;
+            this.folded = fold(name);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + GRAM_LENGTH <= folded.length(); i++) {
+                grams.add(folded.substring(i, i + GRAM_LENGTH));
+            }
+            return grams;
+        }
+    }
+
+    private static final class Match {
+        private final int rank;
+        private final Entry entry;
+
+        private Match(int rank, Entry entry) {
+            this.rank = rank;
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Starea imutabila a indexului; with/without copiaza doar hartile, nu si listele bigramelor neatinse
+     */
+    private static final class Snapshot {
+        private final Map<Long, Entry> entries;
+        private final Map<String, long[]> postings;
+
+        private Snapshot(Map<Long, Entry> entries, Map<String, long[]> postings) {
+            this.entries = entries;
+            this.postings = postings;
+        }
+
+        private static Snapshot of(List<HallNameEntry> halls) {
+            Map<Long, Entry> entries = new HashMap<>();
+            Map<String, List<Long>> idsByGram = new HashMap<>();
+            for (HallNameEntry hall : halls) {
+                if (hall.getId() == null || hall.getName() == null || hall.getName().isBlank()) {
+                    continue;
+                }
+                Entry entry = new Entry(hall.getId(), hall.getName());
+                entries.put(entry.hallId, entry);
+                for (String gram : entry.grams()) {
+                    idsByGram.computeIfAbsent(gram, key -> new ArrayList<>()).add(entry.hallId);
+                }
+            }
+
+            Map<String, long[]> postings = new HashMap<>(idsByGram.size() * 2);
+            idsByGram.forEach((gram, ids) -> postings.put(gram, ids.stream().mapToLong(Long::longValue).toArray()));
+            return new Snapshot(entries, postings);
+        }
+
+        private Snapshot with(Long hallId, String name) {
+            if (name == null || name.isBlank()) {
+                return this;
+            }
+            Snapshot base = without(hallId);
+            Entry entry = new Entry(hallId, name);
+            Map<Long, Entry> newEntries = new HashMap<>(base.entries);
+            Map<String, long[]> newPostings = new HashMap<>(base.postings);
+            newEntries.put(hallId, entry);
+            for (String gram : entry.grams()) {
+                long[] ids = newPostings.get(gram);
+                long[] extended = ids == null ? new long[1] : Arrays.copyOf(ids, ids.length + 1);
+                extended[extended.length - 1] = hallId;
+                newPostings.put(gram, extended);
+            }
+            return new Snapshot(newEntries, newPostings);
+        }
+
+        private Snapshot without(Long hallId) {
+            Entry previous = entries.get(hallId);
+            if (previous == null) {
+                return this;
+            }
+            Map<Long, Entry> newEntries = new HashMap<>(entries);
+            Map<String, long[]> newPostings = new HashMap<>(postings);
+            newEntries.remove(hallId);
+            for (String gram : previous.grams()) {
+                long[] remaining = Arrays.stream(newPostings.get(gram))
+                        .filter(id -> id != previous.hallId)
+                        .toArray();
+                if (remaining.length == 0) {
+                    newPostings.remove(gram);
+                } else {
+                    newPostings.put(gram, remaining);
+                }
+            }
+            return new Snapshot(newEntries, newPostings);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package licenta.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+
+/**
+ * Depozit pentru continutul imaginilor, adresat dupa continut: cheia este hash-ul SHA-256 (hex) al octetilor,
+ * asa ca acelasi fisier incarcat de mai multe ori este pastrat o singura data si nu se schimba niciodata.
+ */
+public interface ImageStore {
+
+    /**
+     * Salveaza continutul si intoarce cheia lui
+     */
+    String put(InputStream content) throws IOException;
+
+    /**
+     * Continutul pentru cheia data, pregatit pentru streaming, sau gol daca nu exista
+     */
+    Optional<Resource> get(String key);
+
+    /**
+     * Sterge continutul; intoarce false daca nu exista
+     */
+    boolean delete(String key) throws IOException;
+}
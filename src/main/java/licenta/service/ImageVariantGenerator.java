@@ -0,0 +1,142 @@
+package licenta.service;
+
+import licenta.model.ImageVariant;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Decodeaza o imagine o singura data si produce variantele JPEG din {@link ImageVariant}.
+ * Variantele pentru care originalul este deja suficient de mic lipsesc din rezultat (se foloseste originalul).
+ */
+@Component
+public class ImageVariantGenerator {
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    // Peste aceasta limita imaginea nu mai este decodata: 50 MP inseamna deja ~200 MB in memorie (4 octeti/pixel)
+    static final long MAX_PIXELS = 50_000_000L;
+
+    /**
+     * @return variantele generate sau null daca continutul nu este o imagine pe care ImageIO o poate citi
+     * ori are mai mult de {@link #MAX_PIXELS} pixeli
+     */
+    public Map<ImageVariant, byte[]> generate(InputStream original) throws IOException {
+        BufferedImage source = decodeWithinLimit(original);
+        if (source == null) {
+            return null;
+        }
+
+        Map<ImageVariant, byte[]> variants = new EnumMap<>(ImageVariant.class);
+        // De la cea mai mare la cea mai mica, fiecare varianta porneste din precedenta (mai putini pixeli de citit)
+        BufferedImage previous = toRgb(source);
+        ImageVariant[] ordered = ImageVariant.values();
+        for (int i = ordered.length - 1; i >= 0; i--) {
+            ImageVariant variant = ordered[i];
+            if (Math.max(source.getWidth(), source.getHeight()) <= variant.getMaxDimension()) {
+                continue;
+            }
+            previous = scaleToFit(previous, variant.getMaxDimension());
+            variants.put(variant, encodeJpeg(previous));
+        }
+        return variants;
+    }
+
+    // Dimensiunile vin din antetul imaginii; pixelii sunt decodati doar daca incap in limita
+    private static BufferedImage decodeWithinLimit(InputStream original) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(original)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > MAX_PIXELS) {
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage image, int maxDimension) {
+        double scale = (double) maxDimension / Math.max(image.getWidth(), image.getHeight());
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        // Injumatatiri succesive, apoi pasul final; o singura scalare mare cu interpolare biliniara pierde detalii
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2);
+        }
+        return current.getWidth() == targetWidth && current.getHeight() == targetHeight
+                ? current
+                : draw(current, targetWidth, targetHeight);
+    }
+
+    private static BufferedImage draw(BufferedImage image, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // JPEG nu are canal alfa; zonele transparente devin albe
+    private static BufferedImage toRgb(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        try {
+            graphics.drawImage(image, 0, 0, Color.WHITE, null);
+        } finally {
+            graphics.dispose();
+        }
+        return rgb;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,161 @@
+package licenta.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link ResetTokenStore} in memorie, fara blocari globale (doar ConcurrentHashMap).
+ * Expirarea foloseste o roata de timp: fiecare token este pus in galeata tick-ului de dupa expirare,
+ * iar un fir de fundal goleste la fiecare tick doar galeata curenta, in loc sa parcurga toate tokenurile.
+ * Tokenurile care nu au expirat inca (au mai mult de o rotatie de trait) raman pentru rotatia urmatoare.
+ * Numarul de tokenuri este limitat de max-entries; peste limita put intoarce false.
+ */
+@Component
+@ConditionalOnProperty(name = "password-reset.token-store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryResetTokenStore implements ResetTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryResetTokenStore.class);
+
+    static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final int maxEntries;
+    private final long tickMillis;
+    private final LongSupplier clock;
+
+    private final Map<String, Entry> tokens = new ConcurrentHashMap<>();
+    private final Map<String, String> tokenByEmail = new ConcurrentHashMap<>();
+    private final Set<String>[] wheel;
+
+    // Ultimul tick procesat; doar firul de expirare il modifica
+    private long processedTick;
+
+    private final ScheduledExecutorService ticker;
+
+    @Autowired
+    public InMemoryResetTokenStore(@Value("${password-reset.memory.max-entries:10000}") int maxEntries,
+                                   @Value("${password-reset.memory.tick-ms:60000}") long tickMillis) {
+        this(maxEntries, tickMillis, System::currentTimeMillis, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryResetTokenStore(int maxEntries, long tickMillis, LongSupplier clock, boolean startTicker) {
+        this.maxEntries = maxEntries;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.wheel = new Set[WHEEL_SIZE];
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = ConcurrentHashMap.newKeySet();
+        }
+        this.processedTick = clock.getAsLong() / tickMillis;
+
+        if (startTicker) {
+            ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "reset-token-expiry");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(this::expireDueSafely, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        } else {
+            ticker = null;
+        }
+    }
+
+    @Override
+    public boolean put(String token, Entry entry) {
+        if (entry.isExpired(clock.getAsLong())) {
+            return false;
+        }
+        if (tokens.size() >= maxEntries && !tokenByEmail.containsKey(entry.getEmail())) {
+            return false;
+        }
+
+        tokens.put(token, entry);
+        wheel[bucket(entry)].add(token);
+
+        String previous = tokenByEmail.put(entry.getEmail(), token);
+        if (previous != null && !previous.equals(token)) {
+            discard(previous);
+        }
+        return true;
+    }
+
+    @Override
+    public Optional<Entry> get(String token) {
+        return Optional.ofNullable(tokens.get(token));
+    }
+
+    @Override
+    public boolean remove(String token) {
+        Entry entry = discard(token);
+        return entry != null && !entry.isExpired(clock.getAsLong());
+    }
+
+    int size() {
+        return tokens.size();
+    }
+
+    /**
+     * Goleste galetile tick-urilor scurse de la ultimul apel (cel mult o rotatie completa)
+     */
+    synchronized void expireDue() {
+        long now = clock.getAsLong();
+        long currentTick = now / tickMillis;
+        long from = Math.max(processedTick + 1, currentTick - WHEEL_MASK);
+        for (long tick = from; tick <= currentTick; tick++) {
+            Set<String> bucket = wheel[(int) (tick & WHEEL_MASK)];
+            for (String token : bucket) {
+                Entry entry = tokens.get(token);
+                if (entry == null) {
+                    bucket.remove(token);
+                } else if (entry.isExpired(now)) {
+                    discard(token);
+                }
+            }
+        }
+        processedTick = currentTick;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private void expireDueSafely() {
+        try {
+            expireDue();
+        } catch (Exception e) {
+            logger.error("Reset token expiry failed", e);
+        }
+    }
+
+    private Entry discard(String token) {
+        Entry entry = tokens.remove(token);
+        if (entry != null) {
+            wheel[bucket(entry)].remove(token);
+            tokenByEmail.remove(entry.getEmail(), token);
+        }
+        return entry;
+    }
+
+    // Tick-ul de dupa expirare, ca tokenul sa fie sigur expirat cand galeata lui este golita
+    private int bucket(Entry entry) {
+        return (int) ((entry.getExpiresAtMillis() / tickMillis + 1) & WHEEL_MASK);
+    }
+}
@@ -1,6 +1,8 @@
 package licenta.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import licenta.jwtservice.JwtService;
+import licenta.jwtservice.RefreshTokenService;
 import licenta.jwtservice.UserInfoService;
 import licenta.model.User;
 import licenta.model.dtos.UserCredentials;
@@ -31,23 +33,38 @@ public class LoginRestController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private AuthRateLimiter authRateLimiter;
+
     @Autowired
     public LoginRestController(IUserSpringRepository userSpringRepository) {
         this.userSpringRepository = userSpringRepository;
     }
 
+    /**
+     * Autentificarea din interfata: verifica parola o singura data (o singura trecere prin limitarea de rata
+     * si prin BCrypt) si intoarce, pe langa datele utilizatorului, tokenul de acces si cel de reimprospatare
+     */
     @PostMapping
-    public ResponseEntity<?> login(@RequestBody UserCredentials auth) {
+    public ResponseEntity<?> login(@RequestBody UserCredentials auth, HttpServletRequest request) {
         try {
             String email = auth.getEmail();
             String password = auth.getPassword();
 
+            AuthRateLimiter.Decision decision = authRateLimiter.checkLogin(request, email);
+            if (!decision.isAllowed()) {
+                return tooManyRequests(decision.getRetryAfterSeconds());
+            }
+
             Optional<User> userOptional = userSpringRepository.findByEmail(email);
 
             if (!userOptional.isPresent()) {
@@ -56,8 +73,17 @@ public class LoginRestController {
 
             User user = userOptional.get();
 
-            // Verifica parola folosind PasswordEncoder
-            if (!passwordEncoder.matches(password, user.getPassword())) {
+            // Verifica parola folosind PasswordEncoder (numarul de verificari BCrypt simultane este limitat)
+            if (!authRateLimiter.tryAcquirePasswordCheck(AuthRateLimiter.LOGIN)) {
+                return tooManyRequests(1);
+            }
+            boolean passwordMatches;
+            try {
+                passwordMatches = passwordEncoder.matches(password, user.getPassword());
+            } finally {
+                authRateLimiter.releasePasswordCheck();
+            }
+            if (!passwordMatches) {
                 return ResponseEntity.status(401).body(createErrorResponse("Email sau parola incorectă"));
             }
 
@@ -75,7 +101,9 @@ public class LoginRestController {
             }
 
             UserCredentials.getInstance().setLoggedInUser(user);
-            return ResponseEntity.ok(createSuccessResponse(user));
+            Map<String, Object> response = createSuccessResponse(user);
+            response.putAll(createTokenResponse(jwtService.generateAccessToken(user), refreshTokenService.issue(user)));
+            return ResponseEntity.ok(response);
 
         } catch (Exception e) {
             return ResponseEntity.status(500).body(createErrorResponse("Eroare în timpul autentificării: " + e.getMessage()));
@@ -83,27 +111,40 @@ public class LoginRestController {
     }
 
     @PostMapping("/generateToken")
-    public ResponseEntity<?> authenticateAndGenerateToken(@RequestBody UserCredentials auth) {
+    public ResponseEntity<?> authenticateAndGenerateToken(@RequestBody UserCredentials auth, HttpServletRequest request) {
         try {
-            Authentication authentication = authenticationManager
-                    .authenticate(new UsernamePasswordAuthenticationToken(auth.getEmail(), auth.getPassword()));
+            AuthRateLimiter.Decision decision = authRateLimiter.checkLogin(request, auth.getEmail());
+            if (!decision.isAllowed()) {
+                return tooManyRequests(decision.getRetryAfterSeconds());
+            }
+
+            if (!authRateLimiter.tryAcquirePasswordCheck(AuthRateLimiter.LOGIN)) {
+                return tooManyRequests(1);
+            }
+            Authentication authentication;
+            try {
+                authentication = authenticationManager
+                        .authenticate(new UsernamePasswordAuthenticationToken(auth.getEmail(), auth.getPassword()));
+            } finally {
+                authRateLimiter.releasePasswordCheck();
+            }
 
             if (authentication.isAuthenticated()) {
                 Optional<User> userOptional = userSpringRepository.findByEmail(auth.getEmail());
-                if (userOptional.isPresent()) {
-                    User user = userOptional.get();
+                if (userOptional.isEmpty()) {
+                    return ResponseEntity.status(401).body("Autentificare eșuată");
+                }
 
-                    if ("rejected".equals(user.getAccountStatus())) {
-                        return ResponseEntity.status(403).body("Contul a fost respins");
-                    }
+                User user = userOptional.get();
+                if ("rejected".equals(user.getAccountStatus())) {
+                    return ResponseEntity.status(403).body("Contul a fost respins");
+                }
 
-                    if ("pending".equals(user.getAccountStatus())) {
-                        return ResponseEntity.status(403).body("Contul este în așteptarea aprobării");
-                    }
+                if ("pending".equals(user.getAccountStatus())) {
+                    return ResponseEntity.status(403).body("Contul este în așteptarea aprobării");
                 }
 
-                String token = jwtService.generateToken(auth.getEmail());
-                return ResponseEntity.ok(token);
+                return ResponseEntity.ok(createTokenResponse(jwtService.generateAccessToken(user), refreshTokenService.issue(user)));
             } else {
                 return ResponseEntity.status(401).body("Autentificare eșuată");
             }
@@ -114,6 +155,42 @@ public class LoginRestController {
         }
     }
 
+    /**
+     * Roteste tokenul de reimprospatare si emite un token de acces nou, fara parola (si fara BCrypt).
+     * 409 inseamna ca tokenul tocmai a fost rotit de o alta cerere (alt tab); clientul foloseste tokenurile salvate de aceasta.
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@RequestBody Map<String, String> payload) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(payload.get("refreshToken"));
+            return switch (rotation.getOutcome()) {
+                case ROTATED -> ResponseEntity.ok(createTokenResponse(
+                        jwtService.generateAccessToken(rotation.getUser()), rotation.getRefreshToken()));
+                case ALREADY_ROTATED -> ResponseEntity.status(409)
+                        .body(createErrorResponse("Sesiunea a fost deja reîmprospătată"));
+                case INVALID -> ResponseEntity.status(401)
+                        .body(createErrorResponse("Sesiunea a expirat. Vă rugăm să vă autentificați din nou."));
+            };
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(createErrorResponse("Eroare la reîmprospătarea sesiunii: " + e.getMessage()));
+        }
+    }
+
+    private ResponseEntity<?> tooManyRequests(long retryAfterSeconds) {
+        return ResponseEntity.status(429)
+                .header("Retry-After", String.valueOf(retryAfterSeconds))
+                .body(createErrorResponse("Prea multe încercări de autentificare. Vă rugăm să încercați din nou mai târziu."));
+    }
+
+    private Map<String, Object> createTokenResponse(String accessToken, String refreshToken) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("accessToken", accessToken);
+        response.put("refreshToken", refreshToken);
+        response.put("tokenType", "Bearer");
+        response.put("expiresIn", jwtService.getAccessTokenTtlMillis() / 1000);
+        return response;
+    }
+
     private Map<String, Object> createErrorResponse(String message) {
         Map<String, Object> response = new HashMap<>();
         response.put("success", false);
@@ -1,6 +1,8 @@
 package licenta.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import licenta.jwtservice.JwtService;
+import licenta.jwtservice.RefreshTokenService;
 import licenta.model.Email;
 import licenta.model.EmailRecipient;
 import licenta.model.User;
@@ -28,32 +30,39 @@ public class PasswordResetController {
     private final JavaMailSender mailSender;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final ResetTokenStore resetTokenStore;
+    private final AuthRateLimiter authRateLimiter;
 
     @Value("${spring.mail.username}")
     private String senderEmail;
 
-    private final Map<String, TokenData> resetTokens = new HashMap<>();
-
     @Autowired
     public PasswordResetController(IUserSpringRepository userRepository,
                                    IEmailRepository emailRepository,
                                    IEmailRecipientRepository emailRecipientRepository,
                                    JavaMailSender mailSender,
                                    PasswordEncoder passwordEncoder,
-                                   JwtService jwtService) {
+                                   JwtService jwtService,
+                                   RefreshTokenService refreshTokenService,
+                                   ResetTokenStore resetTokenStore,
+                                   AuthRateLimiter authRateLimiter) {
         this.userRepository = userRepository;
         this.emailRepository = emailRepository;
         this.emailRecipientRepository = emailRecipientRepository;
         this.mailSender = mailSender;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
+        this.refreshTokenService = refreshTokenService;
+        this.resetTokenStore = resetTokenStore;
+        this.authRateLimiter = authRateLimiter;
     }
 
     /**
      * Endpoint pentru cererea de resetare a parolei
      */
     @PostMapping("/forgot-password")
-    public ResponseEntity<?> forgotPassword(@RequestBody ForgotPasswordRequest request) {
+    public ResponseEntity<?> forgotPassword(@RequestBody ForgotPasswordRequest request, HttpServletRequest httpRequest) {
         try {
             // Validează email-ul
             if (request.getEmail() == null || request.getEmail().trim().isEmpty()) {
@@ -61,6 +70,14 @@ public class PasswordResetController {
                         .body(Map.of("message", "Email-ul este obligatoriu"));
             }
 
+            // Limiteaza cererile per IP si per email inainte de cautarea in baza de date si de trimiterea email-ului
+            AuthRateLimiter.Decision decision = authRateLimiter.checkPasswordReset(httpRequest, request.getEmail());
+            if (!decision.isAllowed()) {
+                return ResponseEntity.status(429)
+                        .header("Retry-After", String.valueOf(decision.getRetryAfterSeconds()))
+                        .body(Map.of("message", "Prea multe cereri de resetare. Te rugăm să încerci din nou mai târziu."));
+            }
+
             // Verifică dacă utilizatorul există
             Optional<User> userOptional = userRepository.findByEmail(request.getEmail());
             if (userOptional.isEmpty()) {
@@ -82,9 +99,12 @@ public class PasswordResetController {
 
             String resetToken = generateSecureToken();
 
-            // Stocheaza token-ul cu timestamp (expira in 1 ora)
-            TokenData tokenData = new TokenData(user.getEmail(), System.currentTimeMillis() + 3600000); // 1 oră
-            resetTokens.put(resetToken, tokenData);
+            // Stocheaza token-ul cu timestamp (expira in 1 ora); inlocuieste un link trimis anterior aceluiasi cont
+            ResetTokenStore.Entry tokenData = new ResetTokenStore.Entry(user.getEmail(), System.currentTimeMillis() + 3600000); // 1 oră
+            if (!resetTokenStore.put(resetToken, tokenData)) {
+                return ResponseEntity.status(429)
+                        .body(Map.of("message", "Prea multe cereri de resetare. Te rugăm să încerci din nou mai târziu."));
+            }
 
             // Creeaza URL-ul de resetare
             String resetUrl = "http://localhost:3000/reset-password?token=" + resetToken;
@@ -159,22 +179,22 @@ public class PasswordResetController {
     @GetMapping("/reset-password/validate")
     public ResponseEntity<?> validateResetToken(@RequestParam String token) {
         try {
-            TokenData tokenData = resetTokens.get(token);
+            ResetTokenStore.Entry tokenData = resetTokenStore.get(token).orElse(null);
 
             if (tokenData == null) {
                 return ResponseEntity.status(400)
                         .body(Map.of("message", "Link-ul de resetare este invalid", "valid", false));
             }
 
-            if (System.currentTimeMillis() > tokenData.getExpirationTime()) {
-                resetTokens.remove(token);
+            if (tokenData.isExpired(System.currentTimeMillis())) {
+                resetTokenStore.remove(token);
                 return ResponseEntity.status(400)
                         .body(Map.of("message", "Link-ul de resetare a expirat. Te rugăm să soliciți din nou resetarea parolei.", "valid", false));
             }
 
             Optional<User> userOptional = userRepository.findByEmail(tokenData.getEmail());
             if (userOptional.isEmpty()) {
-                resetTokens.remove(token);
+                resetTokenStore.remove(token);
                 return ResponseEntity.status(400)
                         .body(Map.of("message", "Contul asociat nu mai există", "valid", false));
             }
@@ -182,7 +202,7 @@ public class PasswordResetController {
             User user = userOptional.get();
 
             if ("suspended".equals(user.getAccountStatus()) || "rejected".equals(user.getAccountStatus())) {
-                resetTokens.remove(token);
+                resetTokenStore.remove(token);
                 return ResponseEntity.status(403)
                         .body(Map.of("message", "Contul nu poate fi resetat din cauza statusului său", "valid", false));
             }
@@ -233,15 +253,15 @@ public class PasswordResetController {
             }
 
             // Verifică token-ul
-            TokenData tokenData = resetTokens.get(request.getToken());
+            ResetTokenStore.Entry tokenData = resetTokenStore.get(request.getToken()).orElse(null);
             if (tokenData == null) {
                 return ResponseEntity.status(400)
                         .body(Map.of("message", "Link-ul de resetare este invalid"));
             }
 
             // Verifică dacă token-ul a expirat
-            if (System.currentTimeMillis() > tokenData.getExpirationTime()) {
-                resetTokens.remove(request.getToken());
+            if (tokenData.isExpired(System.currentTimeMillis())) {
+                resetTokenStore.remove(request.getToken());
                 return ResponseEntity.status(400)
                         .body(Map.of("message", "Link-ul de resetare a expirat"));
             }
@@ -249,7 +269,7 @@ public class PasswordResetController {
             // Găsește utilizatorul
             Optional<User> userOptional = userRepository.findByEmail(tokenData.getEmail());
             if (userOptional.isEmpty()) {
-                resetTokens.remove(request.getToken());
+                resetTokenStore.remove(request.getToken());
                 return ResponseEntity.status(400)
                         .body(Map.of("message", "Utilizatorul nu mai există"));
             }
@@ -257,7 +277,7 @@ public class PasswordResetController {
             User user = userOptional.get();
 
             if ("suspended".equals(user.getAccountStatus()) || "rejected".equals(user.getAccountStatus())) {
-                resetTokens.remove(request.getToken());
+                resetTokenStore.remove(request.getToken());
                 return ResponseEntity.status(403)
                         .body(Map.of("message", "Contul nu poate fi resetat din cauza statusului său"));
             }
@@ -267,10 +287,15 @@ public class PasswordResetController {
                         .body(Map.of("message", "Parola nouă trebuie să fie diferită de cea curentă"));
             }
 
+            // Consuma token-ul inainte de schimbare: doua cereri simultane cu acelasi link nu pot reusi amandoua
+            if (!resetTokenStore.remove(request.getToken())) {
+                return ResponseEntity.status(400)
+                        .body(Map.of("message", "Link-ul de resetare este invalid"));
+            }
+
             user.setPassword(passwordEncoder.encode(request.getNewPassword()));
             userRepository.save(user);
-
-            resetTokens.remove(request.getToken());
+            refreshTokenService.revokeAll(user.getId());
 
             System.out.println("Password reset successful for user: " + user.getEmail());
 
@@ -345,25 +370,4 @@ public class PasswordResetController {
             this.confirmPassword = confirmPassword;
         }
     }
-
-    /**
-     * Clasa pentru stocarea datelor token-ului
-     */
-    private static class TokenData {
-        private final String email;
-        private final long expirationTime;
-
-        public TokenData(String email, long expirationTime) {
-            this.email = email;
-            this.expirationTime = expirationTime;
-        }
-
-        public String getEmail() {
-            return email;
-        }
-
-        public long getExpirationTime() {
-            return expirationTime;
-        }
-    }
 }
\ No newline at end of file
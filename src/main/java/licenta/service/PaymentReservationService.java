@@ -0,0 +1,150 @@
+package licenta.service;
+
+import com.stripe.exception.StripeException;
+import com.stripe.model.Refund;
+import com.stripe.net.RequestOptions;
+import com.stripe.param.RefundCreateParams;
+import jakarta.transaction.Transactional;
+import licenta.model.*;
+import licenta.persistence.IPaymentSpringRepository;
+import licenta.persistence.IReservationSpringRepository;
+import licenta.persistence.ISportsHallSpringRepository;
+import licenta.persistence.IUserSpringRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Creeaza rezervarile unei plati reusite si pune emailul de confirmare in outbox in aceeasi tranzactie:
+ * fie se salveaza plata, rezervarile si emailul impreuna, fie nimic (outbox tranzactional).
+ */
+@Service
+public class PaymentReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentReservationService.class);
+
+    private static final ZoneId ROMANIA_ZONE = ZoneId.of("Europe/Bucharest");
+
+    static final String SLOT_TAKEN_REASON = "Un interval a fost rezervat de altcineva înainte de confirmarea plății";
+
+    private final IPaymentSpringRepository paymentRepository;
+    private final IReservationSpringRepository reservationRepository;
+    private final IUserSpringRepository userRepository;
+    private final ISportsHallSpringRepository sportsHallRepository;
+    private final EmailOutbox emailOutbox;
+
+    @Autowired
+    public PaymentReservationService(IPaymentSpringRepository paymentRepository,
+                                     IReservationSpringRepository reservationRepository,
+                                     IUserSpringRepository userRepository,
+                                     ISportsHallSpringRepository sportsHallRepository,
+                                     EmailOutbox emailOutbox) {
+        this.paymentRepository = paymentRepository;
+        this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
+        this.sportsHallRepository = sportsHallRepository;
+        this.emailOutbox = emailOutbox;
+    }
+
+    /**
+     * Salveaza rezervarile platii, plata si emailul de confirmare intr-o singura tranzactie.
+     * O eroare la oricare pas (inclusiv la scrierea in outbox) anuleaza tot.
+     *
+     * @return id-urile rezervarilor create
+     */
+    @Transactional
+    public List<Long> createReservationsAndQueueConfirmation(Payment payment,
+                                                             List<StripePaymentController.ReservationData> reservationsData,
+                                                             Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("Utilizatorul nu a fost găsit: " + userId));
+
+        // Salile sunt citite o singura data, nu cate o interogare pe rezervare
+        Set<Long> hallIds = reservationsData.stream()
+                .map(StripePaymentController.ReservationData::getHallId)
+                .collect(Collectors.toSet());
+        Map<Long, SportsHall> hallsById = new HashMap<>();
+        sportsHallRepository.findAllById(hallIds).forEach(hall -> hallsById.put(hall.getId(), hall));
+
+        List<Reservation> reservations = new ArrayList<>(reservationsData.size());
+        for (StripePaymentController.ReservationData reservationData : reservationsData) {
+            SportsHall hall = hallsById.get(reservationData.getHallId());
+            if (hall == null) {
+                throw new RuntimeException("Sala de sport nu a fost găsită: " + reservationData.getHallId());
+            }
+
+            reservations.add(new Reservation(hall, user, parseReservationDate(reservationData.getDate()),
+                    reservationData.getTimeSlot(), hall.getTariff(), "reservation"));
+        }
+
+        // Toate rezervarile platii intr-un singur batch JDBC
+        List<Long> reservationIds = new ArrayList<>(reservations.size());
+        List<Reservation> savedReservations = new ArrayList<>(reservations.size());
+        for (Reservation savedReservation : reservationRepository.saveAll(reservations)) {
+            reservationIds.add(savedReservation.getId());
+            savedReservations.add(savedReservation);
+            payment.getPaymentReservations().add(new PaymentReservation(payment, savedReservation));
+        }
+
+        // Flush aici: un slot ocupat intre timp (uq_reservations_active_slot) iese ca DataIntegrityViolationException
+        // din aceasta metoda, inainte de outbox, si anuleaza toata tranzactia
+        paymentRepository.saveAndFlush(payment);
+
+        // Emailul intra in outbox in aceeasi tranzactie; daca scrierea esueaza, nici rezervarile nu raman
+        OutboxEmail confirmation = ReservationEmailService.createReservationConfirmationEmail(user, savedReservations, payment);
+        if (confirmation != null) {
+            emailOutbox.enqueue(confirmation.getRecipient(), confirmation.getSubject(), confirmation.getBody());
+            logger.info("Email de confirmare rezervare programat pentru: {}", user.getEmail());
+        } else {
+            logger.warn("Date incomplete pentru emailul de confirmare al platii {}", payment.getId());
+        }
+
+        return reservationIds;
+    }
+
+    /**
+     * Rezervarile unei plati reusite nu au putut fi create pentru ca un interval a fost ocupat intre timp
+     * (tranzactia lor a fost deja anulata). Plata cu cardul este rambursata in Stripe si marcata REFUNDED;
+     * daca rambursarea esueaza, plata ramane SUCCEEDED dar cu motivul notat, pentru rambursare manuala.
+     * Nu ruleaza intr-o tranzactie, ca apelul catre Stripe sa nu tina o conexiune la baza ocupata.
+     */
+    public Payment refundAfterSlotConflict(Long paymentId) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new IllegalStateException("Plata nu a fost găsită: " + paymentId));
+        if (payment.getStatus() == PaymentStatus.REFUNDED || payment.getStripePaymentIntentId() == null) {
+            return payment;
+        }
+
+        try {
+            RefundCreateParams params = RefundCreateParams.builder()
+                    .setPaymentIntent(payment.getStripePaymentIntentId())
+                    .putMetadata("payment_db_id", paymentId.toString())
+                    .putMetadata("reason", "slot_taken")
+                    .build();
+            // Aceeasi cheie la reincercari, ca plata sa nu fie rambursata de doua ori
+            Refund.create(params, RequestOptions.builder()
+                    .setIdempotencyKey("slot-conflict-refund-" + payment.getStripePaymentIntentId())
+                    .build());
+            payment.setStatus(PaymentStatus.REFUNDED);
+            payment.setFailureReason(SLOT_TAKEN_REASON + "; plata a fost rambursată");
+            logger.warn("Payment {} refunded: a reserved slot was taken before its reservations were saved", paymentId);
+        } catch (StripeException e) {
+            // Banii au fost incasati, deci plata ramane reusita pana la rambursarea manuala
+            payment.setStatus(PaymentStatus.SUCCEEDED);
+            payment.setFailureReason(SLOT_TAKEN_REASON + "; rambursarea automată a eșuat, necesită rambursare manuală: "
+                    + e.getMessage());
+            logger.error("Payment {} needs a manual refund: slot taken and Stripe refund failed", paymentId, e);
+        }
+        return paymentRepository.save(payment);
+    }
+
+    private Date parseReservationDate(String dateString) {
+        return Date.from(LocalDate.parse(dateString).atStartOfDay(ROMANIA_ZONE).toInstant());
+    }
+}
@@ -1,5 +1,6 @@
 package licenta.service;
 
+import licenta.jwtservice.UserInfoDetails;
 import licenta.model.ReservationProfile;
 import licenta.model.SportsHall;
 import licenta.model.User;
@@ -46,15 +47,17 @@ public class ReservationProfileRestController {
     @GetMapping
     public ResponseEntity<?> getAllProfiles(@RequestParam(required = false) Long userId) {
         try {
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String email = authentication.getName();
-            Optional<User> userOpt = userSpringRepository.findByEmail(email);
+            Optional<UserInfoDetails> principal = UserInfoDetails.current().filter(details -> details.getUserId() != null);
+            Optional<User> userOpt = principal.isPresent() ? Optional.empty()
+                    : userSpringRepository.findByEmail(SecurityContextHolder.getContext().getAuthentication().getName());
 
-            if (userOpt.isPresent()) {
-                User currentUser = userOpt.get();
+            if (principal.isPresent() || userOpt.isPresent()) {
+                // Cu un token de acces nou, id-ul si tipul vin din claim-uri, fara interogarea utilizatorului
+                Long currentUserId = principal.map(UserInfoDetails::getUserId).orElseGet(() -> userOpt.get().getId());
+                String currentUserType = principal.map(UserInfoDetails::getUserType).orElseGet(() -> userOpt.get().getUserType());
 
                 if (userId != null) {
-                    if (!"admin".equals(currentUser.getUserType()) && !"hall_admin".equals(currentUser.getUserType())) {
+                    if (!"admin".equals(currentUserType) && !"hall_admin".equals(currentUserType)) {
                         return ResponseEntity.status(403).body("Acces interzis - doar adminii pot accesa această funcționalitate");
                     }
 
@@ -66,7 +69,7 @@ public class ReservationProfileRestController {
                     List<ReservationProfile> userProfiles = reservationProfileRepository.findByUserId(userId);
                     return ResponseEntity.ok(userProfiles);
                 } else {
-                    List<ReservationProfile> userProfiles = reservationProfileRepository.findByUserId(currentUser.getId());
+                    List<ReservationProfile> userProfiles = reservationProfileRepository.findByUserId(currentUserId);
                     return ResponseEntity.ok(userProfiles);
                 }
             } else {
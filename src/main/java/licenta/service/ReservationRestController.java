@@ -3,22 +3,26 @@ package licenta.service;
 import licenta.model.Reservation;
 import licenta.persistence.IReservationSpringRepository;
 import licenta.persistence.ISportsHallSpringRepository;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 @RestController
 @RequestMapping("/reservations")
 public class ReservationRestController {
 
+    private static final String UNIQUE_VIOLATION = "23505";
+
     private final IReservationSpringRepository reservationSpringRepository;
     private final ISportsHallSpringRepository sportsHallSpringRepository;
 
@@ -38,11 +42,8 @@ public class ReservationRestController {
     // ENDPOINT pentru a obtine rezervarile unui utilizator
     @GetMapping("/user/{userId}")
     public List<Reservation> getReservationsByUser(@PathVariable Long userId) {
-        return StreamSupport.stream(reservationSpringRepository.findAll().spliterator(), false)
-                .filter(reservation -> reservation.getUser() != null &&
-                        reservation.getUser().getId().equals(userId))
-                .filter(reservation -> "reservation".equals(reservation.getType())) // Doar rezervările, nu mentenanța
-                .collect(Collectors.toList());
+        // Doar rezervările, nu mentenanța
+        return reservationSpringRepository.findByUserIdAndType(userId, "reservation");
     }
 
     @GetMapping
@@ -55,13 +56,16 @@ public class ReservationRestController {
             return reservationSpringRepository.findAll();
         }
 
-        Iterable<Reservation> allReservations = reservationSpringRepository.findAll();
+        if (date == null) {
+            return reservationSpringRepository.findByOptionalHallAndType(hallId, type);
+        }
+
+        // Ziua ceruta devine o fereastra [00:00, 00:00 a doua zi) pentru a folosi indexul pe data
+        LocalDate day = new java.sql.Date(date.getTime()).toLocalDate();
+        Date dayStart = Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date nextDayStart = Date.from(day.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant());
 
-        return StreamSupport.stream(allReservations.spliterator(), false)
-                .filter(reservation -> hallId == null || (reservation.getHall() != null && reservation.getHall().getId().equals(hallId)))
-                .filter(reservation -> date == null || dateEquals(reservation.getDate(), date))
-                .filter(reservation -> type == null || type.equals(reservation.getType()))
-                .collect(Collectors.toList());
+        return reservationSpringRepository.findByOptionalHallAndTypeInDateWindow(hallId, type, dayStart, nextDayStart);
     }
 
     // ENDPOINT pentru anularea unei rezervari
@@ -82,17 +86,6 @@ public class ReservationRestController {
         }
     }
 
-    private boolean dateEquals(Date date1, Date date2) {
-        if (date1 == null || date2 == null) {
-            return false;
-        }
-
-        LocalDate localDate1 = new java.sql.Date(date1.getTime()).toLocalDate();
-        LocalDate localDate2 = new java.sql.Date(date2.getTime()).toLocalDate();
-
-        return localDate1.equals(localDate2);
-    }
-
     @PostMapping
     public ResponseEntity<Reservation> createReservation(@RequestBody Reservation reservation) {
         try {
@@ -102,24 +95,34 @@ public class ReservationRestController {
                 return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
             }
 
-            boolean slotExists = StreamSupport.stream(reservationSpringRepository.findAll().spliterator(), false)
-                    .anyMatch(r -> r.getHall() != null &&
-                            r.getHall().getId().equals(reservation.getHall().getId()) &&
-                            dateEquals(r.getDate(), reservation.getDate()) &&
-                            r.getTimeSlot().equals(reservation.getTimeSlot()) &&
-                            !"CANCELLED".equals(r.getStatus())); // Nu luăm în considerare rezervările anulate
-
-            if (slotExists) {
-                return new ResponseEntity<>(HttpStatus.CONFLICT);
-            }
-
+            // Inserare optimista: dublarea unui slot activ este respinsa de indexul unic din baza de date
             Reservation savedReservation = reservationSpringRepository.save(reservation);
             return new ResponseEntity<>(savedReservation, HttpStatus.CREATED);
+        } catch (DataIntegrityViolationException e) {
+            if (isActiveSlotConflict(e)) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Violare de unicitate (SQLState 23505) raportata de PostgreSQL chiar pentru indexul slotului activ
+     */
+    static boolean isActiveSlotConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof PSQLException psqlException) {
+                ServerErrorMessage serverError = psqlException.getServerErrorMessage();
+                return UNIQUE_VIOLATION.equals(psqlException.getSQLState())
+                        && serverError != null
+                        && Reservation.ACTIVE_SLOT_UNIQUE_INDEX.equals(serverError.getConstraint());
+            }
+        }
+        return false;
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteReservation(@PathVariable Long id) {
         try {
@@ -148,18 +151,6 @@ public class ReservationRestController {
         cal.add(java.util.Calendar.DAY_OF_WEEK, 6);
         Date weekEnd = cal.getTime();
 
-        return StreamSupport.stream(reservationSpringRepository.findAll().spliterator(), false)
-                .filter(reservation -> reservation.getHall() != null &&
-                        reservation.getHall().getId().equals(hallId))
-                .filter(reservation -> "maintenance".equals(reservation.getType()))
-                .filter(reservation -> {
-                    if (reservation.getDate() == null) {
-                        return false;
-                    }
-
-                    return !reservation.getDate().before(weekStart) &&
-                            !reservation.getDate().after(weekEnd);
-                })
-                .collect(Collectors.toList());
+        return reservationSpringRepository.findByHallIdAndTypeAndDateBetween(hallId, "maintenance", weekStart, weekEnd);
     }
 }
\ No newline at end of file
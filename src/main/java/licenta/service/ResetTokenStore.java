@@ -0,0 +1,49 @@
+package licenta.service;
+
+import java.util.Optional;
+
+/**
+ * Tokenurile de resetare a parolei. Fiecare email are cel mult un token activ: o cerere noua il inlocuieste
+ * pe cel vechi, asa ca un val de cereri pentru acelasi cont nu creste depozitul.
+ * Implementari: {@link InMemoryResetTokenStore} (o singura instanta) si {@link DatabaseResetTokenStore}
+ * (mai multe instante in spatele unui load balancer), alese cu password-reset.token-store.
+ */
+public interface ResetTokenStore {
+
+    /**
+     * Salveaza tokenul si il invalideaza pe cel anterior al aceluiasi email; false daca depozitul este plin
+     */
+    boolean put(String token, Entry entry);
+
+    /**
+     * Datele tokenului, chiar daca a expirat intre timp (apelantul decide mesajul), sau gol daca nu exista
+     */
+    Optional<Entry> get(String token);
+
+    /**
+     * Sterge tokenul; intoarce true doar daca exista si nu expirase, deci un token poate fi consumat o singura data
+     */
+    boolean remove(String token);
+
+    final class Entry {
+        private final String email;
+        private final long expiresAtMillis;
+
+        public Entry(String email, long expiresAtMillis) {
+            this.email = email;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public long getExpiresAtMillis() {
+            return expiresAtMillis;
+        }
+
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package licenta.service;
+
+import licenta.model.SportsHall;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Disponibilitatea sloturilor pentru o saptamana, folosita de alocatorul automat.
+ * Pentru fiecare sala si zi se pastreaza o masca {@code long} in care bitul i inseamna
+ * ca slotul cu ordinalul i din {@link #TIME_SLOTS} este deschis si liber.
+ * Cautarile devin astfel intersectii de masti, fara parsarea repetata a intervalelor orare.
+ */
+public class SlotAvailabilityEngine {
+
+    public static final String[] TIME_SLOTS = {
+            "08:30 - 10:00", "10:00 - 11:30", "11:30 - 13:00",
+            "13:00 - 14:30", "14:30 - 16:00", "16:00 - 17:30",
+            "17:30 - 19:00", "19:00 - 20:30", "20:30 - 22:00"
+    };
+
+    public static final int SLOT_COUNT = TIME_SLOTS.length;
+    public static final int DAYS_PER_WEEK = 7;
+
+    private static final int[] SLOT_START_MINUTES = new int[SLOT_COUNT];
+    private static final Map<String, Integer> SLOT_ORDINALS = new HashMap<>();
+
+    static {
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            String start = TIME_SLOTS[slot].substring(0, 5);
+            SLOT_START_MINUTES[slot] = Integer.parseInt(start.substring(0, 2)) * 60 + Integer.parseInt(start.substring(3, 5));
+            SLOT_ORDINALS.put(TIME_SLOTS[slot], slot);
+        }
+    }
+
+    /**
+     * Primeste (salaOrdinal, zi, slotOrdinal) pentru fiecare slot gasit; intoarce false pentru a opri cautarea
+     */
+    @FunctionalInterface
+    public interface SlotVisitor {
+        boolean visit(int hallOrdinal, int day, int slot);
+    }
+
+    private final LocalDate weekStart;
+    private final Date[] dates;
+    private final SportsHall[] halls;
+    private final Map<Long, Integer> hallOrdinals;
+    private final float[] tariffs;
+    private final BigDecimal[] prices;
+    private final long[] availability;
+
+    public SlotAvailabilityEngine(Date weekStart, List<SportsHall> halls) {
+        this.weekStart = toLocalDate(weekStart);
+        this.dates = new Date[DAYS_PER_WEEK];
+        for (int day = 0; day < DAYS_PER_WEEK; day++) {
+            Calendar cal = Calendar.getInstance();
+            cal.setTime(weekStart);
+            cal.add(Calendar.DAY_OF_YEAR, day);
+            dates[day] = cal.getTime();
+        }
+
+        this.halls = halls.toArray(new SportsHall[0]);
+        this.hallOrdinals = new HashMap<>(this.halls.length * 2);
+        this.tariffs = new float[this.halls.length];
+        this.prices = new BigDecimal[this.halls.length];
+        for (int hall = 0; hall < this.halls.length; hall++) {
+            hallOrdinals.put(this.halls[hall].getId(), hall);
+            tariffs[hall] = this.halls[hall].getTariff();
+            prices[hall] = BigDecimal.valueOf(tariffs[hall]);
+        }
+
+        // Toate sloturile pornesc inchise; se deschid doar cele din programul salii
+        this.availability = new long[this.halls.length * DAYS_PER_WEEK];
+    }
+
+    /**
+     * Deschide sloturile care incep in intervalul [openMinutes, closeMinutes)
+     */
+    public void openSlots(int hallOrdinal, int day, int openMinutes, int closeMinutes) {
+        long mask = 0L;
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            if (SLOT_START_MINUTES[slot] >= openMinutes && SLOT_START_MINUTES[slot] < closeMinutes) {
+                mask |= 1L << slot;
+            }
+        }
+        availability[hallOrdinal * DAYS_PER_WEEK + day] |= mask;
+    }
+
+    /**
+     * Marcheaza un slot ca ocupat; intoarce false daca slotul nu apartine acestei saptamani/sali
+     */
+    public boolean markOccupied(Long hallId, Date date, String timeSlot) {
+        int hall = hallOrdinal(hallId);
+        int day = dayOrdinal(date);
+        int slot = slotOrdinal(timeSlot);
+        if (hall < 0 || day < 0 || slot < 0) {
+            return false;
+        }
+        availability[hall * DAYS_PER_WEEK + day] &= ~(1L << slot);
+        return true;
+    }
+
+    public void markOccupied(int hallOrdinal, int day, int slot) {
+        availability[hallOrdinal * DAYS_PER_WEEK + day] &= ~(1L << slot);
+    }
+
+    public boolean isAvailable(int hallOrdinal, int day, int slot) {
+        return (availability[hallOrdinal * DAYS_PER_WEEK + day] & (1L << slot)) != 0;
+    }
+
+    public long availableMask(int hallOrdinal, int day) {
+        return availability[hallOrdinal * DAYS_PER_WEEK + day];
+    }
+
+    /**
+     * Parcurge sloturile libere din salile date care se potrivesc cu slotMask, sarind zilele din excludedDayMask.
+     * Zilele sunt parcurse incepand cu firstDay, circular.
+     */
+    public void forEachAvailable(int[] hallOrdinalsToScan, long slotMask, int excludedDayMask, int firstDay, SlotVisitor visitor) {
+        for (int offset = 0; offset < DAYS_PER_WEEK; offset++) {
+            int day = (firstDay + offset) % DAYS_PER_WEEK;
+            if ((excludedDayMask & (1 << day)) != 0) {
+                continue;
+            }
+            for (int hall : hallOrdinalsToScan) {
+                long bits = availability[hall * DAYS_PER_WEEK + day] & slotMask;
+                while (bits != 0) {
+                    int slot = Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    if (!visitor.visit(hall, day, slot)) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Masca sloturilor care incep in intervalul [startMinutes, endMinutes) si respecta regula
+     * seniori/juniori de la 14:30 (seniorii pana la 14:00 inclusiv, juniorii de la 14:30)
+     */
+    public static long slotMask(int startMinutes, int endMinutes, boolean isSenior) {
+        long mask = 0L;
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            int minutes = SLOT_START_MINUTES[slot];
+            if (minutes < startMinutes || minutes >= endMinutes) {
+                continue;
+            }
+            boolean allowed = isSenior ? minutes <= 14 * 60 : minutes >= 14 * 60 + 30;
+            if (allowed) {
+                mask |= 1L << slot;
+            }
+        }
+        return mask;
+    }
+
+    public static int slotOrdinal(String timeSlot) {
+        Integer slot = timeSlot == null ? null : SLOT_ORDINALS.get(timeSlot);
+        return slot == null ? -1 : slot;
+    }
+
+    public static int slotStartMinutes(int slot) {
+        return SLOT_START_MINUTES[slot];
+    }
+
+    public int hallOrdinal(Long hallId) {
+        Integer hall = hallId == null ? null : hallOrdinals.get(hallId);
+        return hall == null ? -1 : hall;
+    }
+
+    public int dayOrdinal(Date date) {
+        if (date == null) {
+            return -1;
+        }
+        long day = ChronoUnit.DAYS.between(weekStart, toLocalDate(date));
+        return day >= 0 && day < DAYS_PER_WEEK ? (int) day : -1;
+    }
+
+    public int getHallCount() {
+        return halls.length;
+    }
+
+    public int getDayCount() {
+        return DAYS_PER_WEEK;
+    }
+
+    public SportsHall getHall(int hallOrdinal) {
+        return halls[hallOrdinal];
+    }
+
+    public float getTariff(int hallOrdinal) {
+        return tariffs[hallOrdinal];
+    }
+
+    public BigDecimal getPrice(int hallOrdinal) {
+        return prices[hallOrdinal];
+    }
+
+    public Date getDate(int day) {
+        return dates[day];
+    }
+
+    public int countAvailableSlots() {
+        int count = 0;
+        for (long mask : availability) {
+            count += Long.bitCount(mask);
+        }
+        return count;
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+}
@@ -0,0 +1,51 @@
+package licenta.service;
+
+import licenta.model.SportsHall;
+import licenta.persistence.ISportsHallSpringRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Completeaza sport_category si multipurpose pentru salile salvate inainte ca acele coloane sa existe.
+ * Salile noi o primesc la salvare, asa ca la urmatoarele porniri nu mai gaseste nimic de facut.
+ */
+@Component
+public class SportCategoryBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(SportCategoryBackfill.class);
+
+    private final ISportsHallSpringRepository sportsHallSpringRepository;
+
+    @Autowired
+    public SportCategoryBackfill(ISportsHallSpringRepository sportsHallSpringRepository) {
+        this.sportsHallSpringRepository = sportsHallSpringRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            backfill();
+        } catch (Exception e) {
+            logger.error("Sport category backfill failed", e);
+        }
+    }
+
+    public int backfill() {
+        List<SportsHall> halls = sportsHallSpringRepository.findWithoutSportCategory();
+        if (halls.isEmpty()) {
+            return 0;
+        }
+
+        // setType recalculeaza categoria si indicatorul multipurpose
+        halls.forEach(hall -> hall.setType(hall.getType()));
+        sportsHallSpringRepository.saveAll(halls);
+        logger.info("Computed sport category for {} sports halls", halls.size());
+        return halls.size();
+    }
+}
@@ -1,14 +1,20 @@
 package licenta.service;
 
+import licenta.model.ImageVariant;
 import licenta.model.SportsHallImage;
+import licenta.model.dtos.StoredImageInfo;
 import licenta.persistence.ISportsHallImageSpringRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @RestController
@@ -16,33 +22,94 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:3000")
 public class SportsHallImageRestController {
 
+    // Continutul unei chei nu se schimba niciodata, deci poate fi pastrat de browser fara revalidare
+    private static final CacheControl IMMUTABLE_CACHE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    // Originalul trimis in locul unei variante inca negenerate: browserul revalideaza cu ETag-ul,
+    // ca sa primeasca varianta (alt ETag) imediat ce exista
+    private static final CacheControl REVALIDATE_CACHE = CacheControl.noCache().cachePublic();
+
     private final ISportsHallImageSpringRepository sportsHallImageSpringRepository;
+    private final SportsHallImageService sportsHallImageService;
     private static final Logger logger = LoggerFactory.getLogger(SportsHallImageRestController.class);
 
     @Autowired
-    public SportsHallImageRestController(ISportsHallImageSpringRepository sportsHallImageSpringRepository) {
+    public SportsHallImageRestController(ISportsHallImageSpringRepository sportsHallImageSpringRepository,
+                                         SportsHallImageService sportsHallImageService) {
         this.sportsHallImageSpringRepository = sportsHallImageSpringRepository;
+        this.sportsHallImageService = sportsHallImageService;
     }
 
+    /**
+     * Imaginile din depozit sunt trimise in streaming, cu ETag-ul egal cu hash-ul continutului;
+     * Spring raspunde singur cu 304 pentru If-None-Match si cu 206 pentru cererile Range.
+     * Parametrul size (thumbnail, medium, full) alege o varianta redimensionata; fara el se trimite originalul.
+     */
     @GetMapping("/{imageId}")
-    public ResponseEntity<byte[]> getImageById(@PathVariable Long imageId) {
+    public ResponseEntity<Resource> getImageById(@PathVariable Long imageId,
+                                                 @RequestParam(value = "size", required = false) String size) {
+        ImageVariant variant;
         try {
-            Optional<SportsHallImage> imageOpt = sportsHallImageSpringRepository.findById(imageId);
-            if (imageOpt.isPresent()) {
-                SportsHallImage image = imageOpt.get();
-                return ResponseEntity.ok()
-                        .contentType(MediaType.IMAGE_JPEG)
-                        .body(image.getImage());
-            } else {
+            variant = ImageVariant.fromParam(size);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            Optional<StoredImageInfo> infoOpt = sportsHallImageSpringRepository.findStoredImageInfoById(imageId);
+            if (infoOpt.isEmpty()) {
                 logger.warn("Image with ID {} not found", imageId);
                 return ResponseEntity.notFound().build();
             }
+
+            StoredImageInfo info = infoOpt.get();
+            if (info.getContentHash() == null) {
+                return getLegacyImage(imageId);
+            }
+
+            // Pana sunt generate variantele (sau daca originalul e deja mic) se trimite originalul
+            String variantHash = variant != null ? info.variantHash(variant) : null;
+            String contentHash = variantHash != null ? variantHash : info.getContentHash();
+            String contentType = contentHash.equals(info.getContentHash()) ? info.getContentType() : MediaType.IMAGE_JPEG_VALUE;
+            boolean servesRequestedContent = variant == null || variantHash != null;
+
+            Optional<Resource> content = sportsHallImageService.openContent(contentHash);
+            if (content.isEmpty()) {
+                logger.error("Content {} for image with ID {} is missing from the image store", contentHash, imageId);
+                return ResponseEntity.notFound().build();
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(mediaType(contentType))
+                    .eTag(contentHash)
+                    .cacheControl(servesRequestedContent ? IMMUTABLE_CACHE : REVALIDATE_CACHE)
+                    .body(content.get());
         } catch (Exception e) {
             logger.error("Error retrieving image with ID: {}", imageId, e);
             return ResponseEntity.notFound().build();
         }
     }
 
+    // Imagine nemigrata inca, citita din coloana image
+    private ResponseEntity<Resource> getLegacyImage(Long imageId) {
+        Optional<SportsHallImage> imageOpt = sportsHallImageSpringRepository.findById(imageId);
+        if (imageOpt.isEmpty() || imageOpt.get().getImage() == null) {
+            logger.warn("Image with ID {} has no content", imageId);
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.IMAGE_JPEG)
+                .body(new ByteArrayResource(imageOpt.get().getImage()));
+    }
+
+    private static MediaType mediaType(String contentType) {
+        try {
+            return contentType != null ? MediaType.parseMediaType(contentType) : MediaType.IMAGE_JPEG;
+        } catch (Exception e) {
+            return MediaType.IMAGE_JPEG;
+        }
+    }
+
     @DeleteMapping("/{imageId}")
     public ResponseEntity<?> deleteImageById(@PathVariable Long imageId) {
         try {
@@ -53,10 +120,7 @@ public class SportsHallImageRestController {
                 return ResponseEntity.notFound().build();
             }
 
-            SportsHallImage image = imageOpt.get();
-            Long hallId = image.getSportsHall().getId();
-
-            sportsHallImageSpringRepository.deleteById(imageId);
+            sportsHallImageService.deleteImage(imageOpt.get());
             logger.info("Successfully deleted image with ID: {}", imageId);
 
             return ResponseEntity.ok("Image deleted successfully");
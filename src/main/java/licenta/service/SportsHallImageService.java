@@ -0,0 +1,311 @@
+package licenta.service;
+
+import licenta.model.ImageVariant;
+import licenta.model.SportsHall;
+import licenta.model.SportsHallImage;
+import licenta.persistence.ISportsHallImageSpringRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLConnection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Imaginile salilor: continutul sta in {@link ImageStore}, iar in sports_hall_images ramane doar referinta (hash-ul).
+ * Dupa upload, variantele redimensionate ({@link ImageVariant}) sunt generate pe un pool separat, nu pe firul cererii.
+ */
+@Service
+public class SportsHallImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SportsHallImageService.class);
+
+    static final String DEFAULT_CONTENT_TYPE = "image/jpeg";
+
+    private static final int CONTENT_LOCK_STRIPES = 64;
+
+    private final ISportsHallImageSpringRepository sportsHallImageSpringRepository;
+    private final ImageStore imageStore;
+    private final ImageVariantGenerator imageVariantGenerator;
+    private final Executor imageProcessingExecutor;
+
+    // Blocari pe hash (impartite pe un numar fix de ReentrantLock, ca sa nu fixeze firele virtuale): verificarea
+    // referintelor si stergerea unui continut nu se intercaleaza cu salvarea acelorasi octeti. Sunt locale procesului,
+    // deci presupun o singura instanta a aplicatiei care scrie in depozit.
+    private final ReentrantLock[] contentLocks = new ReentrantLock[CONTENT_LOCK_STRIPES];
+
+    @Value("${images.migration.on-startup:true}")
+    private boolean migrateOnStartup = true;
+
+    @Autowired
+    public SportsHallImageService(ISportsHallImageSpringRepository sportsHallImageSpringRepository,
+                                  ImageStore imageStore,
+                                  ImageVariantGenerator imageVariantGenerator,
+                                  @Qualifier("imageProcessingExecutor") Executor imageProcessingExecutor) {
+        this.sportsHallImageSpringRepository = sportsHallImageSpringRepository;
+        this.imageStore = imageStore;
+        this.imageVariantGenerator = imageVariantGenerator;
+        this.imageProcessingExecutor = imageProcessingExecutor;
+        for (int i = 0; i < contentLocks.length; i++) {
+            contentLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Salveaza fisierul in depozit, creeaza randul care il leaga de sala si programeaza generarea variantelor
+     */
+    public SportsHallImage saveImage(SportsHall sportsHall, MultipartFile file, String description) throws IOException {
+        String contentHash = putContent(file);
+
+        SportsHallImage image = new SportsHallImage();
+        image.setContentHash(contentHash);
+        image.setContentType(imageContentType(file.getContentType()));
+        image.setContentLength(file.getSize());
+        image.setDescription(description);
+        image.setSportsHall(sportsHall);
+
+        SportsHallImage saved = withContentLocks(List.of(contentHash), () -> {
+            // Intre put si blocare, releaseContent poate fi sters acelasi continut (ultima imagine care il folosea)
+            if (imageStore.get(contentHash).isEmpty()) {
+                putContent(file);
+            }
+            return sportsHallImageSpringRepository.save(image);
+        });
+        scheduleVariants(saved.getId(), contentHash);
+        return saved;
+    }
+
+    public Optional<Resource> openContent(String contentHash) {
+        return imageStore.get(contentHash);
+    }
+
+    /**
+     * Sterge randul imaginii si fisierele (original si variante) pe care nu le mai foloseste nicio alta imagine
+     */
+    public void deleteImage(SportsHallImage image) {
+        sportsHallImageSpringRepository.deleteById(image.getId());
+        image.storedContentHashes().forEach(this::releaseContent);
+    }
+
+    /**
+     * Sterge continutul daca nu il mai refera nicio imagine. Numararea si stergerea se fac sub blocarea hash-ului,
+     * ca o salvare concurenta a acelorasi octeti sa nu ramana cu o referinta catre un fisier sters.
+     */
+    public void releaseContent(String contentHash) {
+        if (contentHash == null) {
+            return;
+        }
+        try {
+            withContentLocks(List.of(contentHash), () -> {
+                if (sportsHallImageSpringRepository.countReferences(contentHash) == 0) {
+                    imageStore.delete(contentHash);
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            // Fisierul ramas nu afecteaza afisarea; doar ocupa spatiu
+            logger.warn("Could not delete image content {}", contentHash, e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImagesOnStartup() {
+        if (!migrateOnStartup) {
+            return;
+        }
+        try {
+            migrateLegacyImages();
+        } catch (Exception e) {
+            logger.error("Legacy image migration failed", e);
+        }
+        try {
+            backfillVariants();
+        } catch (Exception e) {
+            logger.error("Image variant backfill failed", e);
+        }
+    }
+
+    /**
+     * Muta in depozit imaginile salvate inca in coloana image, cate una (un singur BLOB in memorie o data).
+     * Randurile deja mutate sunt sarite, asa ca migrarea poate fi reluata oricand.
+     */
+    public int migrateLegacyImages() {
+        List<Long> legacyIds = sportsHallImageSpringRepository.findIdsWithoutContentHash();
+        if (legacyIds.isEmpty()) {
+            return 0;
+        }
+
+        logger.info("Migrating {} sports hall images to the image store", legacyIds.size());
+        int migrated = 0;
+        for (Long imageId : legacyIds) {
+            Optional<SportsHallImage> imageOpt = sportsHallImageSpringRepository.findById(imageId);
+            if (imageOpt.isEmpty() || imageOpt.get().getImage() == null || imageOpt.get().getImage().length == 0) {
+                continue;
+            }
+
+            SportsHallImage image = imageOpt.get();
+            byte[] data = image.getImage();
+            try {
+                image.setContentHash(imageStore.put(new ByteArrayInputStream(data)));
+                image.setContentType(guessContentType(data));
+                image.setContentLength((long) data.length);
+                image.setImagePath(null);
+                sportsHallImageSpringRepository.save(image);
+                migrated++;
+            } catch (IOException e) {
+                logger.error("Could not migrate image with ID: {}", imageId, e);
+            }
+        }
+
+        logger.info("Migrated {} of {} sports hall images", migrated, legacyIds.size());
+        return migrated;
+    }
+
+    /**
+     * Programeaza variantele pentru imaginile care nu le au inca (imagini migrate sau respinse cand pool-ul era plin).
+     * Ruleaza pe firul de pornire, asa ca aici o coada plina inseamna generare pe loc, nu renuntare.
+     */
+    public int backfillVariants() {
+        List<Long> imageIds = sportsHallImageSpringRepository.findIdsWithoutVariants();
+        for (Long imageId : imageIds) {
+            sportsHallImageSpringRepository.findStoredImageInfoById(imageId).ifPresent(info -> {
+                try {
+                    imageProcessingExecutor.execute(() -> generateVariants(imageId, info.getContentHash()));
+                } catch (RejectedExecutionException e) {
+                    generateVariants(imageId, info.getContentHash());
+                }
+            });
+        }
+        if (!imageIds.isEmpty()) {
+            logger.info("Scheduled variant generation for {} sports hall images", imageIds.size());
+        }
+        return imageIds.size();
+    }
+
+    private void scheduleVariants(Long imageId, String contentHash) {
+        try {
+            imageProcessingExecutor.execute(() -> generateVariants(imageId, contentHash));
+        } catch (RejectedExecutionException e) {
+            // Pana atunci se serveste originalul; variantele lipsa sunt generate la urmatoarea pornire
+            logger.warn("Image processing queue is full, variants for image {} postponed", imageId);
+        }
+    }
+
+    /**
+     * Decodeaza originalul o singura data, salveaza variantele in depozit si le leaga de imagine.
+     * Cand originalul este mai mic decat o varianta (sau nu poate fi decodat ori e prea mare), varianta refoloseste originalul.
+     */
+    void generateVariants(Long imageId, String contentHash) {
+        Optional<Resource> original = imageStore.get(contentHash);
+        if (original.isEmpty()) {
+            logger.warn("Content {} for image {} is missing, skipping variants", contentHash, imageId);
+            return;
+        }
+
+        try {
+            Map<ImageVariant, byte[]> variants;
+            try (InputStream in = original.get().getInputStream()) {
+                variants = imageVariantGenerator.generate(in);
+            }
+            if (variants == null) {
+                logger.warn("Image {} could not be decoded or exceeds the pixel limit, serving the original for all sizes", imageId);
+                variants = Map.of();
+            }
+
+            byte[] thumbnail = variants.get(ImageVariant.THUMBNAIL);
+            byte[] medium = variants.get(ImageVariant.MEDIUM);
+            byte[] full = variants.get(ImageVariant.FULL);
+            String thumbnailHash = storeVariant(thumbnail, contentHash);
+            String mediumHash = storeVariant(medium, contentHash);
+            String fullHash = storeVariant(full, contentHash);
+
+            int updated = withContentLocks(List.of(thumbnailHash, mediumHash, fullHash), () -> {
+                // O varianta identica cu a altei imagini poate fi fost stearsa de releaseContent inainte de blocare
+                restoreIfMissing(thumbnailHash, thumbnail);
+                restoreIfMissing(mediumHash, medium);
+                restoreIfMissing(fullHash, full);
+                return sportsHallImageSpringRepository.updateVariantHashes(imageId, thumbnailHash, mediumHash, fullHash);
+            });
+            if (updated == 0) {
+                // Imaginea a fost stearsa intre timp
+                releaseContent(thumbnailHash);
+                releaseContent(mediumHash);
+                releaseContent(fullHash);
+                return;
+            }
+            logger.debug("Generated variants for image {}", imageId);
+        } catch (Exception e) {
+            logger.error("Could not generate variants for image {}", imageId, e);
+        }
+    }
+
+    private String storeVariant(byte[] variant, String originalHash) throws IOException {
+        return variant != null ? imageStore.put(new ByteArrayInputStream(variant)) : originalHash;
+    }
+
+    private void restoreIfMissing(String hash, byte[] variant) throws IOException {
+        if (variant != null && imageStore.get(hash).isEmpty()) {
+            imageStore.put(new ByteArrayInputStream(variant));
+        }
+    }
+
+    private String putContent(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return imageStore.put(in);
+        }
+    }
+
+    /**
+     * Ruleaza action sub blocarile hash-urilor date. Blocarile sunt luate mereu in ordinea indicilor,
+     * deci doua apeluri cu aceleasi hash-uri in alta ordine nu se pot bloca reciproc.
+     */
+    private <T> T withContentLocks(List<String> contentHashes, ContentAction<T> action) throws IOException {
+        int[] stripes = contentHashes.stream()
+                .mapToInt(hash -> Math.floorMod(hash.hashCode(), contentLocks.length))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int stripe : stripes) {
+            contentLocks[stripe].lock();
+        }
+        try {
+            return action.run();
+        } finally {
+            for (int i = stripes.length - 1; i >= 0; i--) {
+                contentLocks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface ContentAction<T> {
+        T run() throws IOException;
+    }
+
+    private static String imageContentType(String contentType) {
+        return contentType != null && contentType.startsWith("image/") ? contentType : DEFAULT_CONTENT_TYPE;
+    }
+
+    private static String guessContentType(byte[] data) {
+        try {
+            return imageContentType(URLConnection.guessContentTypeFromStream(new ByteArrayInputStream(data)));
+        } catch (IOException e) {
+            return DEFAULT_CONTENT_TYPE;
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package licenta.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import licenta.model.SportCategory;
 import licenta.model.SportsHall;
 import licenta.model.SportsHallImage;
 import licenta.model.User;
+import licenta.model.dtos.SportsHallImageRef;
+import licenta.model.dtos.SportsHallSummary;
 import licenta.persistence.ISportsHallImageSpringRepository;
 import licenta.persistence.ISportsHallSpringRepository;
 import licenta.persistence.IUserSpringRepository;
@@ -33,17 +36,23 @@ public class SportsHallRestController {
     private final ISportsHallImageSpringRepository sportsHallImageSpringRepository;
     private final IUserSpringRepository userSpringRepository;
     private final ObjectMapper objectMapper;
+    private final SportsHallImageService sportsHallImageService;
+    private final HallNameSuggestionIndex hallNameSuggestionIndex;
     private static final Logger logger = LoggerFactory.getLogger(SportsHallRestController.class);
 
     @Autowired
     public SportsHallRestController(ISportsHallSpringRepository sportsHallSpringRepository,
                                     ISportsHallImageSpringRepository sportsHallImageSpringRepository,
                                     IUserSpringRepository userSpringRepository,
-                                    ObjectMapper objectMapper) {
+                                    ObjectMapper objectMapper,
+                                    SportsHallImageService sportsHallImageService,
+                                    HallNameSuggestionIndex hallNameSuggestionIndex) {
         this.sportsHallSpringRepository = sportsHallSpringRepository;
         this.sportsHallImageSpringRepository = sportsHallImageSpringRepository;
         this.userSpringRepository = userSpringRepository;
         this.objectMapper = objectMapper;
+        this.sportsHallImageService = sportsHallImageService;
+        this.hallNameSuggestionIndex = hallNameSuggestionIndex;
     }
 
 
@@ -75,13 +84,13 @@ public class SportsHallRestController {
     public ResponseEntity<?> getAllSportsHalls(@RequestParam(required = false) String city) {
         try {
             if (city != null && !city.trim().isEmpty()) {
-                List<SportsHall> halls = sportsHallSpringRepository.findByCityOrderByName(city);
+                List<SportsHallSummary> halls = sportsHallSpringRepository.findByCityOrderByName(city);
                 logger.info("Found {} sports halls for city: {}", halls.size(), city);
-                return ResponseEntity.ok(halls);
+                return ResponseEntity.ok(withImageRefs(halls));
             } else {
-                Iterable<SportsHall> allHalls = sportsHallSpringRepository.findAll();
+                List<SportsHallSummary> allHalls = sportsHallSpringRepository.findAllSummaries();
                 logger.info("Returning all sports halls");
-                return ResponseEntity.ok(allHalls);
+                return ResponseEntity.ok(withImageRefs(allHalls));
             }
         } catch (Exception e) {
             logger.error("Error fetching sports halls for city: {}", city, e);
@@ -183,16 +192,12 @@ public class SportsHallRestController {
                 logger.info("Processing image {} of type {}, size: {}",
                         i, type, file.getSize());
 
-                SportsHallImage image = new SportsHallImage();
-                image.setImagePath(file.getBytes());
-                image.setDescription(type);
-                image.setSportsHall(savedSportsHall);
-
-                sportsHallImageSpringRepository.save(image);
+                sportsHallImageService.saveImage(savedSportsHall, file, type);
                 logger.info("Saved image of type: {}", type);
             }
 
             SportsHall result = sportsHallSpringRepository.findById(savedSportsHall.getId()).orElse(null);
+            updateSuggestionIndex(result);
             logger.info("Sports hall created successfully with {} images",
                     result != null ? result.getImages().size() : 0);
             return ResponseEntity.ok(result);
@@ -254,7 +259,7 @@ public class SportsHallRestController {
                     for (Long imageId : deleteImageIds) {
                         Optional<SportsHallImage> imageOpt = sportsHallImageSpringRepository.findById(imageId);
                         if (imageOpt.isPresent() && imageOpt.get().getSportsHall().getId().equals(id)) {
-                            sportsHallImageSpringRepository.deleteById(imageId);
+                            sportsHallImageService.deleteImage(imageOpt.get());
                             logger.info("Deleted image with ID: {}", imageId);
                         } else {
                             logger.warn("Image with ID {} not found or not associated with hall {}", imageId, id);
@@ -321,12 +326,7 @@ public class SportsHallRestController {
                     logger.info("Processing new image {} of type {}, size: {}",
                             i, type, file.getSize());
 
-                    SportsHallImage image = new SportsHallImage();
-                    image.setImagePath(file.getBytes());
-                    image.setDescription(type);
-                    image.setSportsHall(savedHall);
-
-                    sportsHallImageSpringRepository.save(image);
+                    sportsHallImageService.saveImage(savedHall, file, type);
                     logger.info("Saved new image of type: {}", type);
                 }
             } else {
@@ -335,6 +335,7 @@ public class SportsHallRestController {
             }
 
             SportsHall result = sportsHallSpringRepository.findById(id).orElse(null);
+            updateSuggestionIndex(result);
             logger.info("Sports hall updated successfully with {} images",
                     result != null && result.getImages() != null ? result.getImages().size() : 0);
             return ResponseEntity.ok(result);
@@ -351,7 +352,16 @@ public class SportsHallRestController {
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteSportsHall(@PathVariable Long id) {
         try {
+            List<String> contentHashes = sportsHallSpringRepository.findById(id)
+                    .map(hall -> hall.getImages().stream()
+                            .flatMap(image -> image.storedContentHashes().stream())
+                            .distinct()
+                            .collect(Collectors.toList()))
+                    .orElse(List.of());
+
             sportsHallSpringRepository.deleteById(id);
+            hallNameSuggestionIndex.remove(id);
+            contentHashes.forEach(sportsHallImageService::releaseContent);
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             logger.error("Error deleting sports hall with ID: {}", id, e);
@@ -379,6 +389,7 @@ public class SportsHallRestController {
             hall.setStatus(SportsHall.HallStatus.INACTIVE);
 
             SportsHall savedHall = sportsHallSpringRepository.save(hall);
+            updateSuggestionIndex(savedHall);
             logger.info("Deactivated sports hall with ID: {} by user: {}",
                     id, authentication.getName());
 
@@ -411,6 +422,7 @@ public class SportsHallRestController {
             hall.setStatus(SportsHall.HallStatus.ACTIVE);
 
             SportsHall savedHall = sportsHallSpringRepository.save(hall);
+            updateSuggestionIndex(savedHall);
             logger.info("Activated sports hall with ID: {} by user: {}",
                     id, authentication.getName());
 
@@ -472,7 +484,7 @@ public class SportsHallRestController {
     @GetMapping("/active")
     public ResponseEntity<?> getActiveHalls(@RequestParam(required = false) String city) {
         try {
-            List<SportsHall> activeHalls;
+            List<SportsHallSummary> activeHalls;
             if (city != null && !city.trim().isEmpty()) {
                 activeHalls = sportsHallSpringRepository.findByCityAndStatusOrderByName(city, SportsHall.HallStatus.ACTIVE);
             } else {
@@ -480,7 +492,7 @@ public class SportsHallRestController {
             }
 
             logger.info("Found {} active sports halls", activeHalls.size());
-            return ResponseEntity.ok(activeHalls);
+            return ResponseEntity.ok(withImageRefs(activeHalls));
 
         } catch (Exception e) {
             logger.error("Error fetching active sports halls", e);
@@ -496,9 +508,9 @@ public class SportsHallRestController {
             }
 
             String cleanQuery = query.trim();
-            List<String> suggestions = sportsHallSpringRepository.findHallNamesSuggestionsLimited(cleanQuery);
+            List<String> suggestions = hallNameSuggestionIndex.suggest(cleanQuery);
 
-            logger.info("Found {} hall name suggestions for query: '{}'", suggestions.size(), cleanQuery);
+            logger.debug("Found {} hall name suggestions for query: '{}'", suggestions.size(), cleanQuery);
             return ResponseEntity.ok(suggestions);
 
         } catch (Exception e) {
@@ -514,62 +526,19 @@ public class SportsHallRestController {
             @RequestParam(required = false) String query) {
 
         try {
-            List<SportsHall> results = new ArrayList<>();
-
             logger.info("Search request - City: '{}', Sport: '{}', Query: '{}'", city, sport, query);
 
-            if (query != null && !query.trim().isEmpty()) {
-                // Prioritate 1: Cautare dupa nume (cu sau fara oras si sport)
-                String searchQuery = query.trim();
-
-                if (city != null && !city.trim().isEmpty() && sport != null && !sport.trim().isEmpty()) {
-                    if ("inot".equalsIgnoreCase(sport.trim())) {
-                        results = sportsHallSpringRepository.findByNameContainingAndCityIgnoreCase(searchQuery, city.trim())
-                                .stream()
-                                .filter(hall -> isSwimmingHall(hall.getType()))
-                                .collect(Collectors.toList());
-                    } else {
-                        results = sportsHallSpringRepository.findByCityAndSportAndNameIncludingMultipurpose(
-                                city.trim(), sport.trim(), searchQuery);
-                    }
-                    logger.info("Search by name + city + sport found {} results", results.size());
+            String cityFilter = city != null && !city.trim().isEmpty() ? city.trim() : null;
+            String category = SportCategory.of(sport);
+            String name = query != null && !query.trim().isEmpty() ? query.trim() : null;
 
-                    if (results.isEmpty()) {
-                        results = sportsHallSpringRepository.findByNameContainingAndCityIgnoreCase(searchQuery, city.trim());
-                        logger.info("Fallback search by name + city found {} results", results.size());
-                    }
-                } else if (city != null && !city.trim().isEmpty()) {
-                    results = sportsHallSpringRepository.findByNameContainingAndCityIgnoreCase(searchQuery, city.trim());
-                    logger.info("Search by name + city found {} results", results.size());
-                } else {
-                    results = sportsHallSpringRepository.findByNameContainingIgnoreCase(searchQuery);
-                    logger.info("Search by name only found {} results", results.size());
-                }
-
-            } else if (city != null && !city.trim().isEmpty() && sport != null && !sport.trim().isEmpty()) {
-                if ("inot".equalsIgnoreCase(sport.trim())) {
-                    results = sportsHallSpringRepository.findSwimmingHallsByCity(city.trim());
-                } else {
-                    results = sportsHallSpringRepository.findByCityAndSportIncludingMultipurpose(
-                            city.trim(), sport.trim());
-                }
-                logger.info("Search by city + sport found {} results", results.size());
+            List<SportsHallSummary> results = sportsHallSpringRepository.search(cityFilter, category, name);
+            logger.info("Search found {} results", results.size());
 
-            } else if (city != null && !city.trim().isEmpty()) {
-                results = sportsHallSpringRepository.findByCityAndStatusOrderByName(city.trim(), SportsHall.HallStatus.ACTIVE);
-                logger.info("Search by city only found {} results", results.size());
-
-            } else if (sport != null && !sport.trim().isEmpty()) {
-                if ("inot".equalsIgnoreCase(sport.trim())) {
-                    results = sportsHallSpringRepository.findSwimmingHalls();
-                } else {
-                    results = sportsHallSpringRepository.findBySportIncludingMultipurpose(sport.trim());
-                }
-                logger.info("Search by sport only found {} results", results.size());
-
-            } else {
-                results = sportsHallSpringRepository.findByStatusOrderByName(SportsHall.HallStatus.ACTIVE);
-                logger.info("Search with no criteria, returning all active halls: {} results", results.size());
+            // Cautarea dupa nume nu se restrange la sport daca nicio sala din oras nu se potriveste
+            if (results.isEmpty() && name != null && cityFilter != null && category != null) {
+                results = sportsHallSpringRepository.search(cityFilter, null, name);
+                logger.info("Fallback search by name + city found {} results", results.size());
             }
 
             if (!results.isEmpty()) {
@@ -579,7 +548,7 @@ public class SportsHallRestController {
                         results.get(0).getType());
             }
 
-            return ResponseEntity.ok(results);
+            return ResponseEntity.ok(withImageRefs(results));
 
         } catch (Exception e) {
             logger.error("Error during sports halls search", e);
@@ -588,12 +557,25 @@ public class SportsHallRestController {
         }
     }
 
-    private boolean isSwimmingHall(String type) {
-        if (type == null) return false;
-        String lowerType = type.toLowerCase();
-        return lowerType.equals("inot") ||
-                lowerType.contains("piscina") ||
-                lowerType.contains("swimming") ||
-                lowerType.contains("inot");
+    private void updateSuggestionIndex(SportsHall hall) {
+        if (hall != null) {
+            hallNameSuggestionIndex.put(hall.getId(), hall.getName(), hall.isActive());
+        }
+    }
+
+    /**
+     * Ataseaza referintele imaginilor (id, descriere, URL) cu o singura interogare pentru toata lista
+     */
+    private List<SportsHallSummary> withImageRefs(List<SportsHallSummary> halls) {
+        if (halls.isEmpty()) {
+            return halls;
+        }
+
+        List<Long> hallIds = halls.stream().map(SportsHallSummary::getId).collect(Collectors.toList());
+        Map<Long, List<SportsHallImageRef>> imagesByHall = sportsHallImageSpringRepository.findImageRefsByHallIds(hallIds)
+                .stream()
+                .collect(Collectors.groupingBy(SportsHallImageRef::getHallId));
+        halls.forEach(hall -> hall.setImages(imagesByHall.getOrDefault(hall.getId(), new ArrayList<>())));
+        return halls;
     }
 }
\ No newline at end of file
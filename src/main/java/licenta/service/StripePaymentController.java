@@ -12,14 +12,15 @@ import com.stripe.net.Webhook;
 import com.stripe.param.PaymentIntentConfirmParams;
 import com.stripe.param.PaymentIntentCreateParams;
 import com.stripe.param.PaymentMethodCreateParams;
+import licenta.jwtservice.UserInfoDetails;
 import licenta.model.*;
 import licenta.persistence.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.*;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -27,7 +28,6 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.annotation.PostConstruct;
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -44,21 +44,12 @@ public class StripePaymentController {
     @Value("${stripe.webhook.secret}")
     private String stripeWebhookSecret;
 
-    @Value("${spring.mail.username}")
-    private String senderEmail;
-
     @Autowired
     private IPaymentSpringRepository paymentRepository;
 
-    @Autowired
-    private IReservationSpringRepository reservationRepository;
-
     @Autowired
     private IUserSpringRepository userRepository;
 
-    @Autowired
-    private ISportsHallSpringRepository sportsHallRepository;
-
     @Autowired
     private ICardPaymentMethodSpringRepository cardPaymentMethodRepository;
 
@@ -69,7 +60,7 @@ public class StripePaymentController {
     private ObjectMapper objectMapper;
 
     @Autowired
-    private JavaMailSender mailSender;
+    private PaymentReservationService paymentReservationService;
 
     @PostConstruct
     public void init() {
@@ -145,11 +136,13 @@ public class StripePaymentController {
                     savedPayment.setStripeChargeId(paymentIntent.getLatestCharge());
                 }
 
-                List<Long> reservationIds = createReservationsFromData(request.getReservations(), savedPayment, userId);
-
-                paymentRepository.save(savedPayment);
-
-                sendConfirmationEmailForPayment(savedPayment, userId);
+                List<Long> reservationIds;
+                try {
+                    reservationIds = paymentReservationService.createReservationsAndQueueConfirmation(
+                            savedPayment, request.getReservations(), userId);
+                } catch (DataIntegrityViolationException e) {
+                    return slotTakenAfterPayment(savedPayment.getId(), e);
+                }
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
@@ -203,6 +196,9 @@ public class StripePaymentController {
             }
 
             Payment payment = paymentOpt.get();
+            if (payment.getStatus() == PaymentStatus.REFUNDED) {
+                return refundedPaymentResponse(payment);
+            }
 
             PaymentIntent stripePI = PaymentIntent.retrieve(request.getPaymentIntentId());
 
@@ -214,13 +210,16 @@ public class StripePaymentController {
                 }
 
                 if (payment.getPaymentReservations().isEmpty()) {
-                    List<Long> reservationIds = createReservationsFromData(request.getReservations(), payment, payment.getUserId());
-
-                    sendConfirmationEmailForPayment(payment, payment.getUserId());
+                    try {
+                        paymentReservationService.createReservationsAndQueueConfirmation(
+                                payment, request.getReservations(), payment.getUserId());
+                    } catch (DataIntegrityViolationException e) {
+                        return slotTakenAfterPayment(payment.getId(), e);
+                    }
+                } else {
+                    paymentRepository.save(payment);
                 }
 
-                paymentRepository.save(payment);
-
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
                 response.put("paymentId", payment.getId());
@@ -398,6 +397,11 @@ public class StripePaymentController {
                         logger.info("Payment {} deja marcat ca SUCCEEDED.", payment.getId());
                         return ResponseEntity.ok("Webhook procesat (deja SUCCEEDED)");
                     }
+                    // Rambursata dupa ce un interval a fost ocupat; evenimentul poate sosi dupa rambursare
+                    if (payment.getStatus() == PaymentStatus.REFUNDED) {
+                        logger.info("Payment {} deja rambursat, webhook-ul succeeded este ignorat.", payment.getId());
+                        return ResponseEntity.ok("Webhook procesat (plata rambursata)");
+                    }
                     payment.setStatus(PaymentStatus.SUCCEEDED);
                     payment.setPaymentDate(LocalDateTime.now());
                     if (paymentIntent.getLatestCharge() != null) {
@@ -465,6 +469,9 @@ public class StripePaymentController {
             }
 
             Payment payment = paymentOpt.get();
+            if (payment.getStatus() == PaymentStatus.REFUNDED) {
+                return refundedPaymentResponse(payment);
+            }
 
             PaymentIntent stripePI = PaymentIntent.retrieve(request.getStripePaymentIntentId());
 
@@ -504,11 +511,13 @@ public class StripePaymentController {
                 return ResponseEntity.ok(response);
             }
 
-            List<Long> reservationIds = createReservationsFromData(request.getReservations(), payment, payment.getUserId());
-
-            paymentRepository.save(payment);
-
-            sendConfirmationEmailForPayment(payment, payment.getUserId());
+            List<Long> reservationIds;
+            try {
+                reservationIds = paymentReservationService.createReservationsAndQueueConfirmation(
+                        payment, request.getReservations(), payment.getUserId());
+            } catch (DataIntegrityViolationException e) {
+                return slotTakenAfterPayment(payment.getId(), e);
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -545,21 +554,29 @@ public class StripePaymentController {
             payment.setPaymentDate(LocalDateTime.now());
             payment.setCurrency("RON");
             payment.setDescription("Rezervare sala de sport - plată cash (" + request.getReservations().size() + " intervale)");
-            Payment savedPayment = paymentRepository.save(payment);
-
-            List<Long> reservationIds = createReservationsFromData(request.getReservations(), savedPayment, userId);
-
-            paymentRepository.save(savedPayment);
 
-            sendConfirmationEmailForPayment(savedPayment, userId);
+            // Plata cash, rezervarile si emailul de confirmare se salveaza impreuna sau deloc
+            List<Long> reservationIds;
+            try {
+                reservationIds = paymentReservationService.createReservationsAndQueueConfirmation(
+                        payment, request.getReservations(), userId);
+            } catch (DataIntegrityViolationException e) {
+                if (!ReservationRestController.isActiveSlotConflict(e)) {
+                    throw e;
+                }
+                // Plata cash se face la sala, deci nu e nimic de rambursat; nici plata nu a ramas inregistrata
+                logger.warn("Cash checkout for user {} rejected: a slot was taken in the meantime", userId);
+                return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error",
+                        "Unul dintre intervale a fost rezervat între timp. Nu a fost înregistrată nicio plată."));
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("paymentId", savedPayment.getId());
+            response.put("paymentId", payment.getId());
             response.put("reservationIds", reservationIds);
             response.put("message", "Rezervări (cash) create cu succes");
 
-            logger.info("Cash Payment {} (DB ID) creat cu {} rezervări.", savedPayment.getId(), reservationIds.size());
+            logger.info("Cash Payment {} (DB ID) creat cu {} rezervări.", payment.getId(), reservationIds.size());
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
@@ -569,42 +586,26 @@ public class StripePaymentController {
         }
     }
 
-    private List<Long> createReservationsFromData(List<ReservationData> reservationsData, Payment payment, Long userId) {
-        List<Long> reservationIds = new ArrayList<>();
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("Utilizatorul nu a fost găsit: " + userId));
-
-        for (ReservationData reservationData : reservationsData) {
-            SportsHall hall = sportsHallRepository.findById(reservationData.getHallId())
-                    .orElseThrow(() -> new RuntimeException("Sala de sport nu a fost găsită: " + reservationData.getHallId()));
-
-            Date utilDate = parseReservationDate(reservationData.getDate());
-
-            Reservation reservation = new Reservation(hall, user, utilDate,
-                    reservationData.getTimeSlot(), hall.getTariff(), "reservation");
-
-            Reservation savedReservation = reservationRepository.save(reservation);
-            reservationIds.add(savedReservation.getId());
-
-            PaymentReservation paymentReservation = new PaymentReservation(payment, savedReservation);
-            payment.getPaymentReservations().add(paymentReservation);
+    /**
+     * Plata a trecut, dar un interval a fost ocupat intre timp de alta rezervare (indexul slotului activ):
+     * rezervarile si emailul nu s-au salvat, iar plata este rambursata (sau marcata pentru rambursare manuala)
+     */
+    private ResponseEntity<?> slotTakenAfterPayment(Long paymentId, DataIntegrityViolationException e) {
+        if (!ReservationRestController.isActiveSlotConflict(e)) {
+            throw e;
         }
-
-        return reservationIds;
+        Payment payment = paymentReservationService.refundAfterSlotConflict(paymentId);
+        return refundedPaymentResponse(payment);
     }
 
-    private Date parseReservationDate(String dateString) {
-        try {
-            LocalDate localDate = LocalDate.parse(dateString);
-            java.time.ZoneId romaniaZone = java.time.ZoneId.of("Europe/Bucharest");
-            java.time.LocalDateTime localDateTime = localDate.atStartOfDay();
-            java.time.ZonedDateTime zonedDateTime = localDateTime.atZone(romaniaZone);
-            return Date.from(zonedDateTime.toInstant());
-        } catch (Exception e) {
-            logger.error("Eroare la parsarea datei rezervării: " + dateString, e);
-            LocalDate localDate = LocalDate.parse(dateString);
-            return java.sql.Date.valueOf(localDate);
-        }
+    private ResponseEntity<?> refundedPaymentResponse(Payment payment) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", payment.getStatus() == PaymentStatus.REFUNDED
+                ? "Unul dintre intervale a fost rezervat între timp. Plata a fost rambursată."
+                : "Unul dintre intervale a fost rezervat între timp. Plata va fi rambursată.");
+        response.put("paymentId", payment.getId());
+        response.put("paymentStatus", payment.getStatus());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
     }
 
     private String extractPaymentIntentId(String clientSecret) {
@@ -615,7 +616,10 @@ public class StripePaymentController {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         if (authentication != null && authentication.isAuthenticated() && !(authentication.getPrincipal() instanceof String && authentication.getPrincipal().equals("anonymousUser"))) {
             Object principal = authentication.getPrincipal();
-            if (principal instanceof UserDetails) {
+            if (principal instanceof UserInfoDetails details && details.getUserId() != null) {
+                // Id-ul vine din claim-urile tokenului, fara interogare
+                return details.getUserId();
+            } else if (principal instanceof UserDetails) {
                 String username = ((UserDetails) principal).getUsername();
                 Optional<User> userOpt = userRepository.findByEmail(username);
                 return userOpt.map(User::getId).orElse(null);
@@ -627,41 +631,6 @@ public class StripePaymentController {
         return null;
     }
 
-    private void sendConfirmationEmailForPayment(Payment payment, Long userId) {
-        try {
-            // Obține utilizatorul
-            Optional<User> userOpt = userRepository.findById(userId);
-            if (userOpt.isEmpty()) {
-                logger.warn("Utilizatorul cu ID {} nu a fost găsit pentru trimiterea email-ului", userId);
-                return;
-            }
-
-            User user = userOpt.get();
-
-            List<Reservation> reservations = new ArrayList<>();
-            for (PaymentReservation paymentReservation : payment.getPaymentReservations()) {
-                reservations.add(paymentReservation.getReservation());
-            }
-
-            if (reservations.isEmpty()) {
-                logger.warn("Nu există rezervări pentru plata cu ID {}", payment.getId());
-                return;
-            }
-
-            ReservationEmailService.sendReservationConfirmationEmail(
-                    mailSender,
-                    senderEmail,
-                    user,
-                    reservations,
-                    payment
-            );
-
-        } catch (Exception e) {
-            logger.error("Eroare la trimiterea email-ului de confirmare pentru plata {}: {}",
-                    payment.getId(), e.getMessage(), e);
-        }
-    }
-
     public static class AutoPaymentRequest {
         private Long profileId;
         private Double totalAmount;
@@ -0,0 +1,111 @@
+package licenta.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Limitare de rata cu cate o galeata de jetoane per cheie (IP, email): galeata are cel mult capacity jetoane
+ * si se reumple cu refillPerMinute jetoane pe minut; fiecare cerere consuma un jeton.
+ * Cheile sunt impartite pe benzi (stripes), fiecare cu lacatul ei, ca firele sa nu astepte unele dupa altele.
+ * Fiecare banda pastreaza cel mult maxKeys / stripes chei (LRU), deci memoria ramane marginita si la un val
+ * de adrese diferite; o cheie scoasa din banda reporneste cu galeata plina.
+ */
+public final class TokenBucketLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final LongSupplier nanoClock;
+
+    public TokenBucketLimiter(int capacity, double refillPerMinute, int stripes, int maxKeys) {
+        this(capacity, refillPerMinute, stripes, maxKeys, System::nanoTime);
+    }
+
+    TokenBucketLimiter(int capacity, double refillPerMinute, int stripes, int maxKeys, LongSupplier nanoClock) {
+        int stripeCount = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000d;
+        this.stripes = new Stripe[stripeCount];
+        this.mask = stripeCount - 1;
+        this.nanoClock = nanoClock;
+
+        int keysPerStripe = Math.max(1, maxKeys / stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(keysPerStripe);
+        }
+    }
+
+    /**
+     * Consuma un jeton pentru cheie. Intoarce 0 daca cererea este permisa, altfel numarul de milisecunde
+     * pana la urmatorul jeton. O capacitate de 0 dezactiveaza limitarea.
+     */
+    public long tryAcquire(String key) {
+        if (capacity <= 0) {
+            return 0;
+        }
+
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            } else {
+                bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.updatedAtNanos) * tokensPerNano);
+                bucket.updatedAtNanos = now;
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            if (tokensPerNano <= 0) {
+                return Long.MAX_VALUE;
+            }
+            return Math.max(1, (long) Math.ceil((1 - bucket.tokens) / tokensPerNano / 1_000_000d));
+        }
+    }
+
+    /**
+     * Numarul de chei urmarite (pentru metrici si teste)
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        private final Map<String, Bucket> buckets;
+
+        private Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long updatedAtNanos;
+
+        private Bucket(double tokens, long updatedAtNanos) {
+            this.tokens = tokens;
+            this.updatedAtNanos = updatedAtNanos;
+        }
+    }
+}
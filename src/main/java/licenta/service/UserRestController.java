@@ -1,5 +1,7 @@
 package licenta.service;
 
+import licenta.jwtservice.RefreshTokenService;
+import licenta.jwtservice.UserDetailsCache;
 import licenta.model.User;
 import licenta.persistence.IUserSpringRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,11 +24,16 @@ public class UserRestController {
 
     private final IUserSpringRepository userSpringRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final RefreshTokenService refreshTokenService;
 
     @Autowired
-    public UserRestController(IUserSpringRepository userSpringRepository, PasswordEncoder passwordEncoder) {
+    public UserRestController(IUserSpringRepository userSpringRepository, PasswordEncoder passwordEncoder,
+                              UserDetailsCache userDetailsCache, RefreshTokenService refreshTokenService) {
         this.userSpringRepository = userSpringRepository;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.refreshTokenService = refreshTokenService;
     }
 
     @GetMapping("/{id}")
@@ -72,6 +79,7 @@ public class UserRestController {
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAuthority('admin')")
     public void deleteUser(@PathVariable Long id) {
+        userSpringRepository.findById(id).ifPresent(user -> userDetailsCache.evict(user.getEmail()));
         userSpringRepository.deleteById(id);
     }
 
@@ -80,6 +88,7 @@ public class UserRestController {
     public User updateUser(@PathVariable Long id, @RequestBody User updatedUser) {
         User existingUser = userSpringRepository.findById(id).orElse(null);
         if (existingUser != null) {
+            String previousEmail = existingUser.getEmail();
             if (updatedUser.getName() != null) existingUser.setName(updatedUser.getName());
             if (updatedUser.getEmail() != null) existingUser.setEmail(updatedUser.getEmail());
             if (updatedUser.getAddress() != null) existingUser.setAddress(updatedUser.getAddress());
@@ -96,7 +105,10 @@ public class UserRestController {
                 existingUser.setAccountStatus(updatedUser.getAccountStatus());
             }
 
-            return userSpringRepository.save(existingUser);
+            User saved = userSpringRepository.save(existingUser);
+            userDetailsCache.evict(previousEmail);
+            userDetailsCache.evict(existingUser.getEmail());
+            return saved;
         }
         return null;
     }
@@ -115,6 +127,8 @@ public class UserRestController {
 
         existingUser.setAccountStatus("suspended");
         userSpringRepository.save(existingUser);
+        userDetailsCache.evict(existingUser.getEmail());
+        refreshTokenService.revokeAll(existingUser.getId());
 
         return ResponseEntity.ok(Map.of("message", "Utilizatorul a fost suspendat cu succes"));
     }
@@ -168,6 +182,9 @@ public class UserRestController {
 
             userToUpdate.setPassword(passwordEncoder.encode(changePasswordRequest.getNewPassword()));
             userSpringRepository.save(userToUpdate);
+            userDetailsCache.evict(userToUpdate.getEmail());
+            // Celelalte sesiuni nu mai pot fi reimprospatate dupa schimbarea parolei
+            refreshTokenService.revokeAll(userToUpdate.getId());
 
             return ResponseEntity.ok(Map.of("message", "Parola a fost schimbată cu succes"));
 
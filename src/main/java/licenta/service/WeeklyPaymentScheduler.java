@@ -1,6 +1,7 @@
 package licenta.service;
 
 import licenta.model.*;
+import licenta.model.dtos.AutoPaymentCounts;
 import licenta.persistence.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -20,6 +21,8 @@ public class WeeklyPaymentScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(WeeklyPaymentScheduler.class);
 
+    private static final long STATISTICS_CACHE_TTL_MS = 30_000;
+
     @Autowired
     private BookingPrioritizationRestController bookingController;
 
@@ -35,6 +38,8 @@ public class WeeklyPaymentScheduler {
     @Autowired
     private AutoPaymentService autoPaymentService;
 
+    private final ExpiringValue<Map<String, Object>> autoPaymentStatisticsCache = new ExpiringValue<>(STATISTICS_CACHE_TTL_MS);
+
 
     /**
      * Se execută în fiecare duminică la ora 22:00 pentru a procesa plățile automate
@@ -282,29 +287,29 @@ public class WeeklyPaymentScheduler {
      */
     public Map<String, Object> getAutoPaymentStatistics() {
         try {
-            List<ReservationProfile> allProfiles = (List<ReservationProfile>) reservationProfileRepository.findAll();
-
-            long totalProfiles = allProfiles.size();
-            long autoPaymentEnabled = allProfiles.stream()
-                    .filter(ReservationProfile::getAutoPaymentEnabled)
-                    .count();
-
-            long validAutoPaymentProfiles = allProfiles.stream()
-                    .filter(ReservationProfile::isValidForAutoPayment)
-                    .count();
-
-            Map<String, Object> stats = new HashMap<>();
-            stats.put("totalProfiles", totalProfiles);
-            stats.put("autoPaymentEnabled", autoPaymentEnabled);
-            stats.put("validAutoPaymentProfiles", validAutoPaymentProfiles);
-            stats.put("autoPaymentPercentage", totalProfiles > 0 ?
-                    (double) autoPaymentEnabled / totalProfiles * 100 : 0.0);
-
-            return stats;
+            return autoPaymentStatisticsCache.get(this::computeAutoPaymentStatistics);
 
         } catch (Exception e) {
             logger.error("Eroare la obținerea statisticilor plăților automate", e);
             return Map.of("error", e.getMessage());
         }
     }
+
+    private Map<String, Object> computeAutoPaymentStatistics() {
+        LocalDateTime now = LocalDateTime.now();
+        AutoPaymentCounts counts = reservationProfileRepository.countAutoPaymentStatistics(now.getYear(), now.getMonthValue());
+
+        long totalProfiles = counts.getTotalProfiles();
+        long autoPaymentEnabled = counts.getAutoPaymentEnabled() != null ? counts.getAutoPaymentEnabled() : 0;
+        long validAutoPaymentProfiles = counts.getValidAutoPaymentProfiles() != null ? counts.getValidAutoPaymentProfiles() : 0;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalProfiles", totalProfiles);
+        stats.put("autoPaymentEnabled", autoPaymentEnabled);
+        stats.put("validAutoPaymentProfiles", validAutoPaymentProfiles);
+        stats.put("autoPaymentPercentage", totalProfiles > 0 ?
+                (double) autoPaymentEnabled / totalProfiles * 100 : 0.0);
+
+        return stats;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package licenta.service;
+
+import licenta.model.Schedule;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Programul activ al salilor, incarcat o singura data pentru o generare si indexat dupa (sala, zi).
+ * Cheia (hallId, dayOfWeek) este impachetata intr-un long si cautata intr-o tabela cu adresare deschisa,
+ * iar intervalul orar este pastrat ca minute (inceput << 16 | sfarsit), fara obiecte per intrare.
+ * Instantele nu se modifica dupa construire.
+ */
+public final class WeeklyScheduleSnapshot {
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+    private static final int NOT_FOUND = -1;
+
+    private final long[] keys;
+    private final int[] windows;
+    private final int mask;
+    private final int size;
+
+    private WeeklyScheduleSnapshot(long[] keys, int[] windows, int size) {
+        this.keys = keys;
+        this.windows = windows;
+        this.mask = keys.length - 1;
+        this.size = size;
+    }
+
+    /**
+     * Construieste snapshot-ul din programele active; daca o sala are mai multe programe pentru aceeasi zi,
+     * il pastreaza pe primul (ca vechea cautare cu findFirst). Intrarile fara ore valide sunt ignorate.
+     */
+    public static WeeklyScheduleSnapshot of(List<Schedule> schedules) {
+        int capacity = Integer.highestOneBit(Math.max(4, schedules.size() * 2 - 1)) << 1;
+        long[] keys = new long[capacity];
+        int[] windows = new int[capacity];
+        Arrays.fill(keys, EMPTY_KEY);
+
+        int size = 0;
+        for (Schedule schedule : schedules) {
+            if (schedule.getSportsHall() == null || schedule.getSportsHall().getId() == null
+                    || schedule.getDayOfWeek() == null || Boolean.FALSE.equals(schedule.getIsActive())) {
+                continue;
+            }
+
+            int open = toMinutes(schedule.getStartTime());
+            int close = toMinutes(schedule.getEndTime());
+            if (open < 0 || close < 0) {
+                continue;
+            }
+
+            long key = key(schedule.getSportsHall().getId(), schedule.getDayOfWeek());
+            int index = indexOf(keys, capacity - 1, key);
+            if (keys[index] == EMPTY_KEY) {
+                keys[index] = key;
+                windows[index] = open << 16 | close;
+                size++;
+            }
+        }
+
+        return new WeeklyScheduleSnapshot(keys, windows, size);
+    }
+
+    public boolean isOpen(long hallId, int dayOfWeek) {
+        return window(hallId, dayOfWeek) != NOT_FOUND;
+    }
+
+    /**
+     * Minutul de deschidere (ex. 08:00 = 480) sau -1 daca sala nu are program in ziua respectiva
+     */
+    public int openMinutes(long hallId, int dayOfWeek) {
+        int window = window(hallId, dayOfWeek);
+        return window == NOT_FOUND ? NOT_FOUND : window >>> 16;
+    }
+
+    /**
+     * Minutul de inchidere sau -1 daca sala nu are program in ziua respectiva
+     */
+    public int closeMinutes(long hallId, int dayOfWeek) {
+        int window = window(hallId, dayOfWeek);
+        return window == NOT_FOUND ? NOT_FOUND : window & 0xFFFF;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int window(long hallId, int dayOfWeek) {
+        long key = key(hallId, dayOfWeek);
+        int index = indexOf(keys, mask, key);
+        return keys[index] == key ? windows[index] : NOT_FOUND;
+    }
+
+    // Zilele sunt 1..7, deci incap in 3 biti
+    private static long key(long hallId, int dayOfWeek) {
+        return hallId << 3 | (dayOfWeek & 0x7);
+    }
+
+    private static int indexOf(long[] keys, int mask, long key) {
+        int index = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+        while (keys[index] != EMPTY_KEY && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private static int toMinutes(String time) {
+        try {
+            String[] parts = time.split(":");
+            int minutes = Integer.parseInt(parts[0].trim()) * 60 + Integer.parseInt(parts[1].trim());
+            return minutes >= 0 && minutes <= 24 * 60 ? minutes : NOT_FOUND;
+        } catch (Exception e) {
+            return NOT_FOUND;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- Obiecte de schema pe care Hibernate nu le poate genera din adnotari.
+-- Scriptul ruleaza dupa ddl-auto=update (spring.jpa.defer-datasource-initialization=true).
+
+-- Un singur slot activ (ne-anulat) per sala, zi si interval orar.
+-- Coloana date poate contine si ora, asa ca unicitatea se aplica pe ziua calendaristica.
+-- O baza veche poate avea deja sloturi dublate (vechea verificare din aplicatie nu era atomica). Scriptul nu modifica
+-- rezervari (pot fi platite): indexul se creeaza doar daca nu exista dubluri, iar ActiveSlotConflictCheck opreste
+-- apoi pornirea si listeaza conflictele, ca sa fie rezolvate printr-o migrare revizuita.
+-- Corpul blocului DO este intre apostrofuri (nu $$), ca scriptul sa fie impartit corect dupa ';'.
+DO '
+BEGIN
+    IF NOT EXISTS (
+        SELECT 1 FROM reservations
+        WHERE status IS DISTINCT FROM ''CANCELLED''
+        GROUP BY hall_id, CAST(date AS date), time_slot
+        HAVING COUNT(*) > 1
+    ) THEN
+        CREATE UNIQUE INDEX IF NOT EXISTS uq_reservations_active_slot
+            ON reservations (hall_id, (CAST(date AS date)), time_slot)
+            WHERE status IS DISTINCT FROM ''CANCELLED'';
+    END IF;
+END';
+
+-- Id-urile vin din secvente per tabela (<tabela>_seq, pas 50) in loc de coloane IDENTITY.
+-- Pe o baza existenta secventele sunt create de la 1, asa ca sunt aduse peste cel mai mare id deja folosit.
+-- GREATEST pastreaza valoarea curenta daca secventa e deja mai departe (nu reda blocuri deja alocate).
+-- O eroare aici opreste pornirea (continue-on-error=false), iar SequenceCatchUpCheck verifica apoi rezultatul.
+SELECT setval('users_seq', GREATEST((SELECT last_value FROM users_seq), (SELECT COALESCE(MAX(id), 0) FROM users) + 50));
+SELECT setval('sports_halls_seq', GREATEST((SELECT last_value FROM sports_halls_seq), (SELECT COALESCE(MAX(id), 0) FROM sports_halls) + 50));
+SELECT setval('sports_hall_images_seq', GREATEST((SELECT last_value FROM sports_hall_images_seq), (SELECT COALESCE(MAX(id), 0) FROM sports_hall_images) + 50));
+SELECT setval('schedules_seq', GREATEST((SELECT last_value FROM schedules_seq), (SELECT COALESCE(MAX(id), 0) FROM schedules) + 50));
+SELECT setval('reservations_seq', GREATEST((SELECT last_value FROM reservations_seq), (SELECT COALESCE(MAX(id), 0) FROM reservations) + 50));
+SELECT setval('reservation_profiles_seq', GREATEST((SELECT last_value FROM reservation_profiles_seq), (SELECT COALESCE(MAX(id), 0) FROM reservation_profiles) + 50));
+SELECT setval('payments_seq', GREATEST((SELECT last_value FROM payments_seq), (SELECT COALESCE(MAX(id), 0) FROM payments) + 50));
+SELECT setval('payment_reservations_seq', GREATEST((SELECT last_value FROM payment_reservations_seq), (SELECT COALESCE(MAX(id), 0) FROM payment_reservations) + 50));
+SELECT setval('card_payment_methods_seq', GREATEST((SELECT last_value FROM card_payment_methods_seq), (SELECT COALESCE(MAX(id), 0) FROM card_payment_methods) + 50));
+SELECT setval('feedbacks_seq', GREATEST((SELECT last_value FROM feedbacks_seq), (SELECT COALESCE(MAX(id), 0) FROM feedbacks) + 50));
+SELECT setval('emails_seq', GREATEST((SELECT last_value FROM emails_seq), (SELECT COALESCE(MAX(id), 0) FROM emails) + 50));
+SELECT setval('email_recipients_seq', GREATEST((SELECT last_value FROM email_recipients_seq), (SELECT COALESCE(MAX(id), 0) FROM email_recipients) + 50));
+
+-- Imaginile salilor se muta in depozitul de imagini (content_hash); coloana image ramane doar pentru randurile vechi.
+-- ddl-auto=update nu modifica nulabilitatea coloanelor existente.
+ALTER TABLE sports_hall_images ALTER COLUMN image DROP NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_sports_hall_images_content_hash ON sports_hall_images (content_hash);
+
+-- Cautarea salilor filtreaza dupa status, oras (comparat cu LOWER) si categoria de sport calculata la salvare.
+CREATE INDEX IF NOT EXISTS idx_sports_halls_status_city_category ON sports_halls (status, LOWER(city), sport_category);
+-- Salile polivalente se adauga la cautarea oricarui sport (in afara de inot) printr-un OR pe acest index partial.
+CREATE INDEX IF NOT EXISTS idx_sports_halls_status_city_multipurpose ON sports_halls (status, LOWER(city)) WHERE multipurpose;
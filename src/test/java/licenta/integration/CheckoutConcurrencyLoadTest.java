@@ -0,0 +1,239 @@
+package licenta.integration;
+
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.zaxxer.hikari.HikariDataSource;
+import licenta.LicenseApplication;
+import licenta.jwtservice.JwtService;
+import licenta.model.User;
+import licenta.persistence.IPaymentSpringRepository;
+import licenta.persistence.IUserSpringRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.JRE;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de incarcare pe checkout-ul real: POST /payment/stripe/create-payment-intent, cu Stripe inlocuit
+ * la nivel HTTP de un server local care raspunde dupa STRIPE_LATENCY_MS.
+ * Aplicatia porneste de doua ori (fire de platforma, apoi fire virtuale) pe baza de date din JDBC_DATABASE_URL.
+ * Numarul maxim de apeluri Stripe simultane trebuie sa depaseasca pool-ul Hikari: cererea nu tine
+ * conexiunea JDBC cat asteapta Stripe (open-in-view dezactivat).
+ * Ruleaza doar pe Java 21+ si cu LOAD_TEST=true (deschide sute de conexiuni simultane).
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@EnabledIfEnvironmentVariable(named = "JDBC_DATABASE_URL", matches = ".+")
+@EnabledIfEnvironmentVariable(named = "LOAD_TEST", matches = "true")
+public class CheckoutConcurrencyLoadTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutConcurrencyLoadTest.class);
+
+    private static final int CONCURRENT_CHECKOUTS = 800;
+    private static final long STRIPE_LATENCY_MS = 500;
+    private static final int PLATFORM_MAX_THREADS = 200;
+
+    private static StripeStub stripe;
+
+    @BeforeAll
+    static void startStripeStub() throws IOException {
+        stripe = new StripeStub();
+        Stripe.overrideApiBase(stripe.baseUrl());
+    }
+
+    @AfterAll
+    static void stopStripeStub() {
+        Stripe.overrideApiBase(Stripe.LIVE_API_BASE);
+        stripe.stop();
+    }
+
+    @Test
+    void virtualThreads_ShouldKeepMoreCheckoutsInFlightThanPlatformPool() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        logger.info("Apeluri Stripe simultane (pool Hikari {}): fire de platforma {} ({} ms), fire virtuale {} ({} ms)",
+                platform.poolSize, platform.maxInFlight, platform.elapsedMillis, virtual.maxInFlight, virtual.elapsedMillis);
+
+        // Assert
+        assertEquals(CONCURRENT_CHECKOUTS, platform.completed);
+        assertEquals(CONCURRENT_CHECKOUTS, virtual.completed);
+        assertTrue(platform.maxInFlight > platform.poolSize,
+                "Cererile tin conexiunea JDBC pe durata apelului Stripe: " + platform.maxInFlight);
+        assertTrue(platform.maxInFlight <= PLATFORM_MAX_THREADS,
+                "Pool-ul de platforma nu poate depasi " + PLATFORM_MAX_THREADS + ": " + platform.maxInFlight);
+        assertTrue(virtual.maxInFlight > platform.maxInFlight * 2,
+                "Firele virtuale ar trebui sa tina mai multe checkout-uri in lucru: " + virtual.maxInFlight);
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        stripe.reset();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(LicenseApplication.class)
+                // Valori implicite pentru variabilele de mediu pe care testul nu le foloseste
+                .properties(Map.of(
+                        "JWT_SECRET", "bG9hZC10ZXN0LWp3dC1zZWNyZXQtbG9hZC10ZXN0LWp3dC1zZWNyZXQ=",
+                        "MAIL_USERNAME", "load-test",
+                        "MAIL_PASSWORD", "load-test",
+                        "STRIPE_WEBHOOK_SECRET", "whsec_load_test"))
+                .run("--server.port=0",
+                        "--stripe.secret.key=sk_test_load",
+                        "--images.migration.on-startup=false",
+                        "--spring.threads.virtual.enabled=" + virtualThreads);
+
+        IUserSpringRepository userRepository = context.getBean(IUserSpringRepository.class);
+        IPaymentSpringRepository paymentRepository = context.getBean(IPaymentSpringRepository.class);
+        User user = null;
+        try {
+            user = userRepository.save(loadTestUser());
+            String token = context.getBean(JwtService.class).generateAccessToken(user);
+            int poolSize = context.getBean(HikariDataSource.class).getMaximumPoolSize();
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+
+            URI uri = URI.create("http://localhost:" + port + "/payment/stripe/create-payment-intent");
+            String body = "{\"amount\":5000,\"reservations\":[{\"hallId\":1,\"hallName\":\"Sala test\",\"date\":\""
+                    + LocalDate.now().plusDays(1) + "\",\"timeSlot\":\"10:00 - 11:00\"}]}";
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+
+            long start = System.nanoTime();
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_CHECKOUTS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Authorization", "Bearer " + token)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(body))
+                        .timeout(Duration.ofSeconds(60))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+
+            int completed = 0;
+            for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                if (response.get(90, TimeUnit.SECONDS).statusCode() == 200) {
+                    completed++;
+                }
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+            return new Result(stripe.maxInFlight.get(), completed, elapsedMillis, poolSize);
+        } finally {
+            if (user != null) {
+                paymentRepository.deleteAll(paymentRepository.findByUserId(user.getId()));
+                userRepository.delete(user);
+            }
+            context.close();
+        }
+    }
+
+    private static User loadTestUser() {
+        User user = new User();
+        user.setName("Load Test");
+        user.setEmail("load-test-" + System.nanoTime() + "@example.com");
+        user.setUserType("user");
+        user.setAccountStatus("verified");
+        return user;
+    }
+
+    /**
+     * Inlocuieste api.stripe.com: raspunde la crearea PaymentIntent dupa STRIPE_LATENCY_MS
+     * si numara cate cereri asteapta simultan
+     */
+    private static final class StripeStub {
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final AtomicInteger sequence = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        private StripeStub() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), CONCURRENT_CHECKOUTS * 2);
+            server.createContext("/v1/payment_intents", this::createPaymentIntent);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        private String baseUrl() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        private void reset() {
+            inFlight.set(0);
+            maxInFlight.set(0);
+        }
+
+        private void createPaymentIntent(HttpExchange exchange) throws IOException {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                exchange.getRequestBody().readAllBytes();
+                Thread.sleep(STRIPE_LATENCY_MS);
+                String id = "pi_load_" + sequence.incrementAndGet();
+                byte[] json = ("{\"id\":\"" + id + "\",\"object\":\"payment_intent\",\"amount\":5000,"
+                        + "\"currency\":\"ron\",\"client_secret\":\"" + id + "_secret_load\","
+                        + "\"status\":\"requires_payment_method\",\"livemode\":false}")
+                        .getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.getResponseHeaders().add("Request-Id", "req_" + id);
+                exchange.sendResponseHeaders(200, json.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(json);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                exchange.sendResponseHeaders(503, -1);
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        }
+
+        private void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Result {
+        private final int maxInFlight;
+        private final int completed;
+        private final long elapsedMillis;
+        private final int poolSize;
+
+        private Result(int maxInFlight, int completed, long elapsedMillis, int poolSize) {
+            this.maxInFlight = maxInFlight;
+            this.completed = completed;
+            this.elapsedMillis = elapsedMillis;
+            this.poolSize = poolSize;
+        }
+    }
+}
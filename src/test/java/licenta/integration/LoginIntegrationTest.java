@@ -1,6 +1,7 @@
 package licenta.integration;
 
 import licenta.jwtservice.JwtService;
+import licenta.jwtservice.RefreshTokenService;
 import licenta.model.User;
 import licenta.model.dtos.UserCredentials;
 import licenta.persistence.IUserSpringRepository;
@@ -18,12 +19,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -48,6 +49,9 @@ public class LoginIntegrationTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
     private User testUser;
     private UserCredentials validCredentials;
 
@@ -71,7 +75,8 @@ public class LoginIntegrationTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
 
-        when(jwtService.generateToken(anyString())).thenReturn("test.jwt.token");
+        when(jwtService.generateAccessToken(any(User.class))).thenReturn("test.jwt.token");
+        when(refreshTokenService.issue(any(User.class))).thenReturn("test-refresh-token");
     }
 
     @Test
@@ -102,10 +107,11 @@ public class LoginIntegrationTest {
                 .andReturn();
 
         // Assert
-        String responseToken = result.getResponse().getContentAsString();
+        Map<?, ?> tokens = objectMapper.readValue(result.getResponse().getContentAsString(), Map.class);
 
-        assertNotNull(responseToken);
-        assertEquals("test.jwt.token", responseToken);
+        assertNotNull(tokens);
+        assertEquals("test.jwt.token", tokens.get("accessToken"));
+        assertEquals("test-refresh-token", tokens.get("refreshToken"));
     }
 
     @Test
@@ -0,0 +1,116 @@
+package licenta.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import licenta.model.Reservation;
+import licenta.model.SportsHall;
+import licenta.persistence.IReservationSpringRepository;
+import licenta.persistence.ISportsHallSpringRepository;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara pe PostgreSQL ritmul de scriere (randuri/secunda) al rezervarilor salvate prin
+ * {@link IReservationSpringRepository#saveAll}, pe calea reala Hibernate (generatorul SEQUENCE pooled,
+ * hibernate.jdbc.batch_size si order_inserts din application.properties), cu aceeasi cale fara batch-uri JDBC
+ * (sesiune cu batch size 1, deci un drum la baza per INSERT).
+ * Ruleaza doar cand JDBC_DATABASE_URL indica o baza PostgreSQL; tranzactia testului este anulata la final.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "JDBC_DATABASE_URL", matches = ".+")
+public class ReservationBatchInsertBenchmarkTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationBatchInsertBenchmarkTest.class);
+
+    private static final int ROWS = 5_000;
+
+    private static final String[] TIME_SLOTS = {
+            "08:30 - 10:00", "10:00 - 11:30", "11:30 - 13:00",
+            "13:00 - 14:30", "14:30 - 16:00", "16:00 - 17:30",
+            "17:30 - 19:00", "19:00 - 20:30", "20:30 - 22:00"
+    };
+
+    @Autowired
+    private IReservationSpringRepository reservationRepository;
+
+    @Autowired
+    private ISportsHallSpringRepository sportsHallRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private SportsHall hall;
+
+    @BeforeEach
+    void setUp() {
+        hall = new SportsHall();
+        hall.setName("Sala benchmark");
+        hall.setCity("Benchmark");
+        hall.setType("Baschet");
+        hall = sportsHallRepository.save(hall);
+        entityManager.flush();
+    }
+
+    @Test
+    void saveAll_WithJdbcBatching_ShouldOutperformUnbatchedSaveAll() {
+        // Fiecare cale scrie o alta perioada, ca indexul unic al slotului activ sa nu respinga randuri
+        LocalDate unbatchedStart = LocalDate.of(2030, 1, 7);
+        LocalDate batchedStart = unbatchedStart.plusDays(ROWS / TIME_SLOTS.length + 1);
+        long before = reservationRepository.count();
+
+        double unbatchedRate = measure(reservations(unbatchedStart), 1);
+        double batchedRate = measure(reservations(batchedStart), null);
+
+        logger.info("Rezervari prin saveAll: fara batch {} randuri/s, cu batch {} randuri/s, x{}",
+                Math.round(unbatchedRate), Math.round(batchedRate), Math.round(batchedRate / unbatchedRate * 10) / 10.0);
+
+        assertEquals(before + 2L * ROWS, reservationRepository.count());
+        assertTrue(batchedRate > unbatchedRate,
+                "saveAll cu batch-uri JDBC ar trebui sa fie mai rapid: " + batchedRate + " vs " + unbatchedRate);
+    }
+
+    /**
+     * saveAll + flush pe sesiunea curenta; jdbcBatchSize null pastreaza hibernate.jdbc.batch_size din configuratie
+     */
+    private double measure(List<Reservation> reservations, Integer jdbcBatchSize) {
+        Session session = entityManager.unwrap(Session.class);
+        session.setJdbcBatchSize(jdbcBatchSize);
+        try {
+            long start = System.nanoTime();
+            reservationRepository.saveAll(reservations);
+            entityManager.flush();
+            long elapsed = System.nanoTime() - start;
+            entityManager.clear();
+            return reservations.size() / (elapsed / 1_000_000_000.0);
+        } finally {
+            session.setJdbcBatchSize(null);
+        }
+    }
+
+    private List<Reservation> reservations(LocalDate firstDay) {
+        List<Reservation> reservations = new ArrayList<>(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            LocalDate day = firstDay.plusDays(row / TIME_SLOTS.length);
+            Date date = Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+            reservations.add(new Reservation(hall, null, date, TIME_SLOTS[row % TIME_SLOTS.length], 100f, "reservation"));
+        }
+        return reservations;
+    }
+}
@@ -0,0 +1,154 @@
+package licenta.integration;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import licenta.persistence.IReservationSpringRepository;
+import org.hibernate.Session;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Verifica pe PostgreSQL ca interogarile calendarului, asa cum le genereaza Hibernate, folosesc indecsii compusi
+ * din tabela reservations. SQL-ul este capturat cu un StatementInspector la apelul metodei din repository
+ * si apoi trecut prin EXPLAIN cu aceiasi parametri.
+ * Ruleaza doar cand JDBC_DATABASE_URL indica o baza de date in care schema a fost deja creata de aplicatie.
+ * Datele sunt scrise intr-o tabela temporara reservations (clonata cu tot cu indecsi), care in aceasta sesiune
+ * ascunde tabela reala; tranzactia testului este anulata la final, deci baza nu este modificata.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "licenta.integration.ReservationIndexPlanIntegrationTest$CapturedStatements")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "JDBC_DATABASE_URL", matches = ".+")
+public class ReservationIndexPlanIntegrationTest {
+
+    private static final int SEEDED_ROWS = 100_000;
+
+    @Autowired
+    private IReservationSpringRepository reservationRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Retine SQL-ul trimis de Hibernate, ca testul sa poata rula EXPLAIN exact pe interogarea generata
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            statements.add(sql);
+            return sql;
+        }
+
+        static void clear() {
+            statements.clear();
+        }
+
+        static String reservationsQuery() {
+            return statements.stream()
+                    .filter(sql -> sql.toLowerCase().contains("from reservations"))
+                    .reduce((first, second) -> second)
+                    .orElseThrow(() -> new AssertionError("Nicio interogare pe reservations capturata: " + statements));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        // pg_temp este primul in search_path, deci Hibernate va citi din clona temporara
+        session().doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE reservations (LIKE reservations INCLUDING DEFAULTS INCLUDING INDEXES) ON COMMIT DROP");
+            }
+        });
+        CapturedStatements.clear();
+    }
+
+    @Test
+    void hallDateQuery_ShouldUseHallDateSlotIndex() {
+        // Arrange
+        Timestamp start = Timestamp.valueOf(LocalDateTime.of(2025, 1, 13, 0, 0));
+        Timestamp end = Timestamp.valueOf(LocalDateTime.of(2025, 1, 19, 0, 0));
+        reservationRepository.findByHallIdAndTypeAndDateBetween(42L, "maintenance", new Date(start.getTime()), new Date(end.getTime()));
+        String sql = CapturedStatements.reservationsQuery();
+        seed();
+
+        // Act
+        String plan = explain(sql, 42L, "maintenance", start, end);
+
+        // Assert
+        assertTrue(plan.contains("Index"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    @Test
+    void userTypeQuery_ShouldUseUserTypeIndex() {
+        // Arrange
+        reservationRepository.findByUserIdAndType(1234L, "reservation");
+        String sql = CapturedStatements.reservationsQuery();
+        seed();
+
+        // Act
+        String plan = explain(sql, 1234L, "reservation");
+
+        // Assert
+        assertTrue(plan.contains("Index"), plan);
+        assertFalse(plan.contains("Seq Scan"), plan);
+    }
+
+    // Datele se scriu dupa capturarea interogarii, ca Hibernate sa nu incarce sali sau utilizatori inexistenti
+    private void seed() {
+        session().doWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(
+                        "INSERT INTO reservations (id, hall_id, user_id, date, time_slot, type, status, price) " +
+                        "SELECT g, 1 + (g % 500), 1 + (g % 5000), " +
+                        "       TIMESTAMP '2025-01-06' + ((g / 4500) * INTERVAL '1 day'), " +
+                        "       (ARRAY['08:30 - 10:00','10:00 - 11:30','11:30 - 13:00','13:00 - 14:30','14:30 - 16:00'," +
+                        "              '16:00 - 17:30','17:30 - 19:00','19:00 - 20:30','20:30 - 22:00'])[1 + (g % 9)], " +
+                        "       CASE WHEN g % 20 = 0 THEN 'maintenance' ELSE 'reservation' END, 'CONFIRMED', 100 " +
+                        "FROM generate_series(1, " + SEEDED_ROWS + ") AS g");
+                statement.execute("ANALYZE reservations");
+            }
+        });
+    }
+
+    private String explain(String sql, Object... parameters) {
+        assertEquals(parameters.length, sql.chars().filter(c -> c == '?').count(), sql);
+        return session().doReturningWork(connection -> {
+            StringBuilder plan = new StringBuilder();
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.append(resultSet.getString(1)).append('\n');
+                    }
+                }
+            }
+            return plan.toString();
+        });
+    }
+
+    private Session session() {
+        return entityManager.unwrap(Session.class);
+    }
+}
@@ -1,11 +1,18 @@
 package licenta.jwtservice;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import licenta.model.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Date;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
@@ -16,10 +23,12 @@ public class JwtServiceTest {
     private JwtService jwtService;
     private UserDetails userDetails;
     private final String TEST_EMAIL = "test@example.com";
+    private static final String TEST_SECRET = "dGVzdC1zZWNyZXQtZm9yLWp3dC1zZXJ2aWNlLXRlc3RzLTAxMjM0NTY3ODk=";
 
     @BeforeEach
     void setUp() {
         jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "SECRET", TEST_SECRET);
         userDetails = mock(UserDetails.class);
         when(userDetails.getUsername()).thenReturn(TEST_EMAIL);
     }
@@ -96,20 +105,118 @@ public class JwtServiceTest {
     }
 
     @Test
-    void tokenExpiration_ShouldBeSetTo24Hours() {
+    void tokenExpiration_ShouldUseShortAccessTokenTtl() {
         // Arrange
         String token = jwtService.generateToken(TEST_EMAIL);
         Date expirationDate = jwtService.extractExpiration(token);
-        Date now = new Date();
+        long now = System.currentTimeMillis();
 
-        // Calculate the difference in milliseconds
-        long diffInMillis = expirationDate.getTime() - now.getTime();
-        //         // Convert to hours (with a small margin of error for test execution time)
-        long diffInHours = diffInMillis / (1000 * 60 * 60);
+        // Act
+        long diffInMinutes = (expirationDate.getTime() - now) / (1000 * 60);
+
+        // Assert - 15 minute implicit, cu o marja pentru durata testului
+        assertTrue(diffInMinutes >= 14 && diffInMinutes <= 15,
+                "Token expiration should be approximately 15 minutes, but was: " + diffInMinutes + " minutes");
+    }
+
+    @Test
+    void generateAccessToken_ShouldCarryUserClaims() {
+        // Arrange
+        User user = new User();
+        user.setId(42L);
+        user.setEmail(TEST_EMAIL);
+        user.setUserType("hall_admin");
+        user.setAccountStatus("verified");
+
+        // Act
+        VerifiedToken verified = jwtService.verify(jwtService.generateAccessToken(user)).orElseThrow();
+
+        // Assert
+        assertTrue(verified.hasUserClaims());
+        assertEquals(42L, verified.getUserId());
+        assertEquals(TEST_EMAIL, verified.getUsername());
+        assertEquals("hall_admin", verified.getUserType());
+        assertEquals("verified", verified.getAccountStatus());
+    }
+
+    @Test
+    void verify_WithSubjectOnlyToken_ShouldHaveNoUserClaims() {
+        // Act
+        VerifiedToken verified = jwtService.verify(jwtService.generateToken(TEST_EMAIL)).orElseThrow();
+
+        // Assert
+        assertFalse(verified.hasUserClaims());
+        assertNull(verified.getUserId());
+    }
+
+    @Test
+    void verify_WithValidToken_ShouldReturnSubjectAndExpiration() {
+        // Arrange
+        String token = jwtService.generateToken(TEST_EMAIL);
+
+        // Act
+        Optional<VerifiedToken> verified = jwtService.verify(token);
+
+        // Assert
+        assertTrue(verified.isPresent());
+        assertEquals(TEST_EMAIL, verified.get().getUsername());
+        assertEquals(jwtService.extractExpiration(token).getTime(), verified.get().getExpiresAtMillis());
+    }
 
-        // Assert that the expiration is close to 24 hours
-        // We use a range like 23-24 hours to account for the time taken during test execution
-        assertTrue(diffInHours >= 23 && diffInHours <= 24,
-                "Token expiration should be set to approximately 24 hours, but was: " + diffInHours + " hours");
+    @Test
+    void verify_SameTokenTwice_ShouldReuseVerifiedClaims() {
+        // Arrange
+        String token = jwtService.generateToken(TEST_EMAIL);
+
+        // Act
+        VerifiedToken first = jwtService.verify(token).orElseThrow();
+        VerifiedToken second = jwtService.verify(token).orElseThrow();
+
+        // Assert
+        assertSame(first, second);
+    }
+
+    @Test
+    void verify_WithCacheDisabled_ShouldParseEveryTime() {
+        // Arrange
+        ReflectionTestUtils.setField(jwtService, "verifiedCacheSize", 0);
+        String token = jwtService.generateToken(TEST_EMAIL);
+
+        // Act
+        VerifiedToken first = jwtService.verify(token).orElseThrow();
+        VerifiedToken second = jwtService.verify(token).orElseThrow();
+
+        // Assert
+        assertNotSame(first, second);
+        assertEquals(first.getUsername(), second.getUsername());
+    }
+
+    @Test
+    void verify_WithTamperedSignature_ShouldReturnEmpty() {
+        // Arrange
+        String token = jwtService.generateToken(TEST_EMAIL);
+        // Un caracter din interiorul semnaturii; ultimul poate diferi doar prin bitii de completare base64
+        int index = token.lastIndexOf('.') + 5;
+        char original = token.charAt(index);
+        String tampered = token.substring(0, index) + (original == 'A' ? 'B' : 'A') + token.substring(index + 1);
+
+        // Act & Assert
+        assertTrue(jwtService.verify(tampered).isEmpty());
+        assertTrue(jwtService.verify("not-a-token").isEmpty());
+        assertTrue(jwtService.verify(null).isEmpty());
+    }
+
+    @Test
+    void verify_WithExpiredToken_ShouldReturnEmpty() {
+        // Arrange
+        String expired = Jwts.builder().setSubject(TEST_EMAIL)
+                .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(TEST_SECRET)), SignatureAlgorithm.HS256)
+                .compact();
+
+        // Act & Assert
+        assertTrue(jwtService.verify(expired).isEmpty());
+        assertFalse(jwtService.validateToken(expired, userDetails));
     }
 }
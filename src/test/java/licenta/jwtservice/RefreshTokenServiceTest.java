@@ -0,0 +1,170 @@
+package licenta.jwtservice;
+
+import licenta.model.RefreshToken;
+import licenta.model.User;
+import licenta.persistence.IRefreshTokenRepository;
+import licenta.persistence.IUserSpringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private IRefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private IUserSpringRepository userRepository;
+
+    private RefreshTokenService refreshTokenService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository);
+
+        user = new User();
+        user.setId(7L);
+        user.setEmail("user@example.com");
+        user.setUserType("user");
+        user.setAccountStatus("verified");
+    }
+
+    @Test
+    void issue_ShouldStoreOnlyTheHashOfANewFamily() {
+        // Act
+        String rawToken = refreshTokenService.issue(user);
+
+        // Assert
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        verify(refreshTokenRepository).deleteExpiredByUserId(eq(7L), any(LocalDateTime.class));
+        assertNotEquals(rawToken, saved.getValue().getTokenHash());
+        assertEquals(RefreshTokenService.hash(rawToken), saved.getValue().getTokenHash());
+        assertEquals(7L, saved.getValue().getUserId());
+        assertNotNull(saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void rotate_WithUnusedToken_ShouldIssueNextTokenInSameFamily() {
+        // Arrange
+        RefreshToken current = storedToken("old", null);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markUsed(eq(current.getId()), any(LocalDateTime.class))).thenReturn(1);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("old");
+
+        // Assert
+        assertEquals(RefreshTokenService.Outcome.ROTATED, rotation.getOutcome());
+        assertSame(user, rotation.getUser());
+        assertNotEquals("old", rotation.getRefreshToken());
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository).save(saved.capture());
+        assertEquals("family-1", saved.getValue().getFamilyId());
+    }
+
+    @Test
+    void rotate_WhenConcurrentRequestClaimedToken_ShouldReportAlreadyRotated() {
+        // Arrange
+        RefreshToken current = storedToken("old", null);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markUsed(eq(current.getId()), any(LocalDateTime.class))).thenReturn(0);
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("old");
+
+        // Assert
+        assertEquals(RefreshTokenService.Outcome.ALREADY_ROTATED, rotation.getOutcome());
+        verify(refreshTokenRepository, never()).save(any());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void rotate_WithTokenUsedWithinGracePeriod_ShouldNotRevokeSession() {
+        // Arrange
+        RefreshToken used = storedToken("old", LocalDateTime.now().minusSeconds(2));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(used));
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("old");
+
+        // Assert
+        assertEquals(RefreshTokenService.Outcome.ALREADY_ROTATED, rotation.getOutcome());
+        verify(refreshTokenRepository, never()).revokeFamily(anyString());
+    }
+
+    @Test
+    void rotate_WithReusedToken_ShouldRevokeWholeFamily() {
+        // Arrange
+        RefreshToken used = storedToken("old", LocalDateTime.now().minusMinutes(5));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(used));
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("old");
+
+        // Assert
+        assertEquals(RefreshTokenService.Outcome.INVALID, rotation.getOutcome());
+        verify(refreshTokenRepository).revokeFamily("family-1");
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_WhenAccountNoLongerActive_ShouldRevokeAllSessions() {
+        // Arrange
+        user.setAccountStatus("suspended");
+        RefreshToken current = storedToken("old", null);
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("old"))).thenReturn(Optional.of(current));
+        when(refreshTokenRepository.markUsed(eq(current.getId()), any(LocalDateTime.class))).thenReturn(1);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        // Act
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate("old");
+
+        // Assert
+        assertEquals(RefreshTokenService.Outcome.INVALID, rotation.getOutcome());
+        verify(refreshTokenRepository).revokeAllByUserId(7L);
+        verify(refreshTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void rotate_WithUnknownExpiredOrRevokedToken_ShouldBeInvalid() {
+        // Arrange
+        RefreshToken expired = new RefreshToken(RefreshTokenService.hash("expired"), 7L, "family-2",
+                LocalDateTime.now().minusDays(15), LocalDateTime.now().minusDays(1));
+        RefreshToken revoked = storedToken("revoked", null);
+        revoked.setRevoked(true);
+        when(refreshTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("expired"))).thenReturn(Optional.of(expired));
+        when(refreshTokenRepository.findByTokenHash(RefreshTokenService.hash("revoked"))).thenReturn(Optional.of(revoked));
+
+        // Act & Assert
+        assertEquals(RefreshTokenService.Outcome.INVALID, refreshTokenService.rotate("unknown").getOutcome());
+        assertEquals(RefreshTokenService.Outcome.INVALID, refreshTokenService.rotate("expired").getOutcome());
+        assertEquals(RefreshTokenService.Outcome.INVALID, refreshTokenService.rotate("revoked").getOutcome());
+        assertEquals(RefreshTokenService.Outcome.INVALID, refreshTokenService.rotate(" ").getOutcome());
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+    }
+
+    private RefreshToken storedToken(String rawToken, LocalDateTime usedAt) {
+        RefreshToken token = new RefreshToken(RefreshTokenService.hash(rawToken), 7L, "family-1",
+                LocalDateTime.now().minusHours(1), LocalDateTime.now().plusDays(13));
+        token.setId(100L);
+        token.setUsedAt(usedAt);
+        return token;
+    }
+}
@@ -0,0 +1,112 @@
+package licenta.jwtservice;
+
+import licenta.model.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserDetailsCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final AtomicInteger loads = new AtomicInteger();
+    private UserDetailsCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserDetailsCache(60_000, 100, now::get);
+    }
+
+    @Test
+    void get_WithinTtl_ShouldLoadOnce() {
+        // Act
+        UserDetails first = cache.get("user@example.com", loader("user"));
+        now.addAndGet(59_999);
+        UserDetails second = cache.get("user@example.com", loader("user"));
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldReload() {
+        // Arrange
+        cache.get("user@example.com", loader("user"));
+        now.addAndGet(60_000);
+
+        // Act
+        UserDetails reloaded = cache.get("user@example.com", loader("admin"));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals("admin", reloaded.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void evict_ShouldForceReload() {
+        // Arrange
+        cache.get("user@example.com", loader("user"));
+
+        // Act
+        cache.evict("user@example.com");
+        cache.get("user@example.com", loader("user"));
+
+        // Assert
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evict_DuringLoad_ShouldNotKeepStaleValue() {
+        // Act
+        cache.get("user@example.com", email -> {
+            cache.evict(email);
+            return loader("user").apply(email);
+        });
+        cache.get("user@example.com", loader("user"));
+
+        // Assert
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_WhenLoaderFails_ShouldPropagateAndCacheNothing() {
+        // Act & Assert
+        assertThrows(UsernameNotFoundException.class, () -> cache.get("missing@example.com", email -> {
+            throw new UsernameNotFoundException("User not found: " + email);
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void get_WhenFull_ShouldStayBounded() {
+        // Arrange
+        UserDetailsCache small = new UserDetailsCache(60_000, 8, now::get);
+
+        // Act
+        for (int i = 0; i < 50; i++) {
+            small.get("user" + i + "@example.com", loader("user"));
+        }
+
+        // Assert
+        assertTrue(small.size() <= 8);
+    }
+
+    private Function<String, UserDetails> loader(String userType) {
+        return email -> {
+            loads.incrementAndGet();
+            User user = new User();
+            user.setEmail(email);
+            user.setUserType(userType);
+            user.setAccountStatus("verified");
+            return new UserInfoDetails(user);
+        };
+    }
+}
@@ -0,0 +1,70 @@
+package licenta.jwtservice;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    @Test
+    void get_ShouldReturnEntryUntilTokenExpires() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        VerifiedToken verified = new VerifiedToken("user@example.com", NOW + 1000);
+        cache.put("token-a", verified, NOW);
+
+        // Act & Assert
+        assertSame(verified, cache.get("token-a", NOW + 999));
+        assertNull(cache.get("token-b", NOW));
+        assertNull(cache.get("token-a", NOW + 1000));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_WhenFull_ShouldStayBounded() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(8);
+
+        // Act
+        for (int i = 0; i < 100; i++) {
+            cache.put("token-" + i, new VerifiedToken("user" + i, NOW + 1000), NOW);
+        }
+
+        // Assert
+        assertTrue(cache.size() <= 8);
+        assertNotNull(cache.get("token-99", NOW));
+    }
+
+    @Test
+    void put_WhenFull_ShouldEvictExpiredEntriesFirst() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(4);
+        cache.put("live", new VerifiedToken("live", NOW + 10_000), NOW);
+        for (int i = 0; i < 3; i++) {
+            cache.put("short-" + i, new VerifiedToken("short", NOW + 10), NOW);
+        }
+
+        // Act
+        cache.put("new", new VerifiedToken("new", NOW + 10_000), NOW + 100);
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get("live", NOW + 100));
+        assertNotNull(cache.get("new", NOW + 100));
+    }
+
+    @Test
+    void zeroSize_ShouldDisableCache() {
+        // Arrange
+        VerifiedTokenCache cache = new VerifiedTokenCache(0);
+
+        // Act
+        cache.put("token", new VerifiedToken("user", NOW + 1000), NOW);
+
+        // Assert
+        assertNull(cache.get("token", NOW));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,67 @@
+package licenta.persistence;
+
+import licenta.model.Reservation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ActiveSlotConflictCheckTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void verify_NoConflictsAndIndexPresent_ShouldPass() {
+        // Arrange
+        stubConflicts(List.of());
+        when(jdbcTemplate.queryForObject(ActiveSlotConflictCheck.INDEX_QUERY, Long.class, Reservation.ACTIVE_SLOT_UNIQUE_INDEX))
+                .thenReturn(1L);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> new ActiveSlotConflictCheck(jdbcTemplate).verify());
+    }
+
+    @Test
+    void verify_ConflictingActiveSlots_ShouldFailStartupAndReportThem() {
+        // Arrange
+        stubConflicts(List.of("hall 4, 2025-03-10, 10:00 - 11:30: reservations 17 (reservation, CONFIRMED), 23 (reservation, CONFIRMED)"));
+
+        // Act
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new ActiveSlotConflictCheck(jdbcTemplate).verify());
+
+        // Assert - nicio rezervare nu este modificata, doar raportata
+        assertTrue(error.getMessage().contains("17 (reservation, CONFIRMED), 23"));
+        assertTrue(error.getMessage().contains(Reservation.ACTIVE_SLOT_UNIQUE_INDEX));
+        verify(jdbcTemplate, never()).update(anyString());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(Object[].class));
+    }
+
+    @Test
+    void verify_MissingIndex_ShouldFailStartup() {
+        // Arrange
+        stubConflicts(List.of());
+        when(jdbcTemplate.queryForObject(ActiveSlotConflictCheck.INDEX_QUERY, Long.class, Reservation.ACTIVE_SLOT_UNIQUE_INDEX))
+                .thenReturn(0L);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new ActiveSlotConflictCheck(jdbcTemplate).verify());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubConflicts(List<String> conflicts) {
+        when(jdbcTemplate.query(eq(ActiveSlotConflictCheck.CONFLICTS_QUERY), any(RowMapper.class))).thenReturn(conflicts);
+    }
+}
@@ -0,0 +1,62 @@
+package licenta.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SequenceCatchUpCheckTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void verify_SequenceAheadOfTable_ShouldPass() {
+        // Arrange
+        stubLastValue("reservations_seq", List.of(1_050L));
+        when(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM reservations", Long.class)).thenReturn(1_000L);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> new SequenceCatchUpCheck(jdbcTemplate, List.of("reservations")).verify());
+    }
+
+    @Test
+    void verify_SequenceBehindTable_ShouldFailStartup() {
+        // Arrange - setval din schema.sql nu a rulat
+        stubLastValue("reservations_seq", List.of(0L));
+        when(jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM reservations", Long.class)).thenReturn(1_000L);
+
+        // Act
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+                () -> new SequenceCatchUpCheck(jdbcTemplate, List.of("reservations")).verify());
+
+        // Assert
+        assertTrue(error.getMessage().contains("reservations_seq"));
+    }
+
+    @Test
+    void verify_MissingSequence_ShouldFailStartup() {
+        // Arrange
+        stubLastValue("users_seq", List.of());
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> new SequenceCatchUpCheck(jdbcTemplate, List.of("users")).verify());
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubLastValue(String sequence, List<Long> result) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq(sequence))).thenReturn(result);
+    }
+}
@@ -0,0 +1,251 @@
+package licenta.service;
+
+import licenta.jwtservice.UserDetailsCache;
+import licenta.model.User;
+import licenta.model.dtos.UserGroupCount;
+import licenta.persistence.IUserSpringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class AdminRestControllerTest {
+
+    @Mock
+    private IUserSpringRepository userSpringRepository;
+
+    @Mock
+    private FcfsSettingsService fcfsSettingsService;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    private AdminRestController adminRestController;
+
+    @BeforeEach
+    void setUp() {
+        adminRestController = new AdminRestController(userSpringRepository, fcfsSettingsService, userDetailsCache);
+    }
+
+    @Test
+    void approveTeamRegistration_ShouldVerifyAccountAndEvictCachedUserDetails() {
+        // Arrange
+        User team = new User();
+        team.setId(5L);
+        team.setEmail("team@example.com");
+        team.setTeamType("senior");
+        team.setAccountStatus("pending");
+        when(userSpringRepository.findById(5L)).thenReturn(Optional.of(team));
+
+        // Act
+        ResponseEntity<?> response = adminRestController.approveTeamRegistration(5L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("verified", team.getAccountStatus());
+        verify(userSpringRepository).save(team);
+        verify(userDetailsCache).evict("team@example.com");
+    }
+
+    @Test
+    void rejectTeamRegistration_ShouldEvictCachedUserDetails() {
+        // Arrange
+        User team = new User();
+        team.setId(6L);
+        team.setEmail("rejected@example.com");
+        team.setTeamType("junior");
+        when(userSpringRepository.findById(6L)).thenReturn(Optional.of(team));
+
+        // Act
+        ResponseEntity<?> response = adminRestController.rejectTeamRegistration(6L, Map.of("rejectionReason", "Certificat invalid"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("rejected", team.getAccountStatus());
+        verify(userDetailsCache).evict("rejected@example.com");
+    }
+
+    @Test
+    void getFcfsStatus_ShouldUseSettingAndCountQueries() {
+        // Arrange
+        when(userSpringRepository.countByUserType("user")).thenReturn(10L);
+        when(userSpringRepository.countByUserTypeAndFcfsEnabled("user", true)).thenReturn(7L);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = adminRestController.getFcfsStatus();
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> body = response.getBody();
+        assertNotNull(body);
+        assertTrue((Boolean) body.get("fcfsEnabled"));
+        assertEquals(10L, body.get("totalUsers"));
+        assertEquals(7L, body.get("enabledUsers"));
+        assertEquals(3L, body.get("disabledUsers"));
+        verify(userSpringRepository, never()).findAll();
+    }
+
+    @Test
+    void toggleFcfsVisibility_ShouldIssueSingleBulkUpdateAndStoreSetting() {
+        // Arrange
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
+        when(userSpringRepository.updateFcfsEnabledByUserType("user", false)).thenReturn(25000);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = adminRestController.toggleFcfsVisibility(false);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> body = response.getBody();
+        assertNotNull(body);
+        assertFalse((Boolean) body.get("fcfsEnabled"));
+        assertTrue((Boolean) body.get("previousStatus"));
+        assertEquals(25000, body.get("updatedUsers"));
+        assertFalse(body.containsKey("affectedUserIds"));
+        verify(fcfsSettingsService).setFcfsEnabled(false);
+        verify(userSpringRepository, never()).findAll();
+        verify(userSpringRepository, never()).saveAll(any());
+        verify(userSpringRepository, never()).findIdsByUserType(anyString());
+    }
+
+    @Test
+    void toggleFcfsVisibility_WithIncludeUserIds_ShouldReturnAffectedIds() {
+        // Arrange
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(false);
+        when(userSpringRepository.updateFcfsEnabledByUserType("user", true)).thenReturn(2);
+        when(userSpringRepository.findIdsByUserType("user")).thenReturn(List.of(1L, 2L));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = adminRestController.toggleFcfsVisibility(true);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(1L, 2L), response.getBody().get("affectedUserIds"));
+    }
+
+    @Test
+    void toggleFcfsVisibility_WithNoNormalUsers_ShouldReturnBadRequestAndKeepSetting() {
+        // Arrange
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
+        when(userSpringRepository.updateFcfsEnabledByUserType("user", false)).thenReturn(0);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = adminRestController.toggleFcfsVisibility(false);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(fcfsSettingsService, never()).setFcfsEnabled(anyBoolean());
+    }
+
+    @Test
+    void setFcfsStatus_ShouldReportChangedAgainstPreviousSetting() {
+        // Arrange
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
+        when(userSpringRepository.updateFcfsEnabledByUserType("user", true)).thenReturn(3);
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = adminRestController.setFcfsStatus(Map.of("enabled", true), false);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        Map<String, Object> body = response.getBody();
+        assertNotNull(body);
+        assertFalse((Boolean) body.get("changed"));
+        assertEquals(3, body.get("updatedUsers"));
+        verify(fcfsSettingsService).setFcfsEnabled(true);
+    }
+
+    @Test
+    void setFcfsStatus_WithoutEnabledParameter_ShouldReturnBadRequest() {
+        // Act
+        ResponseEntity<Map<String, Object>> response = adminRestController.setFcfsStatus(Map.of(), false);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(userSpringRepository);
+    }
+
+    @Test
+    void getFcfsStatistics_ShouldAggregateGroupedCountsAndCacheResult() {
+        // Arrange
+        when(userSpringRepository.countGroupedByTypeFcfsAndStatus()).thenReturn(List.of(
+                groupCount("user", true, "verified", 6),
+                groupCount("user", false, "verified", 2),
+                groupCount("user", true, "pending", 1),
+                groupCount("admin", true, null, 1),
+                groupCount("hall_admin", true, "verified", 3)));
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
+
+        // Act
+        ResponseEntity<Map<String, Object>> first = adminRestController.getFcfsStatistics();
+        ResponseEntity<Map<String, Object>> second = adminRestController.getFcfsStatistics();
+
+        // Assert
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        Map<String, Object> body = first.getBody();
+        assertNotNull(body);
+        assertEquals(13L, body.get("totalUsers"));
+        assertEquals(9L, body.get("normalUsers"));
+        assertEquals(1L, body.get("adminUsers"));
+        assertEquals(7L, body.get("enabledNormalUsers"));
+        assertEquals(2L, body.get("disabledNormalUsers"));
+        assertTrue((Boolean) body.get("fcfsGlobalStatus"));
+        assertSame(body, second.getBody());
+        verify(userSpringRepository, times(1)).countGroupedByTypeFcfsAndStatus();
+        verify(userSpringRepository, never()).findAll();
+    }
+
+    @Test
+    void getFcfsStatistics_AfterToggle_ShouldRecomputeCounts() {
+        // Arrange
+        when(userSpringRepository.countGroupedByTypeFcfsAndStatus()).thenReturn(List.of(groupCount("user", true, "verified", 1)));
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
+        when(userSpringRepository.updateFcfsEnabledByUserType("user", false)).thenReturn(1);
+        adminRestController.getFcfsStatistics();
+
+        // Act
+        adminRestController.toggleFcfsVisibility(false);
+        adminRestController.getFcfsStatistics();
+
+        // Assert
+        verify(userSpringRepository, times(2)).countGroupedByTypeFcfsAndStatus();
+    }
+
+    private UserGroupCount groupCount(String userType, Boolean fcfsEnabled, String accountStatus, long total) {
+        return new UserGroupCount() {
+            @Override
+            public String getUserType() {
+                return userType;
+            }
+
+            @Override
+            public Boolean getFcfsEnabled() {
+                return fcfsEnabled;
+            }
+
+            @Override
+            public String getAccountStatus() {
+                return accountStatus;
+            }
+
+            @Override
+            public long getTotal() {
+                return total;
+            }
+        };
+    }
+}
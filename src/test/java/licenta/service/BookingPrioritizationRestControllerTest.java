@@ -1,18 +1,20 @@
 package licenta.service;
 
 import licenta.model.*;
+import licenta.model.dtos.ProfileEligibilityCounts;
 import licenta.persistence.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -42,7 +44,7 @@ public class BookingPrioritizationRestControllerTest {
     private IScheduleSpringRepository scheduleRepository;
 
     @Mock
-    private JavaMailSender mailSender;
+    private EmailOutbox emailOutbox;
 
     private BookingPrioritizationRestController controller;
 
@@ -59,6 +61,7 @@ public class BookingPrioritizationRestControllerTest {
                 reservationRepository,
                 scheduleRepository
         );
+        ReflectionTestUtils.setField(controller, "emailOutbox", emailOutbox);
 
         setupTestData();
     }
@@ -109,7 +112,7 @@ public class BookingPrioritizationRestControllerTest {
         @DisplayName("Should return only eligible profiles")
         void shouldReturnOnlyEligibleProfiles() {
             // Arrange
-            when(reservationProfileRepository.findAll()).thenReturn((Iterable<ReservationProfile>) testProfiles);
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls()).thenReturn(testProfiles);
 
             // Act - folosim reflexia pentru a testa metoda private
             List<ReservationProfile> eligibleProfiles = invokePrivateMethod("getEligibleProfiles");
@@ -133,7 +136,7 @@ public class BookingPrioritizationRestControllerTest {
             List<ReservationProfile> profilesWithInvalid = new ArrayList<>(testProfiles);
             profilesWithInvalid.add(profileWithoutTeam);
 
-            when(reservationProfileRepository.findAll()).thenReturn((Iterable<ReservationProfile>) profilesWithInvalid);
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls()).thenReturn(profilesWithInvalid);
 
             // Act
             List<ReservationProfile> eligibleProfiles = invokePrivateMethod("getEligibleProfiles");
@@ -142,6 +145,26 @@ public class BookingPrioritizationRestControllerTest {
             assertFalse(eligibleProfiles.stream().anyMatch(p ->
                     p.getName().equals("Fara Echipa")));
         }
+
+        @Test
+        @DisplayName("Should keep every eligible profile without a fixed cap")
+        void shouldNotCapEligibleProfiles() {
+            // Arrange - mai multe profiluri decat vechea limita de 30
+            List<ReservationProfile> manyProfiles = new ArrayList<>();
+            for (int i = 1; i <= 40; i++) {
+                User user = createUser((long) i, "team" + i + "@test.com", "Seniori", "verified");
+                manyProfiles.add(createReservationProfile((long) i, "Echipa " + i, user, "Seniori",
+                        BigDecimal.valueOf(300), "Cluj-Napoca", "full-day", testHalls.subList(0, 2)));
+            }
+
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls()).thenReturn(manyProfiles);
+
+            // Act
+            List<ReservationProfile> eligibleProfiles = invokePrivateMethod("getEligibleProfiles");
+
+            // Assert
+            assertEquals(40, eligibleProfiles.size());
+        }
     }
 
     @Nested
@@ -304,44 +327,55 @@ public class BookingPrioritizationRestControllerTest {
         void shouldCreateScheduleForFullWeek() {
             // Arrange
             when(sportsHallRepository.findAll()).thenReturn((Iterable<SportsHall>) testHalls.subList(0, 2));
-            when(scheduleRepository.findBySportsHallIdAndIsActiveOrderByDayOfWeek(anyLong(), eq(true)))
+            when(scheduleRepository.findByHallIdsAndIsActiveTrue(anyList()))
                     .thenReturn(testSchedules);
-            when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
+            when(reservationRepository.findByOptionalHallAndTypeInDateWindow(isNull(), isNull(), any(Date.class), any(Date.class)))
+                    .thenReturn(Collections.emptyList());
 
             Date nextMonday = getNextMonday();
 
             // Act
-            BookingPrioritizationRestController.WeeklySchedule weeklySchedule =
-                    invokePrivateMethod("createWeeklySchedule", nextMonday);
+            SlotAvailabilityEngine availability = invokePrivateMethod("createWeeklyAvailability", nextMonday);
 
             // Assert
-            assertNotNull(weeklySchedule);
-            assertEquals(7, weeklySchedule.getDaySchedules().size()); // 7 days
+            assertNotNull(availability);
+            assertEquals(7, availability.getDayCount()); // 7 days
+            assertEquals(2, availability.getHallCount());
+            verify(reservationRepository, never()).findAll();
+
+            // Programul e citit o singura data pentru toate salile
+            verify(scheduleRepository, times(1)).findByHallIdsAndIsActiveTrue(anyList());
+            verify(scheduleRepository, never()).findBySportsHallIdAndIsActiveOrderByDayOfWeek(anyLong(), anyBoolean());
+
+            // Luni: Sala Mare 08:00-22:00 (9 sloturi), Sala Mica 09:00-21:00 (8 sloturi); miercuri inchis
+            assertEquals(9, Long.bitCount(availability.availableMask(0, 0)));
+            assertEquals(8, Long.bitCount(availability.availableMask(1, 0)));
+            assertEquals(0L, availability.availableMask(0, 2));
         }
 
         @Test
-        @DisplayName("Should limit halls for performance")
-        void shouldLimitHallsForPerformance() {
-            // Arrange - Create more than 15 halls
+        @DisplayName("Should include every active hall")
+        void shouldIncludeEveryActiveHall() {
+            // Arrange - Create more than the old 15 hall cap
             List<SportsHall> manyHalls = new ArrayList<>();
             for (int i = 1; i <= 20; i++) {
                 manyHalls.add(createSportsHall((long) i, "Sala " + i, "Cluj-Napoca", 100.0f, SportsHall.HallStatus.ACTIVE));
             }
 
             when(sportsHallRepository.findAll()).thenReturn((Iterable<SportsHall>) manyHalls);
-            when(scheduleRepository.findBySportsHallIdAndIsActiveOrderByDayOfWeek(anyLong(), eq(true)))
+            when(scheduleRepository.findByHallIdsAndIsActiveTrue(anyList()))
                     .thenReturn(testSchedules);
-            when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
+            when(reservationRepository.findByOptionalHallAndTypeInDateWindow(isNull(), isNull(), any(Date.class), any(Date.class)))
+                    .thenReturn(Collections.emptyList());
 
             Date nextMonday = getNextMonday();
 
             // Act
-            BookingPrioritizationRestController.WeeklySchedule weeklySchedule =
-                    invokePrivateMethod("createWeeklySchedule", nextMonday);
+            SlotAvailabilityEngine availability = invokePrivateMethod("createWeeklyAvailability", nextMonday);
 
             // Assert
-            assertNotNull(weeklySchedule);
-            // Should be limited to 15 halls max (verified indirectly through performance)
+            assertNotNull(availability);
+            assertEquals(20, availability.getHallCount());
         }
     }
 
@@ -353,8 +387,8 @@ public class BookingPrioritizationRestControllerTest {
         @DisplayName("Should return correct system status")
         void shouldReturnCorrectSystemStatus() {
             // Arrange
-            when(reservationProfileRepository.findAll()).thenReturn((Iterable<ReservationProfile>) testProfiles);
-            when(sportsHallRepository.findAll()).thenReturn((Iterable<SportsHall>) testHalls.subList(0, 2));
+            when(reservationProfileRepository.countProfilesByEligibility()).thenReturn(profileCounts(5, 4L));
+            when(sportsHallRepository.countActiveHalls()).thenReturn(2L);
 
             // Act
             ResponseEntity<Map<String, Object>> response = controller.getSystemStatus();
@@ -364,17 +398,36 @@ public class BookingPrioritizationRestControllerTest {
             Map<String, Object> body = response.getBody();
             assertNotNull(body);
             assertTrue((Boolean) body.get("systemReady"));
-            assertEquals(5, body.get("totalProfiles"));
-            assertEquals(2, body.get("activeHalls"));
+            assertEquals(5L, body.get("totalProfiles"));
+            assertEquals(4L, body.get("eligibleProfiles"));
+            assertEquals(2L, body.get("activeHalls"));
             assertNotNull(body.get("nextWeekStart"));
             assertNotNull(body.get("nextWeekEnd"));
         }
 
+        @Test
+        @DisplayName("Should count profiles and halls in the database instead of loading them")
+        void shouldCountWithoutLoadingProfilesOrHalls() {
+            // Arrange - fara profiluri SUM intoarce null
+            when(reservationProfileRepository.countProfilesByEligibility()).thenReturn(profileCounts(0, null));
+            when(sportsHallRepository.countActiveHalls()).thenReturn(0L);
+
+            // Act
+            ResponseEntity<Map<String, Object>> response = controller.getSystemStatus();
+
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            assertEquals(0L, response.getBody().get("eligibleProfiles"));
+            verify(reservationProfileRepository, never()).findAll();
+            verify(reservationProfileRepository, never()).findAllWithUserAndSelectedHalls();
+            verify(sportsHallRepository, never()).findAll();
+        }
+
         @Test
         @DisplayName("Should handle errors gracefully in system status")
         void shouldHandleErrorsGracefullyInSystemStatus() {
             // Arrange
-            when(reservationProfileRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+            when(reservationProfileRepository.countProfilesByEligibility()).thenThrow(new RuntimeException("Database error"));
 
             // Act
             ResponseEntity<Map<String, Object>> response = controller.getSystemStatus();
@@ -386,6 +439,20 @@ public class BookingPrioritizationRestControllerTest {
             assertFalse((Boolean) body.get("systemReady"));
             assertTrue(body.get("error").toString().contains("Database error"));
         }
+
+        private ProfileEligibilityCounts profileCounts(long total, Long eligible) {
+            return new ProfileEligibilityCounts() {
+                @Override
+                public long getTotalProfiles() {
+                    return total;
+                }
+
+                @Override
+                public Long getEligibleProfiles() {
+                    return eligible;
+                }
+            };
+        }
     }
 
     @Nested
@@ -423,6 +490,54 @@ public class BookingPrioritizationRestControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Reservation Persistence Tests")
+    class ReservationPersistenceTests {
+
+        @Test
+        @DisplayName("Should save all reservations of a profile in one batch")
+        void shouldSaveProfileReservationsInOneBatch() {
+            // Arrange
+            List<BookingPrioritizationRestController.SelectedReservation> selected = Arrays.asList(
+                    new BookingPrioritizationRestController.SelectedReservation(testHalls.get(0), getNextMonday(),
+                            "10:00 - 11:30", BigDecimal.valueOf(100)),
+                    new BookingPrioritizationRestController.SelectedReservation(testHalls.get(1), getNextMonday(),
+                            "11:30 - 13:00", BigDecimal.valueOf(80)));
+            when(reservationRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // Act
+            List<Reservation> saved = invokePrivateMethod("createReservationsFromSelected", selected, testProfiles.get(0).getUser());
+
+            // Assert
+            assertEquals(2, saved.size());
+            assertEquals("CONFIRMED", saved.get(0).getStatus());
+            verify(reservationRepository, times(1)).saveAll(anyIterable());
+            verify(reservationRepository, never()).save(any(Reservation.class));
+        }
+
+        @Test
+        @DisplayName("Should fall back to single saves when the batch is rejected")
+        void shouldFallBackToSingleSavesWhenBatchFails() {
+            // Arrange
+            List<BookingPrioritizationRestController.SelectedReservation> selected = Arrays.asList(
+                    new BookingPrioritizationRestController.SelectedReservation(testHalls.get(0), getNextMonday(),
+                            "10:00 - 11:30", BigDecimal.valueOf(100)),
+                    new BookingPrioritizationRestController.SelectedReservation(testHalls.get(1), getNextMonday(),
+                            "11:30 - 13:00", BigDecimal.valueOf(80)));
+            when(reservationRepository.saveAll(anyIterable())).thenThrow(new RuntimeException("duplicate key"));
+            when(reservationRepository.save(any(Reservation.class)))
+                    .thenThrow(new RuntimeException("duplicate key"))
+                    .thenAnswer(invocation -> invocation.getArgument(0));
+
+            // Act
+            List<Reservation> saved = invokePrivateMethod("createReservationsFromSelected", selected, testProfiles.get(0).getUser());
+
+            // Assert - doar rezervarea respinsa lipseste
+            assertEquals(1, saved.size());
+            assertEquals("11:30 - 13:00", saved.get(0).getTimeSlot());
+        }
+    }
+
     @Nested
     @DisplayName("Integration Tests")
     class IntegrationTests {
@@ -431,15 +546,15 @@ public class BookingPrioritizationRestControllerTest {
         @DisplayName("Should handle complete booking generation process")
         void shouldHandleCompleteBookingGenerationProcess() {
             // Arrange
-            when(reservationProfileRepository.findAll()).thenReturn((Iterable<ReservationProfile>) testProfiles.subList(0, 2));
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls()).thenReturn(testProfiles.subList(0, 2));
             when(sportsHallRepository.findAll()).thenReturn((Iterable<SportsHall>) testHalls.subList(0, 2));
-            when(scheduleRepository.findBySportsHallIdAndIsActiveOrderByDayOfWeek(anyLong(), eq(true)))
+            when(scheduleRepository.findByHallIdsAndIsActiveTrue(anyList()))
                     .thenReturn(testSchedules);
-            when(reservationRepository.findAll()).thenReturn(Collections.emptyList());
-            when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> {
-                Reservation reservation = invocation.getArgument(0);
-                reservation.setId(1L); // Mock saved reservation
-                return reservation;
+            when(reservationRepository.purgeReservationsByDateRange(any(Date.class), any(Date.class))).thenReturn(3);
+            when(reservationRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+                Iterable<Reservation> reservations = invocation.getArgument(0);
+                reservations.forEach(reservation -> reservation.setId(1L)); // Mock saved reservations
+                return reservations;
             });
 
             // Act
@@ -452,13 +567,98 @@ public class BookingPrioritizationRestControllerTest {
             assertTrue((Boolean) body.get("success"));
             assertNotNull(body.get("count"));
             assertNotNull(body.get("successfulProfiles"));
+            assertEquals(3, body.get("deletedCount"));
+        }
+
+        @Test
+        @DisplayName("Should send one confirmation digest per user after all phases")
+        @SuppressWarnings("unchecked")
+        void shouldSendOneDigestPerUserAfterAllocation() {
+            // Arrange - acelasi utilizator are doua profiluri
+            User juniorUser = testProfiles.get(1).getUser();
+            ReservationProfile secondProfile = createReservationProfile(6L, "Echipa Junior 17-18 B", juniorUser, "17-18",
+                    BigDecimal.valueOf(500), "Cluj-Napoca", "14:30-23", testHalls.subList(0, 2));
+
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls())
+                    .thenReturn(Arrays.asList(testProfiles.get(1), secondProfile));
+            when(sportsHallRepository.findAll()).thenReturn((Iterable<SportsHall>) testHalls.subList(0, 2));
+            when(scheduleRepository.findByHallIdsAndIsActiveTrue(anyList())).thenReturn(testSchedules);
+            when(reservationRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+            when(emailOutbox.enqueueAll(anyList())).thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).size());
+
+            // Act
+            ResponseEntity<Map<String, Object>> response = controller.generateBookings();
+
+            // Assert - un singur apel, dupa alocare, cu un singur email pentru utilizator
+            ArgumentCaptor<List<OutboxEmail>> digests = ArgumentCaptor.forClass(List.class);
+            verify(emailOutbox).enqueueAll(digests.capture());
+            verify(emailOutbox, never()).enqueue(anyString(), anyString(), anyString());
+
+            Map<String, Object> body = response.getBody();
+            assertNotNull(body);
+            assertEquals(1, digests.getValue().size());
+            assertEquals("junior1@test.com", digests.getValue().get(0).getRecipient());
+            assertEquals(1, body.get("notifiedUsers"));
+
+            // Emailul cuprinde rezervarile ambelor profiluri, din toate fazele
+            int totalReservations = (Integer) body.get("count");
+            assertTrue(totalReservations > 1);
+            assertTrue(digests.getValue().get(0).getSubject().contains(totalReservations + " interval"));
+        }
+
+        @Test
+        @DisplayName("Should purge next week with one bulk statement instead of loading all reservations")
+        void shouldPurgeNextWeekWithBulkDelete() {
+            // Arrange
+            when(reservationRepository.purgeReservationsByDateRange(any(Date.class), any(Date.class))).thenReturn(12);
+            Date nextMonday = getNextMonday();
+            Calendar sunday = Calendar.getInstance();
+            sunday.setTime(nextMonday);
+            sunday.add(Calendar.DAY_OF_YEAR, 6);
+
+            // Act
+            int deleted = invokePrivateMethod("deleteExistingReservationsForNextWeek", nextMonday, sunday.getTime());
+
+            // Assert
+            assertEquals(12, deleted);
+            verify(reservationRepository).purgeReservationsByDateRange(nextMonday, sunday.getTime());
+            verify(reservationRepository, never()).findAll();
+            verify(reservationRepository, never()).deleteAll(anyIterable());
+        }
+
+        @Test
+        @DisplayName("Should report deferred profiles when the time budget expires")
+        @SuppressWarnings("unchecked")
+        void shouldReportDeferredProfilesWhenTimeBudgetExpires() {
+            // Arrange - bugetul de timp este deja consumat la intrarea in faza 1
+            ReflectionTestUtils.setField(controller, "generationTimeBudgetMs", -1L);
+
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls()).thenReturn(testProfiles.subList(0, 2));
+            when(sportsHallRepository.findAll()).thenReturn((Iterable<SportsHall>) testHalls.subList(0, 2));
+            when(scheduleRepository.findByHallIdsAndIsActiveTrue(anyList()))
+                    .thenReturn(testSchedules);
+
+            // Act
+            ResponseEntity<Map<String, Object>> response = controller.generateBookings();
+
+            // Assert
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            Map<String, Object> body = response.getBody();
+            assertNotNull(body);
+            assertEquals(0, body.get("count"));
+            assertEquals(2, body.get("deferredCount"));
+
+            List<Map<String, Object>> deferred = (List<Map<String, Object>>) body.get("deferredProfiles");
+            assertEquals("Echipa Seniori", deferred.get(0).get("profileName")); // ordinea prioritatii
+            assertEquals(1, deferred.get(0).get("phase"));
+            verify(reservationRepository, never()).saveAll(anyIterable());
         }
 
         @Test
         @DisplayName("Should handle generation errors gracefully")
         void shouldHandleGenerationErrorsGracefully() {
             // Arrange
-            when(reservationProfileRepository.findAll()).thenThrow(new RuntimeException("Database connection failed"));
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls()).thenThrow(new RuntimeException("Database connection failed"));
 
             // Act
             ResponseEntity<Map<String, Object>> response = controller.generateBookings();
@@ -472,6 +672,65 @@ public class BookingPrioritizationRestControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("Scale Tests")
+    class ScaleTests {
+
+        private static final int PROFILE_COUNT = 10_000;
+        private static final int HALL_COUNT = 500;
+        private static final int HALLS_PER_PROFILE = 5;
+
+        @Test
+        @DisplayName("Should allocate 10k profiles over 500 halls within the default time budget")
+        void shouldAllocateTenThousandProfilesWithinTimeBudget() {
+            // Arrange - 500 de sali deschise zilnic 08-22 si 10.000 de profiluri, fiecare cu 5 sali
+            List<SportsHall> halls = new ArrayList<>(HALL_COUNT);
+            List<Schedule> schedules = new ArrayList<>(HALL_COUNT * 7);
+            for (int i = 0; i < HALL_COUNT; i++) {
+                SportsHall hall = createSportsHall((long) i + 1, "Sala " + i, "Cluj-Napoca", 100.0f, SportsHall.HallStatus.ACTIVE);
+                halls.add(hall);
+                for (int day = 1; day <= 7; day++) {
+                    schedules.add(createSchedule((long) i * 7 + day, hall, day, "08:00", "22:00", true));
+                }
+            }
+
+            // Seniorii primesc doar sloturi de dimineata, juniorii doar dupa 14:30
+            String[] categories = {"Seniori", "17-18", "15-16", "0-14"};
+            List<ReservationProfile> profiles = new ArrayList<>(PROFILE_COUNT);
+            for (int i = 0; i < PROFILE_COUNT; i++) {
+                String category = categories[i % categories.length];
+                String interval = i % 2 == 0 ? "full-day" : "Seniori".equals(category) ? "7-14:30" : "14:30-23";
+                User user = createUser((long) i + 1, "team" + i + "@test.com", category, "verified");
+                List<SportsHall> selected = new ArrayList<>(HALLS_PER_PROFILE);
+                for (int h = 0; h < HALLS_PER_PROFILE; h++) {
+                    selected.add(halls.get((i * HALLS_PER_PROFILE + h) % HALL_COUNT));
+                }
+                profiles.add(createReservationProfile((long) i + 1, "Echipa " + i, user, category,
+                        BigDecimal.valueOf(300 + i % 400), "Cluj-Napoca", interval, selected));
+            }
+
+            when(reservationProfileRepository.findAllWithUserAndSelectedHalls()).thenReturn(profiles);
+            when(sportsHallRepository.findAll()).thenReturn((Iterable<SportsHall>) halls);
+            when(scheduleRepository.findByHallIdsAndIsActiveTrue(anyList())).thenReturn(schedules);
+            when(reservationRepository.saveAll(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+            // Act
+            long start = System.currentTimeMillis();
+            ResponseEntity<Map<String, Object>> response = controller.generateBookings();
+            long elapsedMillis = System.currentTimeMillis() - start;
+
+            // Assert - niciun profil amanat, toate au primit rezervari, sub bugetul implicit de timp
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            Map<String, Object> body = response.getBody();
+            assertNotNull(body);
+            assertEquals(0, body.get("deferredCount"));
+            assertEquals(PROFILE_COUNT, body.get("successfulProfiles"));
+            assertTrue((Integer) body.get("count") >= PROFILE_COUNT);
+            assertTrue(elapsedMillis < BookingPrioritizationRestController.DEFAULT_GENERATION_TIME_BUDGET_MS,
+                    "Generarea a durat " + elapsedMillis + " ms");
+        }
+    }
+
     // Helper methods for creating test data
     private User createUser(Long id, String email, String teamType, String accountStatus) {
         User user = new User();
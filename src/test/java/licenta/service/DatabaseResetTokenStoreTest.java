@@ -0,0 +1,105 @@
+package licenta.service;
+
+import licenta.model.PasswordResetToken;
+import licenta.persistence.IPasswordResetTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DatabaseResetTokenStoreTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-02T10:00:00Z");
+
+    @Mock
+    private IPasswordResetTokenRepository repository;
+
+    private DatabaseResetTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new DatabaseResetTokenStore(repository, 2, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void put_ShouldReplaceTokenOfSameEmailAndStoreOnlyTheHash() {
+        // Arrange
+        when(repository.deleteByEmail("user@example.com")).thenReturn(1);
+
+        // Act
+        boolean stored = store.put("raw-token", new ResetTokenStore.Entry("user@example.com", NOW.toEpochMilli() + 3_600_000));
+
+        // Assert
+        assertTrue(stored);
+        verify(repository).deleteExpired(LocalDateTime.ofInstant(NOW, ZoneOffset.UTC));
+        ArgumentCaptor<PasswordResetToken> captor = ArgumentCaptor.forClass(PasswordResetToken.class);
+        verify(repository).save(captor.capture());
+        assertEquals(DatabaseResetTokenStore.hash("raw-token"), captor.getValue().getTokenHash());
+        assertEquals(LocalDateTime.ofInstant(NOW.plusSeconds(3600), ZoneOffset.UTC), captor.getValue().getExpiresAt());
+        verify(repository, never()).countByExpiresAtAfter(any());
+    }
+
+    @Test
+    void put_WhenTableIsFull_ShouldReject() {
+        // Arrange
+        when(repository.deleteByEmail("new@example.com")).thenReturn(0);
+        when(repository.countByExpiresAtAfter(any())).thenReturn(2L);
+
+        // Act
+        boolean stored = store.put("raw-token", new ResetTokenStore.Entry("new@example.com", NOW.toEpochMilli() + 3_600_000));
+
+        // Assert
+        assertFalse(stored);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void get_ShouldMapRowToEntry() {
+        // Arrange
+        PasswordResetToken row = new PasswordResetToken(DatabaseResetTokenStore.hash("raw-token"), "user@example.com",
+                LocalDateTime.ofInstant(NOW, ZoneOffset.UTC), LocalDateTime.ofInstant(NOW.plusSeconds(60), ZoneOffset.UTC));
+        when(repository.findByTokenHash(DatabaseResetTokenStore.hash("raw-token"))).thenReturn(Optional.of(row));
+
+        // Act
+        ResetTokenStore.Entry entry = store.get("raw-token").orElseThrow();
+
+        // Assert
+        assertEquals("user@example.com", entry.getEmail());
+        assertEquals(NOW.toEpochMilli() + 60_000, entry.getExpiresAtMillis());
+    }
+
+    @Test
+    void remove_ExpiredOrUsedToken_ShouldFailAndDeleteRow() {
+        // Arrange
+        String tokenHash = DatabaseResetTokenStore.hash("raw-token");
+        when(repository.deleteValidByTokenHash(eq(tokenHash), any())).thenReturn(0);
+
+        // Act & Assert
+        assertFalse(store.remove("raw-token"));
+        verify(repository).deleteByTokenHash(tokenHash);
+    }
+
+    @Test
+    void remove_ValidToken_ShouldSucceed() {
+        // Arrange
+        when(repository.deleteValidByTokenHash(eq(DatabaseResetTokenStore.hash("raw-token")), any())).thenReturn(1);
+
+        // Act & Assert
+        assertTrue(store.remove("raw-token"));
+        verify(repository, never()).deleteByTokenHash(any());
+    }
+}
@@ -0,0 +1,146 @@
+package licenta.service;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import licenta.model.Email;
+import licenta.model.EmailRecipient;
+import licenta.model.dtos.EmailCampaignProgress;
+import licenta.persistence.IEmailRecipientRepository;
+import licenta.persistence.IEmailRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailCampaignServiceTest {
+
+    @Mock
+    private IEmailRepository emailRepository;
+
+    @Mock
+    private IEmailRecipientRepository emailRecipientRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Captor
+    private ArgumentCaptor<List<EmailRecipient>> saved;
+
+    private EmailCampaignService emailCampaignService;
+
+    @BeforeEach
+    void setUp() {
+        // Executor direct: campania ruleaza sincron in teste
+        emailCampaignService = new EmailCampaignService(emailRepository, emailRecipientRepository, mailSender, Runnable::run);
+    }
+
+    @Test
+    void startCampaign_ShouldSendEachBatchOnOneConnectionAndSaveRecipientsTogether() throws Exception {
+        // Arrange
+        stubSavedEmail();
+        when(mailSender.createMimeMessage()).thenAnswer(inv -> new MimeMessage((Session) null));
+        List<String> recipients = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            recipients.add("user" + i + "@test.com");
+        }
+
+        // Act
+        Email email = emailCampaignService.startCampaign(createEmail(), recipients);
+
+        // Assert - 120 destinatari in loturi de 50: trei apeluri send, trei saveAll
+        assertEquals(EmailCampaignService.STATUS_SENDING, email.getStatus());
+        assertEquals(120, email.getTotalRecipients());
+        verify(mailSender, times(3)).send(any(MimeMessage[].class));
+        verify(emailRecipientRepository, times(3)).saveAll(saved.capture());
+        assertEquals(List.of(50, 50, 20), saved.getAllValues().stream().map(List::size).toList());
+        verify(emailRepository).finishCampaign(1L, EmailCampaignService.STATUS_SENT, 120, 0);
+    }
+
+    @Test
+    void startCampaign_ShouldRecordOnlyRejectedMessagesAsFailed() throws Exception {
+        // Arrange
+        stubSavedEmail();
+        when(mailSender.createMimeMessage()).thenAnswer(inv -> new MimeMessage((Session) null));
+        doAnswer(inv -> {
+            Object[] messages = inv.getArguments();
+            Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+            failedMessages.put(messages[1], new RuntimeException("Mailbox unavailable"));
+            throw new MailSendException(failedMessages);
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        // Act
+        emailCampaignService.startCampaign(createEmail(), List.of("a@test.com", "b@test.com", "c@test.com"));
+
+        // Assert
+        verify(emailRecipientRepository).saveAll(saved.capture());
+        assertEquals(List.of("SENT", "FAILED", "SENT"), saved.getValue().stream().map(EmailRecipient::getStatus).toList());
+        verify(emailRepository).finishCampaign(1L, EmailCampaignService.STATUS_PARTIAL, 2, 1);
+    }
+
+    @Test
+    void startCampaign_ShouldRejectCampaignWhenSendingPoolIsFull() {
+        // Arrange
+        emailCampaignService = new EmailCampaignService(emailRepository, emailRecipientRepository, mailSender, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        stubSavedEmail();
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class,
+                () -> emailCampaignService.startCampaign(createEmail(), List.of("a@test.com")));
+        verify(emailRepository).finishCampaign(1L, EmailCampaignService.STATUS_FAILED, 0, 0);
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void getProgress_ShouldReadFinishedCampaignFromDatabase() {
+        // Arrange
+        Email email = createEmail();
+        email.setId(7L);
+        email.setStatus(EmailCampaignService.STATUS_PARTIAL);
+        email.setTotalRecipients(10);
+        email.setSentCount(8);
+        email.setFailedCount(2);
+        when(emailRepository.findById(7L)).thenReturn(Optional.of(email));
+
+        // Act
+        EmailCampaignProgress progress = emailCampaignService.getProgress(7L).orElseThrow();
+
+        // Assert
+        assertTrue(progress.isFinished());
+        assertEquals(8, progress.getSentCount());
+        assertEquals(2, progress.getFailedCount());
+        assertEquals(0, progress.getPendingCount());
+        verifyNoInteractions(emailRecipientRepository);
+    }
+
+    private void stubSavedEmail() {
+        when(emailRepository.save(any(Email.class))).thenAnswer(inv -> {
+            Email email = inv.getArgument(0);
+            email.setId(1L);
+            return email;
+        });
+    }
+
+    private Email createEmail() {
+        return new Email("Anunt", "Continut", "admin@trainon.ro", "all_users", "admin@trainon.ro");
+    }
+}
@@ -0,0 +1,162 @@
+package licenta.service;
+
+import licenta.model.OutboxEmail;
+import licenta.persistence.IEmailOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxDispatcherTest {
+
+    @Mock
+    private IEmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // Executor direct: emailurile sunt trimise sincron in teste
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, Runnable::run);
+    }
+
+    @Test
+    void dispatchDue_ShouldSendClaimedEmailAndMarkItSent() {
+        // Arrange
+        OutboxEmail email = new OutboxEmail("user@test.com", "Confirmare", "Continut");
+        when(emailOutboxRepository.findDueIds(eq(OutboxEmail.Status.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(emailOutboxRepository.transition(1L, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING)).thenReturn(1);
+        when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(email));
+
+        // Act
+        int dispatched = dispatcher.dispatchDue();
+
+        // Assert
+        assertEquals(1, dispatched);
+        ArgumentCaptor<SimpleMailMessage> message = ArgumentCaptor.forClass(SimpleMailMessage.class);
+        verify(mailSender).send(message.capture());
+        assertArrayEquals(new String[]{"user@test.com"}, message.getValue().getTo());
+        assertEquals("Confirmare", message.getValue().getSubject());
+        assertEquals(OutboxEmail.Status.SENT, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertNotNull(email.getSentAt());
+        verify(emailOutboxRepository).save(email);
+    }
+
+    @Test
+    void dispatchDue_ShouldSkipEmailClaimedByAnotherDispatcher() {
+        // Arrange
+        when(emailOutboxRepository.findDueIds(eq(OutboxEmail.Status.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(emailOutboxRepository.transition(1L, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING)).thenReturn(0);
+
+        // Act
+        int dispatched = dispatcher.dispatchDue();
+
+        // Assert
+        assertEquals(0, dispatched);
+        verify(emailOutboxRepository, never()).findById(any());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void dispatchDue_ShouldReleaseClaimWhenDispatchPoolIsFull() {
+        // Arrange
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, mailSender, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        when(emailOutboxRepository.findDueIds(eq(OutboxEmail.Status.PENDING), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L));
+        when(emailOutboxRepository.transition(1L, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING)).thenReturn(1);
+
+        // Act
+        int dispatched = dispatcher.dispatchDue();
+
+        // Assert - emailul revine in PENDING, iar restul lotului asteapta trecerea urmatoare
+        assertEquals(0, dispatched);
+        verify(emailOutboxRepository).transition(1L, OutboxEmail.Status.SENDING, OutboxEmail.Status.PENDING);
+        verify(emailOutboxRepository, never()).transition(2L, OutboxEmail.Status.PENDING, OutboxEmail.Status.SENDING);
+    }
+
+    @Test
+    void deliver_ShouldRescheduleWithBackoffWhenSmtpFails() {
+        // Arrange
+        OutboxEmail email = new OutboxEmail("user@test.com", "Confirmare", "Continut");
+        when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(email));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(SimpleMailMessage.class));
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        dispatcher.deliver(1L);
+
+        // Assert - prima reincercare dupa intarzierea initiala (30 s)
+        assertEquals(OutboxEmail.Status.PENDING, email.getStatus());
+        assertEquals(1, email.getAttempts());
+        assertEquals("Connection refused", email.getLastError());
+        assertFalse(email.getNextAttemptAt().isBefore(before.plusSeconds(30)));
+        verify(emailOutboxRepository).save(email);
+    }
+
+    @Test
+    void deliver_ShouldMarkEmailDeadAfterMaxAttempts() {
+        // Arrange
+        OutboxEmail email = new OutboxEmail("user@test.com", "Confirmare", "Continut");
+        email.setAttempts(5);
+        when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(email));
+        doThrow(new MailSendException("Connection refused")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        // Act
+        dispatcher.deliver(1L);
+
+        // Assert
+        assertEquals(OutboxEmail.Status.DEAD, email.getStatus());
+        assertEquals(6, email.getAttempts());
+    }
+
+    @Test
+    void deliver_ShouldMarkEmailDeadImmediatelyWhenMessageIsInvalid() {
+        // Arrange
+        OutboxEmail email = new OutboxEmail("adresa invalida", "Confirmare", "Continut");
+        when(emailOutboxRepository.findById(1L)).thenReturn(Optional.of(email));
+        doThrow(new MailParseException("Illegal address")).when(mailSender).send(any(SimpleMailMessage.class));
+
+        // Act
+        dispatcher.deliver(1L);
+
+        // Assert
+        assertEquals(OutboxEmail.Status.DEAD, email.getStatus());
+        assertEquals(1, email.getAttempts());
+    }
+
+    @Test
+    void retryDelay_ShouldDoubleUntilCapped() {
+        assertEquals(Duration.ofSeconds(30), EmailOutboxDispatcher.retryDelay(1, 30_000, 3_600_000));
+        assertEquals(Duration.ofSeconds(60), EmailOutboxDispatcher.retryDelay(2, 30_000, 3_600_000));
+        assertEquals(Duration.ofSeconds(240), EmailOutboxDispatcher.retryDelay(4, 30_000, 3_600_000));
+        assertEquals(Duration.ofHours(1), EmailOutboxDispatcher.retryDelay(20, 30_000, 3_600_000));
+        assertEquals(Duration.ofHours(1), EmailOutboxDispatcher.retryDelay(100, 30_000, 3_600_000));
+    }
+}
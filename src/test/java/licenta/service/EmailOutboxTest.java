@@ -0,0 +1,81 @@
+package licenta.service;
+
+import licenta.model.OutboxEmail;
+import licenta.persistence.IEmailOutboxRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxTest {
+
+    @Mock
+    private IEmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @InjectMocks
+    private EmailOutbox emailOutbox;
+
+    @Test
+    void enqueue_ShouldPersistPendingEmailAndWakeDispatcher() {
+        // Arrange
+        when(emailOutboxRepository.save(any(OutboxEmail.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        OutboxEmail email = emailOutbox.enqueue("user@test.com", "Confirmare", "Continut");
+
+        // Assert
+        assertEquals(OutboxEmail.Status.PENDING, email.getStatus());
+        assertEquals("user@test.com", email.getRecipient());
+        assertEquals(0, email.getAttempts());
+        assertNotNull(email.getNextAttemptAt());
+        verify(emailOutboxDispatcher).wakeUp();
+    }
+
+    @Test
+    void enqueue_ShouldWakeDispatcherOnlyAfterCommit() {
+        // Arrange
+        when(emailOutboxRepository.save(any(OutboxEmail.class))).thenAnswer(inv -> inv.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            emailOutbox.enqueue("user@test.com", "Confirmare", "Continut");
+
+            // Assert
+            verify(emailOutboxDispatcher, never()).wakeUp();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(emailOutboxDispatcher).wakeUp();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void enqueueAll_ShouldSaveAllEmailsTogetherAndWakeDispatcherOnce() {
+        // Arrange
+        List<OutboxEmail> emails = List.of(
+                new OutboxEmail("a@test.com", "Confirmare", "Continut"),
+                new OutboxEmail("b@test.com", "Confirmare", "Continut"));
+
+        // Act
+        int queued = emailOutbox.enqueueAll(emails);
+
+        // Assert
+        assertEquals(2, queued);
+        verify(emailOutboxRepository).saveAll(emails);
+        verify(emailOutboxRepository, never()).save(any(OutboxEmail.class));
+        verify(emailOutboxDispatcher, times(1)).wakeUp();
+    }
+}
@@ -0,0 +1,71 @@
+package licenta.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class EmailTemplateTest {
+
+    @Test
+    void render_ShouldReplaceVariablesAndRepeatSections() {
+        // Arrange
+        EmailTemplate template = EmailTemplate.compile("Salut {{name}}!\n{{#rows}}- {{hall}} ({{name}})\n{{/rows}}Gata");
+        List<EmailTemplate.Scope> rows = List.of(
+                Map.of("hall", "Sala A")::get,
+                Map.of("hall", "Sala B")::get);
+
+        // Act
+        String result = template.render(Map.<String, Object>of("name", "Ion", "rows", rows)::get);
+
+        // Assert - variabilele lipsa din rand sunt cautate in scope-ul parinte
+        assertEquals("Salut Ion!\n- Sala A (Ion)\n- Sala B (Ion)\nGata", result);
+    }
+
+    @Test
+    void render_ShouldDropLinesHoldingOnlySectionTags() {
+        // Arrange
+        EmailTemplate template = EmailTemplate.compile("A\n{{#paid}}\nPlatit\n{{/paid}}\n{{^paid}}\nNeplatit\n{{/paid}}\nB");
+
+        // Act & Assert
+        assertEquals("A\nPlatit\nB", template.render(Map.<String, Object>of("paid", true)::get));
+        assertEquals("A\nNeplatit\nB", template.render(Map.<String, Object>of("paid", false)::get));
+        assertEquals("A\nNeplatit\nB", template.render(name -> null));
+    }
+
+    @Test
+    void render_ShouldKeepInlineSectionTagsAndSkipEmptyValues() {
+        // Arrange
+        EmailTemplate template = EmailTemplate.compile("Tel: {{#phone}}{{phone}}{{/phone}}{{^phone}}-{{/phone}}\n");
+
+        // Act & Assert
+        assertEquals("Tel: 0740\n", template.render(Map.<String, Object>of("phone", "0740")::get));
+        assertEquals("Tel: -\n", template.render(Map.<String, Object>of("phone", "")::get));
+    }
+
+    @Test
+    void render_ShouldReuseBufferWithoutLeakingPreviousOutput() {
+        // Arrange
+        EmailTemplate template = EmailTemplate.compile("{{value}}");
+
+        // Act & Assert
+        assertEquals("lung".repeat(100), template.render(Map.<String, Object>of("value", "lung".repeat(100))::get));
+        assertEquals("scurt", template.render(Map.<String, Object>of("value", "scurt")::get));
+    }
+
+    @Test
+    void compile_ShouldRejectUnbalancedSections() {
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{#rows}}fara inchidere"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{#rows}}x{{/cols}}"));
+        assertThrows(IllegalArgumentException.class, () -> EmailTemplate.compile("{{name"));
+    }
+
+    @Test
+    void load_ShouldCompileBundledReservationTemplates() {
+        assertNotNull(EmailTemplate.load("templates/email/reservation-confirmation.txt"));
+        assertNotNull(EmailTemplate.load("templates/email/reservation-cancellation.txt"));
+        assertThrows(IllegalStateException.class, () -> EmailTemplate.load("templates/email/missing.txt"));
+    }
+}
@@ -0,0 +1,72 @@
+package licenta.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExpiringValueTest {
+
+    @Test
+    void get_WithinTtl_ShouldReuseLoadedValue() {
+        // Arrange
+        AtomicLong now = new AtomicLong(1_000);
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringValue<Integer> value = new ExpiringValue<>(500, now::get);
+
+        // Act
+        int first = value.get(loads::incrementAndGet);
+        now.addAndGet(499);
+        int second = value.get(loads::incrementAndGet);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_AfterTtl_ShouldReload() {
+        // Arrange
+        AtomicLong now = new AtomicLong(1_000);
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringValue<Integer> value = new ExpiringValue<>(500, now::get);
+        value.get(loads::incrementAndGet);
+
+        // Act
+        now.addAndGet(500);
+        int reloaded = value.get(loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, reloaded);
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringValue<Integer> value = new ExpiringValue<>(60_000, () -> 0L);
+        value.get(loads::incrementAndGet);
+
+        // Act
+        value.invalidate();
+        int reloaded = value.get(loads::incrementAndGet);
+
+        // Assert
+        assertEquals(2, reloaded);
+    }
+
+    @Test
+    void get_WhenLoaderFails_ShouldNotCacheFailure() {
+        // Arrange
+        ExpiringValue<String> value = new ExpiringValue<>(60_000, () -> 0L);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> value.get(() -> {
+            throw new IllegalStateException("db down");
+        }));
+        assertEquals("ok", value.get(() -> "ok"));
+    }
+}
@@ -0,0 +1,111 @@
+package licenta.service;
+
+import licenta.model.AppSetting;
+import licenta.model.User;
+import licenta.persistence.IAppSettingRepository;
+import licenta.persistence.IUserSpringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FcfsSettingsServiceTest {
+
+    @Mock
+    private IAppSettingRepository appSettingRepository;
+
+    @Mock
+    private IUserSpringRepository userSpringRepository;
+
+    private FcfsSettingsService fcfsSettingsService;
+
+    @BeforeEach
+    void setUp() {
+        fcfsSettingsService = new FcfsSettingsService(appSettingRepository, userSpringRepository);
+    }
+
+    @Test
+    void isFcfsEnabled_ShouldReadSettingOnceAndServeFromCache() {
+        // Arrange
+        when(appSettingRepository.findById(FcfsSettingsService.FCFS_ENABLED_KEY))
+                .thenReturn(Optional.of(new AppSetting(FcfsSettingsService.FCFS_ENABLED_KEY, "false")));
+
+        // Act
+        boolean first = fcfsSettingsService.isFcfsEnabled();
+        boolean second = fcfsSettingsService.isFcfsEnabled();
+
+        // Assert
+        assertFalse(first);
+        assertFalse(second);
+        verify(appSettingRepository, times(1)).findById(FcfsSettingsService.FCFS_ENABLED_KEY);
+        verifyNoInteractions(userSpringRepository);
+    }
+
+    @Test
+    void isFcfsEnabled_WithoutSettingRow_ShouldSeedFromFirstNormalUser() {
+        // Arrange
+        User normalUser = new User();
+        normalUser.setUserType("user");
+        normalUser.setFcfsEnabled(false);
+        when(appSettingRepository.findById(FcfsSettingsService.FCFS_ENABLED_KEY)).thenReturn(Optional.empty());
+        when(userSpringRepository.findFirstByUserTypeOrderByIdAsc("user")).thenReturn(Optional.of(normalUser));
+
+        // Act
+        boolean enabled = fcfsSettingsService.isFcfsEnabled();
+
+        // Assert
+        assertFalse(enabled);
+        ArgumentCaptor<AppSetting> captor = ArgumentCaptor.forClass(AppSetting.class);
+        verify(appSettingRepository).save(captor.capture());
+        assertEquals(FcfsSettingsService.FCFS_ENABLED_KEY, captor.getValue().getKey());
+        assertEquals("false", captor.getValue().getValue());
+    }
+
+    @Test
+    void isFcfsEnabled_WithoutSettingRowAndUsers_ShouldDefaultToEnabled() {
+        // Arrange
+        when(appSettingRepository.findById(FcfsSettingsService.FCFS_ENABLED_KEY)).thenReturn(Optional.empty());
+        when(userSpringRepository.findFirstByUserTypeOrderByIdAsc("user")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(fcfsSettingsService.isFcfsEnabled());
+    }
+
+    @Test
+    void setFcfsEnabled_ShouldPersistAndUpdateCacheWithoutReload() {
+        // Act
+        fcfsSettingsService.setFcfsEnabled(false);
+        boolean enabled = fcfsSettingsService.isFcfsEnabled();
+
+        // Assert
+        assertFalse(enabled);
+        verify(appSettingRepository).save(any(AppSetting.class));
+        verify(appSettingRepository, never()).findById(any());
+    }
+
+    @Test
+    void invalidate_ShouldReloadSettingOnNextRead() {
+        // Arrange
+        when(appSettingRepository.findById(FcfsSettingsService.FCFS_ENABLED_KEY))
+                .thenReturn(Optional.of(new AppSetting(FcfsSettingsService.FCFS_ENABLED_KEY, "true")))
+                .thenReturn(Optional.of(new AppSetting(FcfsSettingsService.FCFS_ENABLED_KEY, "false")));
+
+        // Act
+        boolean before = fcfsSettingsService.isFcfsEnabled();
+        fcfsSettingsService.invalidate();
+        boolean after = fcfsSettingsService.isFcfsEnabled();
+
+        // Assert
+        assertTrue(before);
+        assertFalse(after);
+    }
+}
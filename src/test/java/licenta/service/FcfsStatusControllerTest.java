@@ -22,6 +22,9 @@ public class FcfsStatusControllerTest {
     @Mock
     private IUserSpringRepository userSpringRepository;
 
+    @Mock
+    private FcfsSettingsService fcfsSettingsService;
+
     @Mock
     private Authentication authentication;
 
@@ -31,11 +34,10 @@ public class FcfsStatusControllerTest {
     private User normalUserFcfsDisabled;
     private User adminUser;
     private User hallAdminUser;
-    private List<User> testUsers;
 
     @BeforeEach
     void setUp() {
-        fcfsStatusController = new FcfsStatusController(userSpringRepository);
+        fcfsStatusController = new FcfsStatusController(userSpringRepository, fcfsSettingsService);
 
         // Configurăm utilizatorii de test
         normalUserFcfsEnabled = new User();
@@ -61,14 +63,12 @@ public class FcfsStatusControllerTest {
         hallAdminUser.setEmail("halladmin@example.com");
         hallAdminUser.setUserType("hall_admin");
         hallAdminUser.setFcfsEnabled(true);
-
-        testUsers = Arrays.asList(normalUserFcfsEnabled, normalUserFcfsDisabled, adminUser, hallAdminUser);
     }
 
     @Test
     void getFcfsStatus_WithNormalUserFcfsEnabled_ShouldReturnTrue() {
         // Arrange
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.getFcfsStatus();
@@ -84,8 +84,7 @@ public class FcfsStatusControllerTest {
     @Test
     void getFcfsStatus_WithAllNormalUsersFcfsDisabled_ShouldReturnFalse() {
         // Arrange
-        normalUserFcfsEnabled.setFcfsEnabled(false);
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(false);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.getFcfsStatus();
@@ -101,8 +100,8 @@ public class FcfsStatusControllerTest {
     @Test
     void getFcfsStatus_WithNoNormalUsers_ShouldReturnDefaultTrue() {
         // Arrange
-        List<User> usersWithoutNormal = Arrays.asList(adminUser, hallAdminUser);
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) usersWithoutNormal);
+        // Serviciul de setari intoarce valoarea implicita cand nu exista utilizatori normali
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.getFcfsStatus();
@@ -118,7 +117,7 @@ public class FcfsStatusControllerTest {
     @Test
     void getFcfsStatus_WithException_ShouldReturnDefaultTrue() {
         // Arrange
-        when(userSpringRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(fcfsSettingsService.isFcfsEnabled()).thenThrow(new RuntimeException("Database error"));
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.getFcfsStatus();
@@ -188,7 +187,7 @@ public class FcfsStatusControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(adminUser.getEmail());
         when(userSpringRepository.findByEmail(adminUser.getEmail())).thenReturn(Optional.of(adminUser));
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.checkFcfsAccess(authentication);
@@ -209,7 +208,7 @@ public class FcfsStatusControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(normalUserFcfsEnabled.getEmail());
         when(userSpringRepository.findByEmail(normalUserFcfsEnabled.getEmail())).thenReturn(Optional.of(normalUserFcfsEnabled));
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.checkFcfsAccess(authentication);
@@ -230,7 +229,7 @@ public class FcfsStatusControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(normalUserFcfsDisabled.getEmail());
         when(userSpringRepository.findByEmail(normalUserFcfsDisabled.getEmail())).thenReturn(Optional.of(normalUserFcfsDisabled));
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.checkFcfsAccess(authentication);
@@ -251,7 +250,7 @@ public class FcfsStatusControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(hallAdminUser.getEmail());
         when(userSpringRepository.findByEmail(hallAdminUser.getEmail())).thenReturn(Optional.of(hallAdminUser));
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.checkFcfsAccess(authentication);
@@ -335,7 +334,7 @@ public class FcfsStatusControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(normalUserFcfsEnabled.getEmail());
         when(userSpringRepository.findByEmail(normalUserFcfsEnabled.getEmail())).thenReturn(Optional.of(normalUserFcfsEnabled));
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.getUserFcfsStatus(authentication);
@@ -358,7 +357,7 @@ public class FcfsStatusControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(adminUser.getEmail());
         when(userSpringRepository.findByEmail(adminUser.getEmail())).thenReturn(Optional.of(adminUser));
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.getUserFcfsStatus(authentication);
@@ -381,7 +380,7 @@ public class FcfsStatusControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authentication.getName()).thenReturn(normalUserFcfsDisabled.getEmail());
         when(userSpringRepository.findByEmail(normalUserFcfsDisabled.getEmail())).thenReturn(Optional.of(normalUserFcfsDisabled));
-        when(userSpringRepository.findAll()).thenReturn((Iterable<User>) testUsers);
+        when(fcfsSettingsService.isFcfsEnabled()).thenReturn(true);
 
         // Act
         ResponseEntity<Map<String, Object>> response = fcfsStatusController.getUserFcfsStatus(authentication);
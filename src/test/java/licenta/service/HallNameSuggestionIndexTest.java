@@ -0,0 +1,139 @@
+package licenta.service;
+
+import licenta.model.dtos.HallNameEntry;
+import licenta.persistence.ISportsHallSpringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HallNameSuggestionIndexTest {
+
+    @Mock
+    private ISportsHallSpringRepository sportsHallSpringRepository;
+
+    private HallNameSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new HallNameSuggestionIndex(sportsHallSpringRepository);
+    }
+
+    @Test
+    void suggest_ShouldIgnoreDiacriticsAndCase() {
+        // Arrange
+        when(sportsHallSpringRepository.findActiveHallNames()).thenReturn(List.of(
+                entry(1L, "Sala Ștefan cel Mare"),
+                entry(2L, "Bazinul Olimpic Târgu Mureș"),
+                entry(3L, "Sala Sporturilor")));
+
+        // Act & Assert
+        assertEquals(List.of("Sala Ștefan cel Mare"), index.suggest("stef"));
+        assertEquals(List.of("Bazinul Olimpic Târgu Mureș"), index.suggest("TARGU mures"));
+        // ş cu sedila este tratat la fel ca ș cu virgula
+        assertEquals(List.of("Sala Ștefan cel Mare"), index.suggest("şte"));
+        assertTrue(index.suggest("hochei").isEmpty());
+    }
+
+    @Test
+    void suggest_ShouldRankPrefixThenWordStartThenInfixMatches() {
+        // Arrange
+        when(sportsHallSpringRepository.findActiveHallNames()).thenReturn(List.of(
+                entry(1L, "Complex Sala Mare"),
+                entry(2L, "Sala Polivalenta"),
+                entry(3L, "Casalar Arena"),
+                entry(4L, "Sala Horia Demian")));
+
+        // Act
+        List<String> suggestions = index.suggest("sala");
+
+        // Assert
+        assertEquals(List.of("Sala Horia Demian", "Sala Polivalenta", "Complex Sala Mare", "Casalar Arena"), suggestions);
+    }
+
+    @Test
+    void suggest_ShouldReturnAtMostLimitDistinctNames() {
+        // Arrange
+        List<HallNameEntry> halls = new ArrayList<>();
+        for (long id = 1; id <= 15; id++) {
+            halls.add(entry(id, "Sala " + (char) ('A' + id)));
+        }
+        halls.add(entry(16L, "Sala B"));
+        when(sportsHallSpringRepository.findActiveHallNames()).thenReturn(halls);
+
+        // Act
+        List<String> suggestions = index.suggest("sa");
+
+        // Assert
+        assertEquals(HallNameSuggestionIndex.DEFAULT_LIMIT, suggestions.size());
+        assertEquals(suggestions.size(), suggestions.stream().distinct().count());
+    }
+
+    @Test
+    void put_ShouldUpdateIndexIncrementallyWithoutReloading() {
+        // Arrange
+        when(sportsHallSpringRepository.findActiveHallNames()).thenReturn(List.of(entry(1L, "Sala Transilvania")));
+        index.rebuild();
+
+        // Act
+        index.put(2L, "Arena Brașov", true);
+        index.put(1L, "Sala Unirii", true);
+
+        // Assert
+        assertEquals(List.of("Arena Brașov"), index.suggest("brasov"));
+        assertEquals(List.of("Sala Unirii"), index.suggest("sala"));
+        assertTrue(index.suggest("transilvania").isEmpty());
+        verify(sportsHallSpringRepository, times(1)).findActiveHallNames();
+    }
+
+    @Test
+    void put_WithInactiveHall_ShouldRemoveItFromSuggestions() {
+        // Arrange
+        when(sportsHallSpringRepository.findActiveHallNames()).thenReturn(List.of(
+                entry(1L, "Sala Transilvania"), entry(2L, "Sala Unirii")));
+        index.rebuild();
+
+        // Act
+        index.put(1L, "Sala Transilvania", false);
+        index.remove(2L);
+
+        // Assert
+        assertTrue(index.suggest("sala").isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void suggest_WithTooShortQuery_ShouldNotLoadIndex() {
+        assertTrue(index.suggest("s").isEmpty());
+        assertTrue(index.suggest(null).isEmpty());
+        verifyNoInteractions(sportsHallSpringRepository);
+    }
+
+    @Test
+    void fold_ShouldStripRomanianDiacriticsAndNormalizeSpaces() {
+        assertEquals("strand tineretului", HallNameSuggestionIndex.fold("  Ştrand   Ţineretului "));
+        assertEquals("aaist", HallNameSuggestionIndex.fold("ĂÂÎȘȚ"));
+    }
+
+    private static HallNameEntry entry(Long id, String name) {
+        return new HallNameEntry() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
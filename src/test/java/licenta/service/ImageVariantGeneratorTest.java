@@ -0,0 +1,98 @@
+package licenta.service;
+
+import licenta.model.ImageVariant;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageVariantGeneratorTest {
+
+    private final ImageVariantGenerator generator = new ImageVariantGenerator();
+
+    @Test
+    void generate_WithLargePhoto_ShouldProduceAllVariantsWithinBounds() throws IOException {
+        // Arrange
+        byte[] original = png(4000, 3000, BufferedImage.TYPE_INT_RGB);
+
+        // Act
+        Map<ImageVariant, byte[]> variants = generator.generate(new ByteArrayInputStream(original));
+
+        // Assert
+        assertEquals(3, variants.size());
+        assertDimensions(variants.get(ImageVariant.THUMBNAIL), 320, 240);
+        assertDimensions(variants.get(ImageVariant.MEDIUM), 960, 720);
+        assertDimensions(variants.get(ImageVariant.FULL), 1920, 1440);
+        assertTrue(variants.get(ImageVariant.THUMBNAIL).length < variants.get(ImageVariant.FULL).length);
+    }
+
+    @Test
+    void generate_WithSmallImage_ShouldSkipVariantsLargerThanOriginal() throws IOException {
+        // Arrange
+        byte[] original = png(800, 600, BufferedImage.TYPE_INT_ARGB);
+
+        // Act
+        Map<ImageVariant, byte[]> variants = generator.generate(new ByteArrayInputStream(original));
+
+        // Assert
+        assertEquals(1, variants.size());
+        assertDimensions(variants.get(ImageVariant.THUMBNAIL), 320, 240);
+    }
+
+    @Test
+    void generate_WithNonImageContent_ShouldReturnNull() throws IOException {
+        assertNull(generator.generate(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    @Test
+    void generate_WithDimensionsAboveLimit_ShouldReturnNullWithoutDecoding() throws IOException {
+        // Arrange - antetul PNG anunta 10000x10000 pixeli, dar fisierul are doar cativa octeti de date
+        byte[] original = withDeclaredSize(png(1, 1, BufferedImage.TYPE_INT_RGB), 10_000, 10_000);
+
+        // Act
+        Map<ImageVariant, byte[]> variants = generator.generate(new ByteArrayInputStream(original));
+
+        // Assert
+        assertTrue(10_000L * 10_000L > ImageVariantGenerator.MAX_PIXELS);
+        assertNull(variants);
+    }
+
+    private static void assertDimensions(byte[] jpeg, int width, int height) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(jpeg));
+        assertNotNull(image);
+        assertEquals(width, image.getWidth());
+        assertEquals(height, image.getHeight());
+    }
+
+    private static byte[] png(int width, int height, int type) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.ORANGE);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    // Rescrie latimea si inaltimea din blocul IHDR (octetii 16-23) si recalculeaza CRC-ul blocului
+    private static byte[] withDeclaredSize(byte[] png, int width, int height) {
+        ByteBuffer buffer = ByteBuffer.wrap(png);
+        buffer.putInt(16, width);
+        buffer.putInt(20, height);
+        CRC32 crc = new CRC32();
+        crc.update(png, 12, 17);
+        buffer.putInt(29, (int) crc.getValue());
+        return png;
+    }
+}
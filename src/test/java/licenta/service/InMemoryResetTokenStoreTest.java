@@ -0,0 +1,164 @@
+package licenta.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryResetTokenStoreTest {
+
+    private static final long TICK = 1_000;
+    private static final long TTL = 3_600_000;
+
+    private final AtomicLong now = new AtomicLong(10_000_000);
+    private InMemoryResetTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryResetTokenStore(3, TICK, now::get, false);
+    }
+
+    @Test
+    void put_ThenGet_ShouldReturnEntry() {
+        // Act
+        assertTrue(store.put("token", entry("user@example.com")));
+
+        // Assert
+        assertEquals("user@example.com", store.get("token").orElseThrow().getEmail());
+        assertTrue(store.get("missing").isEmpty());
+    }
+
+    @Test
+    void put_SameEmail_ShouldReplacePreviousToken() {
+        // Arrange
+        store.put("first", entry("user@example.com"));
+
+        // Act
+        store.put("second", entry("user@example.com"));
+
+        // Assert
+        assertTrue(store.get("first").isEmpty());
+        assertTrue(store.get("second").isPresent());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void put_WhenFull_ShouldRejectNewEmailsButAllowReplacement() {
+        // Arrange
+        store.put("a", entry("a@example.com"));
+        store.put("b", entry("b@example.com"));
+        store.put("c", entry("c@example.com"));
+
+        // Act & Assert
+        assertFalse(store.put("d", entry("d@example.com")));
+        assertTrue(store.put("a2", entry("a@example.com")));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void remove_ShouldSucceedOnlyOnce() {
+        // Arrange
+        store.put("token", entry("user@example.com"));
+
+        // Act & Assert
+        assertTrue(store.remove("token"));
+        assertFalse(store.remove("token"));
+        assertTrue(store.get("token").isEmpty());
+    }
+
+    @Test
+    void remove_ExpiredToken_ShouldFail() {
+        // Arrange
+        store.put("token", entry("user@example.com"));
+        now.addAndGet(TTL);
+
+        // Act & Assert
+        assertTrue(store.get("token").orElseThrow().isExpired(now.get()));
+        assertFalse(store.remove("token"));
+    }
+
+    @Test
+    void expireDue_ShouldDropExpiredTokensAndFreeCapacity() {
+        // Arrange
+        store.put("a", entry("a@example.com"));
+        store.put("b", entry("b@example.com"));
+        now.addAndGet(TTL / 2);
+        store.put("c", new ResetTokenStore.Entry("c@example.com", now.get() + TTL));
+
+        // Act - trec doar a si b de expirare (plus un tick)
+        now.addAndGet(TTL / 2 + TICK);
+        store.expireDue();
+
+        // Assert
+        assertTrue(store.get("a").isEmpty());
+        assertTrue(store.get("b").isEmpty());
+        assertTrue(store.get("c").isPresent());
+        assertTrue(store.put("d", entry("d@example.com")));
+    }
+
+    @Test
+    void expireDue_TokenLongerThanOneRevolution_ShouldWaitForItsTurn() {
+        // Arrange - expira dupa mai mult de o rotatie a rotii
+        long ttl = TICK * InMemoryResetTokenStore.WHEEL_SIZE * 2;
+        store.put("token", new ResetTokenStore.Entry("user@example.com", now.get() + ttl));
+
+        // Act - trece peste galeata tokenului o data, inainte de expirare
+        for (int i = 0; i < InMemoryResetTokenStore.WHEEL_SIZE + 1; i++) {
+            now.addAndGet(TICK);
+            store.expireDue();
+        }
+        boolean presentBeforeExpiry = store.get("token").isPresent();
+        now.addAndGet(ttl);
+        store.expireDue();
+
+        // Assert
+        assertTrue(presentBeforeExpiry);
+        assertTrue(store.get("token").isEmpty());
+    }
+
+    @Test
+    void remove_ConcurrentCallers_ShouldConsumeTokenOnce() throws Exception {
+        // Arrange
+        store.put("token", entry("user@example.com"));
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return store.remove("token");
+                }));
+            }
+            start.countDown();
+
+            int successes = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(5, TimeUnit.SECONDS)) {
+                    successes++;
+                }
+            }
+
+            // Assert
+            assertEquals(1, successes);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ResetTokenStore.Entry entry(String email) {
+        return new ResetTokenStore.Entry(email, now.get() + TTL);
+    }
+}
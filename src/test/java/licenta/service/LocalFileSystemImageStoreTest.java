@@ -0,0 +1,91 @@
+package licenta.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalFileSystemImageStoreTest {
+
+    @TempDir
+    Path root;
+
+    private LocalFileSystemImageStore imageStore;
+
+    @BeforeEach
+    void setUp() {
+        imageStore = new LocalFileSystemImageStore(root.toString());
+    }
+
+    @Test
+    void put_ShouldKeyContentBySha256() throws IOException {
+        // Act
+        String key = imageStore.put(stream("abc"));
+
+        // Assert
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", key);
+        assertTrue(Files.isRegularFile(root.resolve("ba").resolve("78").resolve(key)));
+    }
+
+    @Test
+    void put_WithSameContentTwice_ShouldStoreSingleFile() throws IOException {
+        // Act
+        String first = imageStore.put(stream("same image"));
+        String second = imageStore.put(stream("same image"));
+
+        // Assert
+        assertEquals(first, second);
+        try (Stream<Path> files = Files.walk(root)) {
+            assertEquals(1, files.filter(Files::isRegularFile).count());
+        }
+    }
+
+    @Test
+    void get_ShouldReturnStoredContent() throws IOException {
+        // Arrange
+        String key = imageStore.put(stream("image bytes"));
+
+        // Act
+        Optional<Resource> resource = imageStore.get(key);
+
+        // Assert
+        assertTrue(resource.isPresent());
+        assertEquals("image bytes", resource.get().getContentAsString(StandardCharsets.UTF_8));
+        assertEquals(11, resource.get().contentLength());
+    }
+
+    @Test
+    void get_WithUnknownKey_ShouldReturnEmpty() {
+        assertTrue(imageStore.get("0".repeat(64)).isEmpty());
+    }
+
+    @Test
+    void delete_ShouldRemoveContent() throws IOException {
+        // Arrange
+        String key = imageStore.put(stream("to delete"));
+
+        // Act & Assert
+        assertTrue(imageStore.delete(key));
+        assertTrue(imageStore.get(key).isEmpty());
+        assertFalse(imageStore.delete(key));
+    }
+
+    @Test
+    void get_WithMalformedKey_ShouldRejectPathTraversal() {
+        assertThrows(IllegalArgumentException.class, () -> imageStore.get("../../etc/passwd"));
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
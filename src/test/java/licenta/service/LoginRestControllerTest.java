@@ -1,6 +1,8 @@
 package licenta.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import licenta.jwtservice.JwtService;
+import licenta.jwtservice.RefreshTokenService;
 import licenta.jwtservice.UserInfoService;
 import licenta.model.User;
 import licenta.model.dtos.UserCredentials;
@@ -13,6 +15,7 @@ import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -39,6 +42,9 @@ public class LoginRestControllerTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     @Mock
     private AuthenticationManager authenticationManager;
 
@@ -49,6 +55,8 @@ public class LoginRestControllerTest {
     private Authentication authentication;
 
     private LoginRestController loginRestController;
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private SimpleMeterRegistry meterRegistry;
 
     private UserCredentials validCredentials;
     private UserCredentials invalidCredentials;
@@ -71,6 +79,10 @@ public class LoginRestControllerTest {
             jwtServiceField.setAccessible(true);
             jwtServiceField.set(loginRestController, jwtService);
 
+            java.lang.reflect.Field refreshTokenServiceField = LoginRestController.class.getDeclaredField("refreshTokenService");
+            refreshTokenServiceField.setAccessible(true);
+            refreshTokenServiceField.set(loginRestController, refreshTokenService);
+
             java.lang.reflect.Field userInfoServiceField = LoginRestController.class.getDeclaredField("service");
             userInfoServiceField.setAccessible(true);
             userInfoServiceField.set(loginRestController, userInfoService);
@@ -78,6 +90,9 @@ public class LoginRestControllerTest {
             java.lang.reflect.Field passwordEncoderField = LoginRestController.class.getDeclaredField("passwordEncoder");
             passwordEncoderField.setAccessible(true);
             passwordEncoderField.set(loginRestController, passwordEncoder);
+
+            meterRegistry = new SimpleMeterRegistry();
+            setAuthRateLimiter(authRateLimiter(20, 4));
         } catch (Exception e) {
             throw new RuntimeException("Failed to set mock fields via reflection", e);
         }
@@ -121,13 +136,15 @@ public class LoginRestControllerTest {
         // Arrange
         when(userSpringRepository.findByEmail(validCredentials.getEmail())).thenReturn(Optional.of(activeUser));
         when(passwordEncoder.matches(validCredentials.getPassword(), activeUser.getPassword())).thenReturn(true);
+        when(jwtService.generateAccessToken(activeUser)).thenReturn("access-token");
+        when(refreshTokenService.issue(activeUser)).thenReturn("refresh-token");
 
         try (MockedStatic<UserCredentials> mockedStatic = mockStatic(UserCredentials.class)) {
             UserCredentials mockInstance = mock(UserCredentials.class);
             mockedStatic.when(UserCredentials::getInstance).thenReturn(mockInstance);
 
             // Act
-            ResponseEntity<?> response = loginRestController.login(validCredentials);
+            ResponseEntity<?> response = loginRestController.login(validCredentials, request);
 
             // Assert
             assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -139,8 +156,12 @@ public class LoginRestControllerTest {
             assertEquals(activeUser.getUserType(), responseBody.get("userType"));
             assertEquals(activeUser.getAccountStatus(), responseBody.get("accountStatus"));
             assertEquals(activeUser.getTeamType(), responseBody.get("teamType"));
+            assertEquals("access-token", responseBody.get("accessToken"));
+            assertEquals("refresh-token", responseBody.get("refreshToken"));
+            assertEquals("Bearer", responseBody.get("tokenType"));
 
             verify(mockInstance).setLoggedInUser(activeUser);
+            verify(authenticationManager, never()).authenticate(any());
         }
     }
 
@@ -150,7 +171,7 @@ public class LoginRestControllerTest {
         when(userSpringRepository.findByEmail(invalidCredentials.getEmail())).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<?> response = loginRestController.login(invalidCredentials);
+        ResponseEntity<?> response = loginRestController.login(invalidCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -166,7 +187,7 @@ public class LoginRestControllerTest {
         when(passwordEncoder.matches(validCredentials.getPassword(), activeUser.getPassword())).thenReturn(false);
 
         // Act
-        ResponseEntity<?> response = loginRestController.login(validCredentials);
+        ResponseEntity<?> response = loginRestController.login(validCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -186,7 +207,7 @@ public class LoginRestControllerTest {
         when(passwordEncoder.matches(pendingCredentials.getPassword(), pendingUser.getPassword())).thenReturn(true);
 
         // Act
-        ResponseEntity<?> response = loginRestController.login(pendingCredentials);
+        ResponseEntity<?> response = loginRestController.login(pendingCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -206,7 +227,7 @@ public class LoginRestControllerTest {
         when(passwordEncoder.matches(rejectedCredentials.getPassword(), rejectedUser.getPassword())).thenReturn(true);
 
         // Act
-        ResponseEntity<?> response = loginRestController.login(rejectedCredentials);
+        ResponseEntity<?> response = loginRestController.login(rejectedCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -221,7 +242,7 @@ public class LoginRestControllerTest {
         when(userSpringRepository.findByEmail(validCredentials.getEmail())).thenThrow(new RuntimeException("Database error"));
 
         // Act
-        ResponseEntity<?> response = loginRestController.login(validCredentials);
+        ResponseEntity<?> response = loginRestController.login(validCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -231,7 +252,7 @@ public class LoginRestControllerTest {
     }
 
     @Test
-    void authenticateAndGenerateToken_WithValidCredentials_ShouldReturnToken() {
+    void authenticateAndGenerateToken_WithValidCredentials_ShouldReturnAccessAndRefreshTokens() {
         // Arrange
         String expectedToken = "valid.jwt.token";
 
@@ -239,16 +260,70 @@ public class LoginRestControllerTest {
                 .thenReturn(authentication);
         when(authentication.isAuthenticated()).thenReturn(true);
         when(userSpringRepository.findByEmail(validCredentials.getEmail())).thenReturn(Optional.of(activeUser));
-        when(jwtService.generateToken(validCredentials.getEmail())).thenReturn(expectedToken);
+        when(jwtService.generateAccessToken(activeUser)).thenReturn(expectedToken);
+        when(jwtService.getAccessTokenTtlMillis()).thenReturn(900_000L);
+        when(refreshTokenService.issue(activeUser)).thenReturn("refresh-token");
 
         // Act
-        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(validCredentials);
+        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(validCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(expectedToken, response.getBody());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals(expectedToken, responseBody.get("accessToken"));
+        assertEquals("refresh-token", responseBody.get("refreshToken"));
+        assertEquals(900L, responseBody.get("expiresIn"));
         verify(authenticationManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(jwtService).generateToken(validCredentials.getEmail());
+        verify(jwtService).generateAccessToken(activeUser);
+    }
+
+    @Test
+    void refreshToken_WithValidToken_ShouldReturnRotatedTokens() {
+        // Arrange
+        when(refreshTokenService.rotate("old-refresh"))
+                .thenReturn(RefreshTokenService.Rotation.rotated(activeUser, "new-refresh"));
+        when(jwtService.generateAccessToken(activeUser)).thenReturn("new.jwt.token");
+        when(jwtService.getAccessTokenTtlMillis()).thenReturn(900_000L);
+
+        // Act
+        ResponseEntity<?> response = loginRestController.refreshToken(Map.of("refreshToken", "old-refresh"));
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        @SuppressWarnings("unchecked")
+        Map<String, Object> responseBody = (Map<String, Object>) response.getBody();
+        assertEquals("new.jwt.token", responseBody.get("accessToken"));
+        assertEquals("new-refresh", responseBody.get("refreshToken"));
+        verifyNoInteractions(authenticationManager, passwordEncoder);
+    }
+
+    @Test
+    void refreshToken_WhenAlreadyRotated_ShouldReturnConflict() {
+        // Arrange
+        when(refreshTokenService.rotate("old-refresh"))
+                .thenReturn(RefreshTokenService.Rotation.of(RefreshTokenService.Outcome.ALREADY_ROTATED));
+
+        // Act
+        ResponseEntity<?> response = loginRestController.refreshToken(Map.of("refreshToken", "old-refresh"));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        verify(jwtService, never()).generateAccessToken(any());
+    }
+
+    @Test
+    void refreshToken_WithInvalidToken_ShouldReturnUnauthorized() {
+        // Arrange
+        when(refreshTokenService.rotate("unknown"))
+                .thenReturn(RefreshTokenService.Rotation.of(RefreshTokenService.Outcome.INVALID));
+
+        // Act
+        ResponseEntity<?> response = loginRestController.refreshToken(Map.of("refreshToken", "unknown"));
+
+        // Assert
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(jwtService, never()).generateAccessToken(any());
     }
 
     @Test
@@ -258,7 +333,7 @@ public class LoginRestControllerTest {
                 .thenThrow(new BadCredentialsException("Invalid credentials"));
 
         // Act
-        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(invalidCredentials);
+        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(invalidCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -278,7 +353,7 @@ public class LoginRestControllerTest {
         when(userSpringRepository.findByEmail(pendingCredentials.getEmail())).thenReturn(Optional.of(pendingUser));
 
         // Act
-        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(pendingCredentials);
+        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(pendingCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -298,7 +373,7 @@ public class LoginRestControllerTest {
         when(userSpringRepository.findByEmail(rejectedCredentials.getEmail())).thenReturn(Optional.of(rejectedUser));
 
         // Act
-        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(rejectedCredentials);
+        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(rejectedCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
@@ -313,7 +388,7 @@ public class LoginRestControllerTest {
         when(authentication.isAuthenticated()).thenReturn(false);
 
         // Act
-        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(validCredentials);
+        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(validCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
@@ -327,10 +402,60 @@ public class LoginRestControllerTest {
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         // Act
-        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(validCredentials);
+        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(validCredentials, request);
 
         // Assert
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody().toString().contains("Eroare în timpul generării token-ului"));
     }
+
+    @Test
+    void login_OverIpLimit_ShouldReturnTooManyRequestsWithoutLookup() {
+        // Arrange
+        setAuthRateLimiter(authRateLimiter(1, 4));
+        when(userSpringRepository.findByEmail(anyString())).thenReturn(Optional.empty());
+        loginRestController.login(invalidCredentials, request);
+
+        // Act
+        ResponseEntity<?> response = loginRestController.login(validCredentials, request);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst("Retry-After"));
+        verify(userSpringRepository, times(1)).findByEmail(anyString());
+        assertEquals(1.0, meterRegistry.counter("auth.rate_limit.rejected", "endpoint", "login", "reason", "ip").count());
+    }
+
+    @Test
+    void authenticateAndGenerateToken_WhenPasswordChecksAreSaturated_ShouldReturnTooManyRequests() {
+        // Arrange - niciun loc liber pentru verificari BCrypt
+        setAuthRateLimiter(authRateLimiter(20, 0));
+
+        // Act
+        ResponseEntity<?> response = loginRestController.authenticateAndGenerateToken(validCredentials, request);
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        verify(authenticationManager, never()).authenticate(any());
+        assertEquals(1.0, meterRegistry.counter("auth.rate_limit.rejected", "endpoint", "login", "reason", "concurrency").count());
+    }
+
+    private AuthRateLimiter authRateLimiter(int ipCapacity, int passwordChecks) {
+        return new AuthRateLimiter(
+                new TokenBucketLimiter(ipCapacity, 1, 4, 100),
+                new TokenBucketLimiter(20, 1, 4, 100),
+                new TokenBucketLimiter(20, 1, 4, 100),
+                new TokenBucketLimiter(20, 1, 4, 100),
+                passwordChecks, 0, meterRegistry);
+    }
+
+    private void setAuthRateLimiter(AuthRateLimiter authRateLimiter) {
+        try {
+            java.lang.reflect.Field authRateLimiterField = LoginRestController.class.getDeclaredField("authRateLimiter");
+            authRateLimiterField.setAccessible(true);
+            authRateLimiterField.set(loginRestController, authRateLimiter);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to set rate limiter via reflection", e);
+        }
+    }
 }
\ No newline at end of file
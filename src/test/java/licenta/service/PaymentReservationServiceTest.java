@@ -0,0 +1,167 @@
+package licenta.service;
+
+import com.stripe.Stripe;
+import licenta.model.*;
+import licenta.persistence.IPaymentSpringRepository;
+import licenta.persistence.IReservationSpringRepository;
+import licenta.persistence.ISportsHallSpringRepository;
+import licenta.persistence.IUserSpringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PaymentReservationServiceTest {
+
+    @Mock
+    private IPaymentSpringRepository paymentRepository;
+
+    @Mock
+    private IReservationSpringRepository reservationRepository;
+
+    @Mock
+    private IUserSpringRepository userRepository;
+
+    @Mock
+    private ISportsHallSpringRepository sportsHallRepository;
+
+    @Mock
+    private EmailOutbox emailOutbox;
+
+    @InjectMocks
+    private PaymentReservationService paymentReservationService;
+
+    private User user;
+    private SportsHall hall;
+    private Payment payment;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(7L);
+        user.setName("Ion Popescu");
+        user.setEmail("ion@test.com");
+
+        hall = new SportsHall();
+        hall.setId(3L);
+        hall.setName("Sala Sporturilor");
+        hall.setTariff(120f);
+
+        payment = new Payment();
+        payment.setId(11L);
+        payment.setUserId(7L);
+        payment.setTotalAmount(BigDecimal.valueOf(240));
+        payment.setPaymentMethod(PaymentMethod.CASH);
+        payment.setStatus(PaymentStatus.SUCCEEDED);
+        payment.setCurrency("RON");
+    }
+
+    @Test
+    void createReservationsAndQueueConfirmation_ShouldLinkReservationsAndQueueEmail() {
+        // Arrange
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(sportsHallRepository.findAllById(anySet())).thenReturn(List.of(hall));
+        when(reservationRepository.saveAll(anyList())).thenAnswer(inv -> withIds(inv.getArgument(0)));
+
+        // Act
+        List<Long> ids = paymentReservationService.createReservationsAndQueueConfirmation(
+                payment, List.of(reservationData("2030-03-04", "10:00 - 11:30"), reservationData("2030-03-04", "11:30 - 13:00")), 7L);
+
+        // Assert
+        assertEquals(List.of(100L, 101L), ids);
+        assertEquals(2, payment.getPaymentReservations().size());
+        verify(paymentRepository).saveAndFlush(payment);
+        verify(emailOutbox).enqueue(eq("ion@test.com"), contains("2 intervale"), anyString());
+    }
+
+    @Test
+    void createReservationsAndQueueConfirmation_WhenOutboxFails_ShouldPropagateSoTransactionRollsBack() {
+        // Arrange
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(sportsHallRepository.findAllById(anySet())).thenReturn(List.of(hall));
+        when(reservationRepository.saveAll(anyList())).thenAnswer(inv -> withIds(inv.getArgument(0)));
+        when(emailOutbox.enqueue(anyString(), anyString(), anyString())).thenThrow(new IllegalStateException("outbox indisponibil"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> paymentReservationService.createReservationsAndQueueConfirmation(
+                payment, List.of(reservationData("2030-03-04", "10:00 - 11:30")), 7L));
+    }
+
+    @Test
+    void createReservationsAndQueueConfirmation_WhenHallMissing_ShouldFailBeforeSavingAnything() {
+        // Arrange
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+        when(sportsHallRepository.findAllById(anySet())).thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> paymentReservationService.createReservationsAndQueueConfirmation(
+                payment, List.of(reservationData("2030-03-04", "10:00 - 11:30")), 7L));
+        verifyNoInteractions(reservationRepository, paymentRepository, emailOutbox);
+    }
+
+    @Test
+    void refundAfterSlotConflict_WhenAlreadyRefunded_ShouldNotRefundAgain() {
+        // Arrange
+        payment.setStripePaymentIntentId("pi_123");
+        payment.setStatus(PaymentStatus.REFUNDED);
+        when(paymentRepository.findById(11L)).thenReturn(Optional.of(payment));
+
+        // Act
+        Payment result = paymentReservationService.refundAfterSlotConflict(11L);
+
+        // Assert
+        assertEquals(PaymentStatus.REFUNDED, result.getStatus());
+        verify(paymentRepository, never()).save(any(Payment.class));
+    }
+
+    @Test
+    void refundAfterSlotConflict_WhenStripeRefundFails_ShouldFlagPaymentForManualRefund() {
+        // Arrange - fara cheie API, Stripe respinge cererea inainte de orice apel de retea
+        String apiKey = Stripe.apiKey;
+        Stripe.apiKey = null;
+        payment.setStripePaymentIntentId("pi_123");
+        payment.setStatus(PaymentStatus.PROCESSING);
+        when(paymentRepository.findById(11L)).thenReturn(Optional.of(payment));
+        when(paymentRepository.save(payment)).thenReturn(payment);
+
+        try {
+            // Act
+            Payment result = paymentReservationService.refundAfterSlotConflict(11L);
+
+            // Assert
+            assertEquals(PaymentStatus.SUCCEEDED, result.getStatus());
+            assertTrue(result.getFailureReason().startsWith(PaymentReservationService.SLOT_TAKEN_REASON));
+            assertTrue(result.getFailureReason().contains("rambursare manuală"));
+        } finally {
+            Stripe.apiKey = apiKey;
+        }
+    }
+
+    private static StripePaymentController.ReservationData reservationData(String date, String timeSlot) {
+        StripePaymentController.ReservationData data = new StripePaymentController.ReservationData();
+        data.setHallId(3L);
+        data.setDate(date);
+        data.setTimeSlot(timeSlot);
+        return data;
+    }
+
+    private static List<Reservation> withIds(List<Reservation> reservations) {
+        List<Reservation> saved = new ArrayList<>(reservations);
+        for (int i = 0; i < saved.size(); i++) {
+            saved.get(i).setId(100L + i);
+        }
+        return saved;
+    }
+}
@@ -0,0 +1,246 @@
+package licenta.service;
+
+import licenta.model.Reservation;
+import licenta.model.SportsHall;
+import licenta.model.User;
+import licenta.persistence.IReservationSpringRepository;
+import licenta.persistence.ISportsHallSpringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.postgresql.util.PSQLException;
+import org.postgresql.util.ServerErrorMessage;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ReservationRestControllerTest {
+
+    @Mock
+    private IReservationSpringRepository reservationSpringRepository;
+
+    @Mock
+    private ISportsHallSpringRepository sportsHallSpringRepository;
+
+    private ReservationRestController reservationRestController;
+
+    private SportsHall testHall;
+    private User testUser;
+    private Reservation testReservation;
+    private Reservation testMaintenance;
+
+    @BeforeEach
+    void setUp() {
+        reservationRestController = new ReservationRestController(reservationSpringRepository, sportsHallSpringRepository);
+
+        testHall = new SportsHall();
+        testHall.setId(1L);
+        testHall.setName("Sala Test");
+
+        testUser = new User();
+        testUser.setId(10L);
+        testUser.setEmail("user@example.com");
+
+        testReservation = new Reservation(testHall, testUser, toDate(LocalDate.of(2025, 6, 2)),
+                "10:00 - 11:30", 100f, "reservation");
+        testReservation.setId(100L);
+
+        testMaintenance = new Reservation(testHall, null, toDate(LocalDate.of(2025, 6, 3)),
+                "08:30 - 10:00", null, "maintenance");
+        testMaintenance.setId(101L);
+    }
+
+    @Test
+    void getReservationsByUser_ShouldUseIndexedUserTypeQuery() {
+        // Arrange
+        when(reservationSpringRepository.findByUserIdAndType(10L, "reservation"))
+                .thenReturn(List.of(testReservation));
+
+        // Act
+        List<Reservation> result = reservationRestController.getReservationsByUser(10L);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(100L, result.get(0).getId());
+        verify(reservationSpringRepository, never()).findAll();
+    }
+
+    @Test
+    void getReservations_WithoutFilters_ShouldReturnAll() {
+        // Arrange
+        List<Reservation> all = Arrays.asList(testReservation, testMaintenance);
+        when(reservationSpringRepository.findAll()).thenReturn(all);
+
+        // Act
+        Iterable<Reservation> result = reservationRestController.getReservations(null, null, null);
+
+        // Assert
+        assertSame(all, result);
+    }
+
+    @Test
+    void getReservations_WithHallAndType_ShouldQueryWithoutDateWindow() {
+        // Arrange
+        when(reservationSpringRepository.findByOptionalHallAndType(1L, "maintenance"))
+                .thenReturn(List.of(testMaintenance));
+
+        // Act
+        Iterable<Reservation> result = reservationRestController.getReservations(1L, null, "maintenance");
+
+        // Assert
+        assertEquals(List.of(testMaintenance), result);
+        verify(reservationSpringRepository, never()).findAll();
+    }
+
+    @Test
+    void getReservations_WithDate_ShouldQueryWholeDayWindow() {
+        // Arrange
+        Date requestedDate = Date.from(LocalDate.of(2025, 6, 2).atTime(15, 45)
+                .atZone(ZoneId.systemDefault()).toInstant());
+        when(reservationSpringRepository.findByOptionalHallAndTypeInDateWindow(
+                eq(1L), isNull(), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(testReservation));
+
+        // Act
+        Iterable<Reservation> result = reservationRestController.getReservations(1L, requestedDate, null);
+
+        // Assert
+        assertEquals(List.of(testReservation), result);
+
+        ArgumentCaptor<Date> startCaptor = ArgumentCaptor.forClass(Date.class);
+        ArgumentCaptor<Date> endCaptor = ArgumentCaptor.forClass(Date.class);
+        verify(reservationSpringRepository).findByOptionalHallAndTypeInDateWindow(
+                eq(1L), isNull(), startCaptor.capture(), endCaptor.capture());
+        assertEquals(toDate(LocalDate.of(2025, 6, 2)), startCaptor.getValue());
+        assertEquals(toDate(LocalDate.of(2025, 6, 3)), endCaptor.getValue());
+        verify(reservationSpringRepository, never()).findAll();
+    }
+
+    @Test
+    void getMaintenanceForWeek_ShouldQueryHallTypeAndWeekRange() {
+        // Arrange
+        Date weekStart = toDate(LocalDate.of(2025, 6, 2));
+        Date weekEnd = toDate(LocalDate.of(2025, 6, 8));
+        when(reservationSpringRepository.findByHallIdAndTypeAndDateBetween(1L, "maintenance", weekStart, weekEnd))
+                .thenReturn(List.of(testMaintenance));
+
+        // Act
+        List<Reservation> result = reservationRestController.getMaintenanceForWeek(1L, weekStart);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals("maintenance", result.get(0).getType());
+        verify(reservationSpringRepository, never()).findAll();
+    }
+
+    @Test
+    void getMaintenanceForWeek_WithNoMaintenance_ShouldReturnEmptyList() {
+        // Arrange
+        Date weekStart = toDate(LocalDate.of(2025, 6, 2));
+        when(reservationSpringRepository.findByHallIdAndTypeAndDateBetween(eq(2L), eq("maintenance"), eq(weekStart), any(Date.class)))
+                .thenReturn(Collections.emptyList());
+
+        // Act
+        List<Reservation> result = reservationRestController.getMaintenanceForWeek(2L, weekStart);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void createReservation_WithFreeSlot_ShouldInsertWithoutScanningTable() {
+        // Arrange
+        when(reservationSpringRepository.save(testReservation)).thenReturn(testReservation);
+
+        // Act
+        ResponseEntity<Reservation> response = reservationRestController.createReservation(testReservation);
+
+        // Assert
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertSame(testReservation, response.getBody());
+        verify(reservationSpringRepository, never()).findAll();
+    }
+
+    @Test
+    void createReservation_WhenActiveSlotIndexRejectsInsert_ShouldReturnConflict() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                uniqueViolation(Reservation.ACTIVE_SLOT_UNIQUE_INDEX));
+        when(reservationSpringRepository.save(testReservation)).thenThrow(violation);
+
+        // Act
+        ResponseEntity<Reservation> response = reservationRestController.createReservation(testReservation);
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void createReservation_WithUniqueViolationOnAnotherConstraint_ShouldReturnBadRequest() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                uniqueViolation("reservations_pkey"));
+        when(reservationSpringRepository.save(testReservation)).thenThrow(violation);
+
+        // Act
+        ResponseEntity<Reservation> response = reservationRestController.createReservation(testReservation);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void createReservation_WithOtherIntegrityViolation_ShouldReturnBadRequest() {
+        // Arrange
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("ERROR: insert or update on table \"reservations\" violates foreign key constraint"));
+        when(reservationSpringRepository.save(testReservation)).thenThrow(violation);
+
+        // Act
+        ResponseEntity<Reservation> response = reservationRestController.createReservation(testReservation);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void createReservation_WithMissingFields_ShouldReturnBadRequest() {
+        // Arrange
+        testReservation.setTimeSlot(null);
+
+        // Act
+        ResponseEntity<Reservation> response = reservationRestController.createReservation(testReservation);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verify(reservationSpringRepository, never()).save(any(Reservation.class));
+    }
+
+    private Date toDate(LocalDate localDate) {
+        return Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static PSQLException uniqueViolation(String constraint) {
+        return new PSQLException(new ServerErrorMessage("SERROR\0C23505\0Mduplicate key value violates unique constraint \""
+                + constraint + "\"\0n" + constraint + "\0"));
+    }
+}
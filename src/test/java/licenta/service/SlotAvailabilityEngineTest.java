@@ -0,0 +1,149 @@
+package licenta.service;
+
+import licenta.model.SportsHall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Slot Availability Engine Tests")
+public class SlotAvailabilityEngineTest {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2025, 6, 2); // Luni
+
+    private SlotAvailabilityEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new SlotAvailabilityEngine(toDate(WEEK_START), Arrays.asList(
+                createSportsHall(1L, 100.0f),
+                createSportsHall(2L, 150.0f)));
+    }
+
+    @Test
+    @DisplayName("Should keep slots closed until the hall schedule opens them")
+    void shouldOpenOnlySlotsInsideWorkingHours() {
+        // Act
+        engine.openSlots(0, 0, 9 * 60, 13 * 60);
+
+        // Assert - 10:00 si 11:30 incep in program, 08:30 si 13:00 nu
+        assertFalse(engine.isAvailable(0, 0, SlotAvailabilityEngine.slotOrdinal("08:30 - 10:00")));
+        assertTrue(engine.isAvailable(0, 0, SlotAvailabilityEngine.slotOrdinal("10:00 - 11:30")));
+        assertTrue(engine.isAvailable(0, 0, SlotAvailabilityEngine.slotOrdinal("11:30 - 13:00")));
+        assertFalse(engine.isAvailable(0, 0, SlotAvailabilityEngine.slotOrdinal("13:00 - 14:30")));
+        assertEquals(2, engine.countAvailableSlots());
+    }
+
+    @Test
+    @DisplayName("Should mark reservation slots occupied by hall id, date and time slot")
+    void shouldMarkOccupiedByReservationCoordinates() {
+        // Arrange
+        engine.openSlots(1, 2, 8 * 60, 22 * 60);
+        Date wednesdayEvening = Date.from(WEEK_START.plusDays(2).atTime(19, 15)
+                .atZone(ZoneId.systemDefault()).toInstant());
+
+        // Act
+        boolean marked = engine.markOccupied(2L, wednesdayEvening, "19:00 - 20:30");
+
+        // Assert
+        assertTrue(marked);
+        assertFalse(engine.isAvailable(1, 2, SlotAvailabilityEngine.slotOrdinal("19:00 - 20:30")));
+        assertEquals(SlotAvailabilityEngine.SLOT_COUNT - 1, Long.bitCount(engine.availableMask(1, 2)));
+    }
+
+    @Test
+    @DisplayName("Should ignore reservations outside the week, hall set or slot grid")
+    void shouldIgnoreUnknownCoordinates() {
+        assertFalse(engine.markOccupied(99L, toDate(WEEK_START), "08:30 - 10:00"));
+        assertFalse(engine.markOccupied(1L, toDate(WEEK_START.plusDays(7)), "08:30 - 10:00"));
+        assertFalse(engine.markOccupied(1L, toDate(WEEK_START.minusDays(1)), "08:30 - 10:00"));
+        assertFalse(engine.markOccupied(1L, toDate(WEEK_START), "07:00 - 08:30"));
+    }
+
+    @Test
+    @DisplayName("Should split slots at 14:30 between seniors and juniors")
+    void shouldApplySeniorJuniorRuleInSlotMask() {
+        // Act
+        long seniorMask = SlotAvailabilityEngine.slotMask(0, 24 * 60, true);
+        long juniorMask = SlotAvailabilityEngine.slotMask(0, 24 * 60, false);
+
+        // Assert
+        assertEquals(0L, seniorMask & juniorMask);
+        assertEquals(-1L >>> (64 - SlotAvailabilityEngine.SLOT_COUNT), seniorMask | juniorMask);
+        assertTrue((seniorMask & (1L << SlotAvailabilityEngine.slotOrdinal("13:00 - 14:30"))) != 0);
+        assertTrue((juniorMask & (1L << SlotAvailabilityEngine.slotOrdinal("14:30 - 16:00"))) != 0);
+    }
+
+    @Test
+    @DisplayName("Should visit free slots matching the mask, skipping excluded days")
+    void shouldVisitAvailableSlotsWithDayExclusion() {
+        // Arrange
+        for (int day = 0; day < SlotAvailabilityEngine.DAYS_PER_WEEK; day++) {
+            engine.openSlots(0, day, 8 * 60, 22 * 60);
+        }
+        engine.markOccupied(0, 3, SlotAvailabilityEngine.slotOrdinal("16:00 - 17:30"));
+        long eveningMask = SlotAvailabilityEngine.slotMask(16 * 60, 22 * 60, false);
+        int excludedDays = (1 << 0) | (1 << 1);
+
+        // Act
+        List<int[]> visited = new ArrayList<>();
+        engine.forEachAvailable(new int[]{0}, eveningMask, excludedDays, 3, (hall, day, slot) -> {
+            visited.add(new int[]{hall, day, slot});
+            return true;
+        });
+
+        // Assert - 5 zile x 4 sloturi de seara, minus slotul ocupat
+        assertEquals(5 * 4 - 1, visited.size());
+        assertEquals(3, visited.get(0)[1]); // incepe cu ziua ceruta
+        assertTrue(visited.stream().noneMatch(v -> v[1] == 0 || v[1] == 1));
+        assertTrue(visited.stream().noneMatch(v -> v[1] == 3 && v[2] == SlotAvailabilityEngine.slotOrdinal("16:00 - 17:30")));
+    }
+
+    @Test
+    @DisplayName("Should stop visiting when the visitor returns false")
+    void shouldStopWhenVisitorRequestsIt() {
+        // Arrange
+        engine.openSlots(0, 0, 8 * 60, 22 * 60);
+        engine.openSlots(1, 0, 8 * 60, 22 * 60);
+
+        // Act
+        List<Integer> visited = new ArrayList<>();
+        engine.forEachAvailable(new int[]{0, 1}, -1L, 0, 0, (hall, day, slot) -> {
+            visited.add(slot);
+            return visited.size() < 3;
+        });
+
+        // Assert
+        assertEquals(3, visited.size());
+    }
+
+    @Test
+    @DisplayName("Should expose hall prices and week dates by ordinal")
+    void shouldExposeHallAndDateByOrdinal() {
+        assertEquals(1, engine.hallOrdinal(2L));
+        assertEquals(-1, engine.hallOrdinal(null));
+        assertEquals(150.0f, engine.getTariff(1));
+        assertEquals(0, engine.getPrice(0).compareTo(java.math.BigDecimal.valueOf(100.0f)));
+        assertEquals(6, engine.dayOrdinal(engine.getDate(6)));
+    }
+
+    private SportsHall createSportsHall(Long id, float tariff) {
+        SportsHall hall = new SportsHall();
+        hall.setId(id);
+        hall.setName("Sala " + id);
+        hall.setTariff(tariff);
+        return hall;
+    }
+
+    private Date toDate(LocalDate localDate) {
+        return Date.from(localDate.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,59 @@
+package licenta.service;
+
+import licenta.model.SportCategory;
+import licenta.model.SportsHall;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SportCategoryTest {
+
+    @Test
+    void of_ShouldGroupSwimmingAndMultipurposeTypes() {
+        assertEquals(SportCategory.SWIMMING, SportCategory.of("Înot"));
+        assertEquals(SportCategory.SWIMMING, SportCategory.of("Piscina olimpica"));
+        assertEquals(SportCategory.SWIMMING, SportCategory.of("swimming pool"));
+        assertEquals(SportCategory.MULTIPURPOSE, SportCategory.of("Multipla"));
+        assertEquals(SportCategory.MULTIPURPOSE, SportCategory.of("Sala polivalentă"));
+        assertEquals(SportCategory.MULTIPURPOSE, SportCategory.of("Universal"));
+        assertEquals(SportCategory.MULTIPURPOSE, SportCategory.of("sport"));
+    }
+
+    @Test
+    void of_ShouldNormalizeOtherSports() {
+        assertEquals("fotbal", SportCategory.of(" Fotbal "));
+        assertEquals("tenis de camp", SportCategory.of("Tenis de câmp"));
+        assertNull(SportCategory.of(null));
+        assertNull(SportCategory.of("  "));
+    }
+
+    @Test
+    void setType_ShouldKeepCategoryInSync() {
+        SportsHall hall = new SportsHall();
+
+        hall.setType("Baschet");
+        assertEquals("baschet", hall.getSportCategory());
+
+        hall.setType("Polivalenta");
+        assertEquals(SportCategory.MULTIPURPOSE, hall.getSportCategory());
+        assertTrue(hall.isMultipurpose());
+    }
+
+    @Test
+    void setType_MultipurposeHallWithPool_ShouldKeepSwimmingCategoryAndMultipurposeFlag() {
+        SportsHall hall = new SportsHall();
+
+        hall.setType("Sală polivalentă cu piscină");
+
+        assertEquals(SportCategory.SWIMMING, hall.getSportCategory());
+        assertTrue(hall.isMultipurpose());
+    }
+
+    @Test
+    void isMultipurpose_ShouldIgnorePlainSportHalls() {
+        assertFalse(SportCategory.isMultipurpose("Fotbal"));
+        assertFalse(SportCategory.isMultipurpose("Piscina olimpica"));
+        assertFalse(SportCategory.isMultipurpose(null));
+        assertTrue(SportCategory.isMultipurpose("Universal"));
+    }
+}
@@ -2,28 +2,45 @@ package licenta.service;
 
 import licenta.model.SportsHall;
 import licenta.model.SportsHallImage;
+import licenta.model.dtos.StoredImageInfo;
 import licenta.persistence.ISportsHallImageSpringRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.IOException;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 public class SportsHallImageRestControllerTest {
 
+    private static final String CONTENT_HASH = "3f".repeat(32);
+
     @Mock
     private ISportsHallImageSpringRepository sportsHallImageSpringRepository;
 
+    @Mock
+    private SportsHallImageService sportsHallImageService;
+
     private SportsHallImageRestController sportsHallImageRestController;
 
     private SportsHallImage testImage1;
@@ -33,7 +50,7 @@ public class SportsHallImageRestControllerTest {
 
     @BeforeEach
     void setUp() {
-        sportsHallImageRestController = new SportsHallImageRestController(sportsHallImageSpringRepository);
+        sportsHallImageRestController = new SportsHallImageRestController(sportsHallImageSpringRepository, sportsHallImageService);
 
         // Configurăm sala de test
         testHall = new SportsHall();
@@ -59,96 +76,172 @@ public class SportsHallImageRestControllerTest {
     }
 
     @Test
-    void getImageById_WithExistingId_ShouldReturnImageData() {
+    void getImageById_WithStoredContent_ShouldStreamWithImmutableCaching() {
         // Arrange
-        when(sportsHallImageSpringRepository.findById(1L)).thenReturn(Optional.of(testImage1));
+        Resource stored = new ByteArrayResource(testImageData);
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(1L))
+                .thenReturn(Optional.of(storedInfo(CONTENT_HASH, "image/png")));
+        when(sportsHallImageService.openContent(CONTENT_HASH)).thenReturn(Optional.of(stored));
 
         // Act
-        ResponseEntity<byte[]> response = sportsHallImageRestController.getImageById(1L);
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(1L, null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
-        assertArrayEquals(testImageData, response.getBody());
-        verify(sportsHallImageSpringRepository).findById(1L);
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        assertEquals("\"" + CONTENT_HASH + "\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("immutable"));
+        assertSame(stored, response.getBody());
+        verify(sportsHallImageSpringRepository, never()).findById(anyLong());
     }
 
     @Test
     void getImageById_WithNonExistingId_ShouldReturnNotFound() {
         // Arrange
-        when(sportsHallImageSpringRepository.findById(999L)).thenReturn(Optional.empty());
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(999L)).thenReturn(Optional.empty());
 
         // Act
-        ResponseEntity<byte[]> response = sportsHallImageRestController.getImageById(999L);
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(999L, null);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
-        verify(sportsHallImageSpringRepository).findById(999L);
     }
 
     @Test
     void getImageById_WithRepositoryException_ShouldReturnNotFound() {
         // Arrange
-        when(sportsHallImageSpringRepository.findById(1L)).thenThrow(new RuntimeException("Database error"));
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(1L)).thenThrow(new RuntimeException("Database error"));
 
         // Act
-        ResponseEntity<byte[]> response = sportsHallImageRestController.getImageById(1L);
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(1L, null);
 
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
-        verify(sportsHallImageSpringRepository).findById(1L);
     }
 
     @Test
-    void getImageById_WithNullImageData_ShouldReturnImageWithNullBody() {
+    void getImageById_WithContentMissingFromStore_ShouldReturnNotFound() {
+        // Arrange
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(1L))
+                .thenReturn(Optional.of(storedInfo(CONTENT_HASH, "image/jpeg")));
+        when(sportsHallImageService.openContent(CONTENT_HASH)).thenReturn(Optional.empty());
+
+        // Act
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(1L, null);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void getImageById_WithLegacyImage_ShouldServeDatabaseBytes() throws IOException {
+        // Arrange
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(1L)).thenReturn(Optional.of(storedInfo(null, null)));
+        when(sportsHallImageSpringRepository.findById(1L)).thenReturn(Optional.of(testImage1));
+
+        // Act
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(1L, null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
+        assertNull(response.getHeaders().getETag());
+        assertArrayEquals(testImageData, response.getBody().getContentAsByteArray());
+    }
+
+    @Test
+    void getImageById_WithLegacyImageWithoutData_ShouldReturnNotFound() {
         // Arrange
         SportsHallImage imageWithNullData = new SportsHallImage();
         imageWithNullData.setId(3L);
         imageWithNullData.setImagePath(null);
-        imageWithNullData.setDescription("test");
         imageWithNullData.setSportsHall(testHall);
-
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(3L)).thenReturn(Optional.of(storedInfo(null, null)));
         when(sportsHallImageSpringRepository.findById(3L)).thenReturn(Optional.of(imageWithNullData));
 
         // Act
-        ResponseEntity<byte[]> response = sportsHallImageRestController.getImageById(3L);
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(3L, null);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void getImageById_WithSize_ShouldServeGeneratedVariant() {
+        // Arrange
+        String thumbnailHash = "7c".repeat(32);
+        Resource thumbnail = new ByteArrayResource(new byte[]{1, 2});
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(1L))
+                .thenReturn(Optional.of(storedInfo(CONTENT_HASH, "image/png", thumbnailHash, "8d".repeat(32), "9e".repeat(32))));
+        when(sportsHallImageService.openContent(thumbnailHash)).thenReturn(Optional.of(thumbnail));
+
+        // Act
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(1L, "thumbnail");
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
-        assertNull(response.getBody());
-        verify(sportsHallImageSpringRepository).findById(3L);
+        assertEquals("\"" + thumbnailHash + "\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("immutable"));
+        assertSame(thumbnail, response.getBody());
     }
 
     @Test
-    void getImageById_WithEmptyImageData_ShouldReturnEmptyArray() {
+    void getImageById_WithSizeNotGeneratedYet_ShouldServeOriginalWithRevalidation() {
         // Arrange
-        SportsHallImage imageWithEmptyData = new SportsHallImage();
-        imageWithEmptyData.setId(4L);
-        imageWithEmptyData.setImagePath(new byte[0]);
-        imageWithEmptyData.setDescription("empty");
-        imageWithEmptyData.setSportsHall(testHall);
-
-        when(sportsHallImageSpringRepository.findById(4L)).thenReturn(Optional.of(imageWithEmptyData));
+        Resource stored = new ByteArrayResource(testImageData);
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(1L))
+                .thenReturn(Optional.of(storedInfo(CONTENT_HASH, "image/png")));
+        when(sportsHallImageService.openContent(CONTENT_HASH)).thenReturn(Optional.of(stored));
 
         // Act
-        ResponseEntity<byte[]> response = sportsHallImageRestController.getImageById(4L);
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(1L, "medium");
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
-        assertNotNull(response.getBody());
-        assertEquals(0, response.getBody().length);
-        verify(sportsHallImageSpringRepository).findById(4L);
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        assertEquals("\"" + CONTENT_HASH + "\"", response.getHeaders().getETag());
+        assertTrue(response.getHeaders().getCacheControl().contains("no-cache"));
+        assertFalse(response.getHeaders().getCacheControl().contains("immutable"));
+        assertSame(stored, response.getBody());
+    }
+
+    @Test
+    void getImageById_WithUnknownSize_ShouldReturnBadRequest() {
+        // Act
+        ResponseEntity<Resource> response = sportsHallImageRestController.getImageById(1L, "huge");
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(sportsHallImageSpringRepository);
+    }
+
+    @Test
+    void getImageById_OverHttp_ShouldHonourIfNoneMatchAndRange() throws Exception {
+        // Arrange
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(sportsHallImageRestController).build();
+        when(sportsHallImageSpringRepository.findStoredImageInfoById(1L))
+                .thenReturn(Optional.of(storedInfo(CONTENT_HASH, "image/jpeg")));
+        when(sportsHallImageService.openContent(CONTENT_HASH)).thenReturn(Optional.of(new ByteArrayResource(testImageData)));
+
+        // Act & Assert - browserul are deja versiunea curenta
+        mockMvc.perform(get("/images/1").header(HttpHeaders.IF_NONE_MATCH, "\"" + CONTENT_HASH + "\""))
+                .andExpect(status().isNotModified());
+
+        // Act & Assert - doar o parte din fisier
+        mockMvc.perform(get("/images/1").header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/" + testImageData.length))
+                .andExpect(content().bytes(new byte[]{3, 4, 5}));
     }
 
     @Test
     void deleteImageById_WithExistingId_ShouldReturnSuccessMessage() {
         // Arrange
         when(sportsHallImageSpringRepository.findById(1L)).thenReturn(Optional.of(testImage1));
-        doNothing().when(sportsHallImageSpringRepository).deleteById(1L);
+        doNothing().when(sportsHallImageService).deleteImage(testImage1);
 
         // Act
         ResponseEntity<?> response = sportsHallImageRestController.deleteImageById(1L);
@@ -157,7 +250,7 @@ public class SportsHallImageRestControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Image deleted successfully", response.getBody());
         verify(sportsHallImageSpringRepository).findById(1L);
-        verify(sportsHallImageSpringRepository).deleteById(1L);
+        verify(sportsHallImageService).deleteImage(testImage1);
     }
 
     @Test
@@ -171,7 +264,7 @@ public class SportsHallImageRestControllerTest {
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(sportsHallImageSpringRepository).findById(999L);
-        verify(sportsHallImageSpringRepository, never()).deleteById(anyLong());
+        verify(sportsHallImageService, never()).deleteImage(any());
     }
 
     @Test
@@ -187,14 +280,14 @@ public class SportsHallImageRestControllerTest {
         assertTrue(response.getBody().toString().contains("Error deleting image"));
         assertTrue(response.getBody().toString().contains("Database connection error"));
         verify(sportsHallImageSpringRepository).findById(1L);
-        verify(sportsHallImageSpringRepository, never()).deleteById(anyLong());
+        verify(sportsHallImageService, never()).deleteImage(any());
     }
 
     @Test
     void deleteImageById_WithRepositoryDeleteException_ShouldReturnInternalServerError() {
         // Arrange
         when(sportsHallImageSpringRepository.findById(1L)).thenReturn(Optional.of(testImage1));
-        doThrow(new RuntimeException("Delete operation failed")).when(sportsHallImageSpringRepository).deleteById(1L);
+        doThrow(new RuntimeException("Delete operation failed")).when(sportsHallImageService).deleteImage(testImage1);
 
         // Act
         ResponseEntity<?> response = sportsHallImageRestController.deleteImageById(1L);
@@ -204,7 +297,7 @@ public class SportsHallImageRestControllerTest {
         assertTrue(response.getBody().toString().contains("Error deleting image"));
         assertTrue(response.getBody().toString().contains("Delete operation failed"));
         verify(sportsHallImageSpringRepository).findById(1L);
-        verify(sportsHallImageSpringRepository).deleteById(1L);
+        verify(sportsHallImageService).deleteImage(testImage1);
     }
 
     @Test
@@ -217,7 +310,7 @@ public class SportsHallImageRestControllerTest {
         imageWithHall.setSportsHall(testHall);
 
         when(sportsHallImageSpringRepository.findById(5L)).thenReturn(Optional.of(imageWithHall));
-        doNothing().when(sportsHallImageSpringRepository).deleteById(5L);
+        doNothing().when(sportsHallImageService).deleteImage(imageWithHall);
 
         // Act
         ResponseEntity<?> response = sportsHallImageRestController.deleteImageById(5L);
@@ -226,7 +319,7 @@ public class SportsHallImageRestControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Image deleted successfully", response.getBody());
         verify(sportsHallImageSpringRepository).findById(5L);
-        verify(sportsHallImageSpringRepository).deleteById(5L);
+        verify(sportsHallImageService).deleteImage(imageWithHall);
     }
 
     @Test
@@ -241,35 +334,7 @@ public class SportsHallImageRestControllerTest {
         // Assert
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         verify(sportsHallImageSpringRepository).findById(largeId);
-        verify(sportsHallImageSpringRepository, never()).deleteById(anyLong());
-    }
-
-    @Test
-    void getImageById_WithLargeImageData_ShouldReturnCorrectly() {
-        // Arrange
-        byte[] largeImageData = new byte[1024 * 1024]; // 1MB
-        for (int i = 0; i < largeImageData.length; i++) {
-            largeImageData[i] = (byte) (i % 256);
-        }
-
-        SportsHallImage largeImage = new SportsHallImage();
-        largeImage.setId(7L);
-        largeImage.setImagePath(largeImageData);
-        largeImage.setDescription("large image");
-        largeImage.setSportsHall(testHall);
-
-        when(sportsHallImageSpringRepository.findById(7L)).thenReturn(Optional.of(largeImage));
-
-        // Act
-        ResponseEntity<byte[]> response = sportsHallImageRestController.getImageById(7L);
-
-        // Assert
-        assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(MediaType.IMAGE_JPEG, response.getHeaders().getContentType());
-        assertNotNull(response.getBody());
-        assertEquals(largeImageData.length, response.getBody().length);
-        assertArrayEquals(largeImageData, response.getBody());
-        verify(sportsHallImageSpringRepository).findById(7L);
+        verify(sportsHallImageService, never()).deleteImage(any());
     }
 
     @Test
@@ -278,7 +343,7 @@ public class SportsHallImageRestControllerTest {
         when(sportsHallImageSpringRepository.findById(1L))
                 .thenReturn(Optional.of(testImage1))
                 .thenReturn(Optional.empty());
-        doNothing().when(sportsHallImageSpringRepository).deleteById(1L);
+        doNothing().when(sportsHallImageService).deleteImage(testImage1);
 
         // Act - First call
         ResponseEntity<?> firstResponse = sportsHallImageRestController.deleteImageById(1L);
@@ -293,6 +358,40 @@ public class SportsHallImageRestControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, secondResponse.getStatusCode());
 
         verify(sportsHallImageSpringRepository, times(2)).findById(1L);
-        verify(sportsHallImageSpringRepository, times(1)).deleteById(1L);
+        verify(sportsHallImageService, times(1)).deleteImage(testImage1);
+    }
+
+    private StoredImageInfo storedInfo(String contentHash, String contentType) {
+        return storedInfo(contentHash, contentType, null, null, null);
+    }
+
+    private StoredImageInfo storedInfo(String contentHash, String contentType,
+                                       String thumbnailHash, String mediumHash, String fullHash) {
+        return new StoredImageInfo() {
+            @Override
+            public String getContentHash() {
+                return contentHash;
+            }
+
+            @Override
+            public String getContentType() {
+                return contentType;
+            }
+
+            @Override
+            public String getThumbnailHash() {
+                return thumbnailHash;
+            }
+
+            @Override
+            public String getMediumHash() {
+                return mediumHash;
+            }
+
+            @Override
+            public String getFullHash() {
+                return fullHash;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,280 @@
+package licenta.service;
+
+import licenta.model.ImageVariant;
+import licenta.model.SportsHall;
+import licenta.model.SportsHallImage;
+import licenta.persistence.ISportsHallImageSpringRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SportsHallImageServiceTest {
+
+    private static final String CONTENT_HASH = "ab".repeat(32);
+
+    @Mock
+    private ISportsHallImageSpringRepository sportsHallImageSpringRepository;
+
+    @Mock
+    private ImageStore imageStore;
+
+    @Mock
+    private ImageVariantGenerator imageVariantGenerator;
+
+    private SportsHallImageService sportsHallImageService;
+
+    @BeforeEach
+    void setUp() {
+        // Executor direct: variantele sunt generate sincron in teste
+        sportsHallImageService = new SportsHallImageService(sportsHallImageSpringRepository, imageStore,
+                imageVariantGenerator, Runnable::run);
+    }
+
+    @Test
+    void saveImage_ShouldStoreContentAndPersistOnlyReference() throws IOException {
+        // Arrange
+        SportsHall hall = new SportsHall();
+        MockMultipartFile file = new MockMultipartFile("images[0]", "sala.png", "image/png", new byte[]{1, 2, 3});
+        when(imageStore.put(any(InputStream.class))).thenReturn(CONTENT_HASH);
+        when(imageStore.get(CONTENT_HASH)).thenReturn(Optional.of(new ByteArrayResource(new byte[]{1, 2, 3})));
+        when(sportsHallImageSpringRepository.save(any(SportsHallImage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        SportsHallImage saved = sportsHallImageService.saveImage(hall, file, "interior");
+
+        // Assert
+        assertEquals(CONTENT_HASH, saved.getContentHash());
+        assertEquals("image/png", saved.getContentType());
+        assertEquals(3L, saved.getContentLength());
+        assertNull(saved.getImage());
+        assertSame(hall, saved.getSportsHall());
+    }
+
+    @Test
+    void deleteImage_WhenContentStillReferenced_ShouldKeepFile() throws IOException {
+        // Arrange
+        SportsHallImage image = new SportsHallImage();
+        image.setId(1L);
+        image.setContentHash(CONTENT_HASH);
+        when(sportsHallImageSpringRepository.countReferences(CONTENT_HASH)).thenReturn(1L);
+
+        // Act
+        sportsHallImageService.deleteImage(image);
+
+        // Assert
+        verify(sportsHallImageSpringRepository).deleteById(1L);
+        verify(imageStore, never()).delete(anyString());
+    }
+
+    @Test
+    void deleteImage_WhenLastReference_ShouldDeleteFile() throws IOException {
+        // Arrange
+        SportsHallImage image = new SportsHallImage();
+        image.setId(1L);
+        image.setContentHash(CONTENT_HASH);
+        when(sportsHallImageSpringRepository.countReferences(CONTENT_HASH)).thenReturn(0L);
+
+        // Act
+        sportsHallImageService.deleteImage(image);
+
+        // Assert
+        verify(imageStore).delete(CONTENT_HASH);
+    }
+
+    @Test
+    void migrateLegacyImages_ShouldMoveBlobsIntoStoreAndClearColumn() throws IOException {
+        // Arrange
+        byte[] png = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 0, 0};
+        SportsHallImage legacy = new SportsHallImage();
+        legacy.setId(7L);
+        legacy.setImagePath(png);
+        SportsHallImage empty = new SportsHallImage();
+        empty.setId(8L);
+        when(sportsHallImageSpringRepository.findIdsWithoutContentHash()).thenReturn(List.of(7L, 8L));
+        when(sportsHallImageSpringRepository.findById(7L)).thenReturn(Optional.of(legacy));
+        when(sportsHallImageSpringRepository.findById(8L)).thenReturn(Optional.of(empty));
+        when(imageStore.put(any(InputStream.class))).thenReturn(CONTENT_HASH);
+
+        // Act
+        int migrated = sportsHallImageService.migrateLegacyImages();
+
+        // Assert
+        assertEquals(1, migrated);
+        ArgumentCaptor<SportsHallImage> captor = ArgumentCaptor.forClass(SportsHallImage.class);
+        verify(sportsHallImageSpringRepository, times(1)).save(captor.capture());
+        SportsHallImage saved = captor.getValue();
+        assertEquals(CONTENT_HASH, saved.getContentHash());
+        assertEquals("image/png", saved.getContentType());
+        assertEquals(png.length, saved.getContentLength());
+        assertNull(saved.getImage());
+    }
+
+    @Test
+    void migrateLegacyImages_WithNothingToMigrate_ShouldNotTouchStore() {
+        // Arrange
+        when(sportsHallImageSpringRepository.findIdsWithoutContentHash()).thenReturn(List.of());
+
+        // Act & Assert
+        assertEquals(0, sportsHallImageService.migrateLegacyImages());
+        verifyNoInteractions(imageStore);
+    }
+
+    @Test
+    void deleteImage_ShouldReleaseOriginalAndVariants() throws IOException {
+        // Arrange
+        SportsHallImage image = new SportsHallImage();
+        image.setId(1L);
+        image.setContentHash(CONTENT_HASH);
+        image.setThumbnailHash("01".repeat(32));
+        image.setMediumHash(CONTENT_HASH);
+
+        // Act
+        sportsHallImageService.deleteImage(image);
+
+        // Assert
+        verify(imageStore).delete(CONTENT_HASH);
+        verify(imageStore).delete("01".repeat(32));
+        verify(imageStore, times(2)).delete(anyString());
+    }
+
+    @Test
+    void saveImage_ShouldGenerateVariantsAndReuseOriginalWhereAlreadySmall() throws IOException {
+        // Arrange
+        SportsHall hall = new SportsHall();
+        MockMultipartFile file = new MockMultipartFile("images[0]", "sala.jpg", "image/jpeg", new byte[]{1, 2, 3});
+        SportsHallImage persisted = new SportsHallImage();
+        persisted.setId(42L);
+        byte[] thumbnail = {9};
+        byte[] medium = {8};
+        when(imageStore.put(any(InputStream.class))).thenReturn(CONTENT_HASH, "11".repeat(32), "22".repeat(32));
+        when(sportsHallImageSpringRepository.save(any(SportsHallImage.class))).thenReturn(persisted);
+        when(imageStore.get(anyString())).thenReturn(Optional.of(new ByteArrayResource(new byte[]{1, 2, 3})));
+        when(imageVariantGenerator.generate(any(InputStream.class)))
+                .thenReturn(Map.of(ImageVariant.THUMBNAIL, thumbnail, ImageVariant.MEDIUM, medium));
+        when(sportsHallImageSpringRepository.updateVariantHashes(42L, "11".repeat(32), "22".repeat(32), CONTENT_HASH))
+                .thenReturn(1);
+
+        // Act
+        sportsHallImageService.saveImage(hall, file, "interior");
+
+        // Assert - FULL lipseste (originalul e deja destul de mic), deci refoloseste originalul
+        verify(sportsHallImageSpringRepository).updateVariantHashes(42L, "11".repeat(32), "22".repeat(32), CONTENT_HASH);
+        verify(imageStore, times(3)).put(any(InputStream.class));
+    }
+
+    @Test
+    void generateVariants_WhenImageCannotBeDecoded_ShouldPointVariantsToOriginal() throws IOException {
+        // Arrange
+        when(imageStore.get(CONTENT_HASH)).thenReturn(Optional.of(new ByteArrayResource(new byte[]{0})));
+        when(imageVariantGenerator.generate(any(InputStream.class))).thenReturn(null);
+        when(sportsHallImageSpringRepository.updateVariantHashes(5L, CONTENT_HASH, CONTENT_HASH, CONTENT_HASH)).thenReturn(1);
+
+        // Act
+        sportsHallImageService.generateVariants(5L, CONTENT_HASH);
+
+        // Assert
+        verify(sportsHallImageSpringRepository).updateVariantHashes(5L, CONTENT_HASH, CONTENT_HASH, CONTENT_HASH);
+        verify(imageStore, never()).put(any(InputStream.class));
+    }
+
+    @Test
+    void saveImage_WhenProcessingQueueIsFull_ShouldStillSaveImage() throws IOException {
+        // Arrange
+        sportsHallImageService = new SportsHallImageService(sportsHallImageSpringRepository, imageStore,
+                imageVariantGenerator, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        MockMultipartFile file = new MockMultipartFile("images[0]", "sala.jpg", "image/jpeg", new byte[]{1});
+        when(imageStore.put(any(InputStream.class))).thenReturn(CONTENT_HASH);
+        when(imageStore.get(CONTENT_HASH)).thenReturn(Optional.of(new ByteArrayResource(new byte[]{1})));
+        when(sportsHallImageSpringRepository.save(any(SportsHallImage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        SportsHallImage saved = sportsHallImageService.saveImage(new SportsHall(), file, "interior");
+
+        // Assert
+        assertEquals(CONTENT_HASH, saved.getContentHash());
+        verifyNoInteractions(imageVariantGenerator);
+    }
+
+    @Test
+    void saveImage_WhenContentWasReleasedBeforeLock_ShouldStoreItAgain() throws IOException {
+        // Arrange
+        sportsHallImageService = new SportsHallImageService(sportsHallImageSpringRepository, imageStore,
+                imageVariantGenerator, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        MockMultipartFile file = new MockMultipartFile("images[0]", "sala.jpg", "image/jpeg", new byte[]{1});
+        when(imageStore.put(any(InputStream.class))).thenReturn(CONTENT_HASH);
+        when(imageStore.get(CONTENT_HASH)).thenReturn(Optional.empty());
+        when(sportsHallImageSpringRepository.save(any(SportsHallImage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        sportsHallImageService.saveImage(new SportsHall(), file, "interior");
+
+        // Assert
+        verify(imageStore, times(2)).put(any(InputStream.class));
+    }
+
+    @Test
+    void releaseContent_WhileSameContentIsBeingSaved_ShouldWaitForTheNewReference() throws Exception {
+        // Arrange
+        sportsHallImageService = new SportsHallImageService(sportsHallImageSpringRepository, imageStore,
+                imageVariantGenerator, task -> {
+            throw new RejectedExecutionException("queue full");
+        });
+        MockMultipartFile file = new MockMultipartFile("images[0]", "sala.jpg", "image/jpeg", new byte[]{1});
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch finishSave = new CountDownLatch(1);
+        when(imageStore.put(any(InputStream.class))).thenReturn(CONTENT_HASH);
+        when(imageStore.get(CONTENT_HASH)).thenReturn(Optional.of(new ByteArrayResource(new byte[]{1})));
+        when(sportsHallImageSpringRepository.save(any(SportsHallImage.class))).thenAnswer(inv -> {
+            saving.countDown();
+            assertTrue(finishSave.await(5, TimeUnit.SECONDS));
+            return inv.getArgument(0);
+        });
+        when(sportsHallImageSpringRepository.countReferences(CONTENT_HASH)).thenReturn(1L);
+
+        Thread save = new Thread(() -> {
+            try {
+                sportsHallImageService.saveImage(new SportsHall(), file, "interior");
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        save.start();
+        assertTrue(saving.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Thread release = new Thread(() -> sportsHallImageService.releaseContent(CONTENT_HASH));
+        release.start();
+
+        // Assert - numararea referintelor asteapta pana cand randul nou este salvat
+        verify(sportsHallImageSpringRepository, after(200).never()).countReferences(CONTENT_HASH);
+        finishSave.countDown();
+        save.join(5000);
+        release.join(5000);
+        verify(sportsHallImageSpringRepository).countReferences(CONTENT_HASH);
+        verify(imageStore, never()).delete(anyString());
+    }
+}
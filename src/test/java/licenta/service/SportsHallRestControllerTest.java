@@ -1,9 +1,12 @@
 package licenta.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import licenta.model.SportCategory;
 import licenta.model.SportsHall;
 import licenta.model.SportsHallImage;
 import licenta.model.User;
+import licenta.model.dtos.SportsHallImageRef;
+import licenta.model.dtos.SportsHallSummary;
 import licenta.persistence.ISportsHallImageSpringRepository;
 import licenta.persistence.ISportsHallSpringRepository;
 import licenta.persistence.IUserSpringRepository;
@@ -41,6 +44,12 @@ public class SportsHallRestControllerTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private SportsHallImageService sportsHallImageService;
+
+    @Mock
+    private HallNameSuggestionIndex hallNameSuggestionIndex;
+
     @Mock
     private Authentication authentication;
 
@@ -55,7 +64,7 @@ public class SportsHallRestControllerTest {
     private User adminUser;
     private User hallAdminUser;
     private User regularUser;
-    private List<SportsHall> testHalls;
+    private List<SportsHallSummary> testSummaries;
     private List<String> testCities;
 
     @BeforeEach
@@ -64,7 +73,9 @@ public class SportsHallRestControllerTest {
                 sportsHallSpringRepository,
                 sportsHallImageSpringRepository,
                 userSpringRepository,
-                objectMapper
+                objectMapper,
+                sportsHallImageService,
+                hallNameSuggestionIndex
         );
 
         // Reset SecurityContextHolder
@@ -111,10 +122,16 @@ public class SportsHallRestControllerTest {
         testHall3.setStatus(SportsHall.HallStatus.INACTIVE);
         testHall3.setAdminId(1L); // adminUser
 
-        testHalls = Arrays.asList(testHall1, testHall2, testHall3);
+        testSummaries = Arrays.asList(summaryOf(testHall1), summaryOf(testHall2), summaryOf(testHall3));
         testCities = Arrays.asList("Cluj-Napoca", "Bucuresti", "Timisoara");
     }
 
+    private SportsHallSummary summaryOf(SportsHall hall) {
+        return new SportsHallSummary(hall.getId(), hall.getName(), hall.getAddress(), hall.getCity(), hall.getCounty(),
+                hall.getType(), hall.getTariff(), hall.getCapacity(), hall.getFacilities(), hall.getDescription(),
+                hall.getStatus(), hall.getAdminId(), null, 0L);
+    }
+
     private void mockAuthentication(User user) {
         Collection<? extends GrantedAuthority> authorities =
                 Collections.singletonList(new SimpleGrantedAuthority(user.getUserType()));
@@ -183,21 +200,21 @@ public class SportsHallRestControllerTest {
     @Test
     void getAllSportsHalls_WithoutCity_ShouldReturnAllHalls() {
         // Arrange
-        when(sportsHallSpringRepository.findAll()).thenReturn((Iterable<SportsHall>) testHalls);
+        when(sportsHallSpringRepository.findAllSummaries()).thenReturn(testSummaries);
 
         // Act
         ResponseEntity<?> response = sportsHallRestController.getAllSportsHalls(null);
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(testHalls, response.getBody());
-        verify(sportsHallSpringRepository).findAll();
+        assertEquals(testSummaries, response.getBody());
+        verify(sportsHallSpringRepository).findAllSummaries();
     }
 
     @Test
     void getAllSportsHalls_WithCity_ShouldReturnFilteredHalls() {
         // Arrange
-        List<SportsHall> clujHalls = Arrays.asList(testHall1, testHall3);
+        List<SportsHallSummary> clujHalls = Arrays.asList(summaryOf(testHall1), summaryOf(testHall3));
         when(sportsHallSpringRepository.findByCityOrderByName("Cluj-Napoca")).thenReturn(clujHalls);
 
         // Act
@@ -212,21 +229,21 @@ public class SportsHallRestControllerTest {
     @Test
     void getAllSportsHalls_WithEmptyCity_ShouldReturnAllHalls() {
         // Arrange
-        when(sportsHallSpringRepository.findAll()).thenReturn((Iterable<SportsHall>) testHalls);
+        when(sportsHallSpringRepository.findAllSummaries()).thenReturn(testSummaries);
 
         // Act
         ResponseEntity<?> response = sportsHallRestController.getAllSportsHalls("   ");
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(testHalls, response.getBody());
-        verify(sportsHallSpringRepository).findAll();
+        assertEquals(testSummaries, response.getBody());
+        verify(sportsHallSpringRepository).findAllSummaries();
     }
 
     @Test
     void getAllSportsHalls_WithException_ShouldReturnInternalServerError() {
         // Arrange
-        when(sportsHallSpringRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(sportsHallSpringRepository.findAllSummaries()).thenThrow(new RuntimeException("Database error"));
 
         // Act
         ResponseEntity<?> response = sportsHallRestController.getAllSportsHalls(null);
@@ -273,6 +290,26 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         verify(sportsHallSpringRepository).deleteById(1L);
+        verify(hallNameSuggestionIndex).remove(1L);
+    }
+
+    @Test
+    void deleteSportsHall_WithStoredImages_ShouldReleaseImageContent() {
+        // Arrange
+        SportsHallImage cover = new SportsHallImage();
+        cover.setContentHash("a".repeat(64));
+        SportsHallImage duplicate = new SportsHallImage();
+        duplicate.setContentHash("a".repeat(64));
+        testHall1.setImages(new ArrayList<>(List.of(cover, duplicate)));
+        when(sportsHallSpringRepository.findById(1L)).thenReturn(Optional.of(testHall1));
+
+        // Act
+        ResponseEntity<?> response = sportsHallRestController.deleteSportsHall(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(sportsHallSpringRepository).deleteById(1L);
+        verify(sportsHallImageService, times(1)).releaseContent("a".repeat(64));
     }
 
     @Test
@@ -291,7 +328,7 @@ public class SportsHallRestControllerTest {
     @Test
     void getActiveHalls_WithoutCity_ShouldReturnActiveHalls() {
         // Arrange
-        List<SportsHall> activeHalls = Arrays.asList(testHall1, testHall2);
+        List<SportsHallSummary> activeHalls = Arrays.asList(summaryOf(testHall1), summaryOf(testHall2));
         when(sportsHallSpringRepository.findByStatusOrderByName(SportsHall.HallStatus.ACTIVE)).thenReturn(activeHalls);
 
         // Act
@@ -306,7 +343,7 @@ public class SportsHallRestControllerTest {
     @Test
     void getActiveHalls_WithCity_ShouldReturnFilteredActiveHalls() {
         // Arrange
-        List<SportsHall> clujActiveHalls = Arrays.asList(testHall1);
+        List<SportsHallSummary> clujActiveHalls = Arrays.asList(summaryOf(testHall1));
         when(sportsHallSpringRepository.findByCityAndStatusOrderByName("Cluj-Napoca", SportsHall.HallStatus.ACTIVE))
                 .thenReturn(clujActiveHalls);
 
@@ -337,7 +374,7 @@ public class SportsHallRestControllerTest {
     void getHallNamesSuggestions_WithValidQuery_ShouldReturnSuggestions() {
         // Arrange
         List<String> suggestions = Arrays.asList("Sala Test 1", "Sala Test 2");
-        when(sportsHallSpringRepository.findHallNamesSuggestionsLimited("Sala")).thenReturn(suggestions);
+        when(hallNameSuggestionIndex.suggest("Sala")).thenReturn(suggestions);
 
         // Act
         ResponseEntity<?> response = sportsHallRestController.getHallNamesSuggestions("Sala");
@@ -345,7 +382,7 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(suggestions, response.getBody());
-        verify(sportsHallSpringRepository).findHallNamesSuggestionsLimited("Sala");
+        verify(hallNameSuggestionIndex).suggest("Sala");
     }
 
     @Test
@@ -356,7 +393,7 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Collections.emptyList(), response.getBody());
-        verify(sportsHallSpringRepository, never()).findHallNamesSuggestionsLimited(anyString());
+        verify(hallNameSuggestionIndex, never()).suggest(anyString());
     }
 
     @Test
@@ -367,13 +404,13 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(Collections.emptyList(), response.getBody());
-        verify(sportsHallSpringRepository, never()).findHallNamesSuggestionsLimited(anyString());
+        verify(hallNameSuggestionIndex, never()).suggest(anyString());
     }
 
     @Test
     void getHallNamesSuggestions_WithException_ShouldReturnEmptyList() {
         // Arrange
-        when(sportsHallSpringRepository.findHallNamesSuggestionsLimited("Test"))
+        when(hallNameSuggestionIndex.suggest("Test"))
                 .thenThrow(new RuntimeException("Database error"));
 
         // Act
@@ -387,8 +424,8 @@ public class SportsHallRestControllerTest {
     @Test
     void searchSportsHalls_WithOnlyQuery_ShouldReturnResults() {
         // Arrange
-        List<SportsHall> searchResults = Arrays.asList(testHall1);
-        when(sportsHallSpringRepository.findByNameContainingIgnoreCase("Sala Test"))
+        List<SportsHallSummary> searchResults = Arrays.asList(summaryOf(testHall1));
+        when(sportsHallSpringRepository.search(null, null, "Sala Test"))
                 .thenReturn(searchResults);
 
         // Act
@@ -397,14 +434,14 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(searchResults, response.getBody());
-        verify(sportsHallSpringRepository).findByNameContainingIgnoreCase("Sala Test");
+        verify(sportsHallSpringRepository).search(null, null, "Sala Test");
     }
 
     @Test
     void searchSportsHalls_WithCityAndSport_ShouldReturnResults() {
         // Arrange
-        List<SportsHall> searchResults = Arrays.asList(testHall1);
-        when(sportsHallSpringRepository.findByCityAndSportIncludingMultipurpose("Cluj-Napoca", "fotbal"))
+        List<SportsHallSummary> searchResults = Arrays.asList(summaryOf(testHall1));
+        when(sportsHallSpringRepository.search("Cluj-Napoca", "fotbal", null))
                 .thenReturn(searchResults);
 
         // Act
@@ -413,14 +450,14 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(searchResults, response.getBody());
-        verify(sportsHallSpringRepository).findByCityAndSportIncludingMultipurpose("Cluj-Napoca", "fotbal");
+        verify(sportsHallSpringRepository).search("Cluj-Napoca", "fotbal", null);
     }
 
     @Test
     void searchSportsHalls_WithSwimmingSport_ShouldReturnSwimmingHalls() {
         // Arrange
-        List<SportsHall> swimmingHalls = Arrays.asList(testHall2);
-        when(sportsHallSpringRepository.findSwimmingHalls()).thenReturn(swimmingHalls);
+        List<SportsHallSummary> swimmingHalls = Arrays.asList(summaryOf(testHall2));
+        when(sportsHallSpringRepository.search(null, SportCategory.SWIMMING, null)).thenReturn(swimmingHalls);
 
         // Act
         ResponseEntity<?> response = sportsHallRestController.searchSportsHalls(null, "inot", null);
@@ -428,14 +465,14 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(swimmingHalls, response.getBody());
-        verify(sportsHallSpringRepository).findSwimmingHalls();
+        verify(sportsHallSpringRepository).search(null, SportCategory.SWIMMING, null);
     }
 
     @Test
     void searchSportsHalls_WithOnlyCity_ShouldReturnCityResults() {
         // Arrange
-        List<SportsHall> cityResults = Arrays.asList(testHall1, testHall3);
-        when(sportsHallSpringRepository.findByCityAndStatusOrderByName("Cluj-Napoca", SportsHall.HallStatus.ACTIVE))
+        List<SportsHallSummary> cityResults = Arrays.asList(summaryOf(testHall1), summaryOf(testHall3));
+        when(sportsHallSpringRepository.search("Cluj-Napoca", null, null))
                 .thenReturn(cityResults);
 
         // Act
@@ -444,14 +481,14 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(cityResults, response.getBody());
-        verify(sportsHallSpringRepository).findByCityAndStatusOrderByName("Cluj-Napoca", SportsHall.HallStatus.ACTIVE);
+        verify(sportsHallSpringRepository).search("Cluj-Napoca", null, null);
     }
 
     @Test
     void searchSportsHalls_WithNoCriteria_ShouldReturnAllActiveHalls() {
         // Arrange
-        List<SportsHall> allActiveHalls = Arrays.asList(testHall1, testHall2);
-        when(sportsHallSpringRepository.findByStatusOrderByName(SportsHall.HallStatus.ACTIVE))
+        List<SportsHallSummary> allActiveHalls = Arrays.asList(summaryOf(testHall1), summaryOf(testHall2));
+        when(sportsHallSpringRepository.search(null, null, null))
                 .thenReturn(allActiveHalls);
 
         // Act
@@ -460,13 +497,13 @@ public class SportsHallRestControllerTest {
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(allActiveHalls, response.getBody());
-        verify(sportsHallSpringRepository).findByStatusOrderByName(SportsHall.HallStatus.ACTIVE);
+        verify(sportsHallSpringRepository).search(null, null, null);
     }
 
     @Test
     void searchSportsHalls_WithException_ShouldReturnInternalServerError() {
         // Arrange
-        when(sportsHallSpringRepository.findByStatusOrderByName(SportsHall.HallStatus.ACTIVE))
+        when(sportsHallSpringRepository.search(null, null, null))
                 .thenThrow(new RuntimeException("Database error"));
 
         // Act
@@ -476,4 +513,55 @@ public class SportsHallRestControllerTest {
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
         assertTrue(response.getBody().toString().contains("Eroare la căutarea sălilor de sport"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getActiveHalls_ShouldAttachImageReferencesWithOneQuery() {
+        // Arrange
+        List<SportsHallSummary> activeHalls = Arrays.asList(summaryOf(testHall1), summaryOf(testHall2));
+        when(sportsHallSpringRepository.findByStatusOrderByName(SportsHall.HallStatus.ACTIVE)).thenReturn(activeHalls);
+        when(sportsHallImageSpringRepository.findImageRefsByHallIds(List.of(1L, 2L))).thenReturn(List.of(
+                new SportsHallImageRef(1L, 10L, "cover"),
+                new SportsHallImageRef(1L, 11L, "interior")));
+
+        // Act
+        ResponseEntity<?> response = sportsHallRestController.getActiveHalls(null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(2, activeHalls.get(0).getImages().size());
+        assertEquals("/images/10", activeHalls.get(0).getImages().get(0).getUrl());
+        assertTrue(activeHalls.get(1).getImages().isEmpty());
+        verify(sportsHallImageSpringRepository, times(1)).findImageRefsByHallIds(anyCollection());
+    }
+
+    @Test
+    void deactivateHall_ShouldRemoveHallFromSuggestions() {
+        // Arrange
+        mockAuthentication(adminUser);
+        doReturn(Collections.singletonList(new SimpleGrantedAuthority("admin"))).when(authentication).getAuthorities();
+        when(sportsHallSpringRepository.findById(1L)).thenReturn(Optional.of(testHall1));
+        when(sportsHallSpringRepository.save(testHall1)).thenReturn(testHall1);
+
+        // Act
+        ResponseEntity<?> response = sportsHallRestController.deactivateHall(1L);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verify(hallNameSuggestionIndex).put(1L, "Sala Test 1", false);
+    }
+
+    @Test
+    void searchSportsHalls_WithNameCityAndSportWithoutMatches_ShouldFallBackToNameAndCity() {
+        // Arrange
+        List<SportsHallSummary> nameResults = Arrays.asList(summaryOf(testHall1));
+        when(sportsHallSpringRepository.search("Cluj-Napoca", "baschet", "Sala")).thenReturn(new ArrayList<>());
+        when(sportsHallSpringRepository.search("Cluj-Napoca", null, "Sala")).thenReturn(nameResults);
+
+        // Act
+        ResponseEntity<?> response = sportsHallRestController.searchSportsHalls(" Cluj-Napoca ", "Baschet", " Sala ");
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(nameResults, response.getBody());
+    }
+}
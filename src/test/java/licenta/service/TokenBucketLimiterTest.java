@@ -0,0 +1,83 @@
+package licenta.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong nanos = new AtomicLong(5 * SECOND);
+
+    @Test
+    void tryAcquire_ShouldAllowBurstUpToCapacity() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(3, 60, 4, 100, nanos::get);
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(1000, limiter.tryAcquire("1.2.3.4"));
+        assertEquals(0, limiter.tryAcquire("5.6.7.8"));
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillOverTime() {
+        // Arrange - un jeton pe secunda
+        TokenBucketLimiter limiter = new TokenBucketLimiter(1, 60, 4, 100, nanos::get);
+        limiter.tryAcquire("key");
+
+        // Act
+        nanos.addAndGet(SECOND / 2);
+        long halfway = limiter.tryAcquire("key");
+        nanos.addAndGet(SECOND / 2);
+        long refilled = limiter.tryAcquire("key");
+
+        // Assert
+        assertEquals(500, halfway);
+        assertEquals(0, refilled);
+    }
+
+    @Test
+    void tryAcquire_ShouldNotRefillAboveCapacity() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(2, 60, 4, 100, nanos::get);
+        limiter.tryAcquire("key");
+        nanos.addAndGet(60 * SECOND);
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertEquals(0, limiter.tryAcquire("key"));
+        assertTrue(limiter.tryAcquire("key") > 0);
+    }
+
+    @Test
+    void tryAcquire_ManyKeys_ShouldKeepMemoryBounded() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(5, 1, 4, 40, nanos::get);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        // Assert
+        assertTrue(limiter.size() <= 40);
+    }
+
+    @Test
+    void tryAcquire_ZeroCapacity_ShouldDisableLimiting() {
+        // Arrange
+        TokenBucketLimiter limiter = new TokenBucketLimiter(0, 0, 4, 100, nanos::get);
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.tryAcquire("key"));
+        }
+        assertEquals(0, limiter.size());
+    }
+}
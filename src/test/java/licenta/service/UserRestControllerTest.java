@@ -1,5 +1,7 @@
 package licenta.service;
 
+import licenta.jwtservice.RefreshTokenService;
+import licenta.jwtservice.UserDetailsCache;
 import licenta.model.User;
 import licenta.persistence.IUserSpringRepository;
 import licenta.service.UserRestController.ChangePasswordRequest;
@@ -33,6 +35,12 @@ public class UserRestControllerTest {
     @Mock
     private Authentication authentication;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
     private UserRestController userRestController;
 
     private User regularUser;
@@ -43,7 +51,7 @@ public class UserRestControllerTest {
 
     @BeforeEach
     void setUp() {
-        userRestController = new UserRestController(userSpringRepository, passwordEncoder);
+        userRestController = new UserRestController(userSpringRepository, passwordEncoder, userDetailsCache, refreshTokenService);
 
         // Configurăm utilizatorii de test
         regularUser = new User();
@@ -248,6 +256,8 @@ public class UserRestControllerTest {
         assertEquals("new_encoded_password", result.getPassword());
         verify(passwordEncoder).encode("new_plaintext_password");
         verify(userSpringRepository).save(regularUser);
+        verify(userDetailsCache).evict("user@example.com");
+        verify(userDetailsCache).evict("updated@example.com");
     }
 
     @Test
@@ -304,6 +314,8 @@ public class UserRestControllerTest {
         assertEquals("Utilizatorul a fost suspendat cu succes", responseBody.get("message"));
         assertEquals("suspended", regularUser.getAccountStatus());
         verify(userSpringRepository).save(regularUser);
+        verify(userDetailsCache).evict("user@example.com");
+        verify(refreshTokenService).revokeAll(1L);
     }
 
     @Test
@@ -345,6 +357,7 @@ public class UserRestControllerTest {
         assertEquals("Parola a fost schimbată cu succes", responseBody.get("message"));
         assertEquals("encoded_new_password", regularUser.getPassword());
         verify(userSpringRepository).save(regularUser);
+        verify(refreshTokenService).revokeAll(1L);
     }
 
     @Test
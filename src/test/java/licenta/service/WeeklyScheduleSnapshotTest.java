@@ -0,0 +1,120 @@
+package licenta.service;
+
+import licenta.model.Schedule;
+import licenta.model.SportsHall;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Weekly Schedule Snapshot Tests")
+public class WeeklyScheduleSnapshotTest {
+
+    @Test
+    @DisplayName("Should index opening hours by hall and day of week")
+    void shouldIndexOpeningHoursByHallAndDay() {
+        // Arrange
+        SportsHall hall = createSportsHall(1L);
+        List<Schedule> schedules = Arrays.asList(
+                createSchedule(hall, 1, "08:00", "22:00"),
+                createSchedule(hall, 6, "09:30", "14:00"));
+
+        // Act
+        WeeklyScheduleSnapshot snapshot = WeeklyScheduleSnapshot.of(schedules);
+
+        // Assert
+        assertEquals(2, snapshot.size());
+        assertTrue(snapshot.isOpen(1L, 1));
+        assertEquals(8 * 60, snapshot.openMinutes(1L, 1));
+        assertEquals(22 * 60, snapshot.closeMinutes(1L, 1));
+        assertEquals(9 * 60 + 30, snapshot.openMinutes(1L, 6));
+        assertFalse(snapshot.isOpen(1L, 2));
+        assertEquals(-1, snapshot.openMinutes(2L, 1));
+    }
+
+    @Test
+    @DisplayName("Should keep the first schedule when a day is defined twice")
+    void shouldKeepFirstScheduleForDuplicateDay() {
+        // Arrange
+        SportsHall hall = createSportsHall(3L);
+
+        // Act
+        WeeklyScheduleSnapshot snapshot = WeeklyScheduleSnapshot.of(Arrays.asList(
+                createSchedule(hall, 3, "10:00", "12:00"),
+                createSchedule(hall, 3, "07:00", "23:00")));
+
+        // Assert
+        assertEquals(1, snapshot.size());
+        assertEquals(10 * 60, snapshot.openMinutes(3L, 3));
+    }
+
+    @Test
+    @DisplayName("Should skip inactive and malformed schedules")
+    void shouldSkipInactiveAndMalformedSchedules() {
+        // Arrange
+        SportsHall hall = createSportsHall(4L);
+        Schedule inactive = createSchedule(hall, 1, "08:00", "22:00");
+        inactive.setIsActive(false);
+
+        // Act
+        WeeklyScheduleSnapshot snapshot = WeeklyScheduleSnapshot.of(Arrays.asList(
+                inactive,
+                createSchedule(hall, 2, "opt", "22:00"),
+                createSchedule(null, 3, "08:00", "22:00")));
+
+        // Assert
+        assertEquals(0, snapshot.size());
+        assertFalse(snapshot.isOpen(4L, 1));
+        assertFalse(snapshot.isOpen(4L, 2));
+    }
+
+    @Test
+    @DisplayName("Should resolve every hall and day for a large club")
+    void shouldResolveEveryEntryForManyHalls() {
+        // Arrange - 500 de sali x 7 zile
+        List<Schedule> schedules = new ArrayList<>();
+        for (long hallId = 1; hallId <= 500; hallId++) {
+            SportsHall hall = createSportsHall(hallId);
+            for (int day = 1; day <= 7; day++) {
+                schedules.add(createSchedule(hall, day, String.format("%02d:00", 6 + day), "22:00"));
+            }
+        }
+
+        // Act
+        WeeklyScheduleSnapshot snapshot = WeeklyScheduleSnapshot.of(schedules);
+
+        // Assert
+        assertEquals(3500, snapshot.size());
+        for (long hallId = 1; hallId <= 500; hallId++) {
+            for (int day = 1; day <= 7; day++) {
+                assertEquals((6 + day) * 60, snapshot.openMinutes(hallId, day));
+            }
+        }
+        assertFalse(snapshot.isOpen(501L, 1));
+    }
+
+    @Test
+    @DisplayName("Should handle an empty schedule list")
+    void shouldHandleEmptyList() {
+        WeeklyScheduleSnapshot snapshot = WeeklyScheduleSnapshot.of(Collections.emptyList());
+
+        assertEquals(0, snapshot.size());
+        assertFalse(snapshot.isOpen(1L, 1));
+    }
+
+    private SportsHall createSportsHall(Long id) {
+        SportsHall hall = new SportsHall();
+        hall.setId(id);
+        hall.setName("Sala " + id);
+        return hall;
+    }
+
+    private Schedule createSchedule(SportsHall hall, int dayOfWeek, String startTime, String endTime) {
+        return new Schedule(hall, dayOfWeek, startTime, endTime);
+    }
+}